@@ -0,0 +1,175 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.ContentSyncDao;
+import com.keralafarmers.agrinextai.database.KnowledgeDao;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.network.ContentChanges;
+import com.keralafarmers.agrinextai.network.ContentChangesParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Differential content sync of the knowledge base against a local stand-in content server
+ */
+@RunWith(AndroidJUnit4.class)
+public class ContentSyncServiceTest {
+
+    private static final String DATASET = ContentSyncService.DATASET_KNOWLEDGE;
+
+    private Context context;
+    private MockWebServer server;
+    private KnowledgeDao knowledgeDao;
+    private ContentSyncDao contentSyncDao;
+    private KnowledgeBaseService knowledgeBaseService;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new MockWebServer();
+        server.start();
+        ApiClient.setBaseUrl(context, server.url("/").toString());
+        AppDatabase database = AppDatabase.getInstance(context);
+        database.clearAllTables();
+        knowledgeDao = database.knowledgeDao();
+        contentSyncDao = database.contentSyncDao();
+        knowledgeBaseService = new KnowledgeBaseService(context);
+        // Drop the shared keyword index left by earlier tests
+        knowledgeBaseService.onChangesCommitted(new ContentChanges<>("", true, new ArrayList<>(), new int[0]));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.setBaseUrl(context, null);
+        server.shutdown();
+    }
+
+    @Test
+    public void incrementalChangesUpsertAndDelete() throws Exception {
+        sync(changes("t1", true, new int[0], entry(1, "mango"), entry(2, "banana")));
+
+        sync(changes("t2", false, new int[] {1}, entry(2, "plantain"), entry(3, "pepper")));
+
+        List<KnowledgeEntry> entries = knowledgeDao.getAllEntries();
+        assertEquals(2, entries.size());
+        assertEquals(2, entries.get(0).getId());
+        assertEquals("plantain", entries.get(0).getKeywords());
+        assertEquals(3, entries.get(1).getId());
+        // The patched in-memory index agrees with the table
+        assertNull(knowledgeBaseService.findEntry("mango season"));
+        assertNull(knowledgeBaseService.findEntry("banana price"));
+        assertEquals(2, knowledgeBaseService.findEntry("plantain wilt").getId());
+        assertEquals(3, knowledgeBaseService.findEntry("pepper vines").getId());
+    }
+
+    @Test
+    public void resetReplacesEverythingAndIsNotReseeded() throws Exception {
+        // First use stores the bundled entries
+        assertNotNull(knowledgeBaseService.findEntry("rice planting"));
+
+        sync(changes("t1", true, new int[0]));
+
+        assertTrue(knowledgeDao.getAllEntries().isEmpty());
+        assertNull(knowledgeBaseService.findEntry("rice planting"));
+        assertTrue(knowledgeDao.getAllEntries().isEmpty());
+    }
+
+    @Test
+    public void tokenIsStoredAndSentOnTheNextSync() throws Exception {
+        sync(changes("t1", true, new int[0], entry(1, "mango")));
+        assertEquals("t1", contentSyncDao.getToken(DATASET));
+
+        // Each sync uses a new service, so the token comes back from the database
+        sync(changes("t2", false, new int[0]));
+
+        RecordedRequest first = server.takeRequest();
+        RecordedRequest second = server.takeRequest();
+        assertNull(first.getRequestUrl().queryParameter("since"));
+        assertEquals("t1", second.getRequestUrl().queryParameter("since"));
+        assertEquals("t2", contentSyncDao.getToken(DATASET));
+    }
+
+    @Test
+    public void failedWriteRollsBackChangesAndToken() throws Exception {
+        sync(changes("t1", true, new int[0], entry(1, "mango")));
+        server.enqueue(response(changes("t2", false, new int[] {1}, entry(2, "banana"))));
+        boolean[] committed = {false};
+        ContentSyncService.ContentStore<KnowledgeEntry> failing = new ContentSyncService.ContentStore<KnowledgeEntry>() {
+            @Override
+            public void writeChanges(ContentChanges<KnowledgeEntry> changes) {
+                knowledgeBaseService.writeChanges(changes);
+                throw new IllegalStateException("disk full");
+            }
+
+            @Override
+            public void onChangesCommitted(ContentChanges<KnowledgeEntry> changes) {
+                committed[0] = true;
+            }
+        };
+
+        CachePolicy.KNOWLEDGE_BASE.invalidate(context, null);
+        assertThrows(IllegalStateException.class, () -> new ContentSyncService(context).syncIfDue(
+                ApiClient.getInstance(context), DATASET, CachePolicy.KNOWLEDGE_BASE,
+                ContentChangesParser.forKnowledge(), failing));
+
+        List<KnowledgeEntry> entries = knowledgeDao.getAllEntries();
+        assertEquals(1, entries.size());
+        assertEquals(1, entries.get(0).getId());
+        assertEquals("t1", contentSyncDao.getToken(DATASET));
+        assertFalse(committed[0]);
+        assertEquals(1, knowledgeBaseService.findEntry("mango season").getId());
+    }
+
+    private void sync(String body) throws IOException {
+        server.enqueue(response(body));
+        CachePolicy.KNOWLEDGE_BASE.invalidate(context, null);
+        new ContentSyncService(context).syncIfDue(ApiClient.getInstance(context), DATASET,
+                CachePolicy.KNOWLEDGE_BASE, ContentChangesParser.forKnowledge(), knowledgeBaseService);
+    }
+
+    private static MockResponse response(String body) {
+        return new MockResponse().setHeader("Cache-Control", "no-store").setBody(body);
+    }
+
+    private static String changes(String token, boolean reset, int[] deletes, String... upserts) {
+        StringBuilder json = new StringBuilder("{\"token\":\"").append(token)
+                .append("\",\"reset\":").append(reset).append(",\"upserts\":[");
+        for (int i = 0; i < upserts.length; i++) {
+            json.append(i > 0 ? "," : "").append(upserts[i]);
+        }
+        json.append("],\"deletes\":[");
+        for (int i = 0; i < deletes.length; i++) {
+            json.append(i > 0 ? "," : "").append(deletes[i]);
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String entry(int id, String keywords) {
+        return "{\"id\":" + id + ",\"category\":\"CROPS\",\"keywords\":\"" + keywords
+                + "\",\"response_en\":\"About " + keywords + "\"}";
+    }
+}
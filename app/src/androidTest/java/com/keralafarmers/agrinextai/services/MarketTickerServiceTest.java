@@ -0,0 +1,136 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.MarketPriceDao;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.network.ApiClient;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Live ticker against a local stand-in feed server: stored rows and the snapshot must agree
+ */
+@RunWith(AndroidJUnit4.class)
+public class MarketTickerServiceTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private Context context;
+    private MockWebServer server;
+    private MarketPriceDao marketPriceDao;
+    private MarketPriceService marketPriceService;
+    private MarketTickerService tickerService;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new MockWebServer();
+        server.start();
+        ApiClient.setBaseUrl(context, server.url("/").toString());
+        AppDatabase.getInstance(context).clearAllTables();
+        marketPriceDao = AppDatabase.getInstance(context).marketPriceDao();
+        marketPriceService = new MarketPriceService(context);
+        tickerService = new MarketTickerService(context, marketPriceService);
+
+        // A full refresh stores the rows and swaps in their snapshot
+        server.enqueue(new MockResponse().setBody("["
+                + price("A", 40.0) + ","
+                + price("B", 30.0) + "]"));
+        marketPriceService.refreshMarketPrices();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        tickerService.stop();
+        ApiClient.setBaseUrl(context, null);
+        server.shutdown();
+    }
+
+    @Test
+    public void tickUpdatesStoredRowAndSnapshotAlike() throws InterruptedException {
+        // No trend in the tick: change and trend are recalculated from the previous price
+        stream("{\"crop_name\":\"Pepper\",\"market_name\":\"Kochi\",\"district\":\"Ernakulam\","
+                + "\"quality_grade\":\"B\",\"price_per_kg\":33.0}");
+
+        MarketPrice stored = awaitStoredPrice("B", 33.0);
+        MarketPrice snapshotRow = marketPriceService.getMarketSnapshot().getRow(stored.getRowKey());
+
+        assertNotNull(snapshotRow);
+        assertEquals(33.0, snapshotRow.getPricePerKg(), 0);
+        assertEquals(30.0, stored.getPreviousPrice(), 0);
+        assertEquals(10.0, stored.getChangePercentage(), 1e-9);
+        assertEquals(stored.getChangePercentage(), snapshotRow.getChangePercentage(), 0);
+        assertEquals("UP", stored.getTrend());
+        assertEquals(stored.getTrend(), snapshotRow.getTrend());
+        assertEquals(stored.getModalPrice(), snapshotRow.getModalPrice(), 0);
+    }
+
+    @Test
+    public void tickOnlyMovesItsOwnGrade() throws InterruptedException {
+        stream("{\"crop_name\":\"Pepper\",\"market_name\":\"Kochi\",\"district\":\"Ernakulam\","
+                + "\"quality_grade\":\"B\",\"price_per_kg\":27.0,\"trend\":\"DOWN\",\"change_percentage\":-10.0}");
+
+        awaitStoredPrice("B", 27.0);
+
+        assertEquals(40.0, storedPrice("A").getPricePerKg(), 0);
+        MarketPrice gradeA = marketPriceService.getMarketSnapshot().getRow(storedPrice("A").getRowKey());
+        assertEquals(40.0, gradeA.getPricePerKg(), 0);
+    }
+
+    private void stream(String tick) {
+        server.enqueue(new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+                webSocket.send(tick);
+            }
+        }));
+        assertTrue(tickerService.start(ticks -> { }));
+    }
+
+    private MarketPrice awaitStoredPrice(String grade, double price) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            MarketPrice stored = storedPrice(grade);
+            if (stored != null && stored.getPricePerKg() == price) {
+                return stored;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Tick for grade " + grade + " was not stored");
+    }
+
+    private MarketPrice storedPrice(String grade) {
+        for (MarketPrice stored : marketPriceDao.getAllMarketPrices()) {
+            if (grade.equals(stored.getQualityGrade())) {
+                return stored;
+            }
+        }
+        return null;
+    }
+
+    private static String price(String grade, double pricePerKg) {
+        return "{\"crop_name\":\"Pepper\",\"market_name\":\"Kochi\",\"district\":\"Ernakulam\","
+                + "\"quality_grade\":\"" + grade + "\",\"price_per_kg\":" + pricePerKg
+                + ",\"trend\":\"STABLE\"}";
+    }
+}
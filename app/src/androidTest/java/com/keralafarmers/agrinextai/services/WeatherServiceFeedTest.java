@@ -0,0 +1,136 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.WeatherDao;
+import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * WeatherService against a local stand-in feed server
+ */
+@RunWith(AndroidJUnit4.class)
+public class WeatherServiceFeedTest {
+
+    private static final double LATITUDE = 9.9312; // Kochi
+    private static final double LONGITUDE = 76.2673;
+
+    private Context context;
+    private MockWebServer server;
+    private WeatherDao weatherDao;
+    private WeatherService weatherService;
+
+    @Before
+    public void setUp() throws IOException {
+        context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        server = new MockWebServer();
+        server.start();
+        ApiClient.setBaseUrl(context, server.url("/").toString());
+        weatherDao = AppDatabase.getInstance(context).weatherDao();
+        weatherDao.clearAllWeatherData();
+        weatherService = new WeatherService(context);
+        weatherService.invalidateWeather(LATITUDE, LONGITUDE);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ApiClient.setBaseUrl(context, null);
+        server.shutdown();
+    }
+
+    @Test
+    public void feedFailureIsReportedAndNothingIsStored() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        assertThrows(IOException.class, () -> weatherService.loadFarmWeatherWindow(LATITUDE, LONGITUDE));
+        assertEquals(0, weatherDao.getWeatherCount());
+    }
+
+    @Test
+    public void syncFailureIsReportedForRetry() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        assertThrows(IOException.class, () -> weatherService.refreshLastLocation());
+    }
+
+    @Test
+    public void daysMissingFromTheFeedAreNotFilledIn() throws IOException {
+        int today = EpochDay.today();
+        server.enqueue(new MockResponse().setBody(feed(today - 1, today, today + 1)));
+
+        List<Weather> window = weatherService.loadFarmWeatherWindow(LATITUDE, LONGITUDE);
+
+        assertEquals(3, window.size());
+        for (Weather weather : window) {
+            assertFalse(weather.isSimulated());
+        }
+        assertEquals(3, weatherDao.getWeatherCount());
+    }
+
+    @Test
+    public void evictedRowsAreRestoredAfterNotModified() throws IOException, InterruptedException {
+        int today = EpochDay.today();
+        server.enqueue(new MockResponse()
+                .setHeader("ETag", "\"w1\"")
+                .setHeader("Cache-Control", "no-cache")
+                .setBody(feed(today, today + 1)));
+        weatherService.loadFarmWeatherWindow(LATITUDE, LONGITUDE);
+        weatherDao.clearAllWeatherData();
+
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"w1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader("ETag", "\"w1\""));
+        List<Weather> window = weatherService.loadFarmWeatherWindow(LATITUDE, LONGITUDE);
+
+        server.takeRequest();
+        assertEquals("\"w1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals(2, window.size());
+        assertEquals(2, weatherDao.getWeatherCount());
+    }
+
+    @Test
+    public void offlineDaysAreSimulatedAndNotStored() throws IOException {
+        ApiClient.setBaseUrl(context, null);
+
+        List<Weather> window = weatherService.loadFarmWeatherWindow(LATITUDE, LONGITUDE);
+
+        assertEquals(11, window.size());
+        for (Weather weather : window) {
+            assertTrue(weather.isSimulated());
+        }
+        assertEquals(0, weatherDao.getWeatherCount());
+        assertEquals(0, server.getRequestCount());
+    }
+
+    private static String feed(int... days) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < days.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"epoch_day\":").append(days[i])
+                    .append(",\"temperature\":29.5,\"humidity\":78,\"rainfall\":4.2}");
+        }
+        return json.append(']').toString();
+    }
+}
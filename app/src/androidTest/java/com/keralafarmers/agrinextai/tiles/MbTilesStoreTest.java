@@ -0,0 +1,122 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Size bound, LRU eviction and shared closing of the MBTiles store
+ */
+@RunWith(AndroidJUnit4.class)
+public class MbTilesStoreTest {
+
+    private static final int ZOOM = 16;
+    private static final int TILE_BYTES = 1000;
+    private static final long MAX_BYTES = 10 * TILE_BYTES;
+
+    private File file;
+    private MbTilesStore store;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        file = new File(context.getCacheDir(), "test.mbtiles");
+        SQLiteDatabase.deleteDatabase(file);
+        store = new MbTilesStore(file, MAX_BYTES);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+        SQLiteDatabase.deleteDatabase(file);
+    }
+
+    @Test
+    public void tilesRoundTripInXyzRows() {
+        byte[] data = tile(7);
+        store.putTile(ZOOM, 46652, 30950, data);
+
+        assertArrayEquals(data, store.getTile(ZOOM, 46652, 30950));
+        assertTrue(store.hasTile(ZOOM, 46652, 30950));
+        assertNull(store.getTile(ZOOM, 46652, 30951));
+        assertEquals(TILE_BYTES, store.getSizeBytes());
+    }
+
+    @Test
+    public void replacingATileKeepsTheSizeExact() {
+        store.putTile(ZOOM, 1, 1, tile(1));
+        store.putTile(ZOOM, 1, 1, new byte[TILE_BYTES / 2]);
+
+        assertEquals(TILE_BYTES / 2, store.getSizeBytes());
+    }
+
+    @Test
+    public void leastRecentlyUsedTilesAreEvicted() throws InterruptedException {
+        for (int x = 0; x < 10; x++) {
+            store.putTile(ZOOM, x, 0, tile(x));
+            Thread.sleep(5);
+        }
+        // Reading tile 0 makes it the most recently used, though it was stored first
+        assertTrue(store.getTile(ZOOM, 0, 0) != null);
+        Thread.sleep(5);
+
+        store.putTile(ZOOM, 10, 0, tile(10));
+
+        // Over the limit: evicted down to 90% of it, oldest access first
+        assertEquals(9 * TILE_BYTES, store.getSizeBytes());
+        assertTrue(store.hasTile(ZOOM, 0, 0));
+        assertFalse(store.hasTile(ZOOM, 1, 0));
+        assertFalse(store.hasTile(ZOOM, 2, 0));
+        assertTrue(store.hasTile(ZOOM, 3, 0));
+        assertTrue(store.hasTile(ZOOM, 10, 0));
+    }
+
+    @Test
+    public void sizeSurvivesReopening() {
+        store.putTile(ZOOM, 1, 1, tile(1));
+        store.putTile(ZOOM, 2, 1, tile(2));
+        store.close();
+
+        store = new MbTilesStore(file, MAX_BYTES);
+
+        assertEquals(2 * TILE_BYTES, store.getSizeBytes());
+    }
+
+    @Test
+    public void closeWaitsForRetainedUsers() {
+        store.retain();
+        store.close();
+
+        // Still open for the user that retained it
+        store.putTile(ZOOM, 1, 1, tile(1));
+        assertTrue(store.hasTile(ZOOM, 1, 1));
+        assertThrows(IllegalStateException.class, () -> store.retain());
+
+        store.release();
+        assertThrows(IllegalStateException.class, () -> store.hasTile(ZOOM, 1, 1));
+    }
+
+    private static byte[] tile(int seed) {
+        byte[] data = new byte[TILE_BYTES];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (seed * 31 + i);
+        }
+        return data;
+    }
+}
@@ -72,6 +72,7 @@ public class ChatbotActivity extends AppCompatActivity {
         // Setup RecyclerView
         chatHistory = new ArrayList<>();
         chatAdapter = new ChatAdapter(chatHistory, this);
+        chatAdapter.setOnListChangedListener(itemCount -> scrollToBottom());
         recyclerViewChat.setLayoutManager(new LinearLayoutManager(this));
         recyclerViewChat.setAdapter(chatAdapter);
         
@@ -102,8 +103,7 @@ public class ChatbotActivity extends AppCompatActivity {
                 runOnUiThread(() -> {
                     chatHistory.clear();
                     chatHistory.addAll(chats);
-                    chatAdapter.notifyDataSetChanged();
-                    scrollToBottom();
+                    chatAdapter.setMessages(chatHistory);
                 });
             }
             
@@ -129,8 +129,7 @@ public class ChatbotActivity extends AppCompatActivity {
         welcomeChat.setLanguage(languageManager.getCurrentLanguage());
         
         chatHistory.add(welcomeChat);
-        chatAdapter.notifyItemInserted(chatHistory.size() - 1);
-        scrollToBottom();
+        chatAdapter.addMessage(welcomeChat);
     }
     
     /**
@@ -169,8 +168,7 @@ public class ChatbotActivity extends AppCompatActivity {
         userChat.setLanguage(languageManager.getCurrentLanguage());
         
         chatHistory.add(userChat);
-        chatAdapter.notifyItemInserted(chatHistory.size() - 1);
-        scrollToBottom();
+        chatAdapter.addMessage(userChat);
         
         // Show typing indicator
         showTypingIndicator();
@@ -190,8 +188,7 @@ public class ChatbotActivity extends AppCompatActivity {
                     botChat.setLanguage(languageManager.getCurrentLanguage());
                     
                     chatHistory.add(botChat);
-                    chatAdapter.notifyItemInserted(chatHistory.size() - 1);
-                    scrollToBottom();
+                    chatAdapter.addMessage(botChat);
                 });
             }
             
@@ -208,8 +205,7 @@ public class ChatbotActivity extends AppCompatActivity {
                     errorChat.setLanguage(languageManager.getCurrentLanguage());
                     
                     chatHistory.add(errorChat);
-                    chatAdapter.notifyItemInserted(chatHistory.size() - 1);
-                    scrollToBottom();
+                    chatAdapter.addMessage(errorChat);
                 });
             }
         });
@@ -242,8 +238,7 @@ public class ChatbotActivity extends AppCompatActivity {
         typingChat.setIsTyping(true);
         
         chatHistory.add(typingChat);
-        chatAdapter.notifyItemInserted(chatHistory.size() - 1);
-        scrollToBottom();
+        chatAdapter.addMessage(typingChat);
     }
     
     /**
@@ -254,18 +249,18 @@ public class ChatbotActivity extends AppCompatActivity {
         for (int i = chatHistory.size() - 1; i >= 0; i--) {
             if (chatHistory.get(i).isTyping()) {
                 chatHistory.remove(i);
-                chatAdapter.notifyItemRemoved(i);
                 break;
             }
         }
+        chatAdapter.removeTypingIndicator();
     }
     
     /**
      * Scroll to bottom of chat
      */
     private void scrollToBottom() {
-        if (chatHistory.size() > 0) {
-            recyclerViewChat.smoothScrollToPosition(chatHistory.size() - 1);
+        if (chatAdapter.getItemCount() > 0) {
+            recyclerViewChat.smoothScrollToPosition(chatAdapter.getItemCount() - 1);
         }
     }
     
@@ -2,6 +2,10 @@ package com.keralafarmers.agrinextai.activities;
 
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.widget.CheckBox;
+import android.widget.CompoundButton;
+import android.widget.TextView;
+import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -9,19 +13,31 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.adapters.GovernmentSchemeAdapter;
 import com.keralafarmers.agrinextai.models.GovernmentScheme;
+import com.keralafarmers.agrinextai.models.User;
+import com.keralafarmers.agrinextai.services.AuthService;
+import com.keralafarmers.agrinextai.services.SchemeService;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
+import com.keralafarmers.agrinextai.utils.SessionManager;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Activity for Government Schemes - displays available government farming schemes and subsidies
+ * Schemes the farmer qualifies for are listed first.
  */
 public class GovernmentSchemeActivity extends AppCompatActivity {
     
     private RecyclerView recyclerViewSchemes;
+    private TextView tvQualifySummary;
+    private CheckBox cbOrganic, cbTenant;
     private GovernmentSchemeAdapter adapter;
     private LanguageManager languageManager;
     private List<GovernmentScheme> schemeList;
+    private AuthService authService;
+    private SessionManager sessionManager;
+    private SchemeService schemeService;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -30,11 +46,15 @@ public class GovernmentSchemeActivity extends AppCompatActivity {
         // Initialize language manager
         languageManager = new LanguageManager(this);
         languageManager.applySavedLanguage();
+        authService = new AuthService(this);
+        sessionManager = authService.getSessionManager();
+        schemeService = new SchemeService(this);
         
         setContentView(R.layout.activity_government_scheme);
         
         setupToolbar();
         initializeViews();
+        loadFarmingPractices();
         loadSchemeData();
     }
     
@@ -55,6 +75,9 @@ public class GovernmentSchemeActivity extends AppCompatActivity {
      */
     private void initializeViews() {
         recyclerViewSchemes = findViewById(R.id.recyclerViewSchemes);
+        tvQualifySummary = findViewById(R.id.tvQualifySummary);
+        cbOrganic = findViewById(R.id.cbOrganic);
+        cbTenant = findViewById(R.id.cbTenant);
         
         // Setup RecyclerView
         schemeList = new ArrayList<>();
@@ -64,73 +87,62 @@ public class GovernmentSchemeActivity extends AppCompatActivity {
     }
     
     /**
-     * Load government scheme data
+     * Tick the farming practice boxes from the saved profile, then listen for changes
+     */
+    private void loadFarmingPractices() {
+        authService.getUserById(sessionManager.getUserId(), new AuthService.AuthCallback() {
+            @Override
+            public void onSuccess(User user) {
+                cbOrganic.setChecked(user.isOrganic());
+                cbTenant.setChecked(user.isTenant());
+                listenForPracticeChanges();
+            }
+            
+            @Override
+            public void onError(String error) {
+                listenForPracticeChanges();
+            }
+        });
+    }
+    
+    private void listenForPracticeChanges() {
+        CompoundButton.OnCheckedChangeListener listener = (button, checked) ->
+                schemeService.updateFarmingPractices(sessionManager.getUserId(), cbOrganic.isChecked(),
+                        cbTenant.isChecked(), schemeMatchCallback);
+        cbOrganic.setOnCheckedChangeListener(listener);
+        cbTenant.setOnCheckedChangeListener(listener);
+    }
+    
+    /**
+     * Load government schemes, the ones the user qualifies for first
      */
     private void loadSchemeData() {
-        List<GovernmentScheme> schemes = new ArrayList<>();
-        
-        // Sample government schemes for Kerala farmers
-        GovernmentScheme scheme1 = new GovernmentScheme();
-        scheme1.setId(1);
-        scheme1.setName("Pradhan Mantri Kisan Samman Nidhi (PM-KISAN)");
-        scheme1.setDescription("Financial support of Rs. 6000 per year to small and marginal farmers");
-        scheme1.setEligibility("Small and marginal farmers with cultivable land up to 2 hectares");
-        scheme1.setBenefit("Rs. 2000 every 4 months (Total Rs. 6000/year)");
-        scheme1.setApplicationProcess("Online application through PM-KISAN portal or local authorities");
-        scheme1.setContactInfo("Toll-free: 155261, Website: pmkisan.gov.in");
-        scheme1.setCategory("Direct Benefit Transfer");
-        schemes.add(scheme1);
-        
-        GovernmentScheme scheme2 = new GovernmentScheme();
-        scheme2.setId(2);
-        scheme2.setName("Kerala State Farming Equipment Subsidy");
-        scheme2.setDescription("Subsidy for purchasing modern farming equipment and machinery");
-        scheme2.setEligibility("All registered farmers in Kerala");
-        scheme2.setBenefit("Up to 50% subsidy on approved farming equipment");
-        scheme2.setApplicationProcess("Apply through Kerala Agriculture Department");
-        scheme2.setContactInfo("Kerala Agriculture Department: 0471-2301170");
-        scheme2.setCategory("Equipment Subsidy");
-        schemes.add(scheme2);
-        
-        GovernmentScheme scheme3 = new GovernmentScheme();
-        scheme3.setId(3);
-        scheme3.setName("Organic Farming Promotion Scheme");
-        scheme3.setDescription("Support for organic farming certification and practices");
-        scheme3.setEligibility("Farmers willing to adopt organic farming methods");
-        scheme3.setBenefit("Certification cost support + Rs. 20,000/hectare for 3 years");
-        scheme3.setApplicationProcess("Through authorized organic certification agencies");
-        scheme3.setContactInfo("Spices Board: 0484-2333610");
-        scheme3.setCategory("Organic Farming");
-        schemes.add(scheme3);
-        
-        GovernmentScheme scheme4 = new GovernmentScheme();
-        scheme4.setId(4);
-        scheme4.setName("Crop Insurance Scheme (PMFBY)");
-        scheme4.setDescription("Insurance coverage for crop loss due to natural calamities");
-        scheme4.setEligibility("All farmers including tenant farmers and sharecroppers");
-        scheme4.setBenefit("Insurance coverage up to sum insured amount");
-        scheme4.setApplicationProcess("Through banks or agriculture department");
-        scheme4.setContactInfo("Agriculture Insurance Company: 1800-180-1551");
-        scheme4.setCategory("Insurance");
-        schemes.add(scheme4);
-        
-        GovernmentScheme scheme5 = new GovernmentScheme();
-        scheme5.setId(5);
-        scheme5.setName("Kerala Coconut Development Board Subsidy");
-        scheme5.setDescription("Support for coconut farming and processing activities");
-        scheme5.setEligibility("Coconut farmers and coconut farmer producer organizations");
-        scheme5.setBenefit("Various subsidies for planting, processing, and marketing");
-        scheme5.setApplicationProcess("Through Coconut Development Board offices");
-        scheme5.setContactInfo("Coconut Development Board: 0484-2377266");
-        scheme5.setCategory("Crop Specific");
-        schemes.add(scheme5);
-        
-        // Update adapter data
-        schemeList.clear();
-        schemeList.addAll(schemes);
-        adapter.notifyDataSetChanged();
+        schemeService.matchSchemes(sessionManager.getUserId(), schemeMatchCallback);
     }
     
+    private final SchemeService.SchemeMatchCallback schemeMatchCallback = new SchemeService.SchemeMatchCallback() {
+        @Override
+        public void onSuccess(List<GovernmentScheme> eligible, List<GovernmentScheme> others) {
+            Set<Integer> eligibleIds = new HashSet<>();
+            for (GovernmentScheme scheme : eligible) {
+                eligibleIds.add(scheme.getId());
+            }
+            tvQualifySummary.setText(getString(R.string.scheme_qualify_summary,
+                    eligible.size(), eligible.size() + others.size()));
+            
+            // Update adapter data
+            schemeList.clear();
+            schemeList.addAll(eligible);
+            schemeList.addAll(others);
+            adapter.setEligibleIds(eligibleIds);
+        }
+        
+        @Override
+        public void onError(String error) {
+            Toast.makeText(GovernmentSchemeActivity.this, error, Toast.LENGTH_SHORT).show();
+        }
+    };
+    
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
@@ -1,7 +1,10 @@
 package com.keralafarmers.agrinextai.activities;
 
+import android.Manifest;
 import android.annotation.SuppressLint;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
@@ -11,10 +14,13 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.cardview.widget.CardView;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.services.AuthService;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
+import com.keralafarmers.agrinextai.workers.SyncScheduler;
 
 /**
  * Main Activity for Kerala Farm Assistant App
@@ -22,6 +28,8 @@ import com.keralafarmers.agrinextai.utils.LanguageManager;
  */
 public class MainActivity extends AppCompatActivity {
 
+    private static final int NOTIFICATION_PERMISSION_REQUEST_CODE = 1002;
+
     private AuthService authService;
     private LanguageManager languageManager;
 
@@ -51,6 +59,23 @@ public class MainActivity extends AppCompatActivity {
         initializeViews();
         setupClickListeners();
         updateWelcomeText();
+
+        // Keep weather and market caches warm in the background
+        SyncScheduler.schedule(this);
+        requestNotificationPermission();
+    }
+
+    /**
+     * Ask for notification permission on Android 13+ so price alerts can be shown
+     */
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this,
+                    new String[]{Manifest.permission.POST_NOTIFICATIONS},
+                    NOTIFICATION_PERMISSION_REQUEST_CODE);
+        }
     }
 
     /**
@@ -184,6 +209,7 @@ public class MainActivity extends AppCompatActivity {
      */
     private void handleLogout() {
         authService.logoutUser();
+        SyncScheduler.cancel(this);
         Toast.makeText(this, getString(R.string.logout_success), Toast.LENGTH_SHORT).show();
         navigateToLogin();
     }
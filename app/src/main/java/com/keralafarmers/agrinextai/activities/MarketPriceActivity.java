@@ -1,19 +1,46 @@
 package com.keralafarmers.agrinextai.activities;
 
 import android.os.Bundle;
+import android.text.format.DateUtils;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.CheckBox;
+import android.widget.EditText;
+import android.widget.RadioGroup;
+import android.widget.TextView;
 import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.SimpleItemAnimator;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.adapters.MarketPriceAdapter;
 import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+import com.keralafarmers.agrinextai.services.CachePolicy;
+import com.keralafarmers.agrinextai.services.DistrictRoutes;
+import com.keralafarmers.agrinextai.services.MarketOption;
 import com.keralafarmers.agrinextai.services.MarketPriceService;
+import com.keralafarmers.agrinextai.services.MarketPriceSnapshot;
+import com.keralafarmers.agrinextai.services.MarketTickerService;
+import com.keralafarmers.agrinextai.services.PriceAlertService;
+import com.keralafarmers.agrinextai.services.PriceForecast;
+import com.keralafarmers.agrinextai.services.PriceForecastService;
+import com.keralafarmers.agrinextai.services.PriceHistoryService;
+import com.keralafarmers.agrinextai.services.WeatherService;
+import com.keralafarmers.agrinextai.utils.EpochDay;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
+import com.keralafarmers.agrinextai.utils.SessionManager;
+import com.keralafarmers.agrinextai.views.SeriesChartView;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Market Price Activity for displaying current crop prices
@@ -21,10 +48,26 @@ import java.util.List;
  */
 public class MarketPriceActivity extends AppCompatActivity {
     
+    private static final long HISTORY_WINDOW_MILLIS = 365 * EpochDay.MILLIS_PER_DAY;
+    private static final int BEST_MARKET_COUNT = 3;
+    
     private RecyclerView recyclerViewPrices;
+    private TextView tvChartTitle;
+    private SeriesChartView chartPriceHistory;
+    private TextView tvBestMarkets;
+    private TextView tvPriceForecast;
+    private View scrollDistrictFilters;
+    private ChipGroup chipGroupDistricts;
+    private final Set<String> selectedDistricts = new LinkedHashSet<>();
+    private int sortOrder = MarketPriceSnapshot.SORT_CROP_NAME;
     private MarketPriceAdapter adapter;
     private MarketPriceService marketPriceService;
+    private MarketTickerService marketTickerService;
+    private PriceAlertService priceAlertService;
+    private SessionManager sessionManager;
     private LanguageManager languageManager;
+    // District of the farmer's last GPS fix, -1 if unknown; its markets are listed first
+    private int homeDistrict = -1;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -64,6 +107,33 @@ public class MarketPriceActivity extends AppCompatActivity {
         // Initialize adapter with empty list
         adapter = new MarketPriceAdapter(new ArrayList<>(), this);
         recyclerViewPrices.setAdapter(adapter);
+        adapter.setOnPriceClickListener(price -> {
+            showPriceHistory(price);
+            showBestMarkets(price);
+        });
+        adapter.setOnPriceLongClickListener(this::showAddAlertDialog);
+        
+        tvChartTitle = findViewById(R.id.tvChartTitle);
+        chartPriceHistory = findViewById(R.id.chartPriceHistory);
+        chartPriceHistory.setValueFormat("₹%.0f");
+        tvBestMarkets = findViewById(R.id.tvBestMarkets);
+        tvPriceForecast = findViewById(R.id.tvPriceForecast);
+        
+        scrollDistrictFilters = findViewById(R.id.scrollDistrictFilters);
+        chipGroupDistricts = findViewById(R.id.chipGroupDistricts);
+        ChipGroup chipGroupSort = findViewById(R.id.chipGroupSort);
+        chipGroupSort.setOnCheckedStateChangeListener((group, checkedIds) -> {
+            if (checkedIds.isEmpty()) {
+                return;
+            }
+            sortOrder = sortOrderFor(checkedIds.get(0));
+            applyFilters();
+        });
+        
+        // Ticker updates rebind rows in place; skip the change cross-fade
+        if (recyclerViewPrices.getItemAnimator() instanceof SimpleItemAnimator) {
+            ((SimpleItemAnimator) recyclerViewPrices.getItemAnimator()).setSupportsChangeAnimations(false);
+        }
     }
     
     /**
@@ -71,17 +141,42 @@ public class MarketPriceActivity extends AppCompatActivity {
      */
     private void initializeServices() {
         marketPriceService = new MarketPriceService(this);
+        marketTickerService = new MarketTickerService(getApplicationContext(), marketPriceService);
+        priceAlertService = new PriceAlertService(this);
+        sessionManager = new SessionManager(this);
+        homeDistrict = DistrictRoutes.indexOf(new WeatherService(this).getHomeDistrict());
+    }
+    
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Live ticks only while visible; no-op when no feed server is configured
+        marketTickerService.start(ticks -> adapter.applyTicks(ticks));
+    }
+    
+    @Override
+    protected void onStop() {
+        marketTickerService.stop();
+        super.onStop();
+    }
+    
+    @Override
+    protected void onDestroy() {
+        priceAlertService.cleanup();
+        super.onDestroy();
     }
     
     /**
      * Load market prices from service
      */
     private void loadMarketPrices() {
-        marketPriceService.getAllMarketPrices(new MarketPriceService.MarketPriceCallback() {
+        marketPriceService.loadMarketPrices(new CachePolicy.Callback<List<MarketPrice>>() {
             @Override
-            public void onSuccess(List<MarketPrice> prices) {
+            public void onData(List<MarketPrice> prices, long ageMillis, boolean refreshing, boolean stale) {
                 runOnUiThread(() -> {
-                    adapter.updatePrices(prices);
+                    showDistrictFilters();
+                    applyFilters();
+                    showDataAge(ageMillis, stale);
                 });
             }
             
@@ -96,6 +191,266 @@ public class MarketPriceActivity extends AppCompatActivity {
         });
     }
     
+    /**
+     * Show the prices matching the selected districts in the selected order
+     * Served from the in-memory snapshot, so changing a filter never reads the database.
+     */
+    private void applyFilters() {
+        MarketPriceSnapshot.Filter filter = new MarketPriceSnapshot.Filter()
+                .districts(selectedDistricts.toArray(new String[0]))
+                .sortBy(sortOrder);
+        marketPriceService.filterMarketPrices(filter, new MarketPriceService.MarketPriceCallback() {
+            @Override
+            public void onSuccess(List<MarketPrice> prices) {
+                runOnUiThread(() -> adapter.updatePrices(
+                        sortOrder == MarketPriceSnapshot.SORT_CROP_NAME ? homeDistrictFirst(prices) : prices));
+            }
+            
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> Toast.makeText(MarketPriceActivity.this,
+                        getString(R.string.error_loading_prices, error), Toast.LENGTH_SHORT).show());
+            }
+        });
+    }
+    
+    /**
+     * Rebuild the district chips from the districts present in the snapshot
+     */
+    private void showDistrictFilters() {
+        MarketPriceSnapshot snapshot = marketPriceService.getMarketSnapshot();
+        if (snapshot == null) {
+            return;
+        }
+        Set<String> districts = snapshot.getDistricts();
+        selectedDistricts.retainAll(districts);
+        chipGroupDistricts.removeAllViews();
+        for (String district : districts) {
+            Chip chip = new Chip(this);
+            chip.setText(district);
+            chip.setCheckable(true);
+            chip.setChecked(selectedDistricts.contains(district));
+            chip.setOnCheckedChangeListener((button, checked) -> {
+                if (checked) {
+                    selectedDistricts.add(district);
+                } else {
+                    selectedDistricts.remove(district);
+                }
+                applyFilters();
+            });
+            chipGroupDistricts.addView(chip);
+        }
+        scrollDistrictFilters.setVisibility(districts.size() > 1 ? View.VISIBLE : View.GONE);
+    }
+    
+    private static int sortOrderFor(int chipId) {
+        if (chipId == R.id.chipSortHigh) {
+            return MarketPriceSnapshot.SORT_PRICE_DESC;
+        } else if (chipId == R.id.chipSortLow) {
+            return MarketPriceSnapshot.SORT_PRICE_ASC;
+        } else if (chipId == R.id.chipSortRising) {
+            return MarketPriceSnapshot.SORT_CHANGE_DESC;
+        } else if (chipId == R.id.chipSortFalling) {
+            return MarketPriceSnapshot.SORT_CHANGE_ASC;
+        }
+        return MarketPriceSnapshot.SORT_CROP_NAME;
+    }
+    
+    /**
+     * Stable reorder putting the home district's markets first
+     */
+    private List<MarketPrice> homeDistrictFirst(List<MarketPrice> prices) {
+        if (homeDistrict < 0) {
+            return prices;
+        }
+        List<MarketPrice> ordered = new ArrayList<>(prices);
+        ordered.sort(Comparator.comparingInt(price ->
+                DistrictRoutes.indexOf(price.getDistrict()) == homeDistrict ? 0 : 1));
+        return ordered;
+    }
+    
+    /**
+     * Chart the last year of a series' prices above the list
+     * @param price Tapped price row
+     */
+    private void showPriceHistory(MarketPrice price) {
+        showPriceForecast(price);
+        long now = System.currentTimeMillis();
+        marketPriceService.getPriceHistoryService().getPriceHistory(price.getCropName(), price.getMarketName(),
+                price.getQualityGrade(), now - HISTORY_WINDOW_MILLIS, now, new PriceHistoryService.HistoryCallback() {
+            @Override
+            public void onSuccess(PriceHistoryService.PriceSeries series) {
+                // Epoch days keep x within float precision
+                long[] timestamps = series.getTimestamps();
+                double[] prices = series.getPrices();
+                float[] xs = new float[series.size()];
+                float[] ys = new float[series.size()];
+                for (int i = 0; i < xs.length; i++) {
+                    xs[i] = (float) (timestamps[i] / (double) EpochDay.MILLIS_PER_DAY);
+                    ys[i] = (float) prices[i];
+                }
+                runOnUiThread(() -> {
+                    tvChartTitle.setVisibility(View.VISIBLE);
+                    if (xs.length < 2) {
+                        tvChartTitle.setText(getString(R.string.price_history_empty, price.getCropName()));
+                        chartPriceHistory.setVisibility(View.GONE);
+                        return;
+                    }
+                    tvChartTitle.setText(getString(R.string.price_history_title, price.getCropName(),
+                            price.getMarketName()));
+                    chartPriceHistory.setVisibility(View.VISIBLE);
+                    chartPriceHistory.setSeries(xs, ys);
+                });
+            }
+            
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> Toast.makeText(MarketPriceActivity.this, error, Toast.LENGTH_SHORT).show());
+            }
+        });
+    }
+    
+    /**
+     * Show the Holt-Winters outlook for the tapped series under its history chart
+     * @param price Tapped price row
+     */
+    private void showPriceForecast(MarketPrice price) {
+        PriceForecastService.SeriesForecast forecast =
+                marketPriceService.getPriceForecastService().getForecast(price);
+        if (forecast == null || forecast.getShortTerm() == null || forecast.getShortTerm().getHorizon() == 0) {
+            tvPriceForecast.setVisibility(View.GONE);
+            return;
+        }
+        PriceForecast shortTerm = forecast.getShortTerm();
+        int last = shortTerm.getHorizon() - 1;
+        String text = getString(R.string.price_forecast_short, shortTerm.getHorizon(), shortTerm.getMean(last),
+                shortTerm.getLower(last), shortTerm.getUpper(last));
+        PriceForecast longTerm = forecast.getLongTerm();
+        if (longTerm != null && longTerm.getHorizon() > 0) {
+            text += '\n' + getString(R.string.price_forecast_long, longTerm.getHorizon(), longTerm.getFinalMean());
+        }
+        tvPriceForecast.setText(text);
+        tvPriceForecast.setVisibility(View.VISIBLE);
+    }
+    
+    /**
+     * List where the tapped crop fetches the most after transport from the farmer's district
+     * Uses the tapped market's district when the farmer's location is unknown.
+     * @param price Tapped price row
+     */
+    private void showBestMarkets(MarketPrice price) {
+        String origin = homeDistrict >= 0 ? DistrictRoutes.DISTRICTS[homeDistrict] : price.getDistrict();
+        if (DistrictRoutes.indexOf(origin) < 0) {
+            tvBestMarkets.setVisibility(View.GONE);
+            return;
+        }
+        marketPriceService.findBestMarkets(price.getCropName(), origin, BEST_MARKET_COUNT,
+                new MarketPriceService.BestMarketCallback() {
+            @Override
+            public void onSuccess(List<MarketOption> options) {
+                runOnUiThread(() -> {
+                    StringBuilder text = new StringBuilder(getString(R.string.best_markets_title, origin));
+                    if (options.isEmpty()) {
+                        text.append('\n').append(getString(R.string.best_markets_none, price.getCropName()));
+                    }
+                    for (int i = 0; i < options.size(); i++) {
+                        MarketOption option = options.get(i);
+                        text.append('\n').append(getString(R.string.best_market_line, i + 1,
+                                option.getMarketPrice().getMarketName(), option.getNetPricePerKg(),
+                                option.getTransportCostPerKg(), option.getDistanceKm()));
+                    }
+                    tvBestMarkets.setText(text);
+                    tvBestMarkets.setVisibility(View.VISIBLE);
+                });
+            }
+            
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> tvBestMarkets.setVisibility(View.GONE));
+            }
+        });
+    }
+    
+    /**
+     * Ask for an alert condition on the long-pressed crop and store it as a rule
+     * @param price Long-pressed price row; its district can narrow the rule
+     */
+    private void showAddAlertDialog(MarketPrice price) {
+        View form = getLayoutInflater().inflate(R.layout.dialog_price_alert, null);
+        RadioGroup rgCondition = form.findViewById(R.id.rgAlertCondition);
+        EditText etThreshold = form.findViewById(R.id.etAlertThreshold);
+        CheckBox cbDistrict = form.findViewById(R.id.cbAlertDistrict);
+        if (price.getDistrict() != null) {
+            cbDistrict.setText(getString(R.string.alert_rule_district, price.getDistrict()));
+        } else {
+            cbDistrict.setVisibility(View.GONE);
+        }
+        
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(getString(R.string.alert_rule_title, price.getCropName()))
+                .setView(form)
+                .setPositiveButton(R.string.save, null)
+                .setNegativeButton(R.string.cancel, null)
+                .create();
+        dialog.setOnShowListener(shown -> dialog.getButton(AlertDialog.BUTTON_POSITIVE).setOnClickListener(v -> {
+            double threshold;
+            try {
+                threshold = Double.parseDouble(etThreshold.getText().toString().trim());
+            } catch (NumberFormatException e) {
+                threshold = 0;
+            }
+            if (threshold <= 0) {
+                etThreshold.setError(getString(R.string.alert_rule_invalid));
+                return;
+            }
+            String district = cbDistrict.isChecked() ? price.getDistrict() : null;
+            addAlertRule(new PriceAlertRule(sessionManager.getUserId(), price.getCropName(), district,
+                    conditionFor(rgCondition.getCheckedRadioButtonId()), threshold));
+            dialog.dismiss();
+        }));
+        dialog.show();
+    }
+    
+    private void addAlertRule(PriceAlertRule rule) {
+        priceAlertService.addRule(rule, new PriceAlertService.RuleCallback() {
+            @Override
+            public void onSuccess(PriceAlertRule stored) {
+                runOnUiThread(() -> Toast.makeText(MarketPriceActivity.this, R.string.alert_rule_saved,
+                        Toast.LENGTH_SHORT).show());
+            }
+            
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> Toast.makeText(MarketPriceActivity.this, error, Toast.LENGTH_SHORT).show());
+            }
+        });
+    }
+    
+    private static String conditionFor(int radioButtonId) {
+        if (radioButtonId == R.id.rbAlertBelow) {
+            return PriceAlertRule.BELOW;
+        } else if (radioButtonId == R.id.rbAlertRise) {
+            return PriceAlertRule.RISE_PERCENT;
+        } else if (radioButtonId == R.id.rbAlertDrop) {
+            return PriceAlertRule.DROP_PERCENT;
+        }
+        return PriceAlertRule.ABOVE;
+    }
+    
+    /**
+     * Show how old the displayed prices are in the toolbar
+     * @param ageMillis Time since the prices were fetched
+     * @param stale Whether the last refresh failed
+     */
+    private void showDataAge(long ageMillis, boolean stale) {
+        if (getSupportActionBar() == null || ageMillis == Long.MAX_VALUE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        CharSequence age = DateUtils.getRelativeTimeSpanString(now - ageMillis, now, DateUtils.MINUTE_IN_MILLIS);
+        getSupportActionBar().setSubtitle(getString(stale ? R.string.updated_on_stale : R.string.updated_on, age));
+    }
+    
     /**
      * Load sample data for demonstration
      */
@@ -4,6 +4,11 @@ import android.content.Intent;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.CheckBox;
+import android.widget.Spinner;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
@@ -13,21 +18,32 @@ import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.adapters.NGOAdapter;
 import com.keralafarmers.agrinextai.models.NGO;
+import com.keralafarmers.agrinextai.services.NgoDirectoryService;
+import com.keralafarmers.agrinextai.services.WeatherService;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Activity for NGO Support - connects farmers with helpful NGOs
- * Provides list of NGOs with contact information and services
+ * Provides list of NGOs with contact information and services, nearest first
  */
 public class NGOSupportActivity extends AppCompatActivity implements NGOAdapter.OnNGOClickListener {
     
+    private static final int MAX_RESULTS = 20;
+    
     private RecyclerView recyclerViewNGOs;
     private FloatingActionButton fabRequestHelp;
     private NGOAdapter adapter;
     private LanguageManager languageManager;
     private List<NGO> ngoList;
+    private Spinner spinnerCategory;
+    private CheckBox cbVerifiedOnly;
+    private View layoutEmptyState;
+    private NgoDirectoryService ngoDirectoryService;
+    private double[] userLocation;
+    // Spinner position -> category, null for all
+    private final List<String> categories = new ArrayList<>();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -71,103 +87,77 @@ public class NGOSupportActivity extends AppCompatActivity implements NGOAdapter.
         
         // Setup FAB click listener
         fabRequestHelp.setOnClickListener(v -> requestHelp());
+        
+        spinnerCategory = findViewById(R.id.spinnerCategory);
+        cbVerifiedOnly = findViewById(R.id.cbVerifiedOnly);
+        layoutEmptyState = findViewById(R.id.layoutEmptyState);
+        cbVerifiedOnly.setOnCheckedChangeListener((button, checked) -> searchNearby());
+        
+        ngoDirectoryService = new NgoDirectoryService(this);
+        // The last weather fix, or central Kerala before the first one
+        userLocation = new WeatherService(this).getLastLocation();
     }
     
     /**
-     * Load NGO data
+     * Load the category filter, then the nearest organizations
      */
     private void loadNGOData() {
-        List<NGO> ngos = new ArrayList<>();
-        
-        // Kerala-based Agricultural NGOs
-        NGO ngo1 = new NGO();
-        ngo1.setId(1);
-        ngo1.setName("Kerala Farmer Producer Organization");
-        ngo1.setDescription("Supporting farmers with modern agricultural techniques, seed distribution, and market linkage");
-        ngo1.setServices("Seeds, Fertilizers, Training, Market Access");
-        ngo1.setLocation("Thiruvananthapuram, Kerala");
-        ngo1.setPhoneNumber("+91-9876543210");
-        ngo1.setEmail("info@keralafpo.org");
-        ngo1.setWebsite("https://keralafpo.org");
-        ngo1.setCategory("Agricultural Support");
-        ngo1.setRating(4.8f);
-        ngo1.setVerified(true);
-        ngos.add(ngo1);
-        
-        NGO ngo2 = new NGO();
-        ngo2.setId(2);
-        ngo2.setName("Organic Farming Foundation Kerala");
-        ngo2.setDescription("Promoting sustainable organic farming practices and certification support");
-        ngo2.setServices("Organic Certification, Training, Bio-fertilizers");
-        ngo2.setLocation("Kochi, Kerala");
-        ngo2.setPhoneNumber("+91-9876543211");
-        ngo2.setEmail("contact@offk.org");
-        ngo2.setWebsite("https://organickerala.org");
-        ngo2.setCategory("Organic Farming");
-        ngo2.setRating(4.6f);
-        ngo2.setVerified(true);
-        ngos.add(ngo2);
-        
-        NGO ngo3 = new NGO();
-        ngo3.setId(3);
-        ngo3.setName("Kerala Agricultural Development Society");
-        ngo3.setDescription("Financial assistance, crop insurance, and technical support for small farmers");
-        ngo3.setServices("Financial Aid, Insurance, Equipment");
-        ngo3.setLocation("Palakkad, Kerala");
-        ngo3.setPhoneNumber("+91-9876543212");
-        ngo3.setEmail("help@kads.org");
-        ngo3.setWebsite("https://kads.gov.in");
-        ngo3.setCategory("Financial Support");
-        ngo3.setRating(4.7f);
-        ngo3.setVerified(true);
-        ngos.add(ngo3);
-        
-        NGO ngo4 = new NGO();
-        ngo4.setId(4);
-        ngo4.setName("Spice Board Kerala Support");
-        ngo4.setDescription("Specialized support for spice farmers including cardamom, pepper, and turmeric");
-        ngo4.setServices("Spice Certification, Quality Testing, Export Support");
-        ngo4.setLocation("Idukki, Kerala");
-        ngo4.setPhoneNumber("+91-9876543213");
-        ngo4.setEmail("spices@kerala.gov.in");
-        ngo4.setWebsite("https://spiceboard.kerala.gov.in");
-        ngo4.setCategory("Spice Farming");
-        ngo4.setRating(4.5f);
-        ngo4.setVerified(true);
-        ngos.add(ngo4);
-        
-        NGO ngo5 = new NGO();
-        ngo5.setId(5);
-        ngo5.setName("Women Farmers Collective Kerala");
-        ngo5.setDescription("Empowering women farmers with training, microfinance, and collective farming");
-        ngo5.setServices("Women Training, Microfinance, Collective Farming");
-        ngo5.setLocation("Kozhikode, Kerala");
-        ngo5.setPhoneNumber("+91-9876543214");
-        ngo5.setEmail("women@farmerskerala.org");
-        ngo5.setWebsite("https://womenfarming.kerala.gov.in");
-        ngo5.setCategory("Women Empowerment");
-        ngo5.setRating(4.9f);
-        ngo5.setVerified(true);
-        ngos.add(ngo5);
-        
-        NGO ngo6 = new NGO();
-        ngo6.setId(6);
-        ngo6.setName("Kerala Climate Resilient Agriculture");
-        ngo6.setDescription("Climate-smart farming techniques and disaster recovery support");
-        ngo6.setServices("Climate Training, Disaster Recovery, Resilient Seeds");
-        ngo6.setLocation("Kannur, Kerala");
-        ngo6.setPhoneNumber("+91-9876543215");
-        ngo6.setEmail("climate@keralaagriculture.org");
-        ngo6.setWebsite("https://climateagriculture.kerala.gov.in");
-        ngo6.setCategory("Climate Support");
-        ngo6.setRating(4.4f);
-        ngo6.setVerified(true);
-        ngos.add(ngo6);
-        
-        // Update adapter data
-        ngoList.clear();
-        ngoList.addAll(ngos);
-        adapter.notifyDataSetChanged();
+        ngoDirectoryService.getCategories(new NgoDirectoryService.CategoryCallback() {
+            @Override
+            public void onSuccess(List<String> directoryCategories) {
+                categories.clear();
+                categories.add(null);
+                categories.addAll(directoryCategories);
+                List<String> labels = new ArrayList<>(categories.size());
+                labels.add(getString(R.string.ngo_all_categories));
+                labels.addAll(directoryCategories);
+                ArrayAdapter<String> spinnerAdapter = new ArrayAdapter<>(NGOSupportActivity.this,
+                        R.layout.spinner_item_black, labels);
+                spinnerAdapter.setDropDownViewResource(R.layout.spinner_dropdown_item_black);
+                spinnerCategory.setAdapter(spinnerAdapter);
+                // Selecting the first item fires the listener, which runs the first search
+                spinnerCategory.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+                    @Override
+                    public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                        searchNearby();
+                    }
+                    
+                    @Override
+                    public void onNothingSelected(AdapterView<?> parent) {
+                    }
+                });
+            }
+            
+            @Override
+            public void onError(String error) {
+                Toast.makeText(NGOSupportActivity.this, error, Toast.LENGTH_SHORT).show();
+                searchNearby();
+            }
+        });
+    }
+    
+    /**
+     * Show the organizations nearest the user's last location that match the filters
+     */
+    private void searchNearby() {
+        int position = spinnerCategory.getSelectedItemPosition();
+        String category = position > 0 && position < categories.size() ? categories.get(position) : null;
+        ngoDirectoryService.findNearest(userLocation[0], userLocation[1], category, cbVerifiedOnly.isChecked(),
+                MAX_RESULTS, new NgoDirectoryService.NgoListCallback() {
+                    @Override
+                    public void onSuccess(List<NGO> ngos) {
+                        ngoList.clear();
+                        ngoList.addAll(ngos);
+                        adapter.notifyDataSetChanged();
+                        layoutEmptyState.setVisibility(ngos.isEmpty() ? View.VISIBLE : View.GONE);
+                        recyclerViewNGOs.setVisibility(ngos.isEmpty() ? View.GONE : View.VISIBLE);
+                    }
+                    
+                    @Override
+                    public void onError(String error) {
+                        Toast.makeText(NGOSupportActivity.this, error, Toast.LENGTH_SHORT).show();
+                    }
+                });
     }
     
     /**
@@ -193,6 +183,9 @@ public class NGOSupportActivity extends AppCompatActivity implements NGOAdapter.
     
     @Override
     public void onCallClick(NGO ngo) {
+        if (!ngo.hasPhoneNumber()) {
+            return;
+        }
         Intent callIntent = new Intent(Intent.ACTION_DIAL);
         callIntent.setData(Uri.parse("tel:" + ngo.getPhoneNumber()));
         startActivity(callIntent);
@@ -200,6 +193,9 @@ public class NGOSupportActivity extends AppCompatActivity implements NGOAdapter.
     
     @Override
     public void onEmailClick(NGO ngo) {
+        if (!ngo.hasEmail()) {
+            return;
+        }
         Intent emailIntent = new Intent(Intent.ACTION_SENDTO);
         emailIntent.setData(Uri.parse("mailto:" + ngo.getEmail()));
         emailIntent.putExtra(Intent.EXTRA_SUBJECT, getString(R.string.inquiry_subject));
@@ -231,11 +227,18 @@ public class NGOSupportActivity extends AppCompatActivity implements NGOAdapter.
                 .setMessage("🏢 " + ngo.getDescription() + "\n\n" +
                            "📍 " + getString(R.string.location_label) + " " + ngo.getLocation() + "\n" +
                            "🛠️ " + getString(R.string.services_label) + " " + ngo.getServices() + "\n\n" +
-                           getString(R.string.choose_contact_method))
-                .setPositiveButton(getString(R.string.call_button), (dialog, which) -> onCallClick(ngo))
-                .setNeutralButton(getString(R.string.email_button), (dialog, which) -> onEmailClick(ngo))
-                .setNegativeButton(getString(R.string.website_button), (dialog, which) -> onWebsiteClick(ngo))
-                .show();
+                           getString(R.string.choose_contact_method));
+        // Offer only the contact methods the entry actually has
+        if (ngo.hasPhoneNumber()) {
+            builder.setPositiveButton(getString(R.string.call_button), (dialog, which) -> onCallClick(ngo));
+        }
+        if (ngo.hasEmail()) {
+            builder.setNeutralButton(getString(R.string.email_button), (dialog, which) -> onEmailClick(ngo));
+        }
+        if (ngo.hasWebsite()) {
+            builder.setNegativeButton(getString(R.string.website_button), (dialog, which) -> onWebsiteClick(ngo));
+        }
+        builder.show();
     }
     
     @Override
@@ -1,23 +1,62 @@
 package com.keralafarmers.agrinextai.activities;
 
+import android.Manifest;
+import android.content.pm.PackageManager;
 import android.os.Bundle;
+import android.util.SparseArray;
 import android.view.MenuItem;
+import android.view.View;
+import android.widget.Button;
+import android.widget.LinearLayout;
 import android.widget.TextView;
 import android.widget.Toast;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.cardview.widget.CardView;
+import androidx.core.content.ContextCompat;
+import com.google.android.gms.location.LocationServices;
 import com.keralafarmers.agrinextai.R;
+import com.keralafarmers.agrinextai.geometry.FarmOverlapIndex;
+import com.keralafarmers.agrinextai.geometry.GeoPolygon;
+import com.keralafarmers.agrinextai.geometry.PolygonArea;
+import com.keralafarmers.agrinextai.models.FarmBoundary;
+import com.keralafarmers.agrinextai.models.PlotIndexObservation;
+import com.keralafarmers.agrinextai.raster.FieldIndexSummary;
+import com.keralafarmers.agrinextai.services.CropMonitoringService;
+import com.keralafarmers.agrinextai.services.FarmBoundaryService;
+import com.keralafarmers.agrinextai.services.MapTileService;
+import com.keralafarmers.agrinextai.services.WeatherService;
+import com.keralafarmers.agrinextai.tiles.TilePrefetcher;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
+import com.keralafarmers.agrinextai.utils.SessionManager;
+import com.keralafarmers.agrinextai.views.BoundaryEditorView;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Activity for Satellite View - displays farm area layout and land measurement
  */
 public class SatelliteActivity extends AppCompatActivity {
     
+    // Side of the square a new boundary starts as, metres
+    private static final double NEW_BOUNDARY_SIDE_M = 60;
+    // An excluded area starts as this share of the boundary's extent
+    private static final double NEW_EXCLUSION_SHARE = 0.2;
+    
     private LanguageManager languageManager;
+    private SessionManager sessionManager;
+    private CropMonitoringService cropMonitoringService;
+    private FarmBoundaryService farmBoundaryService;
+    private MapTileService mapTileService;
+    private FieldIndexSummary fieldSummary;
+    private List<FarmBoundary> boundaries = new ArrayList<>();
+    private List<PlotIndexObservation> plotChanges = new ArrayList<>();
     private CardView cardAreaMeasurement, cardSoilHealth, cardCropMonitoring, cardWeatherData;
-    private TextView tvTotalArea, tvCultivableArea, tvSoilType, tvMoistureLevel;
+    private TextView tvTotalArea, tvCultivableArea, tvSoilType, tvMoistureLevel, tvCropChange;
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -29,10 +68,16 @@ public class SatelliteActivity extends AppCompatActivity {
         
         setContentView(R.layout.activity_satellite);
         
+        sessionManager = new SessionManager(this);
+        cropMonitoringService = new CropMonitoringService(this);
+        farmBoundaryService = new FarmBoundaryService(this);
+        mapTileService = new MapTileService(this);
+        
         setupToolbar();
         initializeViews();
         setupClickListeners();
         loadSampleData();
+        loadBoundaries();
     }
     
     /**
@@ -60,16 +105,14 @@ public class SatelliteActivity extends AppCompatActivity {
         tvCultivableArea = findViewById(R.id.tvCultivableArea);
         tvSoilType = findViewById(R.id.tvSoilType);
         tvMoistureLevel = findViewById(R.id.tvMoistureLevel);
+        tvCropChange = findViewById(R.id.tvCropChange);
     }
     
     /**
      * Setup click listeners
      */
     private void setupClickListeners() {
-        cardAreaMeasurement.setOnClickListener(v -> {
-            Toast.makeText(this, "Area measurement feature coming soon!", Toast.LENGTH_SHORT).show();
-            // TODO: Open satellite map for area measurement
-        });
+        cardAreaMeasurement.setOnClickListener(v -> openBoundaryEditor());
         
         cardSoilHealth.setOnClickListener(v -> {
             Toast.makeText(this, "Soil health analysis coming soon!", Toast.LENGTH_SHORT).show();
@@ -77,8 +120,14 @@ public class SatelliteActivity extends AppCompatActivity {
         });
         
         cardCropMonitoring.setOnClickListener(v -> {
-            Toast.makeText(this, "Crop monitoring feature coming soon!", Toast.LENGTH_SHORT).show();
-            // TODO: Show crop monitoring data
+            if (boundaries.isEmpty()) {
+                Toast.makeText(this, getString(R.string.satellite_needs_boundary), Toast.LENGTH_LONG).show();
+            } else if (fieldSummary != null) {
+                showCropHealth(fieldSummary);
+            } else {
+                Toast.makeText(this, getString(R.string.analyzing_field), Toast.LENGTH_SHORT).show();
+                analyzeFarm(true);
+            }
         });
         
         cardWeatherData.setOnClickListener(v -> {
@@ -95,7 +144,404 @@ public class SatelliteActivity extends AppCompatActivity {
         tvTotalArea.setText("2.5 Acres");
         tvCultivableArea.setText("2.1 Acres");
         tvSoilType.setText("Laterite Soil");
-        tvMoistureLevel.setText("65% (Good)");
+    }
+    
+    /**
+     * Load the user's surveyed boundaries and show their measured area
+     * The sample figures stay until the first boundary is saved, and no
+     * satellite analysis is shown before then.
+     */
+    private void loadBoundaries() {
+        farmBoundaryService.getBoundariesForUser(sessionManager.getUserId(),
+                new FarmBoundaryService.BoundaryListCallback() {
+            @Override
+            public void onSuccess(List<FarmBoundary> result) {
+                boundaries = result;
+                showArea();
+                if (boundaries.isEmpty()) {
+                    showNoBoundary();
+                    return;
+                }
+                analyzeFarm(false);
+                detectChanges();
+            }
+            
+            @Override
+            public void onError(String error) {
+                showNoBoundary();
+            }
+        });
+    }
+    
+    /**
+     * Empty state: without a boundary there is no farm to analyze
+     */
+    private void showNoBoundary() {
+        fieldSummary = null;
+        tvMoistureLevel.setText(getString(R.string.moisture_needs_boundary));
+        tvCropChange.setVisibility(View.GONE);
+    }
+    
+    /**
+     * Ingest any new satellite scenes into the plots' time stacks and flag unusual NDVI drops
+     */
+    private void detectChanges() {
+        cropMonitoringService.detectChanges(sessionManager.getUserId(), new CropMonitoringService.ChangeCallback() {
+            @Override
+            public void onSuccess(List<PlotIndexObservation> latest) {
+                plotChanges = latest;
+                boolean alert = false;
+                for (PlotIndexObservation observation : latest) {
+                    alert |= observation.isAlert();
+                }
+                tvCropChange.setVisibility(alert ? View.VISIBLE : View.GONE);
+            }
+            
+            @Override
+            public void onError(String error) {
+                tvCropChange.setVisibility(View.GONE);
+            }
+        });
+    }
+    
+    /**
+     * Describe the latest pass-to-pass change of the analyzed plot
+     */
+    private String describeChange() {
+        int plotId = boundaries.get(0).getId();
+        for (PlotIndexObservation observation : plotChanges) {
+            if (observation.getPlotId() != plotId) {
+                continue;
+            }
+            if (!observation.hasChange()) {
+                break;
+            }
+            StringBuilder text = new StringBuilder(getString(R.string.crop_change_detail,
+                    observation.getNdviChange()));
+            if (observation.isScored()) {
+                text.append(getString(R.string.crop_change_score, observation.getZScore()));
+            }
+            if (observation.isAlert()) {
+                text.append(getString(R.string.crop_change_warning));
+            }
+            return text.toString();
+        }
+        return getString(R.string.crop_change_none);
+    }
+    
+    /**
+     * Show total and cultivable area summed over the user's boundaries
+     */
+    private void showArea() {
+        if (boundaries.isEmpty()) {
+            return;
+        }
+        double area = 0, cultivable = 0;
+        for (FarmBoundary boundary : boundaries) {
+            area += boundary.getAreaM2();
+            cultivable += boundary.getCultivableAreaM2();
+        }
+        tvTotalArea.setText(getString(R.string.area_acres, FarmBoundaryService.toAcres(area)));
+        tvCultivableArea.setText(getString(R.string.area_acres, FarmBoundaryService.toAcres(cultivable)));
+    }
+    
+    /**
+     * @return The user's first boundary; only called once one is saved
+     */
+    private GeoPolygon getFarmPolygon() {
+        return FarmBoundaryService.getOuterRing(boundaries.get(0));
+    }
+    
+    /**
+     * Edit the farm boundary by dragging its corners
+     * Area and overlaps with other stored plots are re-measured on every move.
+     * A first boundary starts as a small square at the user's location.
+     */
+    private void openBoundaryEditor() {
+        farmBoundaryService.getOverlapIndex(new FarmBoundaryService.OverlapIndexCallback() {
+            @Override
+            public void onSuccess(FarmOverlapIndex index) {
+                if (!boundaries.isEmpty()) {
+                    showBoundaryEditor(index, getFarmPolygon());
+                    return;
+                }
+                if (ContextCompat.checkSelfPermission(SatelliteActivity.this,
+                        Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
+                    showBoundaryEditor(index, squareAtLastLocation());
+                    return;
+                }
+                LocationServices.getFusedLocationProviderClient(SatelliteActivity.this).getLastLocation()
+                        .addOnSuccessListener(SatelliteActivity.this, location -> showBoundaryEditor(index,
+                                location != null
+                                        ? square(location.getLatitude(), location.getLongitude(),
+                                                NEW_BOUNDARY_SIDE_M)
+                                        : squareAtLastLocation()))
+                        .addOnFailureListener(SatelliteActivity.this, e ->
+                                showBoundaryEditor(index, squareAtLastLocation()));
+            }
+            
+            @Override
+            public void onError(String error) {
+                Toast.makeText(SatelliteActivity.this, error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+    
+    /**
+     * Starting square at the last location the user viewed weather for
+     */
+    private GeoPolygon squareAtLastLocation() {
+        double[] location = new WeatherService(this).getLastLocation();
+        return square(location[0], location[1], NEW_BOUNDARY_SIDE_M);
+    }
+    
+    /**
+     * Axis-aligned square centred on a point
+     * @param side Side length in metres
+     */
+    private static GeoPolygon square(double latitude, double longitude, double side) {
+        double halfLat = Math.toDegrees(side / 2 / GeoPolygon.EARTH_RADIUS_M);
+        double halfLon = halfLat / Math.cos(Math.toRadians(latitude));
+        return new GeoPolygon(
+                new double[]{latitude - halfLat, latitude - halfLat, latitude + halfLat, latitude + halfLat},
+                new double[]{longitude - halfLon, longitude + halfLon, longitude + halfLon, longitude - halfLon});
+    }
+    
+    private void showBoundaryEditor(FarmOverlapIndex index, GeoPolygon initial) {
+        FarmBoundary stored = boundaries.isEmpty() ? null : boundaries.get(0);
+        int storedId = stored != null ? stored.getId() : -1;
+        List<GeoPolygon> exclusions = stored != null
+                ? FarmBoundaryService.getExclusions(stored) : new ArrayList<>();
+        
+        float density = getResources().getDisplayMetrics().density;
+        int padding = (int) (16 * density);
+        TextView tvStats = new TextView(this);
+        tvStats.setPadding(padding, padding, padding, 0);
+        BoundaryEditorView editor = new BoundaryEditorView(this);
+        editor.setPadding(padding, padding, padding, padding);
+        Button btnAddExclusion = new Button(this);
+        btnAddExclusion.setText(getString(R.string.boundary_add_exclusion));
+        Button btnRemoveExclusion = new Button(this);
+        btnRemoveExclusion.setText(getString(R.string.boundary_remove_exclusion));
+        LinearLayout exclusionButtons = new LinearLayout(this);
+        exclusionButtons.setOrientation(LinearLayout.HORIZONTAL);
+        exclusionButtons.setPadding(padding, 0, padding, 0);
+        exclusionButtons.addView(btnAddExclusion, new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+        exclusionButtons.addView(btnRemoveExclusion, new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, 1));
+        LinearLayout layout = new LinearLayout(this);
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.addView(tvStats);
+        layout.addView(exclusionButtons);
+        layout.addView(editor, new LinearLayout.LayoutParams(
+                LinearLayout.LayoutParams.MATCH_PARENT, (int) (320 * density)));
+        
+        // Neighbouring plots around the boundary, drawn for reference
+        SparseArray<GeoPolygon> neighbours = new SparseArray<>();
+        double margin = Math.max(initial.getMaxLat() - initial.getMinLat(),
+                initial.getMaxLon() - initial.getMinLon());
+        index.forEachInBox(initial.getMinLat() - margin, initial.getMinLon() - margin,
+                initial.getMaxLat() + margin, initial.getMaxLon() + margin, id -> {
+                    if (id != storedId) {
+                        neighbours.put(id, index.getBoundary(id));
+                    }
+                });
+        editor.setNeighbours(neighbours);
+        editor.setTileProvider(mapTileService);
+        editor.setBoundary(initial);
+        editor.setExclusions(exclusions);
+        
+        AlertDialog dialog = new AlertDialog.Builder(this)
+                .setTitle(getString(R.string.boundary_editor_title))
+                .setView(layout)
+                .setPositiveButton(getString(R.string.save), (d, which) ->
+                        saveBoundary(stored, editor.getBoundary(), editor.getExclusions()))
+                .setNegativeButton(getString(R.string.cancel), null)
+                .setNeutralButton(getString(R.string.map_download), (d, which) ->
+                        downloadMap(editor.getBoundary()))
+                .show();
+        Button btnSave = dialog.getButton(AlertDialog.BUTTON_POSITIVE);
+        editor.setOnBoundaryChangeListener((boundary, rings) ->
+                btnSave.setEnabled(showBoundaryStats(tvStats, editor, index, boundary, rings, storedId)));
+        btnAddExclusion.setOnClickListener(v -> {
+            GeoPolygon boundary = editor.getBoundary();
+            double side = NEW_EXCLUSION_SHARE * Math.min(
+                    Math.toRadians(boundary.getMaxLat() - boundary.getMinLat()) * GeoPolygon.EARTH_RADIUS_M,
+                    Math.toRadians(boundary.getMaxLon() - boundary.getMinLon())
+                            * Math.cos(Math.toRadians(boundary.getMinLat())) * GeoPolygon.EARTH_RADIUS_M);
+            List<GeoPolygon> rings = editor.getExclusions();
+            rings.add(square((boundary.getMinLat() + boundary.getMaxLat()) / 2,
+                    (boundary.getMinLon() + boundary.getMaxLon()) / 2, Math.max(1, side)));
+            editor.setExclusions(rings);
+            btnSave.setEnabled(showBoundaryStats(tvStats, editor, index, boundary, rings, storedId));
+        });
+        btnRemoveExclusion.setOnClickListener(v -> {
+            List<GeoPolygon> rings = editor.getExclusions();
+            if (rings.isEmpty()) {
+                return;
+            }
+            rings.remove(rings.size() - 1);
+            editor.setExclusions(rings);
+            btnSave.setEnabled(showBoundaryStats(tvStats, editor, index, editor.getBoundary(), rings, storedId));
+        });
+        btnSave.setEnabled(showBoundaryStats(tvStats, editor, index, initial, exclusions, storedId));
+    }
+    
+    /**
+     * Save the basemap around the farm for use without a connection
+     */
+    private void downloadMap(GeoPolygon farm) {
+        Toast.makeText(this, getString(R.string.map_download_started), Toast.LENGTH_SHORT).show();
+        mapTileService.prefetchArea(farm.getMinLat(), farm.getMinLon(), farm.getMaxLat(), farm.getMaxLon(),
+                new MapTileService.PrefetchCallback() {
+            @Override
+            public void onProgress(int done, int total) {
+                // A farm-sized area takes seconds; the start and end toasts are enough
+            }
+            
+            @Override
+            public void onSuccess(TilePrefetcher.Result result) {
+                Toast.makeText(SatelliteActivity.this, getString(R.string.map_download_done,
+                        result.downloaded, result.alreadyStored, result.failed), Toast.LENGTH_LONG).show();
+            }
+            
+            @Override
+            public void onError(String error) {
+                Toast.makeText(SatelliteActivity.this, error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+    
+    /**
+     * Show area and overlaps of the edited rings, or why they cannot be saved
+     * @return True if every ring is simple and the boundary can be saved
+     */
+    private boolean showBoundaryStats(TextView tvStats, BoundaryEditorView editor, FarmOverlapIndex index,
+                                      GeoPolygon boundary, List<GeoPolygon> exclusions, int storedId) {
+        boolean simple = PolygonArea.isSimple(boundary);
+        for (GeoPolygon exclusion : exclusions) {
+            simple &= PolygonArea.isSimple(exclusion);
+        }
+        editor.setInvalid(!simple);
+        if (!simple) {
+            // Areas of a crossed ring are meaningless; the corners have to be untangled first
+            editor.setOverlappingIds(null);
+            tvStats.setText(getString(R.string.boundary_self_intersecting));
+            return false;
+        }
+        double area = PolygonArea.geodesicArea(boundary);
+        double cultivable = PolygonArea.cultivableArea(boundary, exclusions);
+        List<FarmOverlapIndex.Overlap> overlaps = index.findOverlaps(boundary, storedId);
+        Set<Integer> overlappingIds = new HashSet<>();
+        double overlapArea = 0;
+        for (FarmOverlapIndex.Overlap overlap : overlaps) {
+            overlappingIds.add(overlap.getBoundaryId());
+            overlapArea += overlap.getAreaM2();
+        }
+        editor.setOverlappingIds(overlappingIds);
+        String stats = getString(R.string.boundary_stats,
+                FarmBoundaryService.toAcres(area), FarmBoundaryService.toAcres(cultivable));
+        String overlapText = overlaps.isEmpty()
+                ? getString(R.string.boundary_no_overlap)
+                : getString(R.string.boundary_overlap, overlaps.size(), overlapArea);
+        tvStats.setText(stats + "\n" + overlapText);
+        return true;
+    }
+    
+    private void saveBoundary(FarmBoundary stored, GeoPolygon outer, List<GeoPolygon> exclusions) {
+        FarmBoundary boundary = stored != null ? stored
+                : new FarmBoundary(sessionManager.getUserId(), getString(R.string.boundary_editor_title));
+        farmBoundaryService.saveBoundary(boundary, outer, exclusions, new FarmBoundaryService.BoundaryCallback() {
+            @Override
+            public void onSuccess(FarmBoundary saved) {
+                Toast.makeText(SatelliteActivity.this, getString(R.string.boundary_saved), Toast.LENGTH_SHORT).show();
+                fieldSummary = null;
+                loadBoundaries();
+            }
+            
+            @Override
+            public void onError(String error) {
+                Toast.makeText(SatelliteActivity.this, error, Toast.LENGTH_LONG).show();
+            }
+        });
+    }
+    
+    /**
+     * Compute NDVI and NDWI for the farm from local satellite tiles
+     * @param showResult True to open the crop health dialog when done
+     */
+    private void analyzeFarm(boolean showResult) {
+        GeoPolygon farm = getFarmPolygon();
+        cropMonitoringService.analyzeField(farm.getLatitudes(), farm.getLongitudes(),
+                new CropMonitoringService.FieldCallback() {
+            @Override
+            public void onSuccess(FieldIndexSummary summary) {
+                fieldSummary = summary;
+                showMoisture(summary);
+                if (showResult) {
+                    showCropHealth(summary);
+                }
+            }
+            
+            @Override
+            public void onError(String error) {
+                tvMoistureLevel.setText("--");
+                if (showResult) {
+                    Toast.makeText(SatelliteActivity.this, error, Toast.LENGTH_LONG).show();
+                }
+            }
+        });
+    }
+    
+    /**
+     * Show canopy moisture from the mean NDWI
+     * Values from the generated sample scene are labelled as a demo.
+     */
+    private void showMoisture(FieldIndexSummary summary) {
+        double ndwi = summary.getMeanNdwi();
+        if (Double.isNaN(ndwi)) {
+            tvMoistureLevel.setText("--");
+            return;
+        }
+        int level;
+        if (ndwi >= 0.2) {
+            level = R.string.moisture_good;
+        } else if (ndwi >= 0) {
+            level = R.string.moisture_moderate;
+        } else {
+            level = R.string.moisture_low;
+        }
+        String text = getString(R.string.moisture_level_value, getString(level), ndwi);
+        tvMoistureLevel.setText(summary.isSample() ? getString(R.string.moisture_level_demo, text) : text);
+    }
+    
+    /**
+     * Show the NDVI vigour breakdown of the farm
+     */
+    private void showCropHealth(FieldIndexSummary summary) {
+        String message;
+        if (summary.getPixelCount() == 0) {
+            message = getString(R.string.crop_health_unavailable);
+        } else {
+            message = getString(R.string.crop_health_summary,
+                    summary.getMeanNdvi(),
+                    percent(summary.getClassFraction(FieldIndexSummary.CLASS_DENSE)),
+                    percent(summary.getClassFraction(FieldIndexSummary.CLASS_MODERATE)),
+                    percent(summary.getClassFraction(FieldIndexSummary.CLASS_SPARSE)),
+                    percent(summary.getClassFraction(FieldIndexSummary.CLASS_BARE)),
+                    summary.getPixelCount())
+                    + (summary.isSample() ? getString(R.string.crop_health_demo) : describeChange());
+        }
+        new AlertDialog.Builder(this)
+                .setTitle(getString(R.string.crop_health_title))
+                .setMessage(message)
+                .setPositiveButton(android.R.string.ok, null)
+                .show();
+    }
+    
+    private static int percent(double fraction) {
+        return (int) Math.round(fraction * 100);
     }
     
     @Override
@@ -3,22 +3,32 @@ package com.keralafarmers.agrinextai.activities;
 import android.content.Intent;
 import android.os.Bundle;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.appcompat.widget.Toolbar;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.chip.Chip;
+import com.google.android.material.chip.ChipGroup;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.zxing.integration.android.IntentIntegrator;
 import com.google.zxing.integration.android.IntentResult;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.adapters.HarvestCardAdapter;
+import com.keralafarmers.agrinextai.database.HarvestCardDao;
+import com.keralafarmers.agrinextai.database.HarvestCardQuery;
 import com.keralafarmers.agrinextai.models.HarvestCard;
 import com.keralafarmers.agrinextai.services.TraceabilityService;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Traceability Activity for managing harvest cards and QR codes
@@ -26,7 +36,16 @@ import java.util.List;
  */
 public class TraceabilityActivity extends AppCompatActivity {
     
+    private static final int USER_ID = 1;
+    private static final int BROWSE_PAGE_SIZE = 200;
+    
     private RecyclerView recyclerViewCards;
+    private View scrollCropFacets;
+    private View scrollGradeFacets;
+    private ChipGroup chipGroupCrops;
+    private ChipGroup chipGroupGrades;
+    private final Set<String> selectedCrops = new LinkedHashSet<>();
+    private final Set<String> selectedGrades = new LinkedHashSet<>();
     private FloatingActionButton fabAddCard;
     private MaterialButton btnScanQr;
     private HarvestCardAdapter adapter;
@@ -70,6 +89,10 @@ public class TraceabilityActivity extends AppCompatActivity {
         recyclerViewCards = findViewById(R.id.recyclerViewCards);
         fabAddCard = findViewById(R.id.fabAddCard);
         btnScanQr = findViewById(R.id.btnScanQr);
+        scrollCropFacets = findViewById(R.id.scrollCropFacets);
+        scrollGradeFacets = findViewById(R.id.scrollGradeFacets);
+        chipGroupCrops = findViewById(R.id.chipGroupCrops);
+        chipGroupGrades = findViewById(R.id.chipGroupGrades);
         
         // Setup RecyclerView
         harvestCards = new ArrayList<>();
@@ -95,13 +118,13 @@ public class TraceabilityActivity extends AppCompatActivity {
      * Load harvest cards from service
      */
     private void loadHarvestCards() {
-        traceabilityService.getAllHarvestCards(1, new TraceabilityService.HarvestCardCallback() {
+        traceabilityService.getAllHarvestCards(USER_ID, new TraceabilityService.HarvestCardCallback() {
             @Override
             public void onSuccess(List<HarvestCard> cards) {
                 runOnUiThread(() -> {
                     harvestCards.clear();
                     harvestCards.addAll(cards);
-                    adapter.notifyDataSetChanged();
+                    browseHarvestCards();
                 });
             }
             
@@ -116,6 +139,77 @@ public class TraceabilityActivity extends AppCompatActivity {
         });
     }
     
+    /**
+     * Show the cards matching the selected facets and refresh the facet chips
+     * Cards are looked up in the loaded list, which QR lookups also use.
+     */
+    private void browseHarvestCards() {
+        HarvestCardQuery query = new HarvestCardQuery(USER_ID).crops(selectedCrops).grades(selectedGrades);
+        traceabilityService.browseHarvestCards(query, 0, BROWSE_PAGE_SIZE,
+                new TraceabilityService.FacetedHarvestCallback() {
+            @Override
+            public void onSuccess(List<HarvestCardDao.HarvestCardSummary> page, HarvestCardQuery.FacetCounts facets) {
+                runOnUiThread(() -> {
+                    Map<Integer, HarvestCard> cardsById = new HashMap<>(harvestCards.size() * 2);
+                    for (HarvestCard card : harvestCards) {
+                        cardsById.put(card.getId(), card);
+                    }
+                    List<HarvestCard> shown = new ArrayList<>(page.size());
+                    for (HarvestCardDao.HarvestCardSummary summary : page) {
+                        HarvestCard card = cardsById.get(summary.id);
+                        if (card != null) {
+                            shown.add(card);
+                        }
+                    }
+                    adapter.updateHarvestCards(shown);
+                    showFacetChips(scrollCropFacets, chipGroupCrops, facets.getCrops(), selectedCrops);
+                    showFacetChips(scrollGradeFacets, chipGroupGrades, facets.getGrades(), selectedGrades);
+                });
+            }
+            
+            @Override
+            public void onError(String error) {
+                runOnUiThread(() -> {
+                    Toast.makeText(TraceabilityActivity.this, "Error loading cards: " + error, Toast.LENGTH_SHORT).show();
+                    adapter.updateHarvestCards(harvestCards);
+                });
+            }
+        });
+    }
+    
+    /**
+     * Rebuild one facet's chips; toggling a chip re-runs the browse query
+     * @param counts Value counts, ignoring this facet's own selection
+     * @param selected Selected values of this facet, updated on toggle
+     */
+    private void showFacetChips(View container, ChipGroup group, Map<String, Integer> counts, Set<String> selected) {
+        group.removeAllViews();
+        Map<String, Integer> values = new LinkedHashMap<>(counts);
+        for (String value : selected) {
+            if (!values.containsKey(value)) {
+                values.put(value, 0);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : values.entrySet()) {
+            String value = entry.getKey();
+            Chip chip = new Chip(this);
+            chip.setText(getString(R.string.harvest_facet_chip, value, entry.getValue()));
+            chip.setCheckable(true);
+            chip.setChecked(selected.contains(value));
+            chip.setOnCheckedChangeListener((button, checked) -> {
+                if (checked) {
+                    selected.add(value);
+                } else {
+                    selected.remove(value);
+                }
+                browseHarvestCards();
+            });
+            group.addView(chip);
+        }
+        // A single value with nothing selected would not narrow anything
+        container.setVisibility(values.size() > 1 || !selected.isEmpty() ? View.VISIBLE : View.GONE);
+    }
+    
     /**
      * Load sample data for demonstration
      */
@@ -181,7 +275,7 @@ public class TraceabilityActivity extends AppCompatActivity {
         
         harvestCards.clear();
         harvestCards.addAll(sampleCards);
-        adapter.notifyDataSetChanged();
+        adapter.updateHarvestCards(harvestCards);
     }
     
     /**
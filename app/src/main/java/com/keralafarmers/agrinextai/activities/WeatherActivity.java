@@ -4,8 +4,7 @@ import android.Manifest;
 import android.content.pm.PackageManager;
 import android.location.Location;
 import android.os.Bundle;
-import android.os.Handler;
-import android.os.Looper;
+import android.text.format.DateUtils;
 import android.view.View;
 import android.widget.ProgressBar;
 import android.widget.TextView;
@@ -23,14 +22,27 @@ import com.google.android.gms.location.LocationServices;
 import com.google.android.material.button.MaterialButton;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.adapters.WeatherAdapter;
+import com.keralafarmers.agrinextai.models.DiseaseRiskScore;
+import com.keralafarmers.agrinextai.models.IrrigationEvent;
+import com.keralafarmers.agrinextai.models.IrrigationPlan;
 import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.services.AIAdvisorService;
+import com.keralafarmers.agrinextai.services.CachePolicy;
+import com.keralafarmers.agrinextai.services.DiseaseRiskService;
+import com.keralafarmers.agrinextai.services.DistrictLocator;
+import com.keralafarmers.agrinextai.services.IrrigationService;
 import com.keralafarmers.agrinextai.services.WeatherService;
+import com.keralafarmers.agrinextai.utils.EpochDay;
 import com.keralafarmers.agrinextai.utils.LanguageManager;
+import com.keralafarmers.agrinextai.utils.SessionManager;
+import com.keralafarmers.agrinextai.views.SeriesChartView;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Locale;
 
 /**
@@ -40,33 +52,33 @@ import java.util.Locale;
 public class WeatherActivity extends AppCompatActivity {
     
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 1001;
-    private static final long REFRESH_INTERVAL_MS = 60 * 1000L; // 1 minute (tweak as needed)
+    private static final int TEMPERATURE_TREND_DAYS = 365;
     
     // UI Components
     private TextView tvWeatherIcon, tvCurrentTemp, tvWeatherDescription, tvLocation, tvCurrentDate;
     private TextView tvHumidity, tvRainfall, tvWindSpeed, tvWeatherAdvice;
     private RecyclerView rvPastWeather, rvFutureWeather;
-    private MaterialButton btnRefresh;
+    private MaterialButton btnRefresh, btnLogIrrigation;
+    private SeriesChartView chartTemperature;
     private ProgressBar progressBar;
     
     // Services and Adapters
     private WeatherService weatherService;
+    private AIAdvisorService aiAdvisorService;
+    private IrrigationService irrigationService;
+    private SessionManager sessionManager;
     private LanguageManager languageManager;
     private WeatherAdapter pastWeatherAdapter, futureWeatherAdapter;
     private FusedLocationProviderClient fusedLocationClient;
-    private Handler autoRefreshHandler;
-    private final Runnable autoRefreshRunnable = new Runnable() {
-        @Override
-        public void run() {
-            refreshWeatherData();
-            autoRefreshHandler.postDelayed(this, REFRESH_INTERVAL_MS);
-        }
-    };
     
     // Data
     private List<Weather> pastWeatherList, futureWeatherList;
     private double currentLatitude = 10.8505; // Default to Kerala coordinates
     private double currentLongitude = 76.2711;
+    private String currentAdvice = "";
+    private String diseaseAdvice = "";
+    private String irrigationAdvice = "";
+    private final List<IrrigationPlan> dueIrrigation = new ArrayList<>();
     
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -101,12 +113,17 @@ public class WeatherActivity extends AppCompatActivity {
         rvPastWeather = findViewById(R.id.rvPastWeather);
         rvFutureWeather = findViewById(R.id.rvFutureWeather);
         btnRefresh = findViewById(R.id.btnRefresh);
+        btnLogIrrigation = findViewById(R.id.btnLogIrrigation);
+        chartTemperature = findViewById(R.id.chartTemperature);
+        chartTemperature.setValueFormat("%.1f°C");
         progressBar = findViewById(R.id.progressBar);
         
         // Initialize services
         weatherService = new WeatherService(this);
+        aiAdvisorService = new AIAdvisorService(this);
+        irrigationService = new IrrigationService(this);
+        sessionManager = new SessionManager(this);
         fusedLocationClient = LocationServices.getFusedLocationProviderClient(this);
-        autoRefreshHandler = new Handler(Looper.getMainLooper());
         
         // Initialize data lists
         pastWeatherList = new ArrayList<>();
@@ -114,6 +131,7 @@ public class WeatherActivity extends AppCompatActivity {
         
         // Set click listeners
         btnRefresh.setOnClickListener(v -> refreshWeatherData());
+        btnLogIrrigation.setOnClickListener(v -> showLogIrrigationDialog());
         
         // Set current date
         SimpleDateFormat dateFormat = new SimpleDateFormat("EEEE, MMM d", Locale.getDefault());
@@ -190,15 +208,24 @@ public class WeatherActivity extends AppCompatActivity {
     
     /**
      * Load weather data from service
+     * Stale days are shown at once, but the trend, disease and irrigation loads
+     * read what the refresh stores, so they start once, from the last delivery.
      */
     private void loadWeatherData() {
         showLoading(true);
         
-        weatherService.getWeatherData(currentLatitude, currentLongitude, new WeatherService.WeatherCallback() {
+        weatherService.loadWeather(currentLatitude, currentLongitude, new CachePolicy.Callback<List<Weather>>() {
             @Override
-            public void onSuccess(List<Weather> weatherList) {
+            public void onData(List<Weather> weatherList, long ageMillis, boolean refreshing, boolean stale) {
                 showLoading(false);
                 processWeatherData(weatherList);
+                showDataAge(ageMillis, stale);
+                if (refreshing) {
+                    return; // stale days; the dependent loads wait for the refreshed window
+                }
+                loadTemperatureTrend();
+                loadDiseaseRisks();
+                loadIrrigationPlans();
             }
             
             @Override
@@ -209,6 +236,24 @@ public class WeatherActivity extends AppCompatActivity {
         });
     }
     
+    /**
+     * Chart every cached day's temperature for the current location
+     */
+    private void loadTemperatureTrend() {
+        weatherService.getTemperatureSeries(currentLatitude, currentLongitude, TEMPERATURE_TREND_DAYS,
+                new WeatherService.SeriesCallback() {
+            @Override
+            public void onSuccess(float[] epochDays, float[] temperatures) {
+                chartTemperature.setSeries(epochDays, temperatures);
+            }
+            
+            @Override
+            public void onError(String error) {
+                chartTemperature.setSeries(null, null);
+            }
+        });
+    }
+    
     /**
      * Process weather data and update UI
      * @param weatherList Complete weather list (past + current + future)
@@ -222,31 +267,16 @@ public class WeatherActivity extends AppCompatActivity {
         pastWeatherList.clear();
         futureWeatherList.clear();
         
-        // Find current weather (middle of the list)
-        int currentIndex = 5; // Past 5 days + current day = index 5
+        // The feed may leave days out, so split the window by date rather than position
+        int today = EpochDay.today();
         Weather currentWeather = null;
-        
-        if (weatherList.size() > currentIndex) {
-            currentWeather = weatherList.get(currentIndex);
-            
-            // Past weather (first 5 items)
-            for (int i = 0; i < 5 && i < weatherList.size(); i++) {
-                pastWeatherList.add(weatherList.get(i));
-            }
-            
-            // Future weather (after current weather)
-            for (int i = currentIndex + 1; i < weatherList.size(); i++) {
-                futureWeatherList.add(weatherList.get(i));
-            }
-        } else {
-            // Fallback if data structure is different
-            currentWeather = weatherList.get(0);
-            for (int i = 1; i < weatherList.size(); i++) {
-                if (i <= 5) {
-                    pastWeatherList.add(weatherList.get(i));
-                } else {
-                    futureWeatherList.add(weatherList.get(i));
-                }
+        for (Weather weather : weatherList) {
+            if (weather.getEpochDay() < today) {
+                pastWeatherList.add(weather);
+            } else if (weather.getEpochDay() == today) {
+                currentWeather = weather;
+            } else {
+                futureWeatherList.add(weather);
             }
         }
         
@@ -268,7 +298,9 @@ public class WeatherActivity extends AppCompatActivity {
         tvWeatherIcon.setText(currentWeather.getWeatherIcon());
         tvCurrentTemp.setText(String.format(Locale.getDefault(), "%.0f°C", currentWeather.getTemperature()));
         tvWeatherDescription.setText(currentWeather.getWeatherDescription());
-        tvLocation.setText(currentWeather.getLocation());
+        // The fix is more precise than the label cached with the weather cell
+        tvLocation.setText(DistrictLocator.describe(this, currentLatitude, currentLongitude,
+                currentWeather.getLocation()));
         
         tvHumidity.setText(String.format(Locale.getDefault(), "%d%%", currentWeather.getHumidity()));
         
@@ -281,8 +313,148 @@ public class WeatherActivity extends AppCompatActivity {
         tvWindSpeed.setText(String.format(Locale.getDefault(), "%.0f km/h", currentWeather.getWindSpeed()));
         
         // Set weather advice
-        String advice = weatherService.getWeatherAdvice(currentWeather);
-        tvWeatherAdvice.setText(advice);
+        currentAdvice = weatherService.getWeatherAdvice(currentWeather);
+        showAdvice();
+    }
+    
+    /**
+     * Show the weather advice followed by the disease and irrigation lines loaded for it
+     */
+    private void showAdvice() {
+        tvWeatherAdvice.setText((currentAdvice + diseaseAdvice + irrigationAdvice).trim());
+    }
+    
+    /**
+     * Add disease warnings for the user's crops to the weather advice
+     * Each disease is reported once, at its highest level over today and the forecast days.
+     */
+    private void loadDiseaseRisks() {
+        if (!sessionManager.isLoggedIn()) {
+            return;
+        }
+        weatherService.getDiseaseRiskService().getRisksForUser(sessionManager.getUserId(),
+                currentLatitude, currentLongitude, new DiseaseRiskService.RiskCallback() {
+            @Override
+            public void onSuccess(List<DiseaseRiskScore> scores) {
+                Map<String, DiseaseRiskScore> worst = new LinkedHashMap<>();
+                for (DiseaseRiskScore score : scores) {
+                    DiseaseRiskScore current = worst.get(score.getDiseaseKey());
+                    if (current == null || score.getScore() > current.getScore()) {
+                        worst.put(score.getDiseaseKey(), score);
+                    }
+                }
+                String language = languageManager.getCurrentLanguage();
+                StringBuilder advice = new StringBuilder();
+                for (DiseaseRiskScore score : worst.values()) {
+                    String level = score.getRiskLevel();
+                    if (DiseaseRiskScore.LOW.equals(level)) {
+                        continue;
+                    }
+                    String levelText = getString(DiseaseRiskScore.HIGH.equals(level)
+                            ? R.string.disease_risk_high : R.string.disease_risk_moderate);
+                    advice.append('\n').append(getString(R.string.disease_risk_line,
+                            aiAdvisorService.getDiseaseNameByKey(score.getDiseaseKey(), language), levelText,
+                            aiAdvisorService.getPreventionByKey(score.getDiseaseKey(), language)));
+                }
+                diseaseAdvice = advice.toString();
+                showAdvice();
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Keep the plain weather advice
+            }
+        });
+    }
+    
+    /**
+     * Add the next irrigation of each of the user's crops to the weather advice
+     * Plans are refreshed by the nightly irrigation batch.
+     */
+    private void loadIrrigationPlans() {
+        if (!sessionManager.isLoggedIn()) {
+            return;
+        }
+        irrigationService.getPlansForUser(sessionManager.getUserId(), new IrrigationService.PlanCallback() {
+            @Override
+            public void onSuccess(List<IrrigationPlan> plans) {
+                int today = EpochDay.today();
+                SimpleDateFormat dayFormat = new SimpleDateFormat("EEE, MMM d", Locale.getDefault());
+                StringBuilder advice = new StringBuilder();
+                dueIrrigation.clear();
+                for (IrrigationPlan plan : plans) {
+                    if (!plan.needsIrrigation() || plan.getNextIrrigationDay() < today) {
+                        continue;
+                    }
+                    if (plan.getNextIrrigationDay() == today) {
+                        dueIrrigation.add(plan);
+                        advice.append('\n').append(getString(R.string.irrigation_today,
+                                plan.getCropName(), plan.getIrrigationDepthMm()));
+                    } else {
+                        String day = dayFormat.format(new Date(EpochDay.toUtcMillis(plan.getNextIrrigationDay())));
+                        advice.append('\n').append(getString(R.string.irrigation_due,
+                                plan.getCropName(), day, plan.getIrrigationDepthMm()));
+                    }
+                }
+                irrigationAdvice = advice.toString();
+                btnLogIrrigation.setVisibility(dueIrrigation.isEmpty() ? View.GONE : View.VISIBLE);
+                showAdvice();
+            }
+            
+            @Override
+            public void onError(String error) {
+                // Keep the plain weather advice
+            }
+        });
+    }
+    
+    /**
+     * Ask which of today's due irrigations were applied and record them
+     * The water balance only credits irrigation confirmed here.
+     */
+    private void showLogIrrigationDialog() {
+        if (dueIrrigation.isEmpty()) {
+            return;
+        }
+        List<IrrigationPlan> due = new ArrayList<>(dueIrrigation);
+        String[] items = new String[due.size()];
+        boolean[] checked = new boolean[due.size()];
+        for (int i = 0; i < due.size(); i++) {
+            items[i] = getString(R.string.log_irrigation_item, due.get(i).getCropName(),
+                    due.get(i).getIrrigationDepthMm());
+        }
+        new androidx.appcompat.app.AlertDialog.Builder(this)
+                .setTitle(R.string.log_irrigation_title)
+                .setMultiChoiceItems(items, checked, (dialog, which, isChecked) -> checked[which] = isChecked)
+                .setPositiveButton(R.string.save, (dialog, which) -> {
+                    int today = EpochDay.today();
+                    for (int i = 0; i < due.size(); i++) {
+                        if (checked[i]) {
+                            recordIrrigation(due.get(i), today);
+                        }
+                    }
+                })
+                .setNegativeButton(R.string.cancel, null)
+                .show();
+    }
+    
+    private void recordIrrigation(IrrigationPlan plan, int epochDay) {
+        irrigationService.recordIrrigation(plan.getCardId(), epochDay, plan.getIrrigationDepthMm(),
+                new IrrigationService.EventCallback() {
+            @Override
+            public void onSuccess(IrrigationEvent event) {
+                dueIrrigation.remove(plan);
+                btnLogIrrigation.setVisibility(dueIrrigation.isEmpty() ? View.GONE : View.VISIBLE);
+                Toast.makeText(WeatherActivity.this, R.string.irrigation_logged, Toast.LENGTH_SHORT).show();
+                // The farm's plan was recomputed with the logged water
+                loadIrrigationPlans();
+            }
+            
+            @Override
+            public void onError(String error) {
+                Toast.makeText(WeatherActivity.this, error, Toast.LENGTH_LONG).show();
+            }
+        });
     }
     
     /**
@@ -292,12 +464,27 @@ public class WeatherActivity extends AppCompatActivity {
         // Clean old data first
         weatherService.cleanOldWeatherData();
         
-        // Reload weather data
+        // Reload weather data, bypassing the freshness window
+        weatherService.invalidateWeather(currentLatitude, currentLongitude);
         loadWeatherData();
         
         Toast.makeText(this, getString(R.string.weather_loading), Toast.LENGTH_SHORT).show();
     }
     
+    /**
+     * Show how old the displayed forecast is in the toolbar
+     * @param ageMillis Time since the forecast was fetched
+     * @param stale Whether the last refresh failed
+     */
+    private void showDataAge(long ageMillis, boolean stale) {
+        if (getSupportActionBar() == null || ageMillis == Long.MAX_VALUE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        CharSequence age = DateUtils.getRelativeTimeSpanString(now - ageMillis, now, DateUtils.MINUTE_IN_MILLIS);
+        getSupportActionBar().setSubtitle(getString(stale ? R.string.updated_on_stale : R.string.updated_on, age));
+    }
+    
     /**
      * Show/hide loading state
      * @param show True to show loading
@@ -330,22 +517,9 @@ public class WeatherActivity extends AppCompatActivity {
     protected void onResume() {
         super.onResume();
         // Load weather data when activity resumes
+        // Periodic refresh is handled by SyncScheduler, so this reads the warm cache
         if (pastWeatherList.isEmpty() && futureWeatherList.isEmpty()) {
             loadWeatherData();
         }
-        // Start periodic auto-refresh while activity is visible
-        if (autoRefreshHandler != null) {
-            autoRefreshHandler.removeCallbacks(autoRefreshRunnable);
-            autoRefreshHandler.postDelayed(autoRefreshRunnable, REFRESH_INTERVAL_MS);
-        }
-    }
-
-    @Override
-    protected void onPause() {
-        super.onPause();
-        // Stop auto-refresh when activity goes to background
-        if (autoRefreshHandler != null) {
-            autoRefreshHandler.removeCallbacks(autoRefreshRunnable);
-        }
     }
 }
\ No newline at end of file
@@ -9,32 +9,55 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.models.Chat;
+import com.keralafarmers.agrinextai.models.ChatDisplayItem;
+import com.keralafarmers.agrinextai.utils.DisplayModelMapper;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 /**
  * Adapter for displaying chat messages in RecyclerView
+ * Messages are pre-formatted into ChatDisplayItem off the main thread
  */
 public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder> {
     
     private static final int VIEW_TYPE_USER = 1;
     private static final int VIEW_TYPE_BOT = 2;
+    private static final String TYPING_TEXT = "Typing...";
     
-    private List<Chat> chatList;
+    private List<ChatDisplayItem> items;
     private Context context;
+    private DisplayModelMapper<Chat, ChatDisplayItem> mapper;
+    
+    // Only touched on the mapper thread
     private SimpleDateFormat dateFormat;
     
+    /**
+     * Listener notified after the visible list changes, e.g. to scroll to the newest message
+     */
+    public interface OnListChangedListener {
+        void onListChanged(int itemCount);
+    }
+    
+    private OnListChangedListener listChangedListener;
+    
     public ChatAdapter(List<Chat> chatList, Context context) {
-        this.chatList = chatList;
+        this.items = new ArrayList<>();
         this.context = context;
         this.dateFormat = new SimpleDateFormat("HH:mm", Locale.getDefault());
+        this.mapper = new DisplayModelMapper<>(this::toDisplayItem);
+        setMessages(chatList);
+    }
+    
+    public void setOnListChangedListener(OnListChangedListener listener) {
+        this.listChangedListener = listener;
     }
     
     @Override
     public int getItemViewType(int position) {
-        return chatList.get(position).isFromUser() ? VIEW_TYPE_USER : VIEW_TYPE_BOT;
+        return items.get(position).isFromUser() ? VIEW_TYPE_USER : VIEW_TYPE_BOT;
     }
     
     @NonNull
@@ -48,24 +71,71 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
     
     @Override
     public void onBindViewHolder(@NonNull ChatViewHolder holder, int position) {
-        Chat chat = chatList.get(position);
+        ChatDisplayItem item = items.get(position);
         
-        holder.tvMessage.setText(chat.getMessage());
-        
-        // Format timestamp
-        String time = dateFormat.format(new Date(chat.getTimestamp()));
-        holder.tvTime.setText(time);
-        
-        // Handle typing indicator
-        if (chat.isTyping()) {
-            holder.tvMessage.setText("Typing...");
-            // You can add animation here for typing indicator
-        }
+        holder.tvMessage.setText(item.getMessage());
+        holder.tvTime.setText(item.getTime());
     }
     
     @Override
     public int getItemCount() {
-        return chatList.size();
+        return items.size();
+    }
+    
+    /**
+     * Replace all messages (e.g. after loading history)
+     * @param chats Messages to show
+     */
+    public void setMessages(List<Chat> chats) {
+        mapper.submitList(chats, mapped -> {
+            this.items = new ArrayList<>(mapped);
+            notifyDataSetChanged();
+            notifyListChanged();
+        });
+    }
+    
+    /**
+     * Append a single message, keeping order with any pending history load
+     * @param chat Message to append
+     */
+    public void addMessage(Chat chat) {
+        mapper.submitItem(chat, mapped -> {
+            items.add(mapped.get(0));
+            notifyItemInserted(items.size() - 1);
+            notifyListChanged();
+        });
+    }
+    
+    /**
+     * Remove the most recent typing indicator once pending messages are applied
+     */
+    public void removeTypingIndicator() {
+        mapper.runAfterPending(() -> {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                if (items.get(i).isTyping()) {
+                    items.remove(i);
+                    notifyItemRemoved(i);
+                    break;
+                }
+            }
+        });
+    }
+    
+    private void notifyListChanged() {
+        if (listChangedListener != null) {
+            listChangedListener.onListChanged(items.size());
+        }
+    }
+    
+    /**
+     * Format a chat message into its display model (runs on the mapper thread)
+     * @param chat Chat message
+     * @return Pre-formatted display item
+     */
+    private ChatDisplayItem toDisplayItem(Chat chat) {
+        String message = chat.isTyping() ? TYPING_TEXT : chat.getMessage();
+        String time = dateFormat.format(new Date(chat.getTimestamp()));
+        return new ChatDisplayItem(message, time, chat.isFromUser(), chat.isTyping());
     }
     
     /**
@@ -80,4 +150,4 @@ public class ChatAdapter extends RecyclerView.Adapter<ChatAdapter.ChatViewHolder
             tvTime = itemView.findViewById(R.id.tvTime);
         }
     }
-}
\ No newline at end of file
+}
@@ -12,7 +12,9 @@ import androidx.cardview.widget.CardView;
 import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.models.GovernmentScheme;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Adapter for displaying government schemes in RecyclerView
@@ -21,6 +23,7 @@ public class GovernmentSchemeAdapter extends RecyclerView.Adapter<GovernmentSche
     
     private List<GovernmentScheme> schemeList;
     private Context context;
+    private Set<Integer> eligibleIds = new HashSet<>();
     
     public GovernmentSchemeAdapter(List<GovernmentScheme> schemeList, Context context) {
         this.schemeList = schemeList;
@@ -42,7 +45,12 @@ public class GovernmentSchemeAdapter extends RecyclerView.Adapter<GovernmentSche
         holder.tvSchemeDescription.setText(scheme.getDescription());
         holder.tvSchemeCategory.setText(scheme.getCategory());
         holder.tvSchemeBenefit.setText("💰 " + scheme.getBenefit());
-        holder.tvSchemeEligibility.setText("✅ " + scheme.getEligibility());
+        if (eligibleIds.contains(scheme.getId())) {
+            holder.tvSchemeEligibility.setText("✅ " + context.getString(R.string.scheme_you_qualify)
+                    + " - " + scheme.getEligibility());
+        } else {
+            holder.tvSchemeEligibility.setText("👤 " + scheme.getEligibility());
+        }
         
         // Set contact info if available
         if (scheme.getContactInfo() != null && !scheme.getContactInfo().isEmpty()) {
@@ -71,6 +79,15 @@ public class GovernmentSchemeAdapter extends RecyclerView.Adapter<GovernmentSche
         return schemeList.size();
     }
     
+    /**
+     * Mark the schemes the user qualifies for and refresh the list
+     * @param eligibleIds Ids of the matching schemes
+     */
+    public void setEligibleIds(Set<Integer> eligibleIds) {
+        this.eligibleIds = eligibleIds;
+        notifyDataSetChanged();
+    }
+    
     /**
      * Show scheme details in a dialog or new activity
      */
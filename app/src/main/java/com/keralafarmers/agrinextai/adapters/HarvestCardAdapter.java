@@ -12,86 +12,127 @@ import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.activities.TraceabilityActivity;
 import com.keralafarmers.agrinextai.models.HarvestCard;
+import com.keralafarmers.agrinextai.models.HarvestCardDisplayItem;
+import com.keralafarmers.agrinextai.utils.DisplayModelMapper;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 
 /**
  * Adapter for displaying harvest cards in RecyclerView
+ * Rows are pre-formatted into HarvestCardDisplayItem off the main thread
  */
 public class HarvestCardAdapter extends RecyclerView.Adapter<HarvestCardAdapter.HarvestCardViewHolder> {
     
-    private List<HarvestCard> harvestCards;
+    private List<HarvestCardDisplayItem> items;
     private Context context;
     private TraceabilityActivity activity;
+    private DisplayModelMapper<HarvestCard, HarvestCardDisplayItem> mapper;
+    
+    // Only touched on the mapper thread
     private SimpleDateFormat dateFormat;
     
     public HarvestCardAdapter(List<HarvestCard> harvestCards, Context context) {
-        this.harvestCards = harvestCards;
+        this.items = new ArrayList<>();
         this.context = context;
         this.activity = (TraceabilityActivity) context;
         this.dateFormat = new SimpleDateFormat("MMM dd, yyyy", Locale.getDefault());
+        this.mapper = new DisplayModelMapper<>(this::toDisplayItem);
+        updateHarvestCards(harvestCards);
     }
     
     @NonNull
     @Override
     public HarvestCardViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_harvest_card, parent, false);
-        return new HarvestCardViewHolder(view);
-    }
-    
-    @Override
-    public void onBindViewHolder(@NonNull HarvestCardViewHolder holder, int position) {
-        HarvestCard card = harvestCards.get(position);
-        
-        holder.tvCropName.setText(card.getCropName());
-        holder.tvVariety.setText(card.getVariety());
-        holder.tvFarmerName.setText("By " + card.getFarmerName());
-        holder.tvLocation.setText(card.getFarmLocation());
-        holder.tvQuantity.setText(String.format(Locale.getDefault(), "%.1f %s", 
-            card.getQuantityHarvested(), card.getUnit()));
-        holder.tvQualityGrade.setText(card.getQualityGrade());
-        
-        // Format harvest date
-        String harvestDate = dateFormat.format(new Date(card.getHarvestDate()));
-        holder.tvHarvestDate.setText("Harvested: " + harvestDate);
+        HarvestCardViewHolder holder = new HarvestCardViewHolder(view);
         
-        // Show organic badge
-        if (card.isOrganicCertified()) {
-            holder.tvOrganicBadge.setVisibility(View.VISIBLE);
-        } else {
-            holder.tvOrganicBadge.setVisibility(View.GONE);
-        }
-        
-        // Set QR code info
-        holder.tvQrCode.setText("QR: " + card.getQrCode());
-        
-        // Card click listener
+        // Listeners are attached once per holder and resolve the card at click time
         holder.cardView.setOnClickListener(v -> {
-            if (activity != null) {
+            HarvestCard card = getCardAt(holder.getBindingAdapterPosition());
+            if (activity != null && card != null) {
                 activity.onCardClicked(card);
             }
         });
         
         // QR code button - directly open detail page to show QR
         holder.btnQrCode.setOnClickListener(v -> {
-            if (activity != null) {
+            HarvestCard card = getCardAt(holder.getBindingAdapterPosition());
+            if (activity != null && card != null) {
                 activity.onCardClicked(card); // Open detail page to show QR
             }
         });
         
         // Share button
         holder.btnShare.setOnClickListener(v -> {
-            if (activity != null) {
+            HarvestCard card = getCardAt(holder.getBindingAdapterPosition());
+            if (activity != null && card != null) {
                 activity.shareHarvestCard(card);
             }
         });
+        return holder;
+    }
+    
+    @Override
+    public void onBindViewHolder(@NonNull HarvestCardViewHolder holder, int position) {
+        HarvestCardDisplayItem item = items.get(position);
+        
+        holder.tvCropName.setText(item.getCropName());
+        holder.tvVariety.setText(item.getVariety());
+        holder.tvFarmerName.setText(item.getFarmerName());
+        holder.tvLocation.setText(item.getLocation());
+        holder.tvQuantity.setText(item.getQuantity());
+        holder.tvQualityGrade.setText(item.getQualityGrade());
+        holder.tvHarvestDate.setText(item.getHarvestDate());
+        holder.tvOrganicBadge.setVisibility(item.isOrganic() ? View.VISIBLE : View.GONE);
+        holder.tvQrCode.setText(item.getQrCode());
     }
     
     @Override
     public int getItemCount() {
-        return harvestCards.size();
+        return items.size();
+    }
+    
+    /**
+     * Update harvest cards list
+     * Formatting runs in the background; the list is swapped in on the main thread
+     * @param harvestCards New harvest cards
+     */
+    public void updateHarvestCards(List<HarvestCard> harvestCards) {
+        mapper.submitList(harvestCards, mapped -> {
+            this.items = mapped;
+            notifyDataSetChanged();
+        });
+    }
+    
+    private HarvestCard getCardAt(int position) {
+        if (position == RecyclerView.NO_POSITION || position >= items.size()) {
+            return null;
+        }
+        return items.get(position).getHarvestCard();
+    }
+    
+    /**
+     * Format a harvest card into its display model (runs on the mapper thread)
+     * @param card Harvest card
+     * @return Pre-formatted display item
+     */
+    private HarvestCardDisplayItem toDisplayItem(HarvestCard card) {
+        String harvestDate = dateFormat.format(new Date(card.getHarvestDate()));
+        return new HarvestCardDisplayItem(
+                card,
+                card.getCropName(),
+                card.getVariety(),
+                "By " + card.getFarmerName(),
+                card.getFarmLocation(),
+                String.format(Locale.getDefault(), "%.1f %s", card.getQuantityHarvested(), card.getUnit()),
+                card.getQualityGrade(),
+                "Harvested: " + harvestDate,
+                "QR: " + card.getQrCode(),
+                card.isOrganicCertified()
+        );
     }
     
     /**
@@ -121,4 +162,4 @@ public class HarvestCardAdapter extends RecyclerView.Adapter<HarvestCardAdapter.
             btnShare = itemView.findViewById(R.id.btnShare);
         }
     }
-}
\ No newline at end of file
+}
@@ -9,63 +9,180 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.MarketPriceDisplayItem;
+import com.keralafarmers.agrinextai.utils.DisplayModelMapper;
+import com.keralafarmers.agrinextai.utils.LanguageManager;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Adapter for displaying market prices in RecyclerView
+ * Rows are pre-formatted into MarketPriceDisplayItem off the main thread
  */
 public class MarketPriceAdapter extends RecyclerView.Adapter<MarketPriceAdapter.PriceViewHolder> {
     
-    private List<MarketPrice> prices;
+    private List<MarketPriceDisplayItem> items;
+    private Map<String, Integer> positions = new HashMap<>(); // row key -> adapter position
     private Context context;
+    private DisplayModelMapper<MarketPrice, MarketPriceDisplayItem> mapper;
+    private OnPriceClickListener clickListener;
+    private OnPriceClickListener longClickListener;
+    
+    // Formatter state below is only touched on the mapper thread
     private SimpleDateFormat dateFormat;
+    private String language;
+    
+    public interface OnPriceClickListener {
+        void onPriceClick(MarketPrice marketPrice);
+    }
     
     public MarketPriceAdapter(List<MarketPrice> prices, Context context) {
-        this.prices = prices;
+        this.items = new ArrayList<>();
         this.context = context;
         this.dateFormat = new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.getDefault());
+        this.language = new LanguageManager(context).getCurrentLanguage();
+        this.mapper = new DisplayModelMapper<>(this::toDisplayItem);
+        updatePrices(prices);
     }
     
     @NonNull
     @Override
     public PriceViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(context).inflate(R.layout.item_market_price, parent, false);
-        return new PriceViewHolder(view);
+        PriceViewHolder holder = new PriceViewHolder(view);
+        
+        // Attached once per holder; the row is resolved at click time
+        holder.itemView.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (clickListener != null && position != RecyclerView.NO_POSITION && position < items.size()) {
+                clickListener.onPriceClick(items.get(position).getMarketPrice());
+            }
+        });
+        holder.itemView.setOnLongClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (longClickListener == null || position == RecyclerView.NO_POSITION || position >= items.size()) {
+                return false;
+            }
+            longClickListener.onPriceClick(items.get(position).getMarketPrice());
+            return true;
+        });
+        return holder;
     }
     
     @Override
     public void onBindViewHolder(@NonNull PriceViewHolder holder, int position) {
-        MarketPrice price = prices.get(position);
+        MarketPriceDisplayItem item = items.get(position);
         
-        holder.tvCropName.setText(price.getCropName());
-        holder.tvVariety.setText(price.getVariety());
-        holder.tvMarketName.setText(price.getMarketName());
-        holder.tvUnit.setText(context.getString(R.string.per_unit, price.getUnit()));
-        
-        // Format prices
-        holder.tvMinPrice.setText("₹" + String.format(Locale.getDefault(), "%.0f", price.getMinPrice()));
-        holder.tvMaxPrice.setText("₹" + String.format(Locale.getDefault(), "%.0f", price.getMaxPrice()));
-        holder.tvModalPrice.setText("₹" + String.format(Locale.getDefault(), "%.0f", price.getModalPrice()));
-        
-        // Format last updated time
-        String lastUpdated = dateFormat.format(new Date(price.getLastUpdated()));
-        holder.tvLastUpdated.setText(context.getString(R.string.updated_on, lastUpdated));
+        holder.tvCropName.setText(item.getCropName());
+        holder.tvVariety.setText(item.getVariety());
+        holder.tvMarketName.setText(item.getMarketName());
+        holder.tvUnit.setText(item.getUnit());
+        holder.tvMinPrice.setText(item.getMinPrice());
+        holder.tvMaxPrice.setText(item.getMaxPrice());
+        holder.tvModalPrice.setText(item.getModalPrice());
+        holder.tvLastUpdated.setText(item.getLastUpdated());
+    }
+    
+    public void setOnPriceClickListener(OnPriceClickListener listener) {
+        this.clickListener = listener;
+    }
+    
+    public void setOnPriceLongClickListener(OnPriceClickListener listener) {
+        this.longClickListener = listener;
     }
     
     @Override
     public int getItemCount() {
-        return prices.size();
+        return items.size();
+    }
+    
+    /**
+     * Format a market price into its display model (runs on the mapper thread)
+     * @param price Market price record
+     * @return Pre-formatted display item
+     */
+    private MarketPriceDisplayItem toDisplayItem(MarketPrice price) {
+        String modalPrice = "₹" + String.format(Locale.getDefault(), "%.0f", price.getModalPrice());
+        String trendIndicator = price.getTrendIndicator();
+        if (!trendIndicator.isEmpty()) {
+            modalPrice = modalPrice + " " + trendIndicator;
+        }
+        
+        String lastUpdated = dateFormat.format(new Date(price.getLastUpdated()));
+        
+        return new MarketPriceDisplayItem(
+                price,
+                getLocalizedCropName(price),
+                price.getVariety(),
+                price.getMarketName(),
+                context.getString(R.string.per_unit, price.getUnit()),
+                "₹" + String.format(Locale.getDefault(), "%.0f", price.getMinPrice()),
+                "₹" + String.format(Locale.getDefault(), "%.0f", price.getMaxPrice()),
+                modalPrice,
+                context.getString(R.string.updated_on, lastUpdated)
+        );
+    }
+    
+    /**
+     * Pick the crop name for the app language, falling back to English
+     */
+    private String getLocalizedCropName(MarketPrice price) {
+        switch (language) {
+            case LanguageManager.LANGUAGE_HINDI:
+                return price.getCropNameHi() != null ? price.getCropNameHi() : price.getCropName();
+            case LanguageManager.LANGUAGE_MALAYALAM:
+                return price.getCropNameMl() != null ? price.getCropNameMl() : price.getCropName();
+            default:
+                return price.getCropName();
+        }
     }
     
     /**
      * Update prices list and notify adapter
+     * Formatting runs in the background; the list is swapped in on the main thread
      */
     public void updatePrices(List<MarketPrice> newPrices) {
-        this.prices = newPrices;
-        notifyDataSetChanged();
+        mapper.submitList(newPrices, mapped -> {
+            this.items = mapped;
+            Map<String, Integer> newPositions = new HashMap<>(mapped.size() * 2);
+            for (int i = 0; i < mapped.size(); i++) {
+                newPositions.put(mapped.get(i).getMarketPrice().getRowKey(), i);
+            }
+            this.positions = newPositions;
+            notifyDataSetChanged();
+        });
+    }
+    
+    /**
+     * Apply one frame's worth of ticker updates as per-row changes
+     * Ticks for rows not on screen are ignored; the next full load picks them up.
+     * @param ticks Latest tick per row, on the main thread
+     */
+    public void applyTicks(List<MarketPrice> ticks) {
+        List<MarketPrice> updated = new ArrayList<>(ticks.size());
+        for (MarketPrice tick : ticks) {
+            Integer position = positions.get(tick.getRowKey());
+            if (position != null) {
+                updated.add(items.get(position).getMarketPrice().withTick(tick));
+            }
+        }
+        if (updated.isEmpty()) {
+            return;
+        }
+        mapper.submitItems(updated, mapped -> {
+            for (MarketPriceDisplayItem item : mapped) {
+                Integer position = positions.get(item.getMarketPrice().getRowKey());
+                if (position != null) {
+                    items.set(position, item);
+                    notifyItemChanged(position);
+                }
+            }
+        });
     }
     
     /**
@@ -89,4 +206,4 @@ public class MarketPriceAdapter extends RecyclerView.Adapter<MarketPriceAdapter.
             tvLastUpdated = itemView.findViewById(R.id.tvLastUpdated);
         }
     }
-}
\ No newline at end of file
+}
@@ -49,7 +49,10 @@ public class NGOAdapter extends RecyclerView.Adapter<NGOAdapter.NGOViewHolder> {
         // Set NGO information
         holder.tvNgoName.setText(ngo.getName());
         holder.tvNgoDescription.setText(ngo.getDescription());
-        holder.tvNgoLocation.setText(context.getString(R.string.location_emoji_label, ngo.getLocation()));
+        String location = ngo.hasDistance()
+                ? context.getString(R.string.ngo_location_distance, ngo.getLocation(), ngo.getFormattedDistance())
+                : ngo.getLocation();
+        holder.tvNgoLocation.setText(context.getString(R.string.location_emoji_label, location));
         holder.tvNgoServices.setText(context.getString(R.string.services_emoji_label, ngo.getServices()));
         holder.tvNgoCategory.setText(ngo.getCategory());
         holder.tvNgoRating.setText(ngo.getFormattedRating());
@@ -9,31 +9,45 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 import com.keralafarmers.agrinextai.R;
 import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.models.WeatherDisplayItem;
+import com.keralafarmers.agrinextai.utils.DisplayModelMapper;
+import com.keralafarmers.agrinextai.utils.EpochDay;
 
-import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
 /**
  * Adapter for displaying weather data in RecyclerView
+ * Rows are pre-formatted into WeatherDisplayItem off the main thread
  */
 public class WeatherAdapter extends RecyclerView.Adapter<WeatherAdapter.WeatherViewHolder> {
     
     private Context context;
-    private List<Weather> weatherList;
-    private SimpleDateFormat inputFormat;
+    private List<WeatherDisplayItem> items;
+    private DisplayModelMapper<Weather, WeatherDisplayItem> mapper;
+    
+    // Formatters below are only touched on the mapper thread
     private SimpleDateFormat outputFormat;
     private SimpleDateFormat dayFormat;
+    private String todayLabel, tomorrowLabel, yesterdayLabel;
     
     public WeatherAdapter(Context context, List<Weather> weatherList) {
         this.context = context;
-        this.weatherList = weatherList;
-        this.inputFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        this.items = new ArrayList<>();
+        // Epoch days are rendered as UTC midnights, so format in UTC
         this.outputFormat = new SimpleDateFormat("MMM d", Locale.getDefault());
+        this.outputFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
         this.dayFormat = new SimpleDateFormat("EEEE", Locale.getDefault());
+        this.dayFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        this.todayLabel = context.getString(R.string.today);
+        this.tomorrowLabel = context.getString(R.string.tomorrow);
+        this.yesterdayLabel = context.getString(R.string.yesterday);
+        this.mapper = new DisplayModelMapper<>(this::toDisplayItem);
+        updateWeatherList(weatherList);
     }
     
     @NonNull
@@ -45,96 +59,81 @@ public class WeatherAdapter extends RecyclerView.Adapter<WeatherAdapter.WeatherV
     
     @Override
     public void onBindViewHolder(@NonNull WeatherViewHolder holder, int position) {
-        Weather weather = weatherList.get(position);
-        
-        // Format date
-        try {
-            Date date = inputFormat.parse(weather.getDate());
-            if (date != null) {
-                String formattedDate = outputFormat.format(date);
-                String dayName = getDayName(date);
-                
-                holder.tvDate.setText(formattedDate);
-                holder.tvDay.setText(dayName);
-            }
-        } catch (ParseException e) {
-            holder.tvDate.setText(weather.getDate());
-            holder.tvDay.setText("");
-        }
-        
-        // Set weather icon
-        holder.tvWeatherIcon.setText(weather.getWeatherIcon());
-        
-        // Set temperatures
-        holder.tvMaxTemp.setText(String.format(Locale.getDefault(), "%.0f°", weather.getMaxTemperature()));
-        holder.tvMinTemp.setText(String.format(Locale.getDefault(), "%.0f°", weather.getMinTemperature()));
-        
-        // Set weather details
-        holder.tvHumidity.setText(String.format(Locale.getDefault(), "%d%%", weather.getHumidity()));
+        WeatherDisplayItem item = items.get(position);
         
-        if (weather.getRainfall() > 0) {
-            holder.tvRainfall.setText(String.format(Locale.getDefault(), "%.1fmm", weather.getRainfall()));
-        } else {
-            holder.tvRainfall.setText("0mm");
-        }
-        
-        holder.tvWindSpeed.setText(String.format(Locale.getDefault(), "%.0f km/h", weather.getWindSpeed()));
+        holder.tvDate.setText(item.getDate());
+        holder.tvDay.setText(item.getDay());
+        holder.tvWeatherIcon.setText(item.getIcon());
+        holder.tvMaxTemp.setText(item.getMaxTemperature());
+        holder.tvMinTemp.setText(item.getMinTemperature());
+        holder.tvHumidity.setText(item.getHumidity());
+        holder.tvRainfall.setText(item.getRainfall());
+        holder.tvWindSpeed.setText(item.getWindSpeed());
     }
     
     @Override
     public int getItemCount() {
-        return weatherList != null ? weatherList.size() : 0;
+        return items.size();
     }
     
     /**
-     * Get day name for the date
-     * @param date Date object
-     * @return Day name or relative name (Today, Tomorrow, Yesterday)
+     * Format a weather record into its display model (runs on the mapper thread)
+     * @param weather Weather record
+     * @return Pre-formatted display item
      */
-    private String getDayName(Date date) {
-        Calendar today = Calendar.getInstance();
-        Calendar weatherDate = Calendar.getInstance();
-        weatherDate.setTime(date);
-        
-        // Check if it's today
-        if (isSameDay(today, weatherDate)) {
-            return context.getString(R.string.today);
-        }
-        
-        // Check if it's tomorrow
-        today.add(Calendar.DAY_OF_YEAR, 1);
-        if (isSameDay(today, weatherDate)) {
-            return context.getString(R.string.tomorrow);
-        }
+    private WeatherDisplayItem toDisplayItem(Weather weather) {
+        int today = EpochDay.today();
+        Date date = new Date(EpochDay.toUtcMillis(weather.getEpochDay()));
+        CharSequence formattedDate = outputFormat.format(date);
+        CharSequence dayName = getDayName(weather.getEpochDay(), today, date);
         
-        // Check if it's yesterday
-        today.add(Calendar.DAY_OF_YEAR, -2);
-        if (isSameDay(today, weatherDate)) {
-            return context.getString(R.string.yesterday);
-        }
+        String rainfall = weather.getRainfall() > 0
+                ? String.format(Locale.getDefault(), "%.1fmm", weather.getRainfall())
+                : "0mm";
         
-        // Return day name
-        return dayFormat.format(date);
+        return new WeatherDisplayItem(
+                weather,
+                formattedDate,
+                dayName,
+                weather.getWeatherIcon() != null ? weather.getWeatherIcon() : "",
+                String.format(Locale.getDefault(), "%.0f°", weather.getMaxTemperature()),
+                String.format(Locale.getDefault(), "%.0f°", weather.getMinTemperature()),
+                String.format(Locale.getDefault(), "%d%%", weather.getHumidity()),
+                rainfall,
+                String.format(Locale.getDefault(), "%.0f km/h", weather.getWindSpeed())
+        );
     }
     
     /**
-     * Check if two calendars represent the same day
-     * @param cal1 First calendar
-     * @param cal2 Second calendar
-     * @return True if same day
+     * Get day name for the date
+     * @param epochDay Day of the weather record
+     * @param today Today's epoch day
+     * @param date Same day as a UTC date, for the weekday name
+     * @return Day name or relative name (Today, Tomorrow, Yesterday)
      */
-    private boolean isSameDay(Calendar cal1, Calendar cal2) {
-        return cal1.get(Calendar.YEAR) == cal2.get(Calendar.YEAR) &&
-               cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
+    private String getDayName(int epochDay, int today, Date date) {
+        if (epochDay == today) {
+            return todayLabel;
+        }
+        if (epochDay == today + 1) {
+            return tomorrowLabel;
+        }
+        if (epochDay == today - 1) {
+            return yesterdayLabel;
+        }
+        return dayFormat.format(date);
     }
     
     /**
      * Update weather list data
+     * Formatting runs in the background; the list is swapped in on the main thread
      * @param newWeatherList New weather list
      */
     public void updateWeatherList(List<Weather> newWeatherList) {
-        this.weatherList = newWeatherList;
-        notifyDataSetChanged();
+        mapper.submitList(newWeatherList, mapped -> {
+            this.items = mapped;
+            notifyDataSetChanged();
+        });
     }
     
     /**
@@ -156,4 +155,4 @@ public class WeatherAdapter extends RecyclerView.Adapter<WeatherAdapter.WeatherV
             tvWindSpeed = itemView.findViewById(R.id.tvWindSpeed);
         }
     }
-}
\ No newline at end of file
+}
@@ -8,18 +8,36 @@ import androidx.room.migration.Migration;
 import androidx.sqlite.db.SupportSQLiteDatabase;
 import com.keralafarmers.agrinextai.models.User;
 import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.models.WeatherCell;
 import com.keralafarmers.agrinextai.models.PlantDisease;
 import com.keralafarmers.agrinextai.models.MarketPrice;
 import com.keralafarmers.agrinextai.models.Chat;
 import com.keralafarmers.agrinextai.models.HarvestCard;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+import com.keralafarmers.agrinextai.models.PriceHistoryBlock;
+import com.keralafarmers.agrinextai.models.DiseaseRiskScore;
+import com.keralafarmers.agrinextai.models.IrrigationPlan;
+import com.keralafarmers.agrinextai.models.IrrigationEvent;
+import com.keralafarmers.agrinextai.models.FarmBoundary;
+import com.keralafarmers.agrinextai.models.PlotIndexObservation;
+import com.keralafarmers.agrinextai.models.PlotIndexBaseline;
+import com.keralafarmers.agrinextai.models.NGO;
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+import com.keralafarmers.agrinextai.models.ContentSyncState;
+import com.keralafarmers.agrinextai.models.PriceSeriesState;
 
 /**
  * Room Database class for Kerala Farm Assistant App
  * Contains all the entities and provides access to DAOs
  */
 @Database(
-    entities = {User.class, Weather.class, PlantDisease.class, MarketPrice.class, Chat.class, HarvestCard.class},
-    version = 6,
+    entities = {User.class, Weather.class, PlantDisease.class, MarketPrice.class, Chat.class, HarvestCard.class,
+        WeatherCell.class, PriceAlertRule.class, PriceSeriesState.class, PriceHistoryBlock.class,
+        DiseaseRiskScore.class, IrrigationPlan.class, FarmBoundary.class, PlotIndexObservation.class,
+        PlotIndexBaseline.class, NGO.class, GovernmentScheme.class, KnowledgeEntry.class,
+        ContentSyncState.class, IrrigationEvent.class},
+    version = 19,
     exportSchema = false
 )
 public abstract class AppDatabase extends RoomDatabase {
@@ -63,6 +81,72 @@ public abstract class AppDatabase extends RoomDatabase {
      */
     public abstract HarvestCardDao harvestCardDao();
     
+    /**
+     * Get the PriceAlert DAO
+     * @return PriceAlertDao instance
+     */
+    public abstract PriceAlertDao priceAlertDao();
+    
+    /**
+     * Get the PriceForecast DAO
+     * @return PriceForecastDao instance
+     */
+    public abstract PriceForecastDao priceForecastDao();
+    
+    /**
+     * Get the PriceHistory DAO
+     * @return PriceHistoryDao instance
+     */
+    public abstract PriceHistoryDao priceHistoryDao();
+    
+    /**
+     * Get the DiseaseRisk DAO
+     * @return DiseaseRiskDao instance
+     */
+    public abstract DiseaseRiskDao diseaseRiskDao();
+    
+    /**
+     * Get the Irrigation DAO
+     * @return IrrigationDao instance
+     */
+    public abstract IrrigationDao irrigationDao();
+    
+    /**
+     * Get the FarmBoundary DAO
+     * @return FarmBoundaryDao instance
+     */
+    public abstract FarmBoundaryDao farmBoundaryDao();
+    
+    /**
+     * Get the PlotIndex DAO
+     * @return PlotIndexDao instance
+     */
+    public abstract PlotIndexDao plotIndexDao();
+    
+    /**
+     * Get the NGO DAO
+     * @return NgoDao instance
+     */
+    public abstract NgoDao ngoDao();
+    
+    /**
+     * Get the Scheme DAO
+     * @return SchemeDao instance
+     */
+    public abstract SchemeDao schemeDao();
+    
+    /**
+     * Get the Knowledge DAO
+     * @return KnowledgeDao instance
+     */
+    public abstract KnowledgeDao knowledgeDao();
+    
+    /**
+     * Get the Content Sync DAO
+     * @return ContentSyncDao instance
+     */
+    public abstract ContentSyncDao contentSyncDao();
+    
     /**
      * Get singleton instance of the database
      * @param context Application context
@@ -77,6 +161,9 @@ public abstract class AppDatabase extends RoomDatabase {
                         AppDatabase.class,
                         DATABASE_NAME
                     )
+                    .addMigrations(MIGRATION_6_7, MIGRATION_7_8, MIGRATION_8_9, MIGRATION_9_10, MIGRATION_10_11,
+                            MIGRATION_11_12, MIGRATION_12_13, MIGRATION_13_14, MIGRATION_14_15,
+                            MIGRATION_15_16, MIGRATION_16_17, MIGRATION_17_18, MIGRATION_18_19)
                     .addCallback(roomCallback)
                     .build();
                 }
@@ -85,6 +172,223 @@ public abstract class AppDatabase extends RoomDatabase {
         return INSTANCE;
     }
     
+    /**
+     * Migration 6 -> 7: index harvest cards for faceted browsing
+     */
+    static final Migration MIGRATION_6_7 = new Migration(6, 7) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_harvest_cards_user_id_is_active_harvest_date " +
+                    "ON harvest_cards (user_id, is_active, harvest_date)");
+        }
+    };
+    
+    /**
+     * Migration 7 -> 8: key cached weather by geohash cell and track cell usage
+     * Rows cached before this version have no cell, so the cache is dropped
+     */
+    static final Migration MIGRATION_7_8 = new Migration(7, 8) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE weather_data ADD COLUMN geohash TEXT");
+            db.execSQL("DELETE FROM weather_data");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_weather_data_geohash_date " +
+                    "ON weather_data (geohash, date)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS weather_cells " +
+                    "(geohash TEXT NOT NULL, lastAccessed INTEGER NOT NULL, PRIMARY KEY(geohash))");
+        }
+    };
+    
+    /**
+     * Migration 8 -> 9: replace the yyyy-MM-dd weather date with an integer epoch day
+     * SQLite cannot drop columns, so the table is rebuilt and dates converted in place
+     */
+    static final Migration MIGRATION_8_9 = new Migration(8, 9) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS weather_data_new (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, " +
+                    "epochDay INTEGER NOT NULL, temperature REAL NOT NULL, " +
+                    "minTemperature REAL NOT NULL, maxTemperature REAL NOT NULL, " +
+                    "humidity INTEGER NOT NULL, rainfall REAL NOT NULL, windSpeed REAL NOT NULL, " +
+                    "weatherCondition TEXT, weatherDescription TEXT, weatherIcon TEXT, " +
+                    "timestamp INTEGER NOT NULL, location TEXT, latitude REAL NOT NULL, " +
+                    "longitude REAL NOT NULL, geohash TEXT)");
+            db.execSQL("INSERT INTO weather_data_new (id, epochDay, temperature, minTemperature, " +
+                    "maxTemperature, humidity, rainfall, windSpeed, weatherCondition, weatherDescription, " +
+                    "weatherIcon, timestamp, location, latitude, longitude, geohash) " +
+                    "SELECT id, CAST(julianday(date) - 2440587.5 AS INTEGER), temperature, minTemperature, " +
+                    "maxTemperature, humidity, rainfall, windSpeed, weatherCondition, weatherDescription, " +
+                    "weatherIcon, timestamp, location, latitude, longitude, geohash " +
+                    "FROM weather_data WHERE julianday(date) IS NOT NULL");
+            db.execSQL("DROP TABLE weather_data");
+            db.execSQL("ALTER TABLE weather_data_new RENAME TO weather_data");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_weather_data_geohash_epochDay " +
+                    "ON weather_data (geohash, epochDay)");
+        }
+    };
+    
+    /**
+     * Migration 9 -> 10: add price alert rules
+     */
+    static final Migration MIGRATION_9_10 = new Migration(9, 10) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS price_alert_rules (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, user_id INTEGER NOT NULL, " +
+                    "crop_name TEXT, district TEXT, condition TEXT, threshold REAL NOT NULL, " +
+                    "is_active INTEGER NOT NULL, is_triggered INTEGER NOT NULL, " +
+                    "last_fired_at INTEGER NOT NULL, created_at INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_price_alert_rules_crop_name_district " +
+                    "ON price_alert_rules (crop_name, district)");
+        }
+    };
+    
+    /**
+     * Migration 10 -> 11: add per-series price forecasting state
+     */
+    static final Migration MIGRATION_10_11 = new Migration(10, 11) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS price_series_state (" +
+                    "series_key TEXT NOT NULL, crop_name TEXT, market_name TEXT, district TEXT, " +
+                    "model_state BLOB, updated_at INTEGER NOT NULL, PRIMARY KEY(series_key))");
+        }
+    };
+    
+    /**
+     * Migration 11 -> 12: add compressed price history blocks
+     */
+    static final Migration MIGRATION_11_12 = new Migration(11, 12) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS price_history_blocks (" +
+                    "series_key TEXT NOT NULL, block_start INTEGER NOT NULL, crop_name TEXT, market_name TEXT, " +
+                    "quality_grade TEXT, first_timestamp INTEGER NOT NULL, last_timestamp INTEGER NOT NULL, " +
+                    "last_price REAL NOT NULL, point_count INTEGER NOT NULL, data BLOB, " +
+                    "PRIMARY KEY(series_key, block_start))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_price_history_blocks_crop_name " +
+                    "ON price_history_blocks (crop_name)");
+        }
+    };
+    
+    /**
+     * Migration 12 -> 13: cache daily disease risk scores per weather cell
+     */
+    static final Migration MIGRATION_12_13 = new Migration(12, 13) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS disease_risk_scores (" +
+                    "geohash TEXT NOT NULL, epoch_day INTEGER NOT NULL, disease_key TEXT NOT NULL, " +
+                    "score REAL NOT NULL, is_forecast INTEGER NOT NULL, updated_at INTEGER NOT NULL, " +
+                    "PRIMARY KEY(geohash, epoch_day, disease_key))");
+        }
+    };
+    
+    /**
+     * Migration 13 -> 14: per-farm irrigation water balances and the irrigation the farmer confirmed
+     */
+    static final Migration MIGRATION_13_14 = new Migration(13, 14) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS irrigation_plans (" +
+                    "card_id TEXT NOT NULL, user_id INTEGER NOT NULL, crop_name TEXT, farm_location TEXT, " +
+                    "balance_day INTEGER NOT NULL, depletion_mm REAL NOT NULL, taw_mm REAL NOT NULL, " +
+                    "raw_mm REAL NOT NULL, et0_mm REAL NOT NULL, etc_mm REAL NOT NULL, " +
+                    "next_irrigation_day INTEGER NOT NULL, irrigation_depth_mm REAL NOT NULL, " +
+                    "updated_at INTEGER NOT NULL, PRIMARY KEY(card_id))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_irrigation_plans_user_id " +
+                    "ON irrigation_plans(user_id)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS irrigation_events (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, card_id TEXT NOT NULL, " +
+                    "epoch_day INTEGER NOT NULL, depth_mm REAL NOT NULL, recorded_at INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_irrigation_events_card_id_epoch_day " +
+                    "ON irrigation_events (card_id, epoch_day)");
+        }
+    };
+    
+    /**
+     * Migration 14 -> 15: surveyed farm boundary polygons
+     */
+    static final Migration MIGRATION_14_15 = new Migration(14, 15) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS farm_boundaries (" +
+                    "id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, user_id INTEGER NOT NULL, name TEXT, " +
+                    "outer_ring BLOB, exclusion_rings BLOB, min_lat REAL NOT NULL, max_lat REAL NOT NULL, " +
+                    "min_lon REAL NOT NULL, max_lon REAL NOT NULL, area_m2 REAL NOT NULL, " +
+                    "cultivable_area_m2 REAL NOT NULL, updated_at INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_farm_boundaries_user_id " +
+                    "ON farm_boundaries(user_id)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS index_farm_boundaries_min_lat_min_lon " +
+                    "ON farm_boundaries(min_lat, min_lon)");
+        }
+    };
+    
+    /**
+     * Migration 15 -> 16: per-plot satellite index time stacks and seasonal change baselines
+     */
+    static final Migration MIGRATION_15_16 = new Migration(15, 16) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS plot_index_observations (" +
+                    "plot_id INTEGER NOT NULL, scene_id TEXT NOT NULL, epoch_day INTEGER NOT NULL, " +
+                    "pixel_count INTEGER NOT NULL, coverage REAL NOT NULL, mean_ndvi REAL NOT NULL, " +
+                    "mean_ndwi REAL NOT NULL, is_usable INTEGER NOT NULL, has_change INTEGER NOT NULL, " +
+                    "ndvi_change REAL NOT NULL, is_scored INTEGER NOT NULL, z_score REAL NOT NULL, " +
+                    "is_alert INTEGER NOT NULL, PRIMARY KEY(plot_id, scene_id))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS plot_index_baselines (" +
+                    "plot_id INTEGER NOT NULL, season INTEGER NOT NULL, sample_count INTEGER NOT NULL, " +
+                    "mean REAL NOT NULL, m2 REAL NOT NULL, PRIMARY KEY(plot_id, season))");
+        }
+    };
+    
+    /**
+     * Migration 16 -> 17: NGO and Krishi Bhavan directory with coordinates
+     */
+    static final Migration MIGRATION_16_17 = new Migration(16, 17) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS ngos (" +
+                    "id INTEGER NOT NULL, name TEXT, description TEXT, services TEXT, location TEXT, " +
+                    "latitude REAL NOT NULL, longitude REAL NOT NULL, organization_type TEXT, " +
+                    "phone_number TEXT, email TEXT, website TEXT, category TEXT, rating REAL NOT NULL, " +
+                    "is_verified INTEGER NOT NULL, image_url TEXT, created_at INTEGER NOT NULL, " +
+                    "updated_at INTEGER NOT NULL, PRIMARY KEY(id))");
+        }
+    };
+    
+    /**
+     * Migration 17 -> 18: government scheme catalog and the profile flags its eligibility checks
+     */
+    static final Migration MIGRATION_17_18 = new Migration(17, 18) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS government_schemes (" +
+                    "id INTEGER NOT NULL, name TEXT, description TEXT, eligibility TEXT, benefit TEXT, " +
+                    "application_process TEXT, contact_info TEXT, category TEXT, is_active INTEGER NOT NULL, " +
+                    "max_farm_size_ha REAL NOT NULL, eligible_crops TEXT, eligible_districts TEXT, " +
+                    "is_organic_required INTEGER NOT NULL, tenancy INTEGER NOT NULL, " +
+                    "updated_at INTEGER NOT NULL, PRIMARY KEY(id))");
+            db.execSQL("ALTER TABLE users ADD COLUMN isOrganic INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE users ADD COLUMN isTenant INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+    
+    /**
+     * Migration 18 -> 19: chatbot knowledge base and per-dataset content sync tokens
+     */
+    static final Migration MIGRATION_18_19 = new Migration(18, 19) {
+        @Override
+        public void migrate(SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS knowledge_entries (" +
+                    "id INTEGER NOT NULL, category TEXT, keywords TEXT, response_en TEXT, response_hi TEXT, " +
+                    "response_ml TEXT, updated_at INTEGER NOT NULL, PRIMARY KEY(id))");
+            db.execSQL("CREATE TABLE IF NOT EXISTS content_sync_state (" +
+                    "dataset TEXT NOT NULL, token TEXT, synced_at INTEGER NOT NULL, PRIMARY KEY(dataset))");
+        }
+    };
+    
     /**
      * Database callback for initialization
      */
@@ -0,0 +1,58 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import com.keralafarmers.agrinextai.models.ContentSyncState;
+
+/**
+ * Data Access Object for content sync tokens
+ */
+@Dao
+public interface ContentSyncDao {
+
+    /**
+     * Get the token of the last applied sync
+     * @param dataset Dataset name
+     * @return Token, or null if the dataset was never synced
+     * (it may still hold bundled content)
+     */
+    @Query("SELECT token FROM content_sync_state WHERE dataset = :dataset")
+    String getToken(String dataset);
+
+    /**
+     * Insert or replace a dataset's sync state
+     * @param state Sync state
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertState(ContentSyncState state);
+
+    /**
+     * Check whether a dataset was ever seeded or synced
+     * @param dataset Dataset name
+     * @return True if it has a sync state row
+     */
+    @Query("SELECT COUNT(*) > 0 FROM content_sync_state WHERE dataset = :dataset")
+    boolean hasState(String dataset);
+
+    /**
+     * Write a dataset's bundled content once, on first use
+     * A state row without a token records the seeding in the same transaction.
+     * An emptied dataset is therefore never mistaken for a new install, and a
+     * reset that removed every record stays empty.
+     * @param dataset Dataset name
+     * @param writeSeed Stores the bundled records
+     * @return True if the seed was written now
+     */
+    @Transaction
+    default boolean seedOnce(String dataset, Runnable writeSeed) {
+        if (hasState(dataset)) {
+            return false;
+        }
+        writeSeed.run();
+        upsertState(new ContentSyncState(dataset, null, 0));
+        return true;
+    }
+}
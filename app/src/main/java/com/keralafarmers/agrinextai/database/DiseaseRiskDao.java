@@ -0,0 +1,42 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.DiseaseRiskScore;
+
+import java.util.List;
+
+/**
+ * Data Access Object for DiseaseRiskScore entity
+ */
+@Dao
+public interface DiseaseRiskDao {
+
+    /**
+     * Insert or replace daily scores
+     * @param scores Scores to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertScores(List<DiseaseRiskScore> scores);
+
+    /**
+     * Get a cell's scores for a day range, highest risk first within each day
+     * @param geohash Weather cell
+     * @param startDay First day (inclusive)
+     * @param endDay Last day (inclusive)
+     * @return List of scores
+     */
+    @Query("SELECT * FROM disease_risk_scores WHERE geohash = :geohash AND epoch_day BETWEEN :startDay AND :endDay " +
+           "ORDER BY epoch_day ASC, score DESC")
+    List<DiseaseRiskScore> getScores(String geohash, int startDay, int endDay);
+
+    /**
+     * Delete scores for days before a cutoff
+     * @param epochDay Cutoff day
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM disease_risk_scores WHERE epoch_day < :epochDay")
+    int deleteScoresBefore(int epochDay);
+}
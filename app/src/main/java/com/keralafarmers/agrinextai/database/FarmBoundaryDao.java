@@ -0,0 +1,55 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.FarmBoundary;
+
+import java.util.List;
+
+/**
+ * Data Access Object for FarmBoundary entity
+ */
+@Dao
+public interface FarmBoundaryDao {
+
+    /**
+     * Insert or replace a boundary
+     * @param boundary Boundary to store
+     * @return Row id
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long upsertBoundary(FarmBoundary boundary);
+
+    /**
+     * Get a user's boundaries
+     * @param userId User ID
+     * @return List of boundaries
+     */
+    @Query("SELECT * FROM farm_boundaries WHERE user_id = :userId ORDER BY name ASC")
+    List<FarmBoundary> getBoundariesForUser(int userId);
+
+    /**
+     * Get all stored boundaries, for building the overlap index
+     * @return List of boundaries
+     */
+    @Query("SELECT * FROM farm_boundaries")
+    List<FarmBoundary> getAllBoundaries();
+
+    /**
+     * Total surveyed area of a user's boundaries
+     * @param userId User ID
+     * @return Square metres
+     */
+    @Query("SELECT COALESCE(SUM(area_m2), 0) FROM farm_boundaries WHERE user_id = :userId")
+    double getTotalArea(int userId);
+
+    /**
+     * Delete a boundary
+     * @param id Boundary ID
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM farm_boundaries WHERE id = :id")
+    int deleteBoundary(int id);
+}
@@ -4,7 +4,9 @@ import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Query;
+import androidx.room.RawQuery;
 import androidx.room.Update;
+import androidx.sqlite.db.SupportSQLiteQuery;
 
 import com.keralafarmers.agrinextai.models.HarvestCard;
 
@@ -281,6 +283,33 @@ public interface HarvestCardDao {
     @Query("SELECT strftime('%m', datetime(harvest_date/1000, 'unixepoch')) as month, COUNT(*) as count, SUM(quantity_harvested) as quantity FROM harvest_cards WHERE user_id = :userId AND harvest_date BETWEEN :startYear AND :endYear AND is_active = 1 GROUP BY month ORDER BY month")
     List<MonthlyHarvestData> getMonthlyHarvestSummary(int userId, long startYear, long endYear);
 
+    /**
+     * Get the water balance inputs of every planted farm, newest planting first
+     * @param now Current timestamp; cards planted later are skipped
+     * @return List of IrrigationFarm projections
+     */
+    @Query("SELECT card_id AS cardId, user_id AS userId, farm_location AS farmLocation, crop_name AS cropName, " +
+           "soil_type AS soilType, planting_date AS plantingDate, harvest_date AS harvestDate " +
+           "FROM harvest_cards WHERE is_active = 1 AND planting_date > 0 AND planting_date <= :now " +
+           "ORDER BY planting_date DESC")
+    List<IrrigationFarm> getIrrigationFarms(long now);
+
+    /**
+     * Get one page of card summaries for a faceted filter
+     * @param query Query built by HarvestCardQuery.toPageQuery
+     * @return List of HarvestCardSummary projections
+     */
+    @RawQuery(observedEntities = HarvestCard.class)
+    List<HarvestCardSummary> queryHarvestCardSummaries(SupportSQLiteQuery query);
+
+    /**
+     * Get grouped facet counts for a faceted filter in a single pass
+     * @param query Query built by HarvestCardQuery.toFacetQuery
+     * @return One row per combination of facet values with its count
+     */
+    @RawQuery(observedEntities = HarvestCard.class)
+    List<HarvestFacetRow> queryHarvestFacetRows(SupportSQLiteQuery query);
+
     // Inner classes for query results
     class HarvestStats {
         public int count;
@@ -293,4 +322,38 @@ public interface HarvestCardDao {
         public int count;
         public double quantity;
     }
+
+    class HarvestCardSummary {
+        public int id;
+        public String cardId;
+        public String cropName;
+        public String cropVariety;
+        public String farmerName;
+        public String farmLocation;
+        public double quantityHarvested;
+        public String unit;
+        public String qualityGrade;
+        public boolean isOrganic;
+        public String verificationStatus;
+        public long harvestDate;
+    }
+
+    class IrrigationFarm {
+        public String cardId;
+        public int userId;
+        public String farmLocation;
+        public String cropName;
+        public String soilType;
+        public long plantingDate;
+        public long harvestDate;
+    }
+
+    class HarvestFacetRow {
+        public String cropName;
+        public String qualityGrade;
+        public String verificationStatus;
+        public boolean isOrganic;
+        public String farmLocation;
+        public int count;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,266 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.sqlite.db.SimpleSQLiteQuery;
+import androidx.sqlite.db.SupportSQLiteQuery;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Composable filter for faceted harvest card browsing
+ * Any combination of crop, grade, verification status, organic flag,
+ * location and harvest date range is turned into a parameterized query.
+ * Facet counts are disjunctive: each facet counts the cards matching every
+ * filter except its own, so picking one crop still shows the other crops.
+ */
+public class HarvestCardQuery {
+
+    private static final String SUMMARY_COLUMNS =
+            "id, card_id AS cardId, crop_name AS cropName, crop_variety AS cropVariety, " +
+            "farmer_name AS farmerName, farm_location AS farmLocation, " +
+            "quantity_harvested AS quantityHarvested, unit, quality_grade AS qualityGrade, " +
+            "is_organic AS isOrganic, verification_status AS verificationStatus, " +
+            "harvest_date AS harvestDate";
+
+    private static final String FACET_COLUMNS =
+            "crop_name AS cropName, quality_grade AS qualityGrade, " +
+            "verification_status AS verificationStatus, is_organic AS isOrganic, " +
+            "farm_location AS farmLocation";
+
+    private final int userId;
+    private final Set<String> crops = new LinkedHashSet<>();
+    private final Set<String> grades = new LinkedHashSet<>();
+    private final Set<String> verificationStatuses = new LinkedHashSet<>();
+    private final Set<String> locations = new LinkedHashSet<>();
+    private Boolean organic;
+    private Long harvestFrom;
+    private Long harvestTo;
+
+    public HarvestCardQuery(int userId) {
+        this.userId = userId;
+    }
+
+    public HarvestCardQuery crops(Collection<String> values) {
+        crops.addAll(values);
+        return this;
+    }
+
+    public HarvestCardQuery grades(Collection<String> values) {
+        grades.addAll(values);
+        return this;
+    }
+
+    public HarvestCardQuery verificationStatuses(Collection<String> values) {
+        verificationStatuses.addAll(values);
+        return this;
+    }
+
+    public HarvestCardQuery locations(Collection<String> values) {
+        locations.addAll(values);
+        return this;
+    }
+
+    /**
+     * @param organic true for organic only, false for non-organic only, null for both
+     */
+    public HarvestCardQuery organic(Boolean organic) {
+        this.organic = organic;
+        return this;
+    }
+
+    /**
+     * Restrict to a harvest date range; either bound may be null
+     * @param from Start timestamp (inclusive)
+     * @param to End timestamp (inclusive)
+     */
+    public HarvestCardQuery harvestedBetween(Long from, Long to) {
+        this.harvestFrom = from;
+        this.harvestTo = to;
+        return this;
+    }
+
+    /**
+     * Build the query for one page of card summaries, newest harvest first
+     * @param offset Rows to skip
+     * @param limit Page size
+     * @return Query for HarvestCardDao.queryHarvestCardSummaries
+     */
+    public SupportSQLiteQuery toPageQuery(int offset, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM harvest_cards WHERE " + buildWhere(args) +
+                " ORDER BY harvest_date DESC LIMIT ? OFFSET ?";
+        args.add(limit);
+        args.add(offset);
+        return new SimpleSQLiteQuery(sql, args.toArray());
+    }
+
+    /**
+     * Build a single grouped query whose rows carry the count for each
+     * combination of facet values; FacetCounts folds them per facet.
+     * Only the date range is applied in SQL, since each facet's counts
+     * must ignore that facet's own selection.
+     * @return Query for HarvestCardDao.queryHarvestFacetRows
+     */
+    public SupportSQLiteQuery toFacetQuery() {
+        List<Object> args = new ArrayList<>();
+        String sql = "SELECT " + FACET_COLUMNS + ", COUNT(*) AS count FROM harvest_cards WHERE " +
+                buildWhere(args, false) +
+                " GROUP BY crop_name, quality_grade, verification_status, is_organic, farm_location";
+        return new SimpleSQLiteQuery(sql, args.toArray());
+    }
+
+    private String buildWhere(List<Object> args) {
+        return buildWhere(args, true);
+    }
+
+    private String buildWhere(List<Object> args, boolean withFacets) {
+        StringBuilder where = new StringBuilder("user_id = ? AND is_active = 1");
+        args.add(userId);
+        if (withFacets) {
+            appendIn(where, args, "crop_name", crops);
+            appendIn(where, args, "quality_grade", grades);
+            appendIn(where, args, "verification_status", verificationStatuses);
+            appendIn(where, args, "farm_location", locations);
+            if (organic != null) {
+                where.append(" AND is_organic = ?");
+                args.add(organic ? 1 : 0);
+            }
+        }
+        if (harvestFrom != null) {
+            where.append(" AND harvest_date >= ?");
+            args.add(harvestFrom);
+        }
+        if (harvestTo != null) {
+            where.append(" AND harvest_date <= ?");
+            args.add(harvestTo);
+        }
+        return where.toString();
+    }
+
+    private static void appendIn(StringBuilder where, List<Object> args, String column, Set<String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        where.append(" AND ").append(column).append(" IN (");
+        int i = 0;
+        for (String value : values) {
+            where.append(i++ == 0 ? "?" : ", ?");
+            args.add(value);
+        }
+        where.append(')');
+    }
+
+    /**
+     * Per-facet value counts folded from the grouped facet rows
+     * A row adds to a facet when it passes the other facets' filters; the
+     * total counts rows passing all of them. Each map is ordered by
+     * descending count for direct use in filter chips.
+     */
+    public static class FacetCounts {
+        private final Map<String, Integer> crops;
+        private final Map<String, Integer> grades;
+        private final Map<String, Integer> verificationStatuses;
+        private final Map<String, Integer> locations;
+        private final int organicCount;
+        private final int totalCount;
+
+        /**
+         * @param query Query whose toFacetQuery() produced the rows
+         * @param rows Grouped facet rows
+         */
+        public FacetCounts(HarvestCardQuery query, List<HarvestCardDao.HarvestFacetRow> rows) {
+            Map<String, Integer> cropCounts = new LinkedHashMap<>();
+            Map<String, Integer> gradeCounts = new LinkedHashMap<>();
+            Map<String, Integer> statusCounts = new LinkedHashMap<>();
+            Map<String, Integer> locationCounts = new LinkedHashMap<>();
+            int organicTotal = 0;
+            int total = 0;
+            for (HarvestCardDao.HarvestFacetRow row : rows) {
+                boolean crop = matches(query.crops, row.cropName);
+                boolean grade = matches(query.grades, row.qualityGrade);
+                boolean status = matches(query.verificationStatuses, row.verificationStatus);
+                boolean location = matches(query.locations, row.farmLocation);
+                boolean organic = query.organic == null || query.organic == row.isOrganic;
+                if (grade && status && location && organic) {
+                    increment(cropCounts, row.cropName, row.count);
+                }
+                if (crop && status && location && organic) {
+                    increment(gradeCounts, row.qualityGrade, row.count);
+                }
+                if (crop && grade && location && organic) {
+                    increment(statusCounts, row.verificationStatus, row.count);
+                }
+                if (crop && grade && status && organic) {
+                    increment(locationCounts, row.farmLocation, row.count);
+                }
+                if (crop && grade && status && location && row.isOrganic) {
+                    organicTotal += row.count;
+                }
+                if (crop && grade && status && location && organic) {
+                    total += row.count;
+                }
+            }
+            this.crops = sortByCount(cropCounts);
+            this.grades = sortByCount(gradeCounts);
+            this.verificationStatuses = sortByCount(statusCounts);
+            this.locations = sortByCount(locationCounts);
+            this.organicCount = organicTotal;
+            this.totalCount = total;
+        }
+
+        public Map<String, Integer> getCrops() {
+            return crops;
+        }
+
+        public Map<String, Integer> getGrades() {
+            return grades;
+        }
+
+        public Map<String, Integer> getVerificationStatuses() {
+            return verificationStatuses;
+        }
+
+        public Map<String, Integer> getLocations() {
+            return locations;
+        }
+
+        /**
+         * @return Cards passing every filter except the organic one that are organic
+         */
+        public int getOrganicCount() {
+            return organicCount;
+        }
+
+        public int getTotalCount() {
+            return totalCount;
+        }
+
+        private static boolean matches(Set<String> selected, String value) {
+            return selected.isEmpty() || selected.contains(value);
+        }
+
+        private static void increment(Map<String, Integer> counts, String key, int count) {
+            if (key == null) {
+                return;
+            }
+            Integer current = counts.get(key);
+            counts.put(key, current == null ? count : current + count);
+        }
+
+        private static Map<String, Integer> sortByCount(Map<String, Integer> counts) {
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+            Collections.sort(entries, (a, b) -> b.getValue().compareTo(a.getValue()));
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> entry : entries) {
+                sorted.put(entry.getKey(), entry.getValue());
+            }
+            return Collections.unmodifiableMap(sorted);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.IrrigationEvent;
+import com.keralafarmers.agrinextai.models.IrrigationPlan;
+
+import java.util.List;
+
+/**
+ * Data Access Object for IrrigationPlan and IrrigationEvent entities
+ */
+@Dao
+public interface IrrigationDao {
+
+    /**
+     * Insert or replace plans
+     * @param plans Plans to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertPlans(List<IrrigationPlan> plans);
+
+    /**
+     * Get all stored plans, for carrying depletion into the next batch
+     * @return List of plans
+     */
+    @Query("SELECT * FROM irrigation_plans")
+    List<IrrigationPlan> getAllPlans();
+
+    /**
+     * Get a user's plans, soonest irrigation first
+     * @param userId User ID
+     * @return List of plans
+     */
+    @Query("SELECT * FROM irrigation_plans WHERE user_id = :userId " +
+           "ORDER BY next_irrigation_day < 0, next_irrigation_day ASC, crop_name ASC")
+    List<IrrigationPlan> getPlansForUser(int userId);
+
+    /**
+     * Delete plans whose balance was not advanced since a cutoff day
+     * @param epochDay Cutoff day
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM irrigation_plans WHERE balance_day < :epochDay")
+    int deletePlansBefore(int epochDay);
+
+    /**
+     * Record irrigation the farmer confirmed
+     * @param event Applied irrigation
+     * @return Row ID
+     */
+    @Insert
+    long insertEvent(IrrigationEvent event);
+
+    /**
+     * Get confirmed irrigation applied on or after a day, for the water balance
+     * @param epochDay First day
+     * @return List of events ordered by day
+     */
+    @Query("SELECT * FROM irrigation_events WHERE epoch_day >= :epochDay ORDER BY epoch_day ASC")
+    List<IrrigationEvent> getEventsFrom(int epochDay);
+
+    /**
+     * Delete irrigation events older than a cutoff day
+     * @param epochDay Cutoff day
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM irrigation_events WHERE epoch_day < :epochDay")
+    int deleteEventsBefore(int epochDay);
+}
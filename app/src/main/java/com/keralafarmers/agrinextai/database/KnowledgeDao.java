@@ -0,0 +1,43 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the chatbot knowledge base
+ */
+@Dao
+public interface KnowledgeDao {
+
+    /**
+     * Insert or replace knowledge entries
+     * @param entries Entries to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertEntries(List<KnowledgeEntry> entries);
+
+    /**
+     * Delete knowledge entries by id
+     * @param ids Entry IDs
+     */
+    @Query("DELETE FROM knowledge_entries WHERE id IN (:ids)")
+    void deleteEntries(int[] ids);
+
+    /**
+     * Delete every knowledge entry, before storing a full snapshot
+     */
+    @Query("DELETE FROM knowledge_entries")
+    void deleteAllEntries();
+
+    /**
+     * Get every entry, for building the keyword index
+     * @return Entries in id order
+     */
+    @Query("SELECT * FROM knowledge_entries ORDER BY id ASC")
+    List<KnowledgeEntry> getAllEntries();
+}
@@ -204,6 +204,21 @@ public interface MarketPriceDao {
     @Query("DELETE FROM market_prices")
     int deleteAllMarketPrices();
 
+    /**
+     * Update existing market price records in one transaction
+     * @param marketPrices MarketPrice objects with updated data
+     * @return Number of rows affected
+     */
+    @Update
+    int updateMarketPrices(List<MarketPrice> marketPrices);
+
+    /**
+     * Get the number of active price records
+     * @return Count of active prices
+     */
+    @Query("SELECT COUNT(*) FROM market_prices WHERE is_active = 1")
+    int getMarketPriceCount();
+
     /**
      * Get price count for a specific crop
      * @param cropName Name of the crop
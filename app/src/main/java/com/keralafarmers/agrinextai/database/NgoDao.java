@@ -0,0 +1,58 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.NGO;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the NGO and agriculture office directory
+ */
+@Dao
+public interface NgoDao {
+
+    /**
+     * Insert or replace directory entries
+     * @param ngos Entries to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertNgos(List<NGO> ngos);
+
+    /**
+     * Delete directory entries by id
+     * @param ids Entry IDs
+     */
+    @Query("DELETE FROM ngos WHERE id IN (:ids)")
+    void deleteNgos(int[] ids);
+
+    /**
+     * Delete the whole directory, before storing a full snapshot
+     */
+    @Query("DELETE FROM ngos")
+    void deleteAllNgos();
+
+    /**
+     * Get every entry, for building the nearest-first index
+     * @return List of entries
+     */
+    @Query("SELECT * FROM ngos")
+    List<NGO> getAllNgos();
+
+    /**
+     * Get entries by id
+     * @param ids Entry IDs
+     * @return Entries, in no particular order
+     */
+    @Query("SELECT * FROM ngos WHERE id IN (:ids)")
+    List<NGO> getNgosByIds(int[] ids);
+
+    /**
+     * Get the categories present in the directory
+     * @return Sorted category names
+     */
+    @Query("SELECT DISTINCT category FROM ngos WHERE category IS NOT NULL ORDER BY category ASC")
+    List<String> getCategories();
+}
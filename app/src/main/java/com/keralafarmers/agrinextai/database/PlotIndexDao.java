@@ -0,0 +1,92 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import com.keralafarmers.agrinextai.models.PlotIndexBaseline;
+import com.keralafarmers.agrinextai.models.PlotIndexObservation;
+
+import java.util.List;
+
+/**
+ * Data Access Object for plot index time stacks and their seasonal baselines
+ */
+@Dao
+public interface PlotIndexDao {
+
+    /**
+     * Insert or replace observations
+     * @param observations Observations to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertObservations(List<PlotIndexObservation> observations);
+
+    /**
+     * Insert or replace baselines
+     * @param baselines Baselines to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertBaselines(List<PlotIndexBaseline> baselines);
+
+    /**
+     * Store one ingest pass atomically, so a baseline is never updated without its observations
+     */
+    @Transaction
+    default void saveIngest(List<PlotIndexObservation> observations, List<PlotIndexBaseline> baselines) {
+        upsertObservations(observations);
+        upsertBaselines(baselines);
+    }
+
+    /**
+     * Ids of scenes already ingested for a plot, usable or not
+     * @param plotId Plot ID
+     * @return Scene ids
+     */
+    @Query("SELECT scene_id FROM plot_index_observations WHERE plot_id = :plotId")
+    List<String> getSceneIds(int plotId);
+
+    /**
+     * Most recent usable observation of a plot
+     * @param plotId Plot ID
+     * @return Observation, or null
+     */
+    @Query("SELECT * FROM plot_index_observations WHERE plot_id = :plotId AND is_usable = 1 " +
+           "ORDER BY epoch_day DESC LIMIT 1")
+    PlotIndexObservation getLatestUsable(int plotId);
+
+    /**
+     * Recent observations of a plot, newest first
+     * @param plotId Plot ID
+     * @param limit Maximum rows
+     * @return List of observations
+     */
+    @Query("SELECT * FROM plot_index_observations WHERE plot_id = :plotId " +
+           "ORDER BY epoch_day DESC LIMIT :limit")
+    List<PlotIndexObservation> getRecentObservations(int plotId, int limit);
+
+    /**
+     * Seasonal baselines of a plot
+     * @param plotId Plot ID
+     * @return Up to twelve baselines
+     */
+    @Query("SELECT * FROM plot_index_baselines WHERE plot_id = :plotId")
+    List<PlotIndexBaseline> getBaselines(int plotId);
+
+    /**
+     * Drop a plot's time stack, e.g. after its boundary was redrawn
+     * @param plotId Plot ID
+     */
+    @Transaction
+    default void deletePlot(int plotId) {
+        deleteObservations(plotId);
+        deleteBaselines(plotId);
+    }
+
+    @Query("DELETE FROM plot_index_observations WHERE plot_id = :plotId")
+    int deleteObservations(int plotId);
+
+    @Query("DELETE FROM plot_index_baselines WHERE plot_id = :plotId")
+    int deleteBaselines(int plotId);
+}
@@ -0,0 +1,124 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Update;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+
+import java.util.List;
+
+/**
+ * Data Access Object for PriceAlertRule entity
+ */
+@Dao
+public interface PriceAlertDao {
+    
+    /**
+     * Insert a price alert rule
+     * @param rule Rule to insert
+     * @return The ID of the inserted rule
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    long insertRule(PriceAlertRule rule);
+    
+    /**
+     * Update a price alert rule
+     * @param rule Rule to update
+     * @return Number of rows affected
+     */
+    @Update
+    int updateRule(PriceAlertRule rule);
+    
+    /**
+     * Enable or disable a rule, leaving its trigger state as the last sync left it
+     * @param id Rule ID
+     * @param active New active state
+     * @return Number of rows affected
+     */
+    @Query("UPDATE price_alert_rules SET is_active = :active WHERE id = :id")
+    int setRuleActive(int id, boolean active);
+    
+    /**
+     * Delete a price alert rule
+     * @param rule Rule to delete
+     * @return Number of rows affected
+     */
+    @Delete
+    int deleteRule(PriceAlertRule rule);
+    
+    /**
+     * Get all rules for a user
+     * @param userId User ID
+     * @return List of rules, newest first
+     */
+    @Query("SELECT * FROM price_alert_rules WHERE user_id = :userId ORDER BY created_at DESC")
+    List<PriceAlertRule> getRulesByUser(int userId);
+    
+    /**
+     * Get every active rule across users, for building the match index
+     * @return List of active rules
+     */
+    @Query("SELECT * FROM price_alert_rules WHERE is_active = 1")
+    List<PriceAlertRule> getActiveRules();
+    
+    /**
+     * Get IDs of active rules whose condition held at the last sync
+     * @return List of rule IDs
+     */
+    @Query("SELECT id FROM price_alert_rules WHERE is_active = 1 AND is_triggered = 1")
+    List<Integer> getTriggeredRuleIds();
+    
+    /**
+     * Get IDs of triggered active rules for some crops
+     * @param cropKeys Crop names, trimmed and lower-cased
+     * @return List of rule IDs
+     */
+    @Query("SELECT id FROM price_alert_rules WHERE is_active = 1 AND is_triggered = 1 " +
+           "AND LOWER(TRIM(crop_name)) IN (:cropKeys)")
+    List<Integer> getTriggeredRuleIdsForCrops(List<String> cropKeys);
+    
+    /**
+     * Mark rules as fired
+     * @param ids Rule IDs
+     * @param firedAt Fire timestamp
+     * @return Number of rows affected
+     */
+    @Query("UPDATE price_alert_rules SET is_triggered = 1, last_fired_at = :firedAt WHERE id IN (:ids)")
+    int markFired(List<Integer> ids, long firedAt);
+    
+    /**
+     * Re-arm rules whose condition no longer holds
+     * @param ids Rule IDs
+     * @return Number of rows affected
+     */
+    @Query("UPDATE price_alert_rules SET is_triggered = 0 WHERE id IN (:ids)")
+    int rearm(List<Integer> ids);
+    
+    /**
+     * Apply one sync's trigger state changes together
+     * @param firedIds Rules that fired in this sync
+     * @param rearmedIds Rules whose condition cleared in this sync
+     * @param firedAt Fire timestamp
+     */
+    @Transaction
+    default void updateTriggerState(List<Integer> firedIds, List<Integer> rearmedIds, long firedAt) {
+        if (!firedIds.isEmpty()) {
+            markFired(firedIds, firedAt);
+        }
+        if (!rearmedIds.isEmpty()) {
+            rearm(rearmedIds);
+        }
+    }
+    
+    /**
+     * Get rule count for a user
+     * @param userId User ID
+     * @return Number of rules
+     */
+    @Query("SELECT COUNT(*) FROM price_alert_rules WHERE user_id = :userId")
+    int getRuleCountByUser(int userId);
+}
@@ -0,0 +1,38 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.PriceSeriesState;
+
+import java.util.List;
+
+/**
+ * Data Access Object for PriceSeriesState entity
+ */
+@Dao
+public interface PriceForecastDao {
+    
+    /**
+     * Insert or replace model states
+     * @param states States to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertStates(List<PriceSeriesState> states);
+    
+    /**
+     * Get every stored model state
+     * @return List of states
+     */
+    @Query("SELECT * FROM price_series_state")
+    List<PriceSeriesState> getAllStates();
+    
+    /**
+     * Delete model states not updated since a cutoff
+     * @param timestamp Cutoff timestamp
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM price_series_state WHERE updated_at < :timestamp")
+    int deleteStaleStates(long timestamp);
+}
@@ -0,0 +1,66 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.PriceHistoryBlock;
+
+import java.util.List;
+
+/**
+ * Data Access Object for PriceHistoryBlock entity
+ */
+@Dao
+public interface PriceHistoryDao {
+
+    /**
+     * Insert or replace history blocks
+     * @param blocks Blocks to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertBlocks(List<PriceHistoryBlock> blocks);
+
+    /**
+     * Get the blocks of some series that start at a block boundary
+     * @param seriesKeys Series keys, fewer than SQLite's 999 bound parameters
+     * @param blockStart Block start timestamp
+     * @return List of blocks
+     */
+    @Query("SELECT * FROM price_history_blocks WHERE series_key IN (:seriesKeys) AND block_start = :blockStart")
+    List<PriceHistoryBlock> getBlocksStartingAt(List<String> seriesKeys, long blockStart);
+
+    /**
+     * Get the blocks of one series overlapping a time range, oldest first
+     * @param seriesKey Series key
+     * @param fromTimestamp Range start
+     * @param toTimestamp Range end
+     * @return List of blocks
+     */
+    @Query("SELECT * FROM price_history_blocks WHERE series_key = :seriesKey " +
+           "AND last_timestamp >= :fromTimestamp AND first_timestamp <= :toTimestamp ORDER BY block_start ASC")
+    List<PriceHistoryBlock> getBlocksInRange(String seriesKey, long fromTimestamp, long toTimestamp);
+
+    /**
+     * Get the distinct series keys recorded for a crop
+     * @param cropName Name of the crop
+     * @return List of series keys
+     */
+    @Query("SELECT DISTINCT series_key FROM price_history_blocks WHERE crop_name = :cropName ORDER BY series_key")
+    List<String> getSeriesKeysForCrop(String cropName);
+
+    /**
+     * Get the encoded size of all history
+     * @return Total bytes of point data
+     */
+    @Query("SELECT COALESCE(SUM(LENGTH(data)), 0) FROM price_history_blocks")
+    long getTotalDataBytes();
+
+    /**
+     * Delete blocks that ended before a cutoff
+     * @param timestamp Cutoff timestamp
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM price_history_blocks WHERE last_timestamp < :timestamp")
+    int deleteBlocksBefore(long timestamp);
+}
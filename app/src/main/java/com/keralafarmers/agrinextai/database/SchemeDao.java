@@ -0,0 +1,43 @@
+package com.keralafarmers.agrinextai.database;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+
+import java.util.List;
+
+/**
+ * Data Access Object for the government scheme catalog
+ */
+@Dao
+public interface SchemeDao {
+
+    /**
+     * Insert or replace schemes
+     * @param schemes Schemes to store
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertSchemes(List<GovernmentScheme> schemes);
+
+    /**
+     * Delete schemes by id
+     * @param ids Scheme IDs
+     */
+    @Query("DELETE FROM government_schemes WHERE id IN (:ids)")
+    void deleteSchemes(int[] ids);
+
+    /**
+     * Delete the whole catalog, before storing a full snapshot
+     */
+    @Query("DELETE FROM government_schemes")
+    void deleteAllSchemes();
+
+    /**
+     * Get the whole catalog, for compiling the eligibility index
+     * @return List of schemes
+     */
+    @Query("SELECT * FROM government_schemes ORDER BY id ASC")
+    List<GovernmentScheme> getAllSchemes();
+}
@@ -106,6 +106,25 @@ public interface UserDao {
     @Query("UPDATE users SET passwordHash = :newPasswordHash WHERE id = :userId")
     int updateUserPassword(int userId, String newPasswordHash);
     
+    /**
+     * Update user's farm size
+     * @param userId User ID
+     * @param farmSize Farm size in acres
+     * @return Number of rows affected
+     */
+    @Query("UPDATE users SET farmSize = :farmSize WHERE id = :userId")
+    int updateFarmSize(int userId, double farmSize);
+    
+    /**
+     * Update the farming practices used for scheme eligibility
+     * @param userId User ID
+     * @param isOrganic Whether the user farms organically
+     * @param isTenant Whether the user cultivates leased land
+     * @return Number of rows updated
+     */
+    @Query("UPDATE users SET isOrganic = :isOrganic, isTenant = :isTenant WHERE id = :userId")
+    int updateFarmingPractices(int userId, boolean isOrganic, boolean isTenant);
+    
     /**
      * Deactivate user account
      * @param userId User ID
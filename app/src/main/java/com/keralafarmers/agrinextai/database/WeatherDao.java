@@ -5,8 +5,10 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
 import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.models.WeatherCell;
 
 import java.util.List;
 
@@ -49,43 +51,55 @@ public interface WeatherDao {
     int deleteWeather(Weather weather);
     
     /**
-     * Get weather data by date
-     * @param date Date in YYYY-MM-DD format
+     * Get weather data by day
+     * @param epochDay Day key (see EpochDay)
      * @return Weather object if found
      */
-    @Query("SELECT * FROM weather_data WHERE date = :date LIMIT 1")
-    Weather getWeatherByDate(String date);
+    @Query("SELECT * FROM weather_data WHERE epochDay = :epochDay LIMIT 1")
+    Weather getWeatherByDate(int epochDay);
     
     /**
-     * Get weather data for date range
-     * @param startDate Start date
-     * @param endDate End date
+     * Get weather data for a geohash cell and day
+     * @param geohash Geohash cell
+     * @param epochDay Day key (see EpochDay)
+     * @return Weather object if found
+     */
+    @Query("SELECT * FROM weather_data WHERE geohash = :geohash AND epochDay = :epochDay LIMIT 1")
+    Weather getWeatherByCellAndDate(String geohash, int epochDay);
+    
+    /**
+     * Get weather data for a cell and day range
+     * @param geohash Geohash cell
+     * @param startDay First day (inclusive)
+     * @param endDay Last day (inclusive)
      * @return List of weather data
      */
-    @Query("SELECT * FROM weather_data WHERE date BETWEEN :startDate AND :endDate ORDER BY date ASC")
-    List<Weather> getWeatherByDateRange(String startDate, String endDate);
+    @Query("SELECT * FROM weather_data WHERE geohash = :geohash AND epochDay BETWEEN :startDay AND :endDay ORDER BY epochDay ASC")
+    List<Weather> getWeatherByDateRange(String geohash, int startDay, int endDay);
     
     /**
-     * Get past 5 days weather data
-     * @param currentDate Current date
+     * Get past 5 days weather data for a cell
+     * @param geohash Geohash cell
+     * @param currentDay Current day key
      * @return List of weather data
      */
-    @Query("SELECT * FROM weather_data WHERE date <= :currentDate ORDER BY date DESC LIMIT 5")
-    List<Weather> getPast5DaysWeather(String currentDate);
+    @Query("SELECT * FROM weather_data WHERE geohash = :geohash AND epochDay <= :currentDay ORDER BY epochDay DESC LIMIT 5")
+    List<Weather> getPast5DaysWeather(String geohash, int currentDay);
     
     /**
-     * Get future 5 days weather data
-     * @param currentDate Current date
+     * Get future 5 days weather data for a cell
+     * @param geohash Geohash cell
+     * @param currentDay Current day key
      * @return List of weather data
      */
-    @Query("SELECT * FROM weather_data WHERE date > :currentDate ORDER BY date ASC LIMIT 5")
-    List<Weather> getFuture5DaysWeather(String currentDate);
+    @Query("SELECT * FROM weather_data WHERE geohash = :geohash AND epochDay > :currentDay ORDER BY epochDay ASC LIMIT 5")
+    List<Weather> getFuture5DaysWeather(String geohash, int currentDay);
     
     /**
      * Get all weather data ordered by date
      * @return List of all weather data
      */
-    @Query("SELECT * FROM weather_data ORDER BY date DESC")
+    @Query("SELECT * FROM weather_data ORDER BY epochDay DESC")
     List<Weather> getAllWeather();
     
     /**
@@ -100,7 +114,7 @@ public interface WeatherDao {
      * @param location Location name
      * @return List of weather data for location
      */
-    @Query("SELECT * FROM weather_data WHERE location = :location ORDER BY date DESC")
+    @Query("SELECT * FROM weather_data WHERE location = :location ORDER BY epochDay DESC")
     List<Weather> getWeatherByLocation(String location);
     
     /**
@@ -111,6 +125,73 @@ public interface WeatherDao {
     @Query("DELETE FROM weather_data WHERE timestamp < :timestamp")
     int deleteOldWeatherData(long timestamp);
     
+    /**
+     * Record that a geohash cell was used
+     * @param cell Cell with its access time
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void touchCell(WeatherCell cell);
+    
+    /**
+     * Get cells beyond the most recently used ones
+     * @param keep Number of recent cells to keep
+     * @return Geohashes of cells to evict
+     */
+    @Query("SELECT geohash FROM weather_cells ORDER BY lastAccessed DESC LIMIT -1 OFFSET :keep")
+    List<String> getEvictableCells(int keep);
+    
+    /**
+     * Delete weather data for the given cells
+     * @param geohashes Cells to clear
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM weather_data WHERE geohash IN (:geohashes)")
+    int deleteWeatherForCells(List<String> geohashes);
+    
+    /**
+     * Delete cell records
+     * @param geohashes Cells to delete
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM weather_cells WHERE geohash IN (:geohashes)")
+    int deleteCells(List<String> geohashes);
+    
+    /**
+     * Evict every cell except the most recently used ones, with their weather rows
+     * @param keep Number of recent cells to keep
+     */
+    @Transaction
+    default void evictLeastRecentCells(int keep) {
+        List<String> evictable = getEvictableCells(keep);
+        if (!evictable.isEmpty()) {
+            deleteWeatherForCells(evictable);
+            deleteCells(evictable);
+        }
+    }
+    
+    /**
+     * Delete weather data for a cell and day range
+     * @param geohash Geohash cell
+     * @param startDay First day (inclusive)
+     * @param endDay Last day (inclusive)
+     * @return Number of rows deleted
+     */
+    @Query("DELETE FROM weather_data WHERE geohash = :geohash AND epochDay BETWEEN :startDay AND :endDay")
+    int deleteWeatherForCellRange(String geohash, int startDay, int endDay);
+    
+    /**
+     * Replace a cell's days in range with freshly fetched rows
+     * @param geohash Geohash cell
+     * @param startDay First day (inclusive)
+     * @param endDay Last day (inclusive)
+     * @param weatherList New rows for the range
+     */
+    @Transaction
+    default void replaceWeatherForCellRange(String geohash, int startDay, int endDay, List<Weather> weatherList) {
+        deleteWeatherForCellRange(geohash, startDay, endDay);
+        insertWeatherList(weatherList);
+    }
+    
     /**
      * Get weather count
      * @return Total number of weather records
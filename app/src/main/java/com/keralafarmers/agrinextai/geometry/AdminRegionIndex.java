@@ -0,0 +1,164 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Point lookup of administrative regions (districts, taluks)
+ * Region bounding boxes are packed into an STR R-tree, so a lookup runs the
+ * exact point-in-polygon test on only the one or two regions whose boxes
+ * hold the point. A fix just outside every region, as on a beach or a state
+ * border where the boundary data is coarser than GPS, resolves to the
+ * nearest region within a small distance instead of failing.
+ */
+public final class AdminRegionIndex {
+
+    public static final String LEVEL_DISTRICT = "district";
+    public static final String LEVEL_TALUK = "taluk";
+
+    // Farther than this outside every region means the point is not in the covered area
+    public static final double MAX_SNAP_DISTANCE_M = 10_000;
+
+    private final List<Region> regions;
+    private final StrTree tree;
+
+    /**
+     * One administrative region
+     */
+    public static final class Region {
+        private final String name;
+        private final String level;
+        private final String parent;
+        private final List<GeoPolygon> rings;
+        private final double minLat, maxLat, minLon, maxLon;
+
+        /**
+         * @param name Region name
+         * @param level LEVEL_DISTRICT or LEVEL_TALUK
+         * @param parent Enclosing region's name, or null
+         * @param rings Outer rings and holes; a point is inside when an odd number of rings hold it
+         */
+        public Region(String name, String level, String parent, List<GeoPolygon> rings) {
+            if (rings.isEmpty()) {
+                throw new IllegalArgumentException("Region " + name + " has no rings");
+            }
+            this.name = name;
+            this.level = level;
+            this.parent = parent;
+            this.rings = Collections.unmodifiableList(new ArrayList<>(rings));
+            double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+            double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+            for (GeoPolygon ring : rings) {
+                minLat = Math.min(minLat, ring.getMinLat());
+                maxLat = Math.max(maxLat, ring.getMaxLat());
+                minLon = Math.min(minLon, ring.getMinLon());
+                maxLon = Math.max(maxLon, ring.getMaxLon());
+            }
+            this.minLat = minLat;
+            this.maxLat = maxLat;
+            this.minLon = minLon;
+            this.maxLon = maxLon;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLevel() {
+            return level;
+        }
+
+        public String getParent() {
+            return parent;
+        }
+
+        public List<GeoPolygon> getRings() {
+            return rings;
+        }
+
+        public boolean contains(double latitude, double longitude) {
+            boolean inside = false;
+            for (GeoPolygon ring : rings) {
+                if (ring.contains(latitude, longitude)) {
+                    inside = !inside;
+                }
+            }
+            return inside;
+        }
+
+        /**
+         * @return Metres from a point to the region's nearest edge
+         */
+        public double distanceTo(double latitude, double longitude) {
+            double best = Double.MAX_VALUE;
+            for (GeoPolygon ring : rings) {
+                best = Math.min(best, ring.distanceToEdge(latitude, longitude));
+            }
+            return best;
+        }
+    }
+
+    /**
+     * @param regions Regions of any levels
+     */
+    public AdminRegionIndex(List<Region> regions) {
+        this.regions = new ArrayList<>(regions);
+        int n = regions.size();
+        int[] ids = new int[n];
+        double[] minX = new double[n], minY = new double[n], maxX = new double[n], maxY = new double[n];
+        for (int i = 0; i < n; i++) {
+            Region region = regions.get(i);
+            ids[i] = i;
+            minX[i] = region.minLon;
+            minY[i] = region.minLat;
+            maxX[i] = region.maxLon;
+            maxY[i] = region.maxLat;
+        }
+        tree = new StrTree(ids, minX, minY, maxX, maxY);
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    /**
+     * Region of a level holding a point, or the nearest within MAX_SNAP_DISTANCE_M
+     * @param level LEVEL_DISTRICT or LEVEL_TALUK
+     * @return Region, or null if the point is outside the covered area
+     */
+    public Region find(String level, double latitude, double longitude) {
+        Region[] found = new Region[1];
+        tree.query(longitude, latitude, longitude, latitude, id -> {
+            Region region = regions.get(id);
+            if (found[0] == null && level.equals(region.level) && region.contains(latitude, longitude)) {
+                found[0] = region;
+            }
+        });
+        return found[0] != null ? found[0] : findNearest(level, latitude, longitude, MAX_SNAP_DISTANCE_M);
+    }
+
+    /**
+     * Region of a level whose edge is closest to a point
+     * @param maxMetres Search radius
+     * @return Region, or null if none is within the radius
+     */
+    public Region findNearest(String level, double latitude, double longitude, double maxMetres) {
+        double padLat = Math.toDegrees(maxMetres / GeoPolygon.EARTH_RADIUS_M);
+        double padLon = padLat / Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        Region[] nearest = new Region[1];
+        double[] best = {maxMetres};
+        tree.query(longitude - padLon, latitude - padLat, longitude + padLon, latitude + padLat, id -> {
+            Region region = regions.get(id);
+            if (!level.equals(region.level)) {
+                return;
+            }
+            double distance = region.distanceTo(latitude, longitude);
+            if (distance <= best[0]) {
+                best[0] = distance;
+                nearest[0] = region;
+            }
+        });
+        return nearest[0];
+    }
+}
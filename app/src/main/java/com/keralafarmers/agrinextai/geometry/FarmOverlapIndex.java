@@ -0,0 +1,103 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Overlap checks of one farm boundary against many others
+ * Boundaries are packed once into an STR R-tree of their bounding boxes; a
+ * check only measures the few polygons whose boxes meet the candidate's, so
+ * it stays cheap enough to run on every drag event of a vertex editor.
+ */
+public final class FarmOverlapIndex {
+
+    // Shared area below this is treated as boundaries that merely touch
+    public static final double MIN_OVERLAP_M2 = 1.0;
+
+    private final StrTree tree;
+    private final Map<Integer, GeoPolygon> polygons;
+
+    /**
+     * Overlap between a candidate and one indexed boundary
+     */
+    public static final class Overlap {
+        private final int boundaryId;
+        private final double areaM2;
+
+        Overlap(int boundaryId, double areaM2) {
+            this.boundaryId = boundaryId;
+            this.areaM2 = areaM2;
+        }
+
+        public int getBoundaryId() {
+            return boundaryId;
+        }
+
+        public double getAreaM2() {
+            return areaM2;
+        }
+    }
+
+    /**
+     * @param ids Boundary ids
+     * @param boundaries Boundaries, parallel to ids
+     */
+    public FarmOverlapIndex(int[] ids, List<GeoPolygon> boundaries) {
+        int n = ids.length;
+        double[] minX = new double[n], minY = new double[n], maxX = new double[n], maxY = new double[n];
+        polygons = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            GeoPolygon polygon = boundaries.get(i);
+            minX[i] = polygon.getMinLon();
+            minY[i] = polygon.getMinLat();
+            maxX[i] = polygon.getMaxLon();
+            maxY[i] = polygon.getMaxLat();
+            polygons.put(ids[i], polygon);
+        }
+        tree = new StrTree(ids, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Find indexed boundaries that overlap a candidate boundary
+     * @param candidate Boundary being drawn or edited
+     * @param excludeId Id of the candidate's own stored version, or -1
+     * @return Overlaps above MIN_OVERLAP_M2
+     */
+    public List<Overlap> findOverlaps(GeoPolygon candidate, int excludeId) {
+        List<Overlap> overlaps = new ArrayList<>();
+        tree.query(candidate.getMinLon(), candidate.getMinLat(), candidate.getMaxLon(), candidate.getMaxLat(),
+                id -> {
+                    if (id == excludeId) {
+                        return;
+                    }
+                    double area = PolygonArea.overlapArea(candidate, polygons.get(id));
+                    if (area >= MIN_OVERLAP_M2) {
+                        overlaps.add(new Overlap(id, area));
+                    }
+                });
+        return overlaps;
+    }
+
+    /**
+     * @param id Boundary id
+     * @return Indexed boundary, or null
+     */
+    public GeoPolygon getBoundary(int id) {
+        return polygons.get(id);
+    }
+
+    /**
+     * Visit the ids of boundaries whose boxes meet a latitude/longitude box, e.g. the visible map area
+     */
+    public void forEachInBox(double minLat, double minLon, double maxLat, double maxLon,
+                             IntConsumer visitor) {
+        tree.query(minLon, minLat, maxLon, maxLat, visitor);
+    }
+
+    public int size() {
+        return tree.size();
+    }
+}
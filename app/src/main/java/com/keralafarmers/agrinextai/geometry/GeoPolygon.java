@@ -0,0 +1,197 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Closed ring of latitude/longitude vertices
+ * The closing edge from the last vertex back to the first is implicit.
+ * Rings are stored in Room as a compact binary blob, see encodeRings.
+ */
+public final class GeoPolygon {
+
+    // Mean Earth radius (IUGG), metres
+    public static final double EARTH_RADIUS_M = 6371008.8;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double minLat, maxLat, minLon, maxLon;
+
+    /**
+     * @param latitudes Vertex latitudes
+     * @param longitudes Vertex longitudes, parallel to latitudes
+     */
+    public GeoPolygon(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length || latitudes.length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 0; i < latitudes.length; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLon = Math.min(minLon, longitudes[i]);
+            maxLon = Math.max(maxLon, longitudes[i]);
+        }
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double getLatitude(int i) {
+        return latitudes[i];
+    }
+
+    public double getLongitude(int i) {
+        return longitudes[i];
+    }
+
+    public double[] getLatitudes() {
+        return latitudes.clone();
+    }
+
+    public double[] getLongitudes() {
+        return longitudes.clone();
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    /**
+     * @return Copy with one vertex moved, for interactive editing
+     */
+    public GeoPolygon withVertex(int index, double latitude, double longitude) {
+        double[] lats = latitudes.clone();
+        double[] lons = longitudes.clone();
+        lats[index] = latitude;
+        lons[index] = longitude;
+        return new GeoPolygon(lats, lons);
+    }
+
+    /**
+     * Point-in-polygon test by ray crossing (even-odd rule)
+     * Edges are treated as straight in latitude/longitude, which matches how
+     * the rings were drawn; a point exactly on an edge may fall either side.
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLat || latitude > maxLat || longitude < minLon || longitude > maxLon) {
+            return false;
+        }
+        boolean inside = false;
+        for (int i = 0, j = latitudes.length - 1; i < latitudes.length; j = i++) {
+            if ((latitudes[i] > latitude) != (latitudes[j] > latitude)) {
+                double crossLon = longitudes[j] + (latitude - latitudes[j])
+                        * (longitudes[i] - longitudes[j]) / (latitudes[i] - latitudes[j]);
+                if (longitude < crossLon) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+
+    /**
+     * Distance from a point to the nearest edge, on a local plane about the point
+     * @return Metres; accurate to well under 1% within a few tens of km
+     */
+    public double distanceToEdge(double latitude, double longitude) {
+        double[] xy = toLocal(latitude, longitude);
+        double best = Double.MAX_VALUE;
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double ax = xy[2 * j], ay = xy[2 * j + 1];
+            double dx = xy[2 * i] - ax, dy = xy[2 * i + 1] - ay;
+            double lengthSq = dx * dx + dy * dy;
+            double t = lengthSq > 0 ? Math.max(0, Math.min(1, -(ax * dx + ay * dy) / lengthSq)) : 0;
+            double px = ax + t * dx, py = ay + t * dy;
+            best = Math.min(best, px * px + py * py);
+        }
+        return Math.sqrt(best);
+    }
+
+    /**
+     * Project to a local plane in metres (equirectangular about an origin)
+     * Distortion is negligible over a farm or a village of farms.
+     * @param originLat Origin latitude
+     * @param originLon Origin longitude
+     * @return {x0, y0, x1, y1, ...} with x east and y north
+     */
+    public double[] toLocal(double originLat, double originLon) {
+        double cosLat = Math.cos(Math.toRadians(originLat));
+        double[] xy = new double[latitudes.length * 2];
+        for (int i = 0; i < latitudes.length; i++) {
+            xy[2 * i] = Math.toRadians(longitudes[i] - originLon) * cosLat * EARTH_RADIUS_M;
+            xy[2 * i + 1] = Math.toRadians(latitudes[i] - originLat) * EARTH_RADIUS_M;
+        }
+        return xy;
+    }
+
+    /**
+     * Encode rings as [ring count][vertex count, (lat, lon)...]...
+     * @param rings Rings, may be empty
+     * @return Blob for Room
+     */
+    public static byte[] encodeRings(List<GeoPolygon> rings) {
+        int bytes = 4;
+        for (GeoPolygon ring : rings) {
+            bytes += 4 + ring.size() * 16;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        buffer.putInt(rings.size());
+        for (GeoPolygon ring : rings) {
+            buffer.putInt(ring.size());
+            for (int i = 0; i < ring.size(); i++) {
+                buffer.putDouble(ring.latitudes[i]);
+                buffer.putDouble(ring.longitudes[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decode rings written by encodeRings
+     * @param blob Blob, may be null
+     * @return Rings; empty for a null blob
+     */
+    public static List<GeoPolygon> decodeRings(byte[] blob) {
+        if (blob == null || blob.length < 4) {
+            return Collections.emptyList();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(blob);
+        int count = buffer.getInt();
+        List<GeoPolygon> rings = new ArrayList<>(count);
+        for (int r = 0; r < count; r++) {
+            int n = buffer.getInt();
+            double[] lats = new double[n];
+            double[] lons = new double[n];
+            for (int i = 0; i < n; i++) {
+                lats[i] = buffer.getDouble();
+                lons[i] = buffer.getDouble();
+            }
+            rings.add(new GeoPolygon(lats, lons));
+        }
+        return rings;
+    }
+}
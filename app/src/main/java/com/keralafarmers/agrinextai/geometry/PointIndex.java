@@ -0,0 +1,52 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.util.function.IntPredicate;
+
+/**
+ * Nearest-first search over latitude/longitude points
+ * Points are packed into an STR R-tree and searched best-first, so finding
+ * the few closest of thousands of places touches only a handful of nodes.
+ * Candidates are ranked on a plane scaled by the cosine of the query
+ * latitude, which orders them as the great-circle distance does at the
+ * scale of a state; distances reported to users use the haversine formula.
+ */
+public final class PointIndex {
+
+    private final StrTree tree;
+
+    /**
+     * @param ids Point ids
+     * @param latitudes Latitudes, parallel to ids
+     * @param longitudes Longitudes, parallel to ids
+     */
+    public PointIndex(int[] ids, double[] latitudes, double[] longitudes) {
+        tree = new StrTree(ids, longitudes, latitudes, longitudes, latitudes);
+    }
+
+    public int size() {
+        return tree.size();
+    }
+
+    /**
+     * Ids of the points nearest a location, nearest first
+     * @param limit Maximum number of ids
+     * @param filter Accepts the ids that may be returned
+     * @return Up to limit ids
+     */
+    public int[] nearest(double latitude, double longitude, int limit, IntPredicate filter) {
+        return tree.nearest(longitude, latitude, limit, Math.cos(Math.toRadians(latitude)), filter);
+    }
+
+    /**
+     * Great-circle distance between two points (haversine)
+     * @return Metres
+     */
+    public static double distance(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * GeoPolygon.EARTH_RADIUS_M * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
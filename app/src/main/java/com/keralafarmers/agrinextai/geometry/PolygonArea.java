@@ -0,0 +1,319 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Area of farm polygons and of their boolean combinations
+ * Geodesic ring area uses the spherical excess formula of Chamberlain and
+ * Duquette. Differences and intersections are measured exactly on a local
+ * plane with a slab sweep: between consecutive vertex or crossing heights no
+ * edges cross, so the covered width is linear in y and the midline width
+ * times the slab height is the slab's exact area. Polygons may be concave
+ * or self-touching, and exclusions may overlap each other or the boundary.
+ */
+public final class PolygonArea {
+
+    private static final int INTERSECTION = 0;
+    private static final int DIFFERENCE = 1;
+    private static final double EPSILON = 1e-9;
+
+    private PolygonArea() {
+    }
+
+    /**
+     * Geodesic area of a ring on the mean Earth sphere
+     * @param polygon Ring
+     * @return Square metres
+     */
+    public static double geodesicArea(GeoPolygon polygon) {
+        int n = polygon.size();
+        double sum = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double lon1 = Math.toRadians(polygon.getLongitude(j));
+            double lon2 = Math.toRadians(polygon.getLongitude(i));
+            double lat1 = Math.toRadians(polygon.getLatitude(j));
+            double lat2 = Math.toRadians(polygon.getLatitude(i));
+            sum += (lon2 - lon1) * (2 + Math.sin(lat1) + Math.sin(lat2));
+        }
+        return Math.abs(sum * GeoPolygon.EARTH_RADIUS_M * GeoPolygon.EARTH_RADIUS_M / 2);
+    }
+
+    /**
+     * Check that no two edges of a ring cross or touch, other than neighbours at their shared vertex
+     * The area formulas assume a simple ring: on a bow-tie the signed
+     * geodesic sum cancels between the lobes while the even-odd sweep
+     * counts both, so the two would disagree.
+     * @param polygon Ring
+     * @return True if the ring is simple
+     */
+    public static boolean isSimple(GeoPolygon polygon) {
+        int n = polygon.size();
+        double[] xy = polygon.toLocal((polygon.getMinLat() + polygon.getMaxLat()) / 2,
+                (polygon.getMinLon() + polygon.getMaxLon()) / 2);
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                boolean adjacent = j == i + 1 || (i == 0 && j == n - 1);
+                if (adjacent ? overlapsAdjacent(xy, i, j, n) : segmentsMeet(xy, i, (i + 1) % n, j, (j + 1) % n)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Neighbouring edges meet only at their shared vertex unless they fold back along each other
+     */
+    private static boolean overlapsAdjacent(double[] xy, int i, int j, int n) {
+        // Edges i -> i + 1 and j -> j + 1 share vertex j, or vertex i when j is the closing edge
+        boolean closing = j != i + 1;
+        int shared = closing ? i : j;
+        int a = closing ? j : i;
+        int b = closing ? i + 1 : (j + 1) % n;
+        double ax = xy[2 * a] - xy[2 * shared], ay = xy[2 * a + 1] - xy[2 * shared + 1];
+        double bx = xy[2 * b] - xy[2 * shared], by = xy[2 * b + 1] - xy[2 * shared + 1];
+        return Math.abs(ax * by - ay * bx) <= EPSILON && ax * bx + ay * by > 0;
+    }
+
+    /**
+     * Whether segments p1-p2 and q1-q2 cross or touch
+     */
+    private static boolean segmentsMeet(double[] xy, int p1, int p2, int q1, int q2) {
+        double o1 = orientation(xy, p1, p2, q1);
+        double o2 = orientation(xy, p1, p2, q2);
+        double o3 = orientation(xy, q1, q2, p1);
+        double o4 = orientation(xy, q1, q2, p2);
+        if (o1 * o2 < 0 && o3 * o4 < 0) {
+            return true;
+        }
+        return (o1 == 0 && onSegment(xy, p1, p2, q1)) || (o2 == 0 && onSegment(xy, p1, p2, q2))
+                || (o3 == 0 && onSegment(xy, q1, q2, p1)) || (o4 == 0 && onSegment(xy, q1, q2, p2));
+    }
+
+    /**
+     * Twice the signed area of triangle a-b-c, 0 within EPSILON
+     */
+    private static double orientation(double[] xy, int a, int b, int c) {
+        double value = (xy[2 * b] - xy[2 * a]) * (xy[2 * c + 1] - xy[2 * a + 1])
+                - (xy[2 * b + 1] - xy[2 * a + 1]) * (xy[2 * c] - xy[2 * a]);
+        return Math.abs(value) <= EPSILON ? 0 : value;
+    }
+
+    /**
+     * Whether point c, collinear with a-b, lies within the segment's box
+     */
+    private static boolean onSegment(double[] xy, int a, int b, int c) {
+        return xy[2 * c] >= Math.min(xy[2 * a], xy[2 * b]) - EPSILON
+                && xy[2 * c] <= Math.max(xy[2 * a], xy[2 * b]) + EPSILON
+                && xy[2 * c + 1] >= Math.min(xy[2 * a + 1], xy[2 * b + 1]) - EPSILON
+                && xy[2 * c + 1] <= Math.max(xy[2 * a + 1], xy[2 * b + 1]) + EPSILON;
+    }
+
+    /**
+     * Geodesic area of a boundary minus the union of its exclusions
+     * The planar sweep gives the excluded share; scaling the geodesic area by
+     * it keeps both figures consistent.
+     * @param boundary Farm boundary
+     * @param exclusions Ponds, buildings, paths; may extend past the boundary
+     * @return Square metres
+     */
+    public static double cultivableArea(GeoPolygon boundary, List<GeoPolygon> exclusions) {
+        double total = geodesicArea(boundary);
+        if (exclusions.isEmpty()) {
+            return total;
+        }
+        double originLat = (boundary.getMinLat() + boundary.getMaxLat()) / 2;
+        double originLon = (boundary.getMinLon() + boundary.getMaxLon()) / 2;
+        double[] subject = boundary.toLocal(originLat, originLon);
+        double[][] clips = new double[exclusions.size()][];
+        for (int i = 0; i < clips.length; i++) {
+            clips[i] = exclusions.get(i).toLocal(originLat, originLon);
+        }
+        double planar = planarArea(subject);
+        if (planar <= 0) {
+            return 0;
+        }
+        return total * sweep(subject, clips, DIFFERENCE) / planar;
+    }
+
+    /**
+     * Area shared by two polygons
+     * @return Square metres; 0 for polygons that only touch
+     */
+    public static double overlapArea(GeoPolygon a, GeoPolygon b) {
+        if (a.getMaxLat() < b.getMinLat() || b.getMaxLat() < a.getMinLat()
+                || a.getMaxLon() < b.getMinLon() || b.getMaxLon() < a.getMinLon()) {
+            return 0;
+        }
+        double originLat = (a.getMinLat() + a.getMaxLat()) / 2;
+        double originLon = (a.getMinLon() + a.getMaxLon()) / 2;
+        return sweep(a.toLocal(originLat, originLon), new double[][]{b.toLocal(originLat, originLon)},
+                INTERSECTION);
+    }
+
+    /**
+     * Shoelace area of a planar ring
+     * @param xy {x0, y0, x1, y1, ...}
+     * @return Absolute area
+     */
+    static double planarArea(double[] xy) {
+        int n = xy.length / 2;
+        double sum = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            sum += xy[2 * j] * xy[2 * i + 1] - xy[2 * i] * xy[2 * j + 1];
+        }
+        return Math.abs(sum) / 2;
+    }
+
+    /**
+     * Measure the part of the subject inside or outside the union of the clips
+     * The subject and each clip are filled with the even-odd rule.
+     */
+    static double sweep(double[] subject, double[][] clips, int operation) {
+        double[][] rings = new double[clips.length + 1][];
+        rings[0] = subject;
+        System.arraycopy(clips, 0, rings, 1, clips.length);
+
+        // Slab boundaries: every vertex height and every edge crossing height
+        int edgeCount = 0;
+        for (double[] ring : rings) {
+            edgeCount += ring.length / 2;
+        }
+        double[] edges = new double[edgeCount * 4];
+        int e = 0;
+        for (double[] ring : rings) {
+            int n = ring.length / 2;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                edges[e++] = ring[2 * j];
+                edges[e++] = ring[2 * j + 1];
+                edges[e++] = ring[2 * i];
+                edges[e++] = ring[2 * i + 1];
+            }
+        }
+        double[] events = new double[edgeCount + edgeCount * (edgeCount - 1) / 2];
+        int eventCount = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            events[eventCount++] = edges[4 * i + 1];
+            for (int j = i + 1; j < edgeCount; j++) {
+                double y = crossingY(edges, i, j);
+                if (!Double.isNaN(y)) {
+                    events[eventCount++] = y;
+                }
+            }
+        }
+        Arrays.sort(events, 0, eventCount);
+
+        double area = 0;
+        double[] subjectX = new double[subject.length / 2];
+        double[] clipStart = new double[edgeCount];
+        double[] clipEnd = new double[edgeCount];
+        double[] crossings = new double[edgeCount];
+        for (int k = 0; k + 1 < eventCount; k++) {
+            double height = events[k + 1] - events[k];
+            if (height <= EPSILON) {
+                continue;
+            }
+            double y = (events[k] + events[k + 1]) / 2;
+
+            int subjectCount = crossingsAt(subject, y, subjectX);
+            Arrays.sort(subjectX, 0, subjectCount);
+
+            // Union of clip spans along the midline
+            int spans = 0;
+            for (double[] clip : clips) {
+                int count = crossingsAt(clip, y, crossings);
+                Arrays.sort(crossings, 0, count);
+                for (int c = 0; c + 1 < count; c += 2) {
+                    clipStart[spans] = crossings[c];
+                    clipEnd[spans] = crossings[c + 1];
+                    spans++;
+                }
+            }
+            spans = mergeSpans(clipStart, clipEnd, spans);
+
+            double width = 0;
+            for (int s = 0; s + 1 < subjectCount; s += 2) {
+                double from = subjectX[s];
+                double to = subjectX[s + 1];
+                double covered = 0;
+                for (int c = 0; c < spans; c++) {
+                    covered += Math.max(0, Math.min(to, clipEnd[c]) - Math.max(from, clipStart[c]));
+                }
+                width += operation == INTERSECTION ? covered : (to - from) - covered;
+            }
+            area += width * height;
+        }
+        return area;
+    }
+
+    private static int crossingsAt(double[] ring, double y, double[] out) {
+        int n = ring.length / 2;
+        int count = 0;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double yi = ring[2 * i + 1];
+            double yj = ring[2 * j + 1];
+            if ((yi > y) != (yj > y)) {
+                double xi = ring[2 * i];
+                double xj = ring[2 * j];
+                out[count++] = xi + (y - yi) / (yj - yi) * (xj - xi);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Sort spans by start and merge overlapping ones in place
+     * @return Number of merged spans
+     */
+    private static int mergeSpans(double[] starts, double[] ends, int count) {
+        if (count <= 1) {
+            return count;
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(starts[a], starts[b]));
+        double[] sortedStarts = new double[count];
+        double[] sortedEnds = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedStarts[i] = starts[order[i]];
+            sortedEnds[i] = ends[order[i]];
+        }
+        int merged = 0;
+        for (int i = 0; i < count; i++) {
+            if (merged > 0 && sortedStarts[i] <= ends[merged - 1]) {
+                ends[merged - 1] = Math.max(ends[merged - 1], sortedEnds[i]);
+            } else {
+                starts[merged] = sortedStarts[i];
+                ends[merged] = sortedEnds[i];
+                merged++;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Height at which two edges properly cross, or NaN
+     */
+    private static double crossingY(double[] edges, int a, int b) {
+        double ax1 = edges[4 * a], ay1 = edges[4 * a + 1], ax2 = edges[4 * a + 2], ay2 = edges[4 * a + 3];
+        double bx1 = edges[4 * b], by1 = edges[4 * b + 1], bx2 = edges[4 * b + 2], by2 = edges[4 * b + 3];
+        if (Math.max(ay1, ay2) < Math.min(by1, by2) || Math.max(by1, by2) < Math.min(ay1, ay2)) {
+            return Double.NaN;
+        }
+        double dax = ax2 - ax1, day = ay2 - ay1;
+        double dbx = bx2 - bx1, dby = by2 - by1;
+        double denominator = dax * dby - day * dbx;
+        if (Math.abs(denominator) < EPSILON) {
+            return Double.NaN;
+        }
+        double t = ((bx1 - ax1) * dby - (by1 - ay1) * dbx) / denominator;
+        double u = ((bx1 - ax1) * day - (by1 - ay1) * dax) / denominator;
+        if (t <= 0 || t >= 1 || u <= 0 || u >= 1) {
+            return Double.NaN;
+        }
+        return ay1 + t * day;
+    }
+}
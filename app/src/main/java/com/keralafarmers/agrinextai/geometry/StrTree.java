@@ -0,0 +1,227 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Static R-tree of bounding boxes packed with Sort-Tile-Recursive
+ * Each level is built by sorting boxes by centre x into vertical slices,
+ * sorting each slice by centre y and packing runs of NODE_CAPACITY into
+ * parent nodes, which gives near-square, barely overlapping nodes. The tree
+ * is stored level by level in flat arrays and is immutable once built.
+ */
+public final class StrTree {
+
+    private static final int NODE_CAPACITY = 8;
+
+    // levels[0] are the items; the last level holds the single root
+    private final double[][] bounds;     // [level][4 * i]: minX, minY, maxX, maxY
+    private final int[][] childStart;    // [level][i]: first child in level - 1
+    private final int[][] childCount;
+    private final int[] itemIds;         // item ids in packed order
+
+    /**
+     * Pack boxes into a tree
+     * @param ids Item ids
+     * @param minX Box minimum x per item
+     * @param minY Box minimum y per item
+     * @param maxX Box maximum x per item
+     * @param maxY Box maximum y per item
+     */
+    public StrTree(int[] ids, double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        int n = ids.length;
+        double[] level = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            level[4 * i] = minX[i];
+            level[4 * i + 1] = minY[i];
+            level[4 * i + 2] = maxX[i];
+            level[4 * i + 3] = maxY[i];
+        }
+        int[] packedIds = ids.clone();
+        int[] starts = null;
+        int[] counts = null;
+
+        int depth = 1;
+        for (int count = n; count > 1; count = (count + NODE_CAPACITY - 1) / NODE_CAPACITY) {
+            depth++;
+        }
+        bounds = new double[n == 0 ? 0 : depth][];
+        childStart = new int[bounds.length][];
+        childCount = new int[bounds.length][];
+
+        int count = n;
+        for (int l = 0; l < bounds.length; l++) {
+            if (count > 1) {
+                // Reorder this level into STR order, carrying ids or child ranges along
+                int[] order = strOrder(level, count);
+                level = permute(level, order, 4);
+                if (l == 0) {
+                    packedIds = permute(packedIds, order);
+                } else {
+                    starts = permute(starts, order);
+                    counts = permute(counts, order);
+                }
+            }
+            bounds[l] = level;
+            childStart[l] = starts;
+            childCount[l] = counts;
+            if (count <= 1) {
+                break;
+            }
+
+            int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            double[] parentBounds = new double[parents * 4];
+            int[] parentStarts = new int[parents];
+            int[] parentCounts = new int[parents];
+            for (int p = 0; p < parents; p++) {
+                int first = p * NODE_CAPACITY;
+                int last = Math.min(count, first + NODE_CAPACITY);
+                parentStarts[p] = first;
+                parentCounts[p] = last - first;
+                double bx0 = Double.MAX_VALUE, by0 = Double.MAX_VALUE;
+                double bx1 = -Double.MAX_VALUE, by1 = -Double.MAX_VALUE;
+                for (int c = first; c < last; c++) {
+                    bx0 = Math.min(bx0, level[4 * c]);
+                    by0 = Math.min(by0, level[4 * c + 1]);
+                    bx1 = Math.max(bx1, level[4 * c + 2]);
+                    by1 = Math.max(by1, level[4 * c + 3]);
+                }
+                parentBounds[4 * p] = bx0;
+                parentBounds[4 * p + 1] = by0;
+                parentBounds[4 * p + 2] = bx1;
+                parentBounds[4 * p + 3] = by1;
+            }
+            level = parentBounds;
+            starts = parentStarts;
+            counts = parentCounts;
+            count = parents;
+        }
+        this.itemIds = packedIds;
+    }
+
+    /**
+     * Visit the ids of all items whose box intersects a query box
+     * @param visitor Called once per matching item
+     */
+    public void query(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (bounds.length == 0) {
+            return;
+        }
+        int top = bounds.length - 1;
+        int rootCount = bounds[top].length / 4;
+        for (int i = 0; i < rootCount; i++) {
+            visit(top, i, minX, minY, maxX, maxY, visitor);
+        }
+    }
+
+    private void visit(int level, int node, double minX, double minY, double maxX, double maxY,
+                       IntConsumer visitor) {
+        double[] b = bounds[level];
+        if (b[4 * node] > maxX || b[4 * node + 2] < minX || b[4 * node + 1] > maxY || b[4 * node + 3] < minY) {
+            return;
+        }
+        if (level == 0) {
+            visitor.accept(itemIds[node]);
+            return;
+        }
+        int first = childStart[level][node];
+        int last = first + childCount[level][node];
+        for (int c = first; c < last; c++) {
+            visit(level - 1, c, minX, minY, maxX, maxY, visitor);
+        }
+    }
+
+    /**
+     * Ids of the k items nearest a point, nearest first (best-first search)
+     * Nodes are expanded in order of their box's distance to the point, so
+     * only the branches that can still hold a closer item are visited.
+     * Distances are Euclidean after scaling x by xScale, e.g. cos(latitude)
+     * to make longitude and latitude degrees comparable.
+     * @param k Maximum number of ids
+     * @param xScale Factor applied to x differences
+     * @param filter Accepts the ids that may be returned
+     * @return Up to k ids
+     */
+    public int[] nearest(double x, double y, int k, double xScale, IntPredicate filter) {
+        int[] result = new int[Math.min(k, itemIds.length)];
+        if (bounds.length == 0 || result.length == 0) {
+            return result;
+        }
+        int found = 0;
+        // Entries are {squared distance, level, node}
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        int top = bounds.length - 1;
+        for (int i = 0; i < bounds[top].length / 4; i++) {
+            queue.add(new double[]{boxDistanceSq(top, i, x, y, xScale), top, i});
+        }
+        while (found < result.length && !queue.isEmpty()) {
+            double[] entry = queue.poll();
+            int level = (int) entry[1];
+            int node = (int) entry[2];
+            if (level == 0) {
+                if (filter.test(itemIds[node])) {
+                    result[found++] = itemIds[node];
+                }
+                continue;
+            }
+            int first = childStart[level][node];
+            int last = first + childCount[level][node];
+            for (int c = first; c < last; c++) {
+                queue.add(new double[]{boxDistanceSq(level - 1, c, x, y, xScale), level - 1, c});
+            }
+        }
+        return found == result.length ? result : Arrays.copyOf(result, found);
+    }
+
+    private double boxDistanceSq(int level, int node, double x, double y, double xScale) {
+        double[] b = bounds[level];
+        double dx = Math.max(0, Math.max(b[4 * node] - x, x - b[4 * node + 2])) * xScale;
+        double dy = Math.max(0, Math.max(b[4 * node + 1] - y, y - b[4 * node + 3]));
+        return dx * dx + dy * dy;
+    }
+
+    public int size() {
+        return itemIds.length;
+    }
+
+    /**
+     * Sort-Tile-Recursive order of one level's boxes
+     */
+    private static int[] strOrder(double[] boxes, int count) {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(boxes[4 * a] + boxes[4 * a + 2], boxes[4 * b] + boxes[4 * b + 2]));
+        int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int slices = (int) Math.ceil(Math.sqrt(nodes));
+        int sliceSize = slices * NODE_CAPACITY;
+        for (int start = 0; start < count; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(count, start + sliceSize),
+                    (a, b) -> Double.compare(boxes[4 * a + 1] + boxes[4 * a + 3], boxes[4 * b + 1] + boxes[4 * b + 3]));
+        }
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    private static double[] permute(double[] values, int[] order, int stride) {
+        double[] result = new double[values.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(values, order[i] * stride, result, i * stride, stride);
+        }
+        return result;
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] result = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = values[order[i]];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package com.keralafarmers.agrinextai.models;
+
+/**
+ * Immutable, pre-formatted chat bubble for ChatAdapter
+ * Built once per message so binding does no formatting
+ */
+public final class ChatDisplayItem {
+
+    private final CharSequence message;
+    private final CharSequence time;
+    private final boolean fromUser;
+    private final boolean typing;
+
+    public ChatDisplayItem(CharSequence message, CharSequence time, boolean fromUser, boolean typing) {
+        this.message = message;
+        this.time = time;
+        this.fromUser = fromUser;
+        this.typing = typing;
+    }
+
+    public CharSequence getMessage() {
+        return message;
+    }
+
+    public CharSequence getTime() {
+        return time;
+    }
+
+    public boolean isFromUser() {
+        return fromUser;
+    }
+
+    public boolean isTyping() {
+        return typing;
+    }
+}
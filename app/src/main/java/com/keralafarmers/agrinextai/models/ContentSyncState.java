@@ -0,0 +1,56 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Sync token of one content dataset
+ * Written in the same transaction as the changes it covers, so the token
+ * never runs ahead of (or behind) the rows on disk.
+ */
+@Entity(tableName = "content_sync_state")
+public class ContentSyncState {
+    
+    @PrimaryKey
+    @NonNull
+    private String dataset;
+    
+    @ColumnInfo(name = "token")
+    private String token; // opaque, issued by the content server
+    
+    @ColumnInfo(name = "synced_at")
+    private long syncedAt;
+    
+    public ContentSyncState(@NonNull String dataset, String token, long syncedAt) {
+        this.dataset = dataset;
+        this.token = token;
+        this.syncedAt = syncedAt;
+    }
+    
+    @NonNull
+    public String getDataset() {
+        return dataset;
+    }
+    
+    public void setDataset(@NonNull String dataset) {
+        this.dataset = dataset;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public void setToken(String token) {
+        this.token = token;
+    }
+    
+    public long getSyncedAt() {
+        return syncedAt;
+    }
+    
+    public void setSyncedAt(long syncedAt) {
+        this.syncedAt = syncedAt;
+    }
+}
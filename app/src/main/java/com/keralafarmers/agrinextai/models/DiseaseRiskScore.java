@@ -0,0 +1,114 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import com.keralafarmers.agrinextai.services.DiseaseRiskModel;
+
+/**
+ * Cached daily weather risk score of one disease for one weather cell
+ * Scores come from DiseaseRiskModel; disease keys match AIAdvisorService.
+ */
+@Entity(tableName = "disease_risk_scores",
+        primaryKeys = {"geohash", "epoch_day", "disease_key"})
+public class DiseaseRiskScore {
+
+    // Risk levels
+    public static final String LOW = "LOW";
+    public static final String MODERATE = "MODERATE";
+    public static final String HIGH = "HIGH";
+
+    @NonNull
+    @ColumnInfo(name = "geohash")
+    private String geohash;
+
+    @ColumnInfo(name = "epoch_day")
+    private int epochDay;
+
+    @NonNull
+    @ColumnInfo(name = "disease_key")
+    private String diseaseKey;
+
+    @ColumnInfo(name = "score")
+    private double score;
+
+    @ColumnInfo(name = "is_forecast")
+    private boolean isForecast;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public DiseaseRiskScore(@NonNull String geohash, int epochDay, @NonNull String diseaseKey, double score,
+                            boolean isForecast, long updatedAt) {
+        this.geohash = geohash;
+        this.epochDay = epochDay;
+        this.diseaseKey = diseaseKey;
+        this.score = score;
+        this.isForecast = isForecast;
+        this.updatedAt = updatedAt;
+    }
+
+    @NonNull
+    public String getGeohash() {
+        return geohash;
+    }
+
+    public void setGeohash(@NonNull String geohash) {
+        this.geohash = geohash;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    @NonNull
+    public String getDiseaseKey() {
+        return diseaseKey;
+    }
+
+    public void setDiseaseKey(@NonNull String diseaseKey) {
+        this.diseaseKey = diseaseKey;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public boolean isForecast() {
+        return isForecast;
+    }
+
+    public void setForecast(boolean forecast) {
+        isForecast = forecast;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Get the risk level for the score
+     * @return LOW, MODERATE or HIGH
+     */
+    public String getRiskLevel() {
+        if (score >= DiseaseRiskModel.HIGH_THRESHOLD) {
+            return HIGH;
+        }
+        if (score >= DiseaseRiskModel.MODERATE_THRESHOLD) {
+            return MODERATE;
+        }
+        return LOW;
+    }
+}
@@ -0,0 +1,154 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Surveyed boundary of one farm plot
+ * Rings are blobs from GeoPolygon.encodeRings; the bounding box columns allow
+ * map-area queries without decoding, and both areas are computed on save.
+ */
+@Entity(tableName = "farm_boundaries",
+        indices = {@Index(value = {"user_id"}), @Index(value = {"min_lat", "min_lon"})})
+public class FarmBoundary {
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    private int id;
+
+    @ColumnInfo(name = "user_id")
+    private int userId;
+
+    @ColumnInfo(name = "name")
+    private String name;
+
+    @ColumnInfo(name = "outer_ring")
+    private byte[] outerRing; // single ring
+
+    @ColumnInfo(name = "exclusion_rings")
+    private byte[] exclusionRings; // ponds, buildings, paths
+
+    @ColumnInfo(name = "min_lat")
+    private double minLat;
+
+    @ColumnInfo(name = "max_lat")
+    private double maxLat;
+
+    @ColumnInfo(name = "min_lon")
+    private double minLon;
+
+    @ColumnInfo(name = "max_lon")
+    private double maxLon;
+
+    @ColumnInfo(name = "area_m2")
+    private double areaM2;
+
+    @ColumnInfo(name = "cultivable_area_m2")
+    private double cultivableAreaM2;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public FarmBoundary(int userId, String name) {
+        this.userId = userId;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public byte[] getOuterRing() {
+        return outerRing;
+    }
+
+    public void setOuterRing(byte[] outerRing) {
+        this.outerRing = outerRing;
+    }
+
+    public byte[] getExclusionRings() {
+        return exclusionRings;
+    }
+
+    public void setExclusionRings(byte[] exclusionRings) {
+        this.exclusionRings = exclusionRings;
+    }
+
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public void setMinLat(double minLat) {
+        this.minLat = minLat;
+    }
+
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public void setMaxLat(double maxLat) {
+        this.maxLat = maxLat;
+    }
+
+    public double getMinLon() {
+        return minLon;
+    }
+
+    public void setMinLon(double minLon) {
+        this.minLon = minLon;
+    }
+
+    public double getMaxLon() {
+        return maxLon;
+    }
+
+    public void setMaxLon(double maxLon) {
+        this.maxLon = maxLon;
+    }
+
+    public double getAreaM2() {
+        return areaM2;
+    }
+
+    public void setAreaM2(double areaM2) {
+        this.areaM2 = areaM2;
+    }
+
+    public double getCultivableAreaM2() {
+        return cultivableAreaM2;
+    }
+
+    public void setCultivableAreaM2(double cultivableAreaM2) {
+        this.cultivableAreaM2 = cultivableAreaM2;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,23 +1,73 @@
 package com.keralafarmers.agrinextai.models;
 
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
 /**
  * Model class for Government Schemes
+ * Eligibility is kept twice: as prose for display, and as structured
+ * predicates (farm size, crops, districts, organic, tenancy) that the
+ * scheme matcher compiles into bitsets.
  */
+@Entity(tableName = "government_schemes")
 public class GovernmentScheme {
+    
+    public static final int TENANCY_ANY = 0;
+    public static final int TENANCY_OWNERS_ONLY = 1;
+    public static final int TENANCY_TENANTS_ONLY = 2;
+    
+    @PrimaryKey
     private int id;
+    
+    @ColumnInfo(name = "name")
     private String name;
+    
+    @ColumnInfo(name = "description")
     private String description;
+    
+    @ColumnInfo(name = "eligibility")
     private String eligibility;
+    
+    @ColumnInfo(name = "benefit")
     private String benefit;
+    
+    @ColumnInfo(name = "application_process")
     private String applicationProcess;
+    
+    @ColumnInfo(name = "contact_info")
     private String contactInfo;
+    
+    @ColumnInfo(name = "category")
     private String category;
+    
+    @ColumnInfo(name = "is_active")
     private boolean isActive;
     
+    @ColumnInfo(name = "max_farm_size_ha")
+    private double maxFarmSizeHa; // 0 for no limit
+    
+    @ColumnInfo(name = "eligible_crops")
+    private String eligibleCrops; // comma-separated, null for any crop
+    
+    @ColumnInfo(name = "eligible_districts")
+    private String eligibleDistricts; // comma-separated, null for all of Kerala
+    
+    @ColumnInfo(name = "is_organic_required")
+    private boolean isOrganicRequired;
+    
+    @ColumnInfo(name = "tenancy")
+    private int tenancy; // TENANCY_ANY, TENANCY_OWNERS_ONLY or TENANCY_TENANTS_ONLY
+    
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+    
     public GovernmentScheme() {
         this.isActive = true;
     }
     
+    @Ignore
     public GovernmentScheme(String name, String description, String eligibility, String benefit) {
         this.name = name;
         this.description = description;
@@ -63,6 +113,30 @@ public class GovernmentScheme {
         return isActive;
     }
     
+    public double getMaxFarmSizeHa() {
+        return maxFarmSizeHa;
+    }
+    
+    public String getEligibleCrops() {
+        return eligibleCrops;
+    }
+    
+    public String getEligibleDistricts() {
+        return eligibleDistricts;
+    }
+    
+    public boolean isOrganicRequired() {
+        return isOrganicRequired;
+    }
+    
+    public int getTenancy() {
+        return tenancy;
+    }
+    
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+    
     // Setters
     public void setId(int id) {
         this.id = id;
@@ -100,6 +174,30 @@ public class GovernmentScheme {
         isActive = active;
     }
     
+    public void setMaxFarmSizeHa(double maxFarmSizeHa) {
+        this.maxFarmSizeHa = maxFarmSizeHa;
+    }
+    
+    public void setEligibleCrops(String eligibleCrops) {
+        this.eligibleCrops = eligibleCrops;
+    }
+    
+    public void setEligibleDistricts(String eligibleDistricts) {
+        this.eligibleDistricts = eligibleDistricts;
+    }
+    
+    public void setOrganicRequired(boolean organicRequired) {
+        isOrganicRequired = organicRequired;
+    }
+    
+    public void setTenancy(int tenancy) {
+        this.tenancy = tenancy;
+    }
+    
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
     @Override
     public String toString() {
         return "GovernmentScheme{" +
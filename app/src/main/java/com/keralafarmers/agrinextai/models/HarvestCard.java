@@ -3,13 +3,15 @@ package com.keralafarmers.agrinextai.models;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Harvest Card entity for Room database
  * Stores traceability information for harvest with QR code support
  */
-@Entity(tableName = "harvest_cards")
+@Entity(tableName = "harvest_cards",
+        indices = {@Index(value = {"user_id", "is_active", "harvest_date"})})
 public class HarvestCard {
     
     @PrimaryKey(autoGenerate = true)
@@ -0,0 +1,75 @@
+package com.keralafarmers.agrinextai.models;
+
+/**
+ * Immutable, pre-formatted harvest card row for HarvestCardAdapter
+ * Built once per data change so binding does no formatting
+ */
+public final class HarvestCardDisplayItem {
+
+    private final HarvestCard harvestCard;
+    private final CharSequence cropName;
+    private final CharSequence variety;
+    private final CharSequence farmerName;
+    private final CharSequence location;
+    private final CharSequence quantity;
+    private final CharSequence qualityGrade;
+    private final CharSequence harvestDate;
+    private final CharSequence qrCode;
+    private final boolean organic;
+
+    public HarvestCardDisplayItem(HarvestCard harvestCard, CharSequence cropName, CharSequence variety,
+                                  CharSequence farmerName, CharSequence location, CharSequence quantity,
+                                  CharSequence qualityGrade, CharSequence harvestDate, CharSequence qrCode,
+                                  boolean organic) {
+        this.harvestCard = harvestCard;
+        this.cropName = cropName;
+        this.variety = variety;
+        this.farmerName = farmerName;
+        this.location = location;
+        this.quantity = quantity;
+        this.qualityGrade = qualityGrade;
+        this.harvestDate = harvestDate;
+        this.qrCode = qrCode;
+        this.organic = organic;
+    }
+
+    public HarvestCard getHarvestCard() {
+        return harvestCard;
+    }
+
+    public CharSequence getCropName() {
+        return cropName;
+    }
+
+    public CharSequence getVariety() {
+        return variety;
+    }
+
+    public CharSequence getFarmerName() {
+        return farmerName;
+    }
+
+    public CharSequence getLocation() {
+        return location;
+    }
+
+    public CharSequence getQuantity() {
+        return quantity;
+    }
+
+    public CharSequence getQualityGrade() {
+        return qualityGrade;
+    }
+
+    public CharSequence getHarvestDate() {
+        return harvestDate;
+    }
+
+    public CharSequence getQrCode() {
+        return qrCode;
+    }
+
+    public boolean isOrganic() {
+        return organic;
+    }
+}
@@ -0,0 +1,81 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Irrigation the farmer confirmed applying to a planted farm
+ * The water balance only credits irrigation recorded here; a scheduled
+ * irrigation that was never confirmed leaves the depletion in place.
+ */
+@Entity(tableName = "irrigation_events",
+        indices = {@Index(value = {"card_id", "epoch_day"})})
+public class IrrigationEvent {
+
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+
+    @NonNull
+    @ColumnInfo(name = "card_id")
+    private String cardId;
+
+    @ColumnInfo(name = "epoch_day")
+    private int epochDay; // day the water was applied
+
+    @ColumnInfo(name = "depth_mm")
+    private double depthMm;
+
+    @ColumnInfo(name = "recorded_at")
+    private long recordedAt;
+
+    public IrrigationEvent(@NonNull String cardId, int epochDay, double depthMm) {
+        this.cardId = cardId;
+        this.epochDay = epochDay;
+        this.depthMm = depthMm;
+        this.recordedAt = System.currentTimeMillis();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(@NonNull String cardId) {
+        this.cardId = cardId;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    public double getDepthMm() {
+        return depthMm;
+    }
+
+    public void setDepthMm(double depthMm) {
+        this.depthMm = depthMm;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+
+    public void setRecordedAt(long recordedAt) {
+        this.recordedAt = recordedAt;
+    }
+}
@@ -0,0 +1,177 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * Root zone water balance and next irrigation for one planted farm
+ * Keyed by harvest card; depletion is carried from balance_day so each
+ * nightly batch only advances the days it has not seen yet.
+ */
+@Entity(tableName = "irrigation_plans",
+        primaryKeys = {"card_id"},
+        indices = {@Index(value = {"user_id"})})
+public class IrrigationPlan {
+
+    @NonNull
+    @ColumnInfo(name = "card_id")
+    private String cardId;
+
+    @ColumnInfo(name = "user_id")
+    private int userId;
+
+    @ColumnInfo(name = "crop_name")
+    private String cropName;
+
+    @ColumnInfo(name = "farm_location")
+    private String farmLocation;
+
+    @ColumnInfo(name = "balance_day")
+    private int balanceDay; // last epoch day included in depletion_mm
+
+    @ColumnInfo(name = "depletion_mm")
+    private double depletionMm;
+
+    @ColumnInfo(name = "taw_mm")
+    private double tawMm; // total available water of the root zone
+
+    @ColumnInfo(name = "raw_mm")
+    private double rawMm; // readily available water before stress
+
+    @ColumnInfo(name = "et0_mm")
+    private double et0Mm;
+
+    @ColumnInfo(name = "etc_mm")
+    private double etcMm;
+
+    @ColumnInfo(name = "next_irrigation_day")
+    private int nextIrrigationDay; // -1 if none within the forecast
+
+    @ColumnInfo(name = "irrigation_depth_mm")
+    private double irrigationDepthMm;
+
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+
+    public IrrigationPlan(@NonNull String cardId, int userId, String cropName, String farmLocation) {
+        this.cardId = cardId;
+        this.userId = userId;
+        this.cropName = cropName;
+        this.farmLocation = farmLocation;
+        this.nextIrrigationDay = -1;
+    }
+
+    @NonNull
+    public String getCardId() {
+        return cardId;
+    }
+
+    public void setCardId(@NonNull String cardId) {
+        this.cardId = cardId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public String getCropName() {
+        return cropName;
+    }
+
+    public void setCropName(String cropName) {
+        this.cropName = cropName;
+    }
+
+    public String getFarmLocation() {
+        return farmLocation;
+    }
+
+    public void setFarmLocation(String farmLocation) {
+        this.farmLocation = farmLocation;
+    }
+
+    public int getBalanceDay() {
+        return balanceDay;
+    }
+
+    public void setBalanceDay(int balanceDay) {
+        this.balanceDay = balanceDay;
+    }
+
+    public double getDepletionMm() {
+        return depletionMm;
+    }
+
+    public void setDepletionMm(double depletionMm) {
+        this.depletionMm = depletionMm;
+    }
+
+    public double getTawMm() {
+        return tawMm;
+    }
+
+    public void setTawMm(double tawMm) {
+        this.tawMm = tawMm;
+    }
+
+    public double getRawMm() {
+        return rawMm;
+    }
+
+    public void setRawMm(double rawMm) {
+        this.rawMm = rawMm;
+    }
+
+    public double getEt0Mm() {
+        return et0Mm;
+    }
+
+    public void setEt0Mm(double et0Mm) {
+        this.et0Mm = et0Mm;
+    }
+
+    public double getEtcMm() {
+        return etcMm;
+    }
+
+    public void setEtcMm(double etcMm) {
+        this.etcMm = etcMm;
+    }
+
+    public int getNextIrrigationDay() {
+        return nextIrrigationDay;
+    }
+
+    public void setNextIrrigationDay(int nextIrrigationDay) {
+        this.nextIrrigationDay = nextIrrigationDay;
+    }
+
+    public double getIrrigationDepthMm() {
+        return irrigationDepthMm;
+    }
+
+    public void setIrrigationDepthMm(double irrigationDepthMm) {
+        this.irrigationDepthMm = irrigationDepthMm;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * @return True if the balance calls for irrigation within the forecast window
+     */
+    public boolean needsIrrigation() {
+        return nextIrrigationDay >= 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Chatbot knowledge base entry: an answer in three languages and the
+ * keywords that select it
+ */
+@Entity(tableName = "knowledge_entries")
+public class KnowledgeEntry {
+    
+    @PrimaryKey
+    private int id;
+    
+    @ColumnInfo(name = "category")
+    private String category;
+    
+    @ColumnInfo(name = "keywords")
+    private String keywords; // comma-separated, matched case-insensitively
+    
+    @ColumnInfo(name = "response_en")
+    private String responseEn;
+    
+    @ColumnInfo(name = "response_hi")
+    private String responseHi;
+    
+    @ColumnInfo(name = "response_ml")
+    private String responseMl;
+    
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+    
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public String getCategory() {
+        return category;
+    }
+    
+    public void setCategory(String category) {
+        this.category = category;
+    }
+    
+    public String getKeywords() {
+        return keywords;
+    }
+    
+    public void setKeywords(String keywords) {
+        this.keywords = keywords;
+    }
+    
+    public String getResponseEn() {
+        return responseEn;
+    }
+    
+    public void setResponseEn(String responseEn) {
+        this.responseEn = responseEn;
+    }
+    
+    public String getResponseHi() {
+        return responseHi;
+    }
+    
+    public void setResponseHi(String responseHi) {
+        this.responseHi = responseHi;
+    }
+    
+    public String getResponseMl() {
+        return responseMl;
+    }
+    
+    public void setResponseMl(String responseMl) {
+        this.responseMl = responseMl;
+    }
+    
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
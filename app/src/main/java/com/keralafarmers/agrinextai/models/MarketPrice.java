@@ -328,6 +328,55 @@ public class MarketPrice {
         }
     }
 
+    /**
+     * Identity of a price row in the live ticker: crop, market, district and grade
+     * @return Row key
+     */
+    public String getRowKey() {
+        return cropName + '|' + marketName + '|' + district + '|' + qualityGrade;
+    }
+
+    /**
+     * Copy this price with a ticker update applied
+     * The only definition of a tick: the snapshot, the stored row and the list
+     * on screen all take the result of this method. The current price (which
+     * is also the modal price) becomes the previous price; change and trend
+     * come from the tick when it carries a trend, otherwise both are recalculated.
+     * @param tick Partial row carrying the new price
+     * @return Updated copy; this object is left unchanged
+     */
+    public MarketPrice withTick(MarketPrice tick) {
+        MarketPrice updated = new MarketPrice();
+        updated.id = id;
+        updated.cropName = cropName;
+        updated.cropNameHi = cropNameHi;
+        updated.cropNameMl = cropNameMl;
+        updated.variety = variety;
+        updated.marketName = marketName;
+        updated.district = district;
+        updated.state = state;
+        updated.currency = currency;
+        updated.unit = unit;
+        updated.priceDate = priceDate;
+        updated.minPrice = minPrice > 0 ? Math.min(minPrice, tick.pricePerKg) : tick.pricePerKg;
+        updated.maxPrice = Math.max(maxPrice, tick.pricePerKg);
+        updated.qualityGrade = qualityGrade;
+        updated.isOrganic = isOrganic;
+        updated.source = source;
+        updated.isActive = isActive;
+
+        updated.previousPrice = pricePerKg;
+        updated.pricePerKg = tick.pricePerKg;
+        updated.lastUpdated = tick.lastUpdated;
+        if (tick.trend != null) {
+            updated.changePercentage = tick.changePercentage;
+            updated.trend = tick.trend;
+        } else {
+            updated.calculatePriceChange();
+        }
+        return updated;
+    }
+
     @Override
     public String toString() {
         return "MarketPrice{" +
@@ -0,0 +1,68 @@
+package com.keralafarmers.agrinextai.models;
+
+/**
+ * Immutable, pre-formatted market price row for MarketPriceAdapter
+ * Built once per data change so binding does no formatting
+ */
+public final class MarketPriceDisplayItem {
+
+    private final MarketPrice marketPrice;
+    private final CharSequence cropName;
+    private final CharSequence variety;
+    private final CharSequence marketName;
+    private final CharSequence unit;
+    private final CharSequence minPrice;
+    private final CharSequence maxPrice;
+    private final CharSequence modalPrice;
+    private final CharSequence lastUpdated;
+
+    public MarketPriceDisplayItem(MarketPrice marketPrice, CharSequence cropName, CharSequence variety,
+                                  CharSequence marketName, CharSequence unit, CharSequence minPrice,
+                                  CharSequence maxPrice, CharSequence modalPrice, CharSequence lastUpdated) {
+        this.marketPrice = marketPrice;
+        this.cropName = cropName;
+        this.variety = variety;
+        this.marketName = marketName;
+        this.unit = unit;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.modalPrice = modalPrice;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public MarketPrice getMarketPrice() {
+        return marketPrice;
+    }
+
+    public CharSequence getCropName() {
+        return cropName;
+    }
+
+    public CharSequence getVariety() {
+        return variety;
+    }
+
+    public CharSequence getMarketName() {
+        return marketName;
+    }
+
+    public CharSequence getUnit() {
+        return unit;
+    }
+
+    public CharSequence getMinPrice() {
+        return minPrice;
+    }
+
+    public CharSequence getMaxPrice() {
+        return maxPrice;
+    }
+
+    public CharSequence getModalPrice() {
+        return modalPrice;
+    }
+
+    public CharSequence getLastUpdated() {
+        return lastUpdated;
+    }
+}
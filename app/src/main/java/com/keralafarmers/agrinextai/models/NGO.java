@@ -1,26 +1,79 @@
 package com.keralafarmers.agrinextai.models;
 
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.PrimaryKey;
+
+import java.util.Locale;
+
 /**
  * NGO model class for representing Non-Governmental Organizations
  * that provide support to farmers
+ * Also holds government agriculture offices (Krishi Bhavans), told apart
+ * by organization type, so one directory answers "help near me".
  */
+@Entity(tableName = "ngos")
 public class NGO {
     
+    public static final String TYPE_NGO = "ngo";
+    public static final String TYPE_KRISHI_BHAVAN = "krishi_bhavan";
+    
+    @PrimaryKey
     private int id;
+    
+    @ColumnInfo(name = "name")
     private String name;
+    
+    @ColumnInfo(name = "description")
     private String description;
+    
+    @ColumnInfo(name = "services")
     private String services;
+    
+    @ColumnInfo(name = "location")
     private String location;
+    
+    @ColumnInfo(name = "latitude")
+    private double latitude;
+    
+    @ColumnInfo(name = "longitude")
+    private double longitude;
+    
+    @ColumnInfo(name = "organization_type")
+    private String organizationType; // TYPE_NGO or TYPE_KRISHI_BHAVAN
+    
+    @ColumnInfo(name = "phone_number")
     private String phoneNumber;
+    
+    @ColumnInfo(name = "email")
     private String email;
+    
+    @ColumnInfo(name = "website")
     private String website;
+    
+    @ColumnInfo(name = "category")
     private String category;
+    
+    @ColumnInfo(name = "rating")
     private float rating;
+    
+    @ColumnInfo(name = "is_verified")
     private boolean isVerified;
+    
+    @ColumnInfo(name = "image_url")
     private String imageUrl;
+    
+    @ColumnInfo(name = "created_at")
     private long createdAt;
+    
+    @ColumnInfo(name = "updated_at")
     private long updatedAt;
     
+    // Distance from the last nearest-first search, not stored
+    @Ignore
+    private double distanceKm = -1;
+    
     // Constructors
     public NGO() {
         this.createdAt = System.currentTimeMillis();
@@ -29,6 +82,7 @@ public class NGO {
         this.isVerified = false;
     }
     
+    @Ignore
     public NGO(String name, String description, String phoneNumber, String email) {
         this();
         this.name = name;
@@ -78,6 +132,30 @@ public class NGO {
         this.location = location;
     }
     
+    public double getLatitude() {
+        return latitude;
+    }
+    
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+    
+    public double getLongitude() {
+        return longitude;
+    }
+    
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+    
+    public String getOrganizationType() {
+        return organizationType;
+    }
+    
+    public void setOrganizationType(String organizationType) {
+        this.organizationType = organizationType;
+    }
+    
     public String getPhoneNumber() {
         return phoneNumber;
     }
@@ -150,7 +228,26 @@ public class NGO {
         this.updatedAt = updatedAt;
     }
     
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+    
+    public void setDistanceKm(double distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+    
     // Helper methods
+    public boolean hasDistance() {
+        return distanceKm >= 0;
+    }
+    
+    public String getFormattedDistance() {
+        return distanceKm < 10
+                ? String.format(Locale.getDefault(), "%.1f km", distanceKm)
+                : String.format(Locale.getDefault(), "%.0f km", distanceKm);
+    }
+    
+
     public String getFormattedRating() {
         return String.format("%.1f ⭐", rating);
     }
@@ -161,10 +258,10 @@ public class NGO {
     
     public String getContactInfo() {
         StringBuilder contact = new StringBuilder();
-        if (phoneNumber != null && !phoneNumber.isEmpty()) {
+        if (hasPhoneNumber()) {
             contact.append("📞 ").append(phoneNumber);
         }
-        if (email != null && !email.isEmpty()) {
+        if (hasEmail()) {
             if (contact.length() > 0) contact.append("\n");
             contact.append("📧 ").append(email);
         }
@@ -0,0 +1,84 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Running statistics of one plot's pass-to-pass NDVI change in one season
+ * Seasons are calendar months; mean and m2 are Welford accumulators, so a
+ * new pass updates the baseline without reading older observations.
+ */
+@Entity(tableName = "plot_index_baselines",
+        primaryKeys = {"plot_id", "season"})
+public class PlotIndexBaseline {
+
+    @ColumnInfo(name = "plot_id")
+    private int plotId;
+
+    @ColumnInfo(name = "season")
+    private int season; // month, 0 = January
+
+    @ColumnInfo(name = "sample_count")
+    private int sampleCount;
+
+    @ColumnInfo(name = "mean")
+    private double mean;
+
+    @ColumnInfo(name = "m2")
+    private double m2; // sum of squared deviations from the mean
+
+    public PlotIndexBaseline(int plotId, int season) {
+        this.plotId = plotId;
+        this.season = season;
+    }
+
+    /**
+     * Add one sample (Welford's update)
+     */
+    public void add(double value) {
+        sampleCount++;
+        double delta = value - mean;
+        mean += delta / sampleCount;
+        m2 += delta * (value - mean);
+    }
+
+    public int getPlotId() {
+        return plotId;
+    }
+
+    public void setPlotId(int plotId) {
+        this.plotId = plotId;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public void setSeason(int season) {
+        this.season = season;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public void setSampleCount(int sampleCount) {
+        this.sampleCount = sampleCount;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public void setMean(double mean) {
+        this.mean = mean;
+    }
+
+    public double getM2() {
+        return m2;
+    }
+
+    public void setM2(double m2) {
+        this.m2 = m2;
+    }
+}
@@ -0,0 +1,166 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Index statistics of one plot in one satellite scene
+ * Rows form the plot's time stack; the change fields compare each pass with
+ * the previous usable pass and are filled in when the scene is ingested.
+ */
+@Entity(tableName = "plot_index_observations",
+        primaryKeys = {"plot_id", "scene_id"})
+public class PlotIndexObservation {
+
+    @ColumnInfo(name = "plot_id")
+    private int plotId; // FarmBoundary id
+
+    @NonNull
+    @ColumnInfo(name = "scene_id")
+    private String sceneId;
+
+    @ColumnInfo(name = "epoch_day")
+    private int epochDay; // acquisition day
+
+    @ColumnInfo(name = "pixel_count")
+    private int pixelCount;
+
+    @ColumnInfo(name = "coverage")
+    private double coverage; // valid pixel area / plot area
+
+    @ColumnInfo(name = "mean_ndvi")
+    private double meanNdvi;
+
+    @ColumnInfo(name = "mean_ndwi")
+    private double meanNdwi;
+
+    @ColumnInfo(name = "is_usable")
+    private boolean isUsable; // enough cloud-free cover to compare
+
+    @ColumnInfo(name = "has_change")
+    private boolean hasChange; // a recent usable pass preceded this one
+
+    @ColumnInfo(name = "ndvi_change")
+    private double ndviChange;
+
+    @ColumnInfo(name = "is_scored")
+    private boolean isScored; // enough seasonal history for a z-score
+
+    @ColumnInfo(name = "z_score")
+    private double zScore;
+
+    @ColumnInfo(name = "is_alert")
+    private boolean isAlert;
+
+    public PlotIndexObservation(int plotId, @NonNull String sceneId, int epochDay) {
+        this.plotId = plotId;
+        this.sceneId = sceneId;
+        this.epochDay = epochDay;
+    }
+
+    public int getPlotId() {
+        return plotId;
+    }
+
+    public void setPlotId(int plotId) {
+        this.plotId = plotId;
+    }
+
+    @NonNull
+    public String getSceneId() {
+        return sceneId;
+    }
+
+    public void setSceneId(@NonNull String sceneId) {
+        this.sceneId = sceneId;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    public int getPixelCount() {
+        return pixelCount;
+    }
+
+    public void setPixelCount(int pixelCount) {
+        this.pixelCount = pixelCount;
+    }
+
+    public double getCoverage() {
+        return coverage;
+    }
+
+    public void setCoverage(double coverage) {
+        this.coverage = coverage;
+    }
+
+    public double getMeanNdvi() {
+        return meanNdvi;
+    }
+
+    public void setMeanNdvi(double meanNdvi) {
+        this.meanNdvi = meanNdvi;
+    }
+
+    public double getMeanNdwi() {
+        return meanNdwi;
+    }
+
+    public void setMeanNdwi(double meanNdwi) {
+        this.meanNdwi = meanNdwi;
+    }
+
+    public boolean isUsable() {
+        return isUsable;
+    }
+
+    public void setUsable(boolean usable) {
+        isUsable = usable;
+    }
+
+    public boolean hasChange() {
+        return hasChange;
+    }
+
+    public void setHasChange(boolean hasChange) {
+        this.hasChange = hasChange;
+    }
+
+    public double getNdviChange() {
+        return ndviChange;
+    }
+
+    public void setNdviChange(double ndviChange) {
+        this.ndviChange = ndviChange;
+    }
+
+    public boolean isScored() {
+        return isScored;
+    }
+
+    public void setScored(boolean scored) {
+        isScored = scored;
+    }
+
+    public double getZScore() {
+        return zScore;
+    }
+
+    public void setZScore(double zScore) {
+        this.zScore = zScore;
+    }
+
+    public boolean isAlert() {
+        return isAlert;
+    }
+
+    public void setAlert(boolean alert) {
+        isAlert = alert;
+    }
+}
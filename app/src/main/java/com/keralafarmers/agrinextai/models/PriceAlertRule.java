@@ -0,0 +1,160 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Price alert rule entity for Room database
+ * e.g. "Black Pepper above ₹480/kg in Idukki" or "Cardamom dropped more than 5%"
+ */
+@Entity(tableName = "price_alert_rules",
+        indices = {@Index(value = {"crop_name", "district"})})
+public class PriceAlertRule {
+    
+    // Conditions
+    public static final String ABOVE = "ABOVE";               // price per kg above threshold
+    public static final String BELOW = "BELOW";               // price per kg below threshold
+    public static final String RISE_PERCENT = "RISE_PERCENT"; // change above +threshold %
+    public static final String DROP_PERCENT = "DROP_PERCENT"; // change below -threshold %
+    
+    @PrimaryKey(autoGenerate = true)
+    private int id;
+    
+    @ColumnInfo(name = "user_id")
+    private int userId;
+    
+    @ColumnInfo(name = "crop_name")
+    private String cropName;
+    
+    @ColumnInfo(name = "district")
+    private String district; // null matches every district
+    
+    @ColumnInfo(name = "condition")
+    private String condition;
+    
+    @ColumnInfo(name = "threshold")
+    private double threshold; // ₹/kg for ABOVE/BELOW, percent (positive) for RISE/DROP
+    
+    @ColumnInfo(name = "is_active")
+    private boolean isActive;
+    
+    @ColumnInfo(name = "is_triggered")
+    private boolean isTriggered; // condition held at the last sync; re-arms when it clears
+    
+    @ColumnInfo(name = "last_fired_at")
+    private long lastFiredAt;
+    
+    @ColumnInfo(name = "created_at")
+    private long createdAt;
+    
+    // Constructors
+    public PriceAlertRule() {
+        this.isActive = true;
+        this.createdAt = System.currentTimeMillis();
+    }
+    
+    @Ignore
+    public PriceAlertRule(int userId, String cropName, String district, String condition, double threshold) {
+        this();
+        this.userId = userId;
+        this.cropName = cropName;
+        this.district = district;
+        this.condition = condition;
+        this.threshold = threshold;
+    }
+    
+    // Getters and Setters
+    public int getId() {
+        return id;
+    }
+    
+    public void setId(int id) {
+        this.id = id;
+    }
+    
+    public int getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+    
+    public String getCropName() {
+        return cropName;
+    }
+    
+    public void setCropName(String cropName) {
+        this.cropName = cropName;
+    }
+    
+    public String getDistrict() {
+        return district;
+    }
+    
+    public void setDistrict(String district) {
+        this.district = district;
+    }
+    
+    public String getCondition() {
+        return condition;
+    }
+    
+    public void setCondition(String condition) {
+        this.condition = condition;
+    }
+    
+    public double getThreshold() {
+        return threshold;
+    }
+    
+    public void setThreshold(double threshold) {
+        this.threshold = threshold;
+    }
+    
+    public boolean isActive() {
+        return isActive;
+    }
+    
+    public void setActive(boolean active) {
+        isActive = active;
+    }
+    
+    public boolean isTriggered() {
+        return isTriggered;
+    }
+    
+    public void setTriggered(boolean triggered) {
+        isTriggered = triggered;
+    }
+    
+    public long getLastFiredAt() {
+        return lastFiredAt;
+    }
+    
+    public void setLastFiredAt(long lastFiredAt) {
+        this.lastFiredAt = lastFiredAt;
+    }
+    
+    public long getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(long createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "PriceAlertRule{" +
+                "id=" + id +
+                ", cropName='" + cropName + '\'' +
+                ", district='" + district + '\'' +
+                ", condition='" + condition + '\'' +
+                ", threshold=" + threshold +
+                '}';
+    }
+}
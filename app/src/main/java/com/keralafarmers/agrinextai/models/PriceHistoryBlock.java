@@ -0,0 +1,138 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+/**
+ * One time block of compressed price history for a (crop, market, grade) series
+ * Points are encoded with GorillaCodec; the time bounds and last point are
+ * kept as columns so range scans and appends need no decoding.
+ */
+@Entity(tableName = "price_history_blocks",
+        primaryKeys = {"series_key", "block_start"},
+        indices = {@Index(value = {"crop_name"})})
+public class PriceHistoryBlock {
+
+    @NonNull
+    @ColumnInfo(name = "series_key")
+    private String seriesKey; // crop|market|grade
+
+    @ColumnInfo(name = "block_start")
+    private long blockStart;
+
+    @ColumnInfo(name = "crop_name")
+    private String cropName;
+
+    @ColumnInfo(name = "market_name")
+    private String marketName;
+
+    @ColumnInfo(name = "quality_grade")
+    private String qualityGrade;
+
+    @ColumnInfo(name = "first_timestamp")
+    private long firstTimestamp;
+
+    @ColumnInfo(name = "last_timestamp")
+    private long lastTimestamp;
+
+    @ColumnInfo(name = "last_price")
+    private double lastPrice;
+
+    @ColumnInfo(name = "point_count")
+    private int pointCount;
+
+    @ColumnInfo(name = "data")
+    private byte[] data;
+
+    public PriceHistoryBlock(@NonNull String seriesKey, long blockStart, String cropName, String marketName,
+                             String qualityGrade) {
+        this.seriesKey = seriesKey;
+        this.blockStart = blockStart;
+        this.cropName = cropName;
+        this.marketName = marketName;
+        this.qualityGrade = qualityGrade;
+    }
+
+    @NonNull
+    public String getSeriesKey() {
+        return seriesKey;
+    }
+
+    public void setSeriesKey(@NonNull String seriesKey) {
+        this.seriesKey = seriesKey;
+    }
+
+    public long getBlockStart() {
+        return blockStart;
+    }
+
+    public void setBlockStart(long blockStart) {
+        this.blockStart = blockStart;
+    }
+
+    public String getCropName() {
+        return cropName;
+    }
+
+    public void setCropName(String cropName) {
+        this.cropName = cropName;
+    }
+
+    public String getMarketName() {
+        return marketName;
+    }
+
+    public void setMarketName(String marketName) {
+        this.marketName = marketName;
+    }
+
+    public String getQualityGrade() {
+        return qualityGrade;
+    }
+
+    public void setQualityGrade(String qualityGrade) {
+        this.qualityGrade = qualityGrade;
+    }
+
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public void setFirstTimestamp(long firstTimestamp) {
+        this.firstTimestamp = firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    public void setLastTimestamp(long lastTimestamp) {
+        this.lastTimestamp = lastTimestamp;
+    }
+
+    public double getLastPrice() {
+        return lastPrice;
+    }
+
+    public void setLastPrice(double lastPrice) {
+        this.lastPrice = lastPrice;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+}
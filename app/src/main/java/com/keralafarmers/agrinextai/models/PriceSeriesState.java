@@ -0,0 +1,93 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Stored forecasting model state for one (crop, market) price series
+ * The model itself is serialized by HoltWintersModel.toBytes()
+ */
+@Entity(tableName = "price_series_state")
+public class PriceSeriesState {
+    
+    @PrimaryKey
+    @NonNull
+    @ColumnInfo(name = "series_key")
+    private String seriesKey; // PriceForecastService.seriesKey()
+    
+    @ColumnInfo(name = "crop_name")
+    private String cropName;
+    
+    @ColumnInfo(name = "market_name")
+    private String marketName;
+    
+    @ColumnInfo(name = "district")
+    private String district;
+    
+    @ColumnInfo(name = "model_state")
+    private byte[] modelState;
+    
+    @ColumnInfo(name = "updated_at")
+    private long updatedAt;
+    
+    public PriceSeriesState(@NonNull String seriesKey, String cropName, String marketName, String district,
+                            byte[] modelState, long updatedAt) {
+        this.seriesKey = seriesKey;
+        this.cropName = cropName;
+        this.marketName = marketName;
+        this.district = district;
+        this.modelState = modelState;
+        this.updatedAt = updatedAt;
+    }
+    
+    @NonNull
+    public String getSeriesKey() {
+        return seriesKey;
+    }
+    
+    public void setSeriesKey(@NonNull String seriesKey) {
+        this.seriesKey = seriesKey;
+    }
+    
+    public String getCropName() {
+        return cropName;
+    }
+    
+    public void setCropName(String cropName) {
+        this.cropName = cropName;
+    }
+    
+    public String getMarketName() {
+        return marketName;
+    }
+    
+    public void setMarketName(String marketName) {
+        this.marketName = marketName;
+    }
+    
+    public String getDistrict() {
+        return district;
+    }
+    
+    public void setDistrict(String district) {
+        this.district = district;
+    }
+    
+    public byte[] getModelState() {
+        return modelState;
+    }
+    
+    public void setModelState(byte[] modelState) {
+        this.modelState = modelState;
+    }
+    
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -39,6 +39,10 @@ public class User {
     
     private String preferredLanguage;
     
+    private boolean isOrganic; // farms by certified or declared organic practice
+    
+    private boolean isTenant; // cultivates leased land rather than owned land
+    
     // Constructor
     public User() {
         this.isActive = true;
@@ -147,6 +151,22 @@ public class User {
         this.preferredLanguage = preferredLanguage;
     }
     
+    public boolean isOrganic() {
+        return isOrganic;
+    }
+    
+    public void setOrganic(boolean organic) {
+        isOrganic = organic;
+    }
+    
+    public boolean isTenant() {
+        return isTenant;
+    }
+    
+    public void setTenant(boolean tenant) {
+        isTenant = tenant;
+    }
+    
     @Override
     public String toString() {
         return "User{" +
@@ -1,18 +1,21 @@
 package com.keralafarmers.agrinextai.models;
 
 import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
 import androidx.room.PrimaryKey;
 
 /**
  * Weather data model for storing weather information
  */
-@Entity(tableName = "weather_data")
+@Entity(tableName = "weather_data",
+        indices = {@Index(value = {"geohash", "epochDay"})})
 public class Weather {
     
     @PrimaryKey(autoGenerate = true)
     private int id;
     
-    private String date; // YYYY-MM-DD format
+    private int epochDay; // days since 1970-01-01, see EpochDay
     private double temperature; // in Celsius
     private double minTemperature;
     private double maxTemperature;
@@ -26,6 +29,11 @@ public class Weather {
     private String location;
     private double latitude;
     private double longitude;
+    private String geohash; // cache cell, see GeoHash.WEATHER_CELL_PRECISION
+    
+    // Generated offline for display, not from the feed; such days are never stored
+    @Ignore
+    private boolean simulated;
     
     // Constructor
     public Weather() {
@@ -41,12 +49,12 @@ public class Weather {
         this.id = id;
     }
     
-    public String getDate() {
-        return date;
+    public int getEpochDay() {
+        return epochDay;
     }
     
-    public void setDate(String date) {
-        this.date = date;
+    public void setEpochDay(int epochDay) {
+        this.epochDay = epochDay;
     }
     
     public double getTemperature() {
@@ -153,11 +161,27 @@ public class Weather {
         this.longitude = longitude;
     }
     
+    public String getGeohash() {
+        return geohash;
+    }
+    
+    public void setGeohash(String geohash) {
+        this.geohash = geohash;
+    }
+    
+    public boolean isSimulated() {
+        return simulated;
+    }
+    
+    public void setSimulated(boolean simulated) {
+        this.simulated = simulated;
+    }
+    
     @Override
     public String toString() {
         return "Weather{" +
                 "id=" + id +
-                ", date='" + date + '\'' +
+                ", epochDay=" + epochDay +
                 ", temperature=" + temperature +
                 ", humidity=" + humidity +
                 ", rainfall=" + rainfall +
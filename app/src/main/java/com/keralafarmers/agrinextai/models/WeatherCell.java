@@ -0,0 +1,41 @@
+package com.keralafarmers.agrinextai.models;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
+/**
+ * Tracks when a geohash weather cell was last used
+ * Cells that fall out of recent use are evicted together with their weather rows
+ */
+@Entity(tableName = "weather_cells")
+public class WeatherCell {
+    
+    @PrimaryKey
+    @NonNull
+    private String geohash;
+    
+    private long lastAccessed;
+    
+    public WeatherCell(@NonNull String geohash, long lastAccessed) {
+        this.geohash = geohash;
+        this.lastAccessed = lastAccessed;
+    }
+    
+    @NonNull
+    public String getGeohash() {
+        return geohash;
+    }
+    
+    public void setGeohash(@NonNull String geohash) {
+        this.geohash = geohash;
+    }
+    
+    public long getLastAccessed() {
+        return lastAccessed;
+    }
+    
+    public void setLastAccessed(long lastAccessed) {
+        this.lastAccessed = lastAccessed;
+    }
+}
@@ -0,0 +1,68 @@
+package com.keralafarmers.agrinextai.models;
+
+/**
+ * Immutable, pre-formatted weather row for WeatherAdapter
+ * Built once per data change so binding does no formatting
+ */
+public final class WeatherDisplayItem {
+
+    private final Weather weather;
+    private final CharSequence date;
+    private final CharSequence day;
+    private final CharSequence icon;
+    private final CharSequence maxTemperature;
+    private final CharSequence minTemperature;
+    private final CharSequence humidity;
+    private final CharSequence rainfall;
+    private final CharSequence windSpeed;
+
+    public WeatherDisplayItem(Weather weather, CharSequence date, CharSequence day, CharSequence icon,
+                              CharSequence maxTemperature, CharSequence minTemperature,
+                              CharSequence humidity, CharSequence rainfall, CharSequence windSpeed) {
+        this.weather = weather;
+        this.date = date;
+        this.day = day;
+        this.icon = icon;
+        this.maxTemperature = maxTemperature;
+        this.minTemperature = minTemperature;
+        this.humidity = humidity;
+        this.rainfall = rainfall;
+        this.windSpeed = windSpeed;
+    }
+
+    public Weather getWeather() {
+        return weather;
+    }
+
+    public CharSequence getDate() {
+        return date;
+    }
+
+    public CharSequence getDay() {
+        return day;
+    }
+
+    public CharSequence getIcon() {
+        return icon;
+    }
+
+    public CharSequence getMaxTemperature() {
+        return maxTemperature;
+    }
+
+    public CharSequence getMinTemperature() {
+        return minTemperature;
+    }
+
+    public CharSequence getHumidity() {
+        return humidity;
+    }
+
+    public CharSequence getRainfall() {
+        return rainfall;
+    }
+
+    public CharSequence getWindSpeed() {
+        return windSpeed;
+    }
+}
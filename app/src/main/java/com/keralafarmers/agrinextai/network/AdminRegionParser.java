@@ -0,0 +1,161 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.keralafarmers.agrinextai.geometry.AdminRegionIndex;
+import com.keralafarmers.agrinextai.geometry.GeoPolygon;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a GeoJSON FeatureCollection of administrative boundaries into regions
+ * Each feature needs "name" and "level" properties ("parent" is optional)
+ * and a Polygon or MultiPolygon geometry. Features without them are skipped.
+ */
+public class AdminRegionParser implements FeedParser<AdminRegionIndex.Region> {
+
+    @Override
+    public List<AdminRegionIndex.Region> parse(JsonReader reader) throws IOException {
+        List<AdminRegionIndex.Region> regions = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("features".equals(reader.nextName())) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    AdminRegionIndex.Region region = readFeature(reader);
+                    if (region != null) {
+                        regions.add(region);
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return regions;
+    }
+
+    private AdminRegionIndex.Region readFeature(JsonReader reader) throws IOException {
+        String name = null, level = null, parent = null;
+        List<GeoPolygon> rings = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if ("properties".equals(key)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String property = reader.nextName();
+                    if (reader.peek() != JsonToken.STRING) {
+                        reader.skipValue();
+                    } else if ("name".equals(property)) {
+                        name = reader.nextString();
+                    } else if ("level".equals(property)) {
+                        level = reader.nextString();
+                    } else if ("parent".equals(property)) {
+                        parent = reader.nextString();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else if ("geometry".equals(key)) {
+                readGeometry(reader, rings);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if (name == null || level == null || rings.isEmpty()) {
+            return null;
+        }
+        return new AdminRegionIndex.Region(name, level, parent, rings);
+    }
+
+    /**
+     * Read a Polygon or MultiPolygon; holes are kept as rings, see Region
+     */
+    private void readGeometry(JsonReader reader, List<GeoPolygon> rings) throws IOException {
+        String type = null;
+        Object coordinates = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if ("type".equals(key)) {
+                type = reader.nextString();
+            } else if ("coordinates".equals(key)) {
+                coordinates = readCoordinates(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        if ("Polygon".equals(type) && coordinates instanceof List) {
+            addPolygon((List<?>) coordinates, rings);
+        } else if ("MultiPolygon".equals(type) && coordinates instanceof List) {
+            for (Object polygon : (List<?>) coordinates) {
+                if (polygon instanceof List) {
+                    addPolygon((List<?>) polygon, rings);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Nested lists of Doubles, mirroring the JSON arrays
+     */
+    private Object readCoordinates(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            return reader.nextDouble();
+        }
+        List<Object> items = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            items.add(readCoordinates(reader));
+        }
+        reader.endArray();
+        return items;
+    }
+
+    private void addPolygon(List<?> polygon, List<GeoPolygon> rings) {
+        for (Object ring : polygon) {
+            if (ring instanceof List) {
+                addRing((List<?>) ring, rings);
+            }
+        }
+    }
+
+    /**
+     * Add a ring of [lon, lat] positions, skipping malformed ones
+     */
+    private void addRing(List<?> positions, List<GeoPolygon> rings) {
+        List<double[]> points = new ArrayList<>(positions.size());
+        for (Object position : positions) {
+            if (position instanceof List && ((List<?>) position).size() >= 2
+                    && ((List<?>) position).get(0) instanceof Double
+                    && ((List<?>) position).get(1) instanceof Double) {
+                List<?> lonLat = (List<?>) position;
+                points.add(new double[]{(Double) lonLat.get(1), (Double) lonLat.get(0)});
+            }
+        }
+        int n = points.size();
+        // GeoJSON repeats the first position at the end; GeoPolygon closes implicitly
+        if (n > 1 && points.get(0)[0] == points.get(n - 1)[0] && points.get(0)[1] == points.get(n - 1)[1]) {
+            n--;
+        }
+        if (n < 3) {
+            return;
+        }
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = points.get(i)[0];
+            longitudes[i] = points.get(i)[1];
+        }
+        rings.add(new GeoPolygon(latitudes, longitudes));
+    }
+}
@@ -0,0 +1,197 @@
+package com.keralafarmers.agrinextai.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.logging.HttpLoggingInterceptor;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * Shared HTTP client for market and weather feeds
+ * One OkHttp client (connection pool + disk cache) backs a Retrofit FeedApi.
+ * OkHttp adds gzip and conditional headers (If-None-Match / If-Modified-Since)
+ * from the cache automatically; fetch() detects 304s and skips parsing.
+ * The base URL is pluggable so a local stand-in server can serve the feeds.
+ */
+public class ApiClient {
+    
+    private static final String PREF_NAME = "api_prefs";
+    private static final String KEY_BASE_URL = "base_url";
+    
+    private static final String CACHE_DIR = "http_cache";
+    private static final long CACHE_SIZE_BYTES = 10L * 1024 * 1024; // 10 MB
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final long KEEP_ALIVE_MINUTES = 5;
+    private static final long TIMEOUT_SECONDS = 20;
+    
+    private static volatile ApiClient INSTANCE;
+    
+    private final OkHttpClient httpClient;
+    private final FeedApi feedApi;
+    private final String baseUrl;
+    
+    private ApiClient(Context context, String baseUrl) {
+        HttpLoggingInterceptor logging = new HttpLoggingInterceptor();
+        // BASIC keeps the body unbuffered so feeds still stream
+        logging.setLevel(HttpLoggingInterceptor.Level.BASIC);
+        
+        this.baseUrl = baseUrl;
+        this.httpClient = new OkHttpClient.Builder()
+                .cache(new Cache(new File(context.getCacheDir(), CACHE_DIR), CACHE_SIZE_BYTES))
+                .connectionPool(new ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .addInterceptor(logging)
+                .build();
+        this.feedApi = new Retrofit.Builder()
+                .baseUrl(baseUrl)
+                .client(httpClient)
+                .build()
+                .create(FeedApi.class);
+    }
+    
+    /**
+     * Get the shared client for the configured base URL
+     * @param context Any context
+     * @return ApiClient, or null if no base URL has been configured
+     */
+    public static ApiClient getInstance(Context context) {
+        String baseUrl = getBaseUrl(context);
+        if (baseUrl == null) {
+            return null;
+        }
+        ApiClient client = INSTANCE;
+        if (client == null || !client.baseUrl.equals(baseUrl)) {
+            synchronized (ApiClient.class) {
+                client = INSTANCE;
+                if (client == null || !client.baseUrl.equals(baseUrl)) {
+                    client = new ApiClient(context.getApplicationContext(), baseUrl);
+                    INSTANCE = client;
+                }
+            }
+        }
+        return client;
+    }
+    
+    /**
+     * Point the feeds at a server (production API or a local stand-in)
+     * @param context Any context
+     * @param baseUrl Base URL ending in '/', or null to use offline mock data
+     */
+    public static void setBaseUrl(Context context, String baseUrl) {
+        prefs(context).edit().putString(KEY_BASE_URL, baseUrl).apply();
+    }
+    
+    /**
+     * Get the configured base URL
+     * @param context Any context
+     * @return Base URL or null when not configured
+     */
+    public static String getBaseUrl(Context context) {
+        return prefs(context).getString(KEY_BASE_URL, null);
+    }
+    
+    /**
+     * Be told when the base URL changes
+     * Preferences hold listeners weakly, so keep a reference for as long as it should fire.
+     * @param context Any context
+     * @param listener Listener, called on the main thread
+     */
+    public static void registerBaseUrlListener(Context context,
+                                               SharedPreferences.OnSharedPreferenceChangeListener listener) {
+        prefs(context).registerOnSharedPreferenceChangeListener(listener);
+    }
+    
+    /**
+     * Check if a feed server is configured
+     * @param context Any context
+     * @return True if a base URL is set
+     */
+    public static boolean isConfigured(Context context) {
+        return getBaseUrl(context) != null;
+    }
+    
+    public FeedApi getFeedApi() {
+        return feedApi;
+    }
+    
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+    
+    /**
+     * Execute a feed call and stream-parse the body
+     * Blocking; call from a background thread.
+     * @param call Feed call returning a raw body
+     * @param parser Streaming parser for the feed
+     * @return Parsed result, or a not-modified result when the server answered 304
+     * @throws IOException On network failure or a non-success status
+     */
+    public <T> FeedResult<T> fetch(Call<ResponseBody> call, FeedParser<T> parser) throws IOException {
+        return fetch(call, parser, false);
+    }
+    
+    /**
+     * Execute a feed call and parse the body even if it has not changed
+     * On a 304 OkHttp supplies the body from its disk cache, so callers that
+     * lost their own copy of an unchanged feed (e.g. evicted rows) can rebuild it.
+     * Blocking; call from a background thread.
+     * @param call Feed call returning a raw body
+     * @param parser Streaming parser for the feed
+     * @return Parsed result, always modified
+     * @throws IOException On network failure or a non-success status
+     */
+    public <T> FeedResult<T> fetchFull(Call<ResponseBody> call, FeedParser<T> parser) throws IOException {
+        return fetch(call, parser, true);
+    }
+    
+    private <T> FeedResult<T> fetch(Call<ResponseBody> call, FeedParser<T> parser,
+                                    boolean parseUnmodified) throws IOException {
+        Response<ResponseBody> response = call.execute();
+        ResponseBody body = response.body();
+        try {
+            if (!response.isSuccessful()) {
+                throw new IOException("HTTP " + response.code() + " for " + call.request().url());
+            }
+            
+            okhttp3.Response raw = response.raw();
+            boolean revalidated = raw.networkResponse() != null && raw.networkResponse().code() == 304;
+            boolean servedFromCache = raw.networkResponse() == null && raw.cacheResponse() != null;
+            if ((revalidated || servedFromCache) && !parseUnmodified) {
+                return FeedResult.notModified();
+            }
+            
+            if (body == null) {
+                throw new IOException("Empty body for " + call.request().url());
+            }
+            try (JsonReader reader = new JsonReader(
+                    new InputStreamReader(body.byteStream(), StandardCharsets.UTF_8))) {
+                List<T> items = parser.parse(reader);
+                return FeedResult.modified(items);
+            }
+        } finally {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+    
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,50 @@
+package com.keralafarmers.agrinextai.network;
+
+import java.util.List;
+
+/**
+ * Changes to one reference content dataset since a sync token
+ */
+public class ContentChanges<T> {
+    
+    private final String token;
+    private final boolean reset;
+    private final List<T> upserts;
+    private final int[] deletedIds;
+    
+    /**
+     * @param token Token to send on the next sync
+     * @param reset Whether upserts are a full snapshot replacing everything stored
+     * @param upserts New and changed records
+     * @param deletedIds Ids of removed records
+     */
+    public ContentChanges(String token, boolean reset, List<T> upserts, int[] deletedIds) {
+        this.token = token;
+        this.reset = reset;
+        this.upserts = upserts;
+        this.deletedIds = deletedIds;
+    }
+    
+    public String getToken() {
+        return token;
+    }
+    
+    public boolean isReset() {
+        return reset;
+    }
+    
+    public List<T> getUpserts() {
+        return upserts;
+    }
+    
+    public int[] getDeletedIds() {
+        return deletedIds;
+    }
+    
+    /**
+     * @return Number of records added, changed or removed
+     */
+    public int size() {
+        return upserts.size() + deletedIds.length;
+    }
+}
@@ -0,0 +1,180 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+import com.keralafarmers.agrinextai.models.NGO;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Streams a content change set into entities
+ * The body is one object: {"token": "...", "reset": false, "upserts": [...],
+ * "deletes": [ids]}. Records use snake_case keys matching the table columns;
+ * "reset" marks a full snapshot, sent on first sync or when a token expires.
+ */
+public class ContentChangesParser<T> implements FeedParser<ContentChanges<T>> {
+    
+    /**
+     * Reads one record object
+     */
+    public interface RecordReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+    
+    private final RecordReader<T> recordReader;
+    
+    public ContentChangesParser(RecordReader<T> recordReader) {
+        this.recordReader = recordReader;
+    }
+    
+    public static ContentChangesParser<GovernmentScheme> forSchemes() {
+        return new ContentChangesParser<>(ContentChangesParser::readScheme);
+    }
+    
+    public static ContentChangesParser<NGO> forNgos() {
+        return new ContentChangesParser<>(ContentChangesParser::readNgo);
+    }
+    
+    public static ContentChangesParser<KnowledgeEntry> forKnowledge() {
+        return new ContentChangesParser<>(ContentChangesParser::readKnowledgeEntry);
+    }
+    
+    @Override
+    public List<ContentChanges<T>> parse(JsonReader reader) throws IOException {
+        String token = null;
+        boolean reset = false;
+        List<T> upserts = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "token": token = reader.nextString(); break;
+                case "reset": reset = reader.nextBoolean(); break;
+                case "upserts":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        upserts.add(recordReader.read(reader));
+                    }
+                    reader.endArray();
+                    break;
+                case "deletes":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        deletes.add(reader.nextInt());
+                    }
+                    reader.endArray();
+                    break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        if (token == null) {
+            throw new IOException("Content change set without a sync token");
+        }
+        int[] deletedIds = new int[deletes.size()];
+        for (int i = 0; i < deletedIds.length; i++) {
+            deletedIds[i] = deletes.get(i);
+        }
+        return Collections.singletonList(new ContentChanges<>(token, reset, upserts, deletedIds));
+    }
+    
+    static GovernmentScheme readScheme(JsonReader reader) throws IOException {
+        GovernmentScheme scheme = new GovernmentScheme();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id": scheme.setId(reader.nextInt()); break;
+                case "name": scheme.setName(reader.nextString()); break;
+                case "description": scheme.setDescription(reader.nextString()); break;
+                case "eligibility": scheme.setEligibility(reader.nextString()); break;
+                case "benefit": scheme.setBenefit(reader.nextString()); break;
+                case "application_process": scheme.setApplicationProcess(reader.nextString()); break;
+                case "contact_info": scheme.setContactInfo(reader.nextString()); break;
+                case "category": scheme.setCategory(reader.nextString()); break;
+                case "is_active": scheme.setActive(reader.nextBoolean()); break;
+                case "max_farm_size_ha": scheme.setMaxFarmSizeHa(reader.nextDouble()); break;
+                case "eligible_crops": scheme.setEligibleCrops(reader.nextString()); break;
+                case "eligible_districts": scheme.setEligibleDistricts(reader.nextString()); break;
+                case "is_organic_required": scheme.setOrganicRequired(reader.nextBoolean()); break;
+                case "tenancy": scheme.setTenancy(reader.nextInt()); break;
+                case "updated_at": scheme.setUpdatedAt(reader.nextLong()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return scheme;
+    }
+    
+    static NGO readNgo(JsonReader reader) throws IOException {
+        NGO ngo = new NGO();
+        ngo.setOrganizationType(NGO.TYPE_NGO);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id": ngo.setId(reader.nextInt()); break;
+                case "name": ngo.setName(reader.nextString()); break;
+                case "description": ngo.setDescription(reader.nextString()); break;
+                case "services": ngo.setServices(reader.nextString()); break;
+                case "location": ngo.setLocation(reader.nextString()); break;
+                case "latitude": ngo.setLatitude(reader.nextDouble()); break;
+                case "longitude": ngo.setLongitude(reader.nextDouble()); break;
+                case "organization_type": ngo.setOrganizationType(reader.nextString()); break;
+                case "phone_number": ngo.setPhoneNumber(reader.nextString()); break;
+                case "email": ngo.setEmail(reader.nextString()); break;
+                case "website": ngo.setWebsite(reader.nextString()); break;
+                case "category": ngo.setCategory(reader.nextString()); break;
+                case "rating": ngo.setRating((float) reader.nextDouble()); break;
+                case "is_verified": ngo.setVerified(reader.nextBoolean()); break;
+                case "image_url": ngo.setImageUrl(reader.nextString()); break;
+                case "updated_at": ngo.setUpdatedAt(reader.nextLong()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return ngo;
+    }
+    
+    static KnowledgeEntry readKnowledgeEntry(JsonReader reader) throws IOException {
+        KnowledgeEntry entry = new KnowledgeEntry();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "id": entry.setId(reader.nextInt()); break;
+                case "category": entry.setCategory(reader.nextString()); break;
+                case "keywords": entry.setKeywords(reader.nextString()); break;
+                case "response_en": entry.setResponseEn(reader.nextString()); break;
+                case "response_hi": entry.setResponseHi(reader.nextString()); break;
+                case "response_ml": entry.setResponseMl(reader.nextString()); break;
+                case "updated_at": entry.setUpdatedAt(reader.nextLong()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return entry;
+    }
+}
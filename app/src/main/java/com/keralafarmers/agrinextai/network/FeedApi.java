@@ -0,0 +1,66 @@
+package com.keralafarmers.agrinextai.network;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Headers;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+import retrofit2.http.Streaming;
+
+/**
+ * Retrofit definition of the market, weather, reference content and satellite scene feeds
+ * Bodies are returned raw and streamed by the FeedParser implementations,
+ * so nothing is parsed when the cache revalidates with a 304.
+ */
+public interface FeedApi {
+    
+    /**
+     * Current market prices for a state
+     * @param state State name, e.g. "Kerala"
+     */
+    @Streaming
+    @GET("market/prices")
+    Call<ResponseBody> getMarketPrices(@Query("state") String state);
+    
+    /**
+     * Daily weather for a geohash cell over an epoch-day range
+     * @param geohash Weather cache cell
+     * @param startDay First epoch day (inclusive)
+     * @param endDay Last epoch day (inclusive)
+     */
+    @Streaming
+    @GET("weather/daily")
+    Call<ResponseBody> getDailyWeather(@Query("geohash") String geohash,
+                                       @Query("start_day") int startDay,
+                                       @Query("end_day") int endDay);
+    
+    /**
+     * Reference content changed since the last applied sync
+     * @param dataset Content dataset, e.g. "schemes"
+     * @param since Token from the last applied sync, or null for a full snapshot
+     */
+    @Streaming
+    @GET("content/{dataset}/changes")
+    Call<ResponseBody> getContentChanges(@Path("dataset") String dataset, @Query("since") String since);
+    
+    /**
+     * Catalog of satellite scenes covering a point
+     * @param latitude Latitude
+     * @param longitude Longitude
+     */
+    @Streaming
+    @GET("rasters/scenes")
+    Call<ResponseBody> getScenes(@Query("lat") double latitude, @Query("lon") double longitude);
+    
+    /**
+     * One file of a scene in the RasterScene layout: its header or a raw tile
+     * Tiles are large and read once, so they bypass the HTTP cache.
+     * @param sceneId Scene ID from the catalog
+     * @param fileName RasterScene.HEADER_FILE or RasterScene.tileFileName(x, y)
+     */
+    @Streaming
+    @Headers("Cache-Control: no-store")
+    @GET("rasters/scenes/{scene_id}/{file}")
+    Call<ResponseBody> getSceneFile(@Path("scene_id") String sceneId, @Path("file") String fileName);
+}
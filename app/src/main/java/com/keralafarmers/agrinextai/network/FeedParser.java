@@ -0,0 +1,13 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Streaming parser that turns a feed body directly into entities
+ */
+public interface FeedParser<T> {
+    List<T> parse(JsonReader reader) throws IOException;
+}
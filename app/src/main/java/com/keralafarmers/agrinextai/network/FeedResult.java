@@ -0,0 +1,34 @@
+package com.keralafarmers.agrinextai.network;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a feed fetch: either fresh items or "not modified since last fetch"
+ */
+public class FeedResult<T> {
+    
+    private final boolean modified;
+    private final List<T> items;
+    
+    private FeedResult(boolean modified, List<T> items) {
+        this.modified = modified;
+        this.items = items;
+    }
+    
+    public static <T> FeedResult<T> modified(List<T> items) {
+        return new FeedResult<>(true, items);
+    }
+    
+    public static <T> FeedResult<T> notModified() {
+        return new FeedResult<>(false, Collections.<T>emptyList());
+    }
+    
+    public boolean isModified() {
+        return modified;
+    }
+    
+    public List<T> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,73 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a market price feed (JSON array, snake_case keys matching the
+ * market_prices columns) straight into MarketPrice entities
+ */
+public class MarketPriceParser implements FeedParser<MarketPrice> {
+    
+    @Override
+    public List<MarketPrice> parse(JsonReader reader) throws IOException {
+        List<MarketPrice> prices = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            MarketPrice price = readPrice(reader);
+            if (price.getLastUpdated() == 0) {
+                price.setLastUpdated(now);
+            }
+            prices.add(price);
+        }
+        reader.endArray();
+        return prices;
+    }
+    
+    /**
+     * Read one price object; also used for ticker messages
+     */
+    static MarketPrice readPrice(JsonReader reader) throws IOException {
+        MarketPrice price = new MarketPrice();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "crop_name": price.setCropName(reader.nextString()); break;
+                case "crop_name_hi": price.setCropNameHi(reader.nextString()); break;
+                case "crop_name_ml": price.setCropNameMl(reader.nextString()); break;
+                case "variety": price.setVariety(reader.nextString()); break;
+                case "market_name": price.setMarketName(reader.nextString()); break;
+                case "district": price.setDistrict(reader.nextString()); break;
+                case "state": price.setState(reader.nextString()); break;
+                case "price_per_kg": price.setPricePerKg(reader.nextDouble()); break;
+                case "currency": price.setCurrency(reader.nextString()); break;
+                case "unit": price.setUnit(reader.nextString()); break;
+                case "price_date": price.setPriceDate(reader.nextLong()); break;
+                case "last_updated": price.setLastUpdated(reader.nextLong()); break;
+                case "trend": price.setTrend(reader.nextString()); break;
+                case "previous_price": price.setPreviousPrice(reader.nextDouble()); break;
+                case "change_percentage": price.setChangePercentage(reader.nextDouble()); break;
+                case "min_price": price.setMinPrice(reader.nextDouble()); break;
+                case "max_price": price.setMaxPrice(reader.nextDouble()); break;
+                case "quality_grade": price.setQualityGrade(reader.nextString()); break;
+                case "is_organic": price.setOrganic(reader.nextBoolean()); break;
+                case "source": price.setSource(reader.nextString()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        price.setActive(true);
+        return price;
+    }
+}
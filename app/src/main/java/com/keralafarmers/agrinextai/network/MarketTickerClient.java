@@ -0,0 +1,177 @@
+package com.keralafarmers.agrinextai.network;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * WebSocket client for the live market price ticker
+ * Each message is one tick object or an array of ticks with the same
+ * snake_case keys as the price feed (crop_name, market_name, district,
+ * quality_grade, price_per_kg, change_percentage, trend, last_updated).
+ * Reconnects with exponential backoff until stopped.
+ */
+public class MarketTickerClient {
+    
+    private static final String TAG = "MarketTickerClient";
+    private static final String TICKER_PATH = "market/ticker";
+    private static final long PING_INTERVAL_SECONDS = 20;
+    private static final long MIN_RECONNECT_MS = 1000;
+    private static final long MAX_RECONNECT_MS = 30000;
+    
+    /**
+     * Receives parsed ticks on the socket thread
+     */
+    public interface Listener {
+        void onTicks(List<MarketPrice> ticks);
+        void onConnectionChanged(boolean connected);
+    }
+    
+    private final OkHttpClient client;
+    private final String url;
+    private final Listener listener;
+    private final ScheduledExecutorService reconnectExecutor = Executors.newSingleThreadScheduledExecutor();
+    
+    private volatile boolean running;
+    private volatile WebSocket socket;
+    // Reset on OkHttp's socket thread, doubled on whichever thread reports the close
+    private volatile long reconnectDelayMs = MIN_RECONNECT_MS;
+    
+    private MarketTickerClient(ApiClient apiClient, String baseUrl, Listener listener) {
+        // Shares the pool and dispatcher of the feed client, without its read timeout
+        this.client = apiClient.getHttpClient().newBuilder()
+                .readTimeout(0, TimeUnit.MILLISECONDS)
+                .pingInterval(PING_INTERVAL_SECONDS, TimeUnit.SECONDS)
+                .build();
+        this.url = baseUrl + TICKER_PATH;
+        this.listener = listener;
+    }
+    
+    /**
+     * Create a ticker client for the configured feed server
+     * @param context Any context
+     * @param listener Tick listener
+     * @return Client, or null if no feed server is configured
+     */
+    public static MarketTickerClient create(Context context, Listener listener) {
+        ApiClient apiClient = ApiClient.getInstance(context);
+        if (apiClient == null) {
+            return null;
+        }
+        return new MarketTickerClient(apiClient, ApiClient.getBaseUrl(context), listener);
+    }
+    
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        connect();
+    }
+    
+    public void stop() {
+        running = false;
+        WebSocket current = socket;
+        if (current != null) {
+            current.close(1000, "Ticker stopped");
+        }
+        socket = null;
+        reconnectExecutor.shutdownNow();
+    }
+    
+    private void connect() {
+        if (!running) {
+            return;
+        }
+        Request request = new Request.Builder().url(url).build();
+        socket = client.newWebSocket(request, new WebSocketListener() {
+            @Override
+            public void onOpen(@NonNull WebSocket webSocket, @NonNull Response response) {
+                reconnectDelayMs = MIN_RECONNECT_MS;
+                listener.onConnectionChanged(true);
+            }
+            
+            @Override
+            public void onMessage(@NonNull WebSocket webSocket, @NonNull String text) {
+                try {
+                    List<MarketPrice> ticks = parse(text);
+                    if (!ticks.isEmpty()) {
+                        listener.onTicks(ticks);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    Log.w(TAG, "Skipping malformed tick", e);
+                }
+            }
+            
+            @Override
+            public void onClosed(@NonNull WebSocket webSocket, int code, @NonNull String reason) {
+                listener.onConnectionChanged(false);
+                scheduleReconnect();
+            }
+            
+            @Override
+            public void onFailure(@NonNull WebSocket webSocket, @NonNull Throwable t, Response response) {
+                Log.w(TAG, "Ticker connection failed", t);
+                listener.onConnectionChanged(false);
+                scheduleReconnect();
+            }
+        });
+    }
+    
+    private void scheduleReconnect() {
+        if (!running) {
+            return;
+        }
+        long delay = reconnectDelayMs;
+        reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_MS);
+        try {
+            reconnectExecutor.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Stopped while the connection was closing
+        }
+    }
+    
+    private static List<MarketPrice> parse(String text) throws IOException {
+        List<MarketPrice> ticks = new ArrayList<>();
+        try (JsonReader reader = new JsonReader(new StringReader(text))) {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    ticks.add(readTick(reader));
+                }
+                reader.endArray();
+            } else {
+                ticks.add(readTick(reader));
+            }
+        }
+        return ticks;
+    }
+    
+    private static MarketPrice readTick(JsonReader reader) throws IOException {
+        MarketPrice tick = MarketPriceParser.readPrice(reader);
+        if (tick.getLastUpdated() == 0) {
+            tick.setLastUpdated(System.currentTimeMillis());
+        }
+        return tick;
+    }
+}
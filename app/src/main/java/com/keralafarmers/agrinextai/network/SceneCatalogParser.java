@@ -0,0 +1,40 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams the satellite scene catalog into scene IDs
+ * The body is an array of objects with a "scene_id" string; other fields
+ * are skipped, as are entries without an ID.
+ */
+public class SceneCatalogParser implements FeedParser<String> {
+
+    @Override
+    public List<String> parse(JsonReader reader) throws IOException {
+        List<String> sceneIds = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            String sceneId = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if ("scene_id".equals(key) && reader.peek() == JsonToken.STRING) {
+                    sceneId = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (sceneId != null && !sceneId.isEmpty()) {
+                sceneIds.add(sceneId);
+            }
+        }
+        reader.endArray();
+        return sceneIds;
+    }
+}
@@ -0,0 +1,79 @@
+package com.keralafarmers.agrinextai.network;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.keralafarmers.agrinextai.models.Weather;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams a daily weather feed (JSON array, one object per epoch day)
+ * straight into Weather entities for a single cache cell
+ */
+public class WeatherParser implements FeedParser<Weather> {
+    
+    private final String geohash;
+    private final double latitude;
+    private final double longitude;
+    
+    /**
+     * @param geohash Cache cell the rows belong to
+     * @param latitude Cell latitude stored on each row
+     * @param longitude Cell longitude stored on each row
+     */
+    public WeatherParser(String geohash, double latitude, double longitude) {
+        this.geohash = geohash;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+    
+    @Override
+    public List<Weather> parse(JsonReader reader) throws IOException {
+        List<Weather> days = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Weather weather = readDay(reader);
+            weather.setGeohash(geohash);
+            weather.setLatitude(latitude);
+            weather.setLongitude(longitude);
+            if (weather.getTimestamp() == 0) {
+                weather.setTimestamp(now);
+            }
+            days.add(weather);
+        }
+        reader.endArray();
+        return days;
+    }
+    
+    private Weather readDay(JsonReader reader) throws IOException {
+        Weather weather = new Weather();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+                continue;
+            }
+            switch (name) {
+                case "epoch_day": weather.setEpochDay(reader.nextInt()); break;
+                case "temperature": weather.setTemperature(reader.nextDouble()); break;
+                case "min_temperature": weather.setMinTemperature(reader.nextDouble()); break;
+                case "max_temperature": weather.setMaxTemperature(reader.nextDouble()); break;
+                case "humidity": weather.setHumidity(reader.nextInt()); break;
+                case "rainfall": weather.setRainfall(reader.nextDouble()); break;
+                case "wind_speed": weather.setWindSpeed(reader.nextDouble()); break;
+                case "weather_condition": weather.setWeatherCondition(reader.nextString()); break;
+                case "weather_description": weather.setWeatherDescription(reader.nextString()); break;
+                case "weather_icon": weather.setWeatherIcon(reader.nextString()); break;
+                case "timestamp": weather.setTimestamp(reader.nextLong()); break;
+                case "location": weather.setLocation(reader.nextString()); break;
+                default: reader.skipValue(); break;
+            }
+        }
+        reader.endObject();
+        return weather;
+    }
+}
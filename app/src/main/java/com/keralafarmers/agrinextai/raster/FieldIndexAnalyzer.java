@@ -0,0 +1,118 @@
+package com.keralafarmers.agrinextai.raster;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Summarizes index tiles over a farm polygon
+ * Only the tiles under the polygon's bounding box are loaded; pixels are
+ * visited row by row between the polygon's edge crossings (even-odd rule,
+ * pixel centres), so the cost is proportional to the farm, not the scene.
+ */
+public final class FieldIndexAnalyzer {
+
+    private FieldIndexAnalyzer() {
+    }
+
+    /**
+     * Compute NDVI/NDWI statistics inside a polygon
+     * @param scene Scene
+     * @param cache Index tile cache of the scene
+     * @param latitudes Polygon vertex latitudes
+     * @param longitudes Polygon vertex longitudes, parallel to latitudes
+     * @return Summary; the pixel count is 0 if the polygon misses the scene
+     * @throws IOException If a tile cannot be read or computed
+     */
+    public static FieldIndexSummary analyze(RasterScene scene, IndexTileCache cache, double[] latitudes,
+                                            double[] longitudes) throws IOException {
+        int n = latitudes.length;
+        if (n < 3 || longitudes.length != n) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices");
+        }
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            xs[i] = scene.columnOf(longitudes[i]);
+            ys[i] = scene.rowOf(latitudes[i]);
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        int rowStart = Math.max(0, (int) Math.floor(minY));
+        int rowEnd = Math.min(scene.getHeight() - 1, (int) Math.ceil(maxY));
+        int colStart = Math.max(0, (int) Math.floor(minX));
+        int colEnd = Math.min(scene.getWidth() - 1, (int) Math.ceil(maxX));
+        double[] noClasses = new double[4];
+        if (rowStart > rowEnd || colStart > colEnd) {
+            return new FieldIndexSummary(scene.getSceneId(), scene.getAcquiredAt(), 0, 0,
+                    Double.NaN, Double.NaN, noClasses);
+        }
+
+        // Tiles under the bounding box, loaded together
+        int size = scene.getTileSize();
+        int tileX0 = colStart / size, tileX1 = colEnd / size;
+        int tileY0 = rowStart / size, tileY1 = rowEnd / size;
+        int tilesAcross = tileX1 - tileX0 + 1;
+        int tileCount = tilesAcross * (tileY1 - tileY0 + 1);
+        int[] tileXs = new int[tileCount];
+        int[] tileYs = new int[tileCount];
+        for (int i = 0; i < tileCount; i++) {
+            tileXs[i] = tileX0 + i % tilesAcross;
+            tileYs[i] = tileY0 + i / tilesAcross;
+        }
+        IndexTile[] tiles = cache.getTiles(tileXs, tileYs);
+
+        long ndviSum = 0, ndwiSum = 0;
+        int ndviCount = 0, ndwiCount = 0;
+        int[] classCounts = new int[4];
+        double[] crossings = new double[n];
+
+        for (int row = rowStart; row <= rowEnd; row++) {
+            double y = row + 0.5;
+            int count = 0;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                if ((ys[i] > y) != (ys[j] > y)) {
+                    crossings[count++] = xs[i] + (y - ys[i]) / (ys[j] - ys[i]) * (xs[j] - xs[i]);
+                }
+            }
+            Arrays.sort(crossings, 0, count);
+            int tileRow = row / size - tileY0;
+            int inTileRow = row % size;
+
+            for (int k = 0; k + 1 < count; k += 2) {
+                int from = Math.max(colStart, (int) Math.ceil(crossings[k] - 0.5));
+                int to = Math.min(colEnd, (int) Math.ceil(crossings[k + 1] - 0.5) - 1);
+                for (int col = from; col <= to; col++) {
+                    IndexTile tile = tiles[tileRow * tilesAcross + col / size - tileX0];
+                    int inTileCol = col % size;
+                    int ndvi = tile.ndviAt(inTileRow, inTileCol);
+                    if (ndvi != IndexTile.NO_DATA) {
+                        ndviSum += ndvi;
+                        ndviCount++;
+                        classCounts[FieldIndexSummary.classify(IndexTile.dequantize(ndvi))]++;
+                    }
+                    int ndwi = tile.ndwiAt(inTileRow, inTileCol);
+                    if (ndwi != IndexTile.NO_DATA) {
+                        ndwiSum += ndwi;
+                        ndwiCount++;
+                    }
+                }
+            }
+        }
+
+        double[] fractions = new double[4];
+        for (int i = 0; i < 4 && ndviCount > 0; i++) {
+            fractions[i] = (double) classCounts[i] / ndviCount;
+        }
+        return new FieldIndexSummary(scene.getSceneId(), scene.getAcquiredAt(), ndviCount,
+                ndviCount * scene.pixelAreaM2(),
+                // Dequantizing is linear, so the mean level gives the mean index
+                ndviCount > 0 ? IndexTile.dequantize((double) ndviSum / ndviCount) : Double.NaN,
+                ndwiCount > 0 ? IndexTile.dequantize((double) ndwiSum / ndwiCount) : Double.NaN,
+                fractions);
+    }
+}
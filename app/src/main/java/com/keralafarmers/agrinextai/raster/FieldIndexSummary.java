@@ -0,0 +1,95 @@
+package com.keralafarmers.agrinextai.raster;
+
+/**
+ * NDVI and NDWI statistics of the scene pixels inside one farm polygon
+ */
+public class FieldIndexSummary {
+
+    // NDVI vigour classes
+    public static final int CLASS_BARE = 0;      // < 0.2: soil, water, built-up
+    public static final int CLASS_SPARSE = 1;    // 0.2 - 0.4
+    public static final int CLASS_MODERATE = 2;  // 0.4 - 0.6
+    public static final int CLASS_DENSE = 3;     // >= 0.6
+
+    private final String sceneId;
+    private final long acquiredAt;
+    private final int pixelCount;
+    private final double areaM2;
+    private final double meanNdvi;
+    private final double meanNdwi;
+    private final double[] classFractions;
+
+    public FieldIndexSummary(String sceneId, long acquiredAt, int pixelCount, double areaM2, double meanNdvi,
+                             double meanNdwi, double[] classFractions) {
+        this.sceneId = sceneId;
+        this.acquiredAt = acquiredAt;
+        this.pixelCount = pixelCount;
+        this.areaM2 = areaM2;
+        this.meanNdvi = meanNdvi;
+        this.meanNdwi = meanNdwi;
+        this.classFractions = classFractions;
+    }
+
+    /**
+     * @param ndvi NDVI value
+     * @return Vigour class, CLASS_BARE to CLASS_DENSE
+     */
+    public static int classify(double ndvi) {
+        if (ndvi < 0.2) {
+            return CLASS_BARE;
+        } else if (ndvi < 0.4) {
+            return CLASS_SPARSE;
+        } else if (ndvi < 0.6) {
+            return CLASS_MODERATE;
+        }
+        return CLASS_DENSE;
+    }
+
+    public String getSceneId() {
+        return sceneId;
+    }
+
+    /**
+     * @return True if computed from the generated sample scene rather than real imagery
+     */
+    public boolean isSample() {
+        return SampleScene.SCENE_ID.equals(sceneId);
+    }
+
+    public long getAcquiredAt() {
+        return acquiredAt;
+    }
+
+    /**
+     * @return Number of valid pixels inside the polygon
+     */
+    public int getPixelCount() {
+        return pixelCount;
+    }
+
+    public double getAreaM2() {
+        return areaM2;
+    }
+
+    /**
+     * @return Mean NDVI, or NaN if no valid pixel fell inside the polygon
+     */
+    public double getMeanNdvi() {
+        return meanNdvi;
+    }
+
+    /**
+     * @return Mean NDWI, or NaN if the scene has no SWIR band
+     */
+    public double getMeanNdwi() {
+        return meanNdwi;
+    }
+
+    /**
+     * @param vigourClass CLASS_BARE to CLASS_DENSE
+     * @return Fraction of valid pixels in the class
+     */
+    public double getClassFraction(int vigourClass) {
+        return classFractions[vigourClass];
+    }
+}
@@ -0,0 +1,175 @@
+package com.keralafarmers.agrinextai.raster;
+
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * NDVI and NDWI of one scene tile, quantized to a byte per pixel
+ * Index values -1..1 map to 0..250 (steps of 0.008) and NO_DATA marks
+ * missing or saturated pixels. The two planes deflate well because
+ * neighbouring pixels in a field have near-identical values.
+ */
+public final class IndexTile {
+
+    public static final int NO_DATA = 255;
+    private static final int LEVELS = 250;
+
+    private final int tileSize;
+    // ndvi plane followed by ndwi plane, row-major
+    private final byte[] planes;
+
+    private IndexTile(int tileSize, byte[] planes) {
+        this.tileSize = tileSize;
+        this.planes = planes;
+    }
+
+    /**
+     * Compute both indices for one tile of a scene
+     * NDVI = (NIR - red) / (NIR + red); NDWI = (NIR - SWIR) / (NIR + SWIR), the
+     * Gao leaf water index, which tracks canopy moisture.
+     * @param scene Scene
+     * @param tileX Tile column
+     * @param tileY Tile row
+     * @return Quantized tile
+     * @throws IOException If the tile cannot be mapped or lacks a band
+     */
+    public static IndexTile compute(RasterScene scene, int tileX, int tileY) throws IOException {
+        int red = scene.bandOffset(RasterScene.BAND_RED);
+        int nir = scene.bandOffset(RasterScene.BAND_NIR);
+        int swir = scene.bandOffset(RasterScene.BAND_SWIR);
+        if (red < 0 || nir < 0) {
+            throw new IOException("Scene " + scene.getSceneId() + " has no red or NIR band");
+        }
+        ShortBuffer data = scene.mapTile(tileX, tileY);
+        int size = scene.getTileSize();
+        int pixels = size * size;
+        short noData = scene.getNoData();
+        byte[] planes = new byte[pixels * 2];
+
+        // Pixels past the scene edge in padded edge tiles
+        int validWidth = Math.min(size, scene.getWidth() - tileX * size);
+        int validHeight = Math.min(size, scene.getHeight() - tileY * size);
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int i = row * size + col;
+                if (row >= validHeight || col >= validWidth) {
+                    planes[i] = (byte) NO_DATA;
+                    planes[pixels + i] = (byte) NO_DATA;
+                    continue;
+                }
+                short r = data.get(red + i);
+                short n = data.get(nir + i);
+                planes[i] = quantize(normalizedDifference(n, r, noData));
+                planes[pixels + i] = swir >= 0
+                        ? quantize(normalizedDifference(n, data.get(swir + i), noData))
+                        : (byte) NO_DATA;
+            }
+        }
+        return new IndexTile(size, planes);
+    }
+
+    private static double normalizedDifference(short a, short b, short noData) {
+        if (a == noData || b == noData || a < 0 || b < 0) {
+            return Double.NaN;
+        }
+        int sum = a + b;
+        return sum > 0 ? (double) (a - b) / sum : Double.NaN;
+    }
+
+    private static byte quantize(double value) {
+        if (Double.isNaN(value)) {
+            return (byte) NO_DATA;
+        }
+        int level = (int) Math.round((Math.max(-1, Math.min(1, value)) + 1) / 2 * LEVELS);
+        return (byte) level;
+    }
+
+    /**
+     * Convert a quantized level back to an index value
+     * @param level 0..250, or a mean of levels
+     * @return Index value in -1..1
+     */
+    public static double dequantize(double level) {
+        return level * 2.0 / LEVELS - 1;
+    }
+
+    /**
+     * @return Quantized NDVI level at a tile pixel, or NO_DATA
+     */
+    public int ndviAt(int row, int col) {
+        return planes[row * tileSize + col] & 0xFF;
+    }
+
+    /**
+     * @return Quantized NDWI level at a tile pixel, or NO_DATA
+     */
+    public int ndwiAt(int row, int col) {
+        return planes[tileSize * tileSize + row * tileSize + col] & 0xFF;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Deflate both planes for the tile cache
+     * @return Compressed bytes
+     */
+    public byte[] encode() {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(planes);
+            deflater.finish();
+            byte[] buffer = new byte[Math.max(64, planes.length / 4)];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    byte[] grown = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, grown, 0, length);
+                    buffer = grown;
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            byte[] encoded = new byte[length];
+            System.arraycopy(buffer, 0, encoded, 0, length);
+            return encoded;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflate a cached tile
+     * @param tileSize Tile edge in pixels
+     * @param encoded Bytes from encode()
+     * @return Tile
+     * @throws IOException If the bytes are corrupt or the wrong size
+     */
+    public static IndexTile decode(int tileSize, byte[] encoded) throws IOException {
+        byte[] planes = new byte[tileSize * tileSize * 2];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(encoded);
+            int length = 0;
+            while (length < planes.length && !inflater.finished()) {
+                int read = inflater.inflate(planes, length, planes.length - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += read;
+            }
+            if (length != planes.length || !inflater.finished()) {
+                throw new IOException("Cached index tile has the wrong size");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt cached index tile", e);
+        } finally {
+            inflater.end();
+        }
+        return new IndexTile(tileSize, planes);
+    }
+}
@@ -0,0 +1,178 @@
+package com.keralafarmers.agrinextai.raster;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Disk cache of compressed index tiles for one scene
+ * Tiles missing from the cache are computed in parallel with a fork-join
+ * split over the requested tile list; a few recently used tiles are also
+ * kept decoded in memory for repeated analyses of nearby farms.
+ */
+public class IndexTileCache {
+
+    // Decoded tiles kept in memory (~128 KB each at 256 px)
+    private static final int MEMORY_TILES = 16;
+
+    private final RasterScene scene;
+    private final File directory;
+    private final Map<Long, IndexTile> recent = new LinkedHashMap<Long, IndexTile>(MEMORY_TILES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, IndexTile> eldest) {
+            return size() > MEMORY_TILES;
+        }
+    };
+
+    /**
+     * @param scene Source scene
+     * @param cacheRoot Root cache directory; tiles go in a subdirectory per scene
+     */
+    public IndexTileCache(RasterScene scene, File cacheRoot) {
+        this.scene = scene;
+        this.directory = new File(cacheRoot, scene.getSceneId());
+    }
+
+    /**
+     * Get index tiles, computing and caching any that are missing
+     * @param tileXs Tile columns
+     * @param tileYs Tile rows, parallel to tileXs
+     * @return Tiles in request order
+     * @throws IOException If a tile cannot be read or computed
+     */
+    public IndexTile[] getTiles(int[] tileXs, int[] tileYs) throws IOException {
+        IndexTile[] tiles = new IndexTile[tileXs.length];
+        try {
+            ForkJoinPool.commonPool().invoke(new LoadTask(tileXs, tileYs, tiles, 0, tileXs.length));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return tiles;
+    }
+
+    /**
+     * Get one index tile, computing and caching it if missing
+     * @param tileX Tile column
+     * @param tileY Tile row
+     * @return Tile
+     * @throws IOException If the tile cannot be read or computed
+     */
+    public IndexTile getTile(int tileX, int tileY) throws IOException {
+        long key = ((long) tileX << 32) | (tileY & 0xFFFFFFFFL);
+        synchronized (recent) {
+            IndexTile tile = recent.get(key);
+            if (tile != null) {
+                return tile;
+            }
+        }
+        File file = new File(directory, "index_" + tileX + "_" + tileY + ".z");
+        IndexTile tile = null;
+        if (file.exists()) {
+            try {
+                tile = IndexTile.decode(scene.getTileSize(), readFully(file));
+            } catch (IOException e) {
+                // Corrupt or stale entry; recompute below
+                file.delete();
+            }
+        }
+        if (tile == null) {
+            tile = IndexTile.compute(scene, tileX, tileY);
+            write(file, tile.encode());
+        }
+        synchronized (recent) {
+            recent.put(key, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Delete all cached tiles of the scene
+     */
+    public void clear() {
+        synchronized (recent) {
+            recent.clear();
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    private void write(File file, byte[] bytes) throws IOException {
+        if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+            throw new IOException("Cannot create " + directory);
+        }
+        // Write then rename, so a concurrent reader never sees a partial tile
+        File temp = new File(directory, file.getName() + "." + Thread.currentThread().getId() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(bytes);
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    private static byte[] readFully(File file) throws IOException {
+        byte[] bytes = new byte[(int) file.length()];
+        try (InputStream in = new FileInputStream(file)) {
+            int offset = 0;
+            while (offset < bytes.length) {
+                int read = in.read(bytes, offset, bytes.length - offset);
+                if (read < 0) {
+                    throw new IOException("Short read of " + file.getName());
+                }
+                offset += read;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Splits the tile list in halves down to single tiles
+     */
+    private class LoadTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] tileXs;
+        private final int[] tileYs;
+        private final IndexTile[] tiles;
+        private final int start;
+        private final int end;
+
+        LoadTask(int[] tileXs, int[] tileYs, IndexTile[] tiles, int start, int end) {
+            this.tileXs = tileXs;
+            this.tileYs = tileYs;
+            this.tiles = tiles;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                try {
+                    tiles[start] = getTile(tileXs[start], tileYs[start]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            if (end <= start) {
+                return;
+            }
+            int middle = (start + end) >>> 1;
+            invokeAll(new LoadTask(tileXs, tileYs, tiles, start, middle),
+                    new LoadTask(tileXs, tileYs, tiles, middle, end));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.keralafarmers.agrinextai.raster;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * A multi-band reflectance scene stored as raw tiles in local storage
+ * The scene directory holds scene.properties and one tile_<x>_<y>.raw file
+ * per tile: band-sequential little-endian int16 digital numbers, each band a
+ * full tileSize x tileSize block (edge tiles are padded). Tiles are memory
+ * mapped on demand, so only the pages a computation touches are read and
+ * none of the scene is copied onto the Java heap.
+ */
+public class RasterScene {
+
+    public static final String HEADER_FILE = "scene.properties";
+
+    // Band names expected in the header's band list
+    public static final String BAND_RED = "red";
+    public static final String BAND_NIR = "nir";
+    public static final String BAND_SWIR = "swir";
+
+    private final File directory;
+    private final String sceneId;
+    private final int width;
+    private final int height;
+    private final int tileSize;
+    private final String[] bands;
+    private final double north, south, west, east;
+    private final double reflectanceScale;
+    private final short noData;
+    private final long acquiredAt;
+
+    private RasterScene(File directory, Properties header) {
+        this.directory = directory;
+        this.sceneId = header.getProperty("scene_id", directory.getName());
+        this.width = Integer.parseInt(header.getProperty("width"));
+        this.height = Integer.parseInt(header.getProperty("height"));
+        this.tileSize = Integer.parseInt(header.getProperty("tile_size"));
+        this.bands = header.getProperty("bands").toLowerCase(Locale.ROOT).split(",");
+        this.north = Double.parseDouble(header.getProperty("north"));
+        this.south = Double.parseDouble(header.getProperty("south"));
+        this.west = Double.parseDouble(header.getProperty("west"));
+        this.east = Double.parseDouble(header.getProperty("east"));
+        this.reflectanceScale = Double.parseDouble(header.getProperty("reflectance_scale", "10000"));
+        this.noData = Short.parseShort(header.getProperty("no_data", "-9999"));
+        this.acquiredAt = Long.parseLong(header.getProperty("acquired_at", "0"));
+    }
+
+    /**
+     * Open a scene directory
+     * @param directory Directory containing scene.properties and the tiles
+     * @return Scene
+     * @throws IOException If the header is missing or malformed
+     */
+    public static RasterScene open(File directory) throws IOException {
+        Properties header = new Properties();
+        try (InputStream in = new FileInputStream(new File(directory, HEADER_FILE))) {
+            header.load(in);
+        }
+        try {
+            return new RasterScene(directory, header);
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed scene header in " + directory, e);
+        }
+    }
+
+    /**
+     * Map one tile's band data read-only
+     * @param tileX Tile column
+     * @param tileY Tile row
+     * @return Little-endian view of all bands, band after band
+     * @throws IOException If the tile file is missing or short
+     */
+    public ShortBuffer mapTile(int tileX, int tileY) throws IOException {
+        File file = new File(directory, tileFileName(tileX, tileY));
+        long expected = (long) bands.length * tileSize * tileSize * 2;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            if (channel.size() < expected) {
+                throw new IOException("Tile " + file.getName() + " is truncated");
+            }
+            // The mapping stays valid after the channel is closed
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, expected);
+            return mapped.order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        }
+    }
+
+    /**
+     * @param tileX Tile column
+     * @param tileY Tile row
+     * @return Name of the tile's raw file within the scene directory
+     */
+    public static String tileFileName(int tileX, int tileY) {
+        return "tile_" + tileX + "_" + tileY + ".raw";
+    }
+
+    /**
+     * @param band Band name, e.g. BAND_NIR
+     * @return Offset of the band within a mapped tile, in samples, or -1 if absent
+     */
+    public int bandOffset(String band) {
+        for (int i = 0; i < bands.length; i++) {
+            if (bands[i].trim().equals(band)) {
+                return i * tileSize * tileSize;
+            }
+        }
+        return -1;
+    }
+
+    public int getTilesX() {
+        return (width + tileSize - 1) / tileSize;
+    }
+
+    public int getTilesY() {
+        return (height + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * @param latitude Latitude
+     * @return Fractional pixel row (0 at the north edge)
+     */
+    public double rowOf(double latitude) {
+        return (north - latitude) / (north - south) * height;
+    }
+
+    /**
+     * @param longitude Longitude
+     * @return Fractional pixel column (0 at the west edge)
+     */
+    public double columnOf(double longitude) {
+        return (longitude - west) / (east - west) * width;
+    }
+
+    /**
+     * Ground area of one pixel at the scene's centre latitude
+     * @return Square metres
+     */
+    public double pixelAreaM2() {
+        double metresPerDegree = 111320.0;
+        double centreLat = Math.toRadians((north + south) / 2);
+        double pixelHeight = (north - south) / height * metresPerDegree;
+        double pixelWidth = (east - west) / width * metresPerDegree * Math.cos(centreLat);
+        return pixelHeight * pixelWidth;
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude <= north && latitude >= south && longitude >= west && longitude <= east;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public String getSceneId() {
+        return sceneId;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public double getReflectanceScale() {
+        return reflectanceScale;
+    }
+
+    public short getNoData() {
+        return noData;
+    }
+
+    public long getAcquiredAt() {
+        return acquiredAt;
+    }
+}
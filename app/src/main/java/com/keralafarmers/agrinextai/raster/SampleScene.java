@@ -0,0 +1,123 @@
+package com.keralafarmers.agrinextai.raster;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Properties;
+
+/**
+ * Deterministic sample scene for offline use and testing
+ * Writes a 10 m, 3-band (red, NIR, SWIR) scene of paddy and garden parcels
+ * around Palakkad, crossed by a river, in the raw tile layout RasterScene
+ * reads. The same bytes are produced on every device, so index results for
+ * the sample farm are reproducible without network or bundled binaries.
+ */
+public final class SampleScene {
+
+    public static final String SCENE_ID = "sample_palakkad";
+
+    private static final int SIZE = 512;
+    private static final int TILE_SIZE = 128;
+    private static final int PARCEL = 24;
+    private static final double NORTH = 10.8100, SOUTH = 10.7635;
+    private static final double WEST = 76.6310, EAST = 76.6783;
+
+    // Sample farm: one ~1 ha parcel just north-east of the scene centre
+    public static final double[] FARM_LATITUDES = {10.7885, 10.7885, 10.7876, 10.7876};
+    public static final double[] FARM_LONGITUDES = {76.6560, 76.6571, 76.6571, 76.6560};
+
+    private SampleScene() {
+    }
+
+    /**
+     * Write the sample scene under a root directory unless it is already there
+     * @param sceneRoot Directory holding one subdirectory per scene
+     * @return Scene directory
+     * @throws IOException If the scene cannot be written
+     */
+    public static File writeIfMissing(File sceneRoot) throws IOException {
+        File directory = new File(sceneRoot, SCENE_ID);
+        if (new File(directory, RasterScene.HEADER_FILE).exists()) {
+            return directory;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create " + directory);
+        }
+
+        int tiles = SIZE / TILE_SIZE;
+        int pixels = TILE_SIZE * TILE_SIZE;
+        ByteBuffer buffer = ByteBuffer.allocate(pixels * 3 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (int tileY = 0; tileY < tiles; tileY++) {
+            for (int tileX = 0; tileX < tiles; tileX++) {
+                buffer.clear();
+                for (int band = 0; band < 3; band++) {
+                    for (int row = 0; row < TILE_SIZE; row++) {
+                        for (int col = 0; col < TILE_SIZE; col++) {
+                            buffer.putShort(reflectance(band, tileX * TILE_SIZE + col, tileY * TILE_SIZE + row));
+                        }
+                    }
+                }
+                try (OutputStream out = new FileOutputStream(
+                        new File(directory, RasterScene.tileFileName(tileX, tileY)))) {
+                    out.write(buffer.array(), 0, buffer.position());
+                }
+            }
+        }
+
+        // Header last, so a partly written scene is never opened
+        Properties header = new Properties();
+        header.setProperty("scene_id", SCENE_ID);
+        header.setProperty("width", String.valueOf(SIZE));
+        header.setProperty("height", String.valueOf(SIZE));
+        header.setProperty("tile_size", String.valueOf(TILE_SIZE));
+        header.setProperty("bands", RasterScene.BAND_RED + "," + RasterScene.BAND_NIR + "," + RasterScene.BAND_SWIR);
+        header.setProperty("north", String.valueOf(NORTH));
+        header.setProperty("south", String.valueOf(SOUTH));
+        header.setProperty("west", String.valueOf(WEST));
+        header.setProperty("east", String.valueOf(EAST));
+        header.setProperty("reflectance_scale", "10000");
+        header.setProperty("no_data", "-9999");
+        header.setProperty("acquired_at", "0");
+        try (OutputStream out = new FileOutputStream(new File(directory, RasterScene.HEADER_FILE))) {
+            header.store(out, "Synthetic sample scene");
+        }
+        return directory;
+    }
+
+    /**
+     * Reflectance x 10000 of one band at a scene pixel
+     * band 0 = red, 1 = NIR, 2 = SWIR
+     */
+    private static short reflectance(int band, int x, int y) {
+        // River meandering north to south
+        double riverX = SIZE * 0.3 + 20 * Math.sin(y / 40.0);
+        if (Math.abs(x - riverX) < 6) {
+            return (short) (band == 0 ? 400 : band == 1 ? 250 : 120);
+        }
+        // Vigour and canopy moisture per parcel, with a little pixel noise
+        int parcel = (x / PARCEL) * 7919 + (y / PARCEL) * 104729;
+        double vigour = 0.2 + 0.75 * unit(parcel);
+        double moisture = 0.3 + 0.7 * unit(parcel * 31 + 17);
+        double noise = (unit(x * 73856093 ^ y * 19349663) - 0.5) * 0.02;
+        double value;
+        if (band == 0) {
+            value = 0.12 - 0.09 * vigour + noise;
+        } else if (band == 1) {
+            value = 0.18 + 0.30 * vigour + noise;
+        } else {
+            value = 0.28 - 0.14 * vigour * moisture + noise;
+        }
+        return (short) Math.round(Math.max(0.005, value) * 10000);
+    }
+
+    private static double unit(int seed) {
+        int h = seed * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return (h & 0xFFFFFF) / (double) 0x1000000;
+    }
+}
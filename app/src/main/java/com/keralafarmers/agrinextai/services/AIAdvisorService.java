@@ -6,6 +6,7 @@ import android.os.AsyncTask;
 import com.keralafarmers.agrinextai.database.AppDatabase;
 import com.keralafarmers.agrinextai.database.PlantDiseaseDao;
 import com.keralafarmers.agrinextai.models.PlantDisease;
+import com.keralafarmers.agrinextai.utils.SingleFlight;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -24,6 +25,9 @@ public class AIAdvisorService {
     private Random random;
     private Map<String, DiseaseInfo> diseaseDatabase;
     
+    // Concurrent history reads for the same user share one query
+    private static final SingleFlight<Integer, List<PlantDisease>> HISTORY_LOADS = new SingleFlight<>();
+    
     public AIAdvisorService(Context context) {
         this.context = context;
         this.plantDiseaseDao = AppDatabase.getInstance(context).plantDiseaseDao();
@@ -98,7 +102,8 @@ public class AIAdvisorService {
             @Override
             protected String doInBackground(Void... voids) {
                 try {
-                    diseaseHistory = plantDiseaseDao.getPlantDiseasesByUser(userId);
+                    diseaseHistory = HISTORY_LOADS.run(userId,
+                            () -> plantDiseaseDao.getPlantDiseasesByUser(userId));
                     return "SUCCESS";
                 } catch (Exception e) {
                     return "Failed to load history: " + e.getMessage();
@@ -369,6 +374,42 @@ public class AIAdvisorService {
         }
     }
     
+    /**
+     * Get a disease database entry's name by its key
+     * @param diseaseKey Key such as "rice_blast" (see DiseaseRiskModel)
+     * @param language Language code ("en", "hi", "ml")
+     * @return Localized name, or the key if unknown
+     */
+    public String getDiseaseNameByKey(String diseaseKey, String language) {
+        DiseaseInfo info = diseaseDatabase.get(diseaseKey);
+        if (info == null) {
+            return diseaseKey;
+        }
+        switch (language) {
+            case "hi": return info.nameHi;
+            case "ml": return info.nameMl;
+            default: return info.nameEn;
+        }
+    }
+    
+    /**
+     * Get a disease database entry's prevention advice by its key
+     * @param diseaseKey Key such as "rice_blast" (see DiseaseRiskModel)
+     * @param language Language code ("en", "hi", "ml")
+     * @return Localized prevention advice, or an empty string if unknown
+     */
+    public String getPreventionByKey(String diseaseKey, String language) {
+        DiseaseInfo info = diseaseDatabase.get(diseaseKey);
+        if (info == null) {
+            return "";
+        }
+        switch (language) {
+            case "hi": return info.preventionHi;
+            case "ml": return info.preventionMl;
+            default: return info.preventionEn;
+        }
+    }
+    
     /**
      * Get disease information in specified language
      */
@@ -0,0 +1,215 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+
+/**
+ * Stale-while-revalidate freshness policy for one cached dataset
+ * Within the TTL cached rows are served as is. Past the TTL but within
+ * max-stale they are served immediately and refreshed in the background.
+ * Beyond that (or with nothing cached) the caller waits for a fetch, and
+ * still gets the old rows, at their real age and flagged stale, if it fails.
+ * Fetch times are kept in SharedPreferences per dataset and optional scope
+ * (e.g. a weather geohash cell) so the UI can show how old the data is.
+ */
+public final class CachePolicy {
+
+    private static final String TAG = "CachePolicy";
+    private static final String PREF_NAME = "cache_policy";
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    // Mandi prices move through the trading day
+    public static final CachePolicy MARKET_PRICES = new CachePolicy("market_prices", 30 * MINUTE, 12 * HOUR);
+    // Forecasts are re-issued a few times a day
+    public static final CachePolicy WEATHER_FORECAST = new CachePolicy("weather_forecast", 3 * HOUR, 12 * HOUR);
+    // Scheme details change with notifications, rarely more than weekly
+    public static final CachePolicy SCHEMES = new CachePolicy("schemes", DAY, 30 * DAY);
+    // NGO contact lists are close to static
+    public static final CachePolicy NGO_DIRECTORY = new CachePolicy("ngo_directory", 7 * DAY, 90 * DAY);
+    // Chatbot answers are revised by agronomists every few weeks
+    public static final CachePolicy KNOWLEDGE_BASE = new CachePolicy("knowledge_base", DAY, 30 * DAY);
+
+    /**
+     * Freshness of a cached dataset
+     */
+    public enum Freshness {
+        FRESH,   // within TTL: serve cached
+        STALE,   // past TTL, within max-stale: serve cached, refresh in background
+        EXPIRED  // never fetched or past max-stale: fetch before serving
+    }
+
+    /**
+     * Reads and refreshes a dataset; both methods are blocking
+     */
+    public interface Source<T> {
+        /**
+         * @return Cached data, or null if nothing usable is cached
+         */
+        T readCached();
+
+        /**
+         * Fetch from the source of truth and store it
+         * Only a source that actually read its source of truth calls
+         * markFetched; the reported age is read back from that record.
+         * @return Fresh data
+         * @throws IOException If the source of truth could not be read
+         */
+        T fetch() throws IOException;
+    }
+
+    /**
+     * Receives data with its age, in one or two phases
+     * A FRESH or EXPIRED load calls onData (or onError) once. A STALE load
+     * first calls onData with refreshing set, then exactly once more: with
+     * the refreshed data, or with the cached copy again and stale set when
+     * the refresh fails. The last call always has refreshing false, so work
+     * that must run once per load belongs behind !refreshing.
+     */
+    public interface Callback<T> {
+        void onData(T data, long ageMillis, boolean refreshing, boolean stale);
+        void onError(String error);
+    }
+
+    private final String dataset;
+    private final long ttlMillis;
+    private final long maxStaleMillis;
+
+    /**
+     * @param dataset Name used to store fetch times
+     * @param ttlMillis Age up to which data is served without refreshing
+     * @param maxStaleMillis Extra age past the TTL during which stale data is still served first
+     */
+    public CachePolicy(String dataset, long ttlMillis, long maxStaleMillis) {
+        this.dataset = dataset;
+        this.ttlMillis = ttlMillis;
+        this.maxStaleMillis = maxStaleMillis;
+    }
+
+    /**
+     * Load a dataset on an executor according to this policy
+     * Callbacks are delivered on the executor thread.
+     * @param context Any context
+     * @param scope Sub-key such as a geohash cell, or null for the whole dataset
+     * @param executor Executor to run reads and fetches on
+     * @param source Dataset reader and fetcher
+     * @param callback Receives the data and its age
+     */
+    public <T> void load(Context context, String scope, Executor executor, Source<T> source, Callback<T> callback) {
+        executor.execute(() -> {
+            T cached = null;
+            try {
+                cached = source.readCached();
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading cached " + dataset, e);
+            }
+
+            Freshness freshness = cached != null ? getFreshness(context, scope) : Freshness.EXPIRED;
+            if (freshness != Freshness.EXPIRED) {
+                boolean refreshing = freshness == Freshness.STALE;
+                callback.onData(cached, getAgeMillis(context, scope), refreshing, false);
+                if (!refreshing) {
+                    return;
+                }
+            }
+
+            try {
+                T fresh = source.fetch();
+                callback.onData(fresh, getAgeMillis(context, scope), false, false);
+            } catch (Exception e) {
+                Log.e(TAG, "Error refreshing " + dataset, e);
+                if (cached != null) {
+                    // Also ends the refresh a stale delivery announced
+                    callback.onData(cached, getAgeMillis(context, scope), false, true);
+                } else {
+                    callback.onError("Failed to load " + dataset + ": " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Get the freshness of a dataset scope
+     * @param context Any context
+     * @param scope Sub-key, or null for the whole dataset
+     * @return Freshness
+     */
+    public Freshness getFreshness(Context context, String scope) {
+        long age = getAgeMillis(context, scope);
+        if (age < ttlMillis) {
+            return Freshness.FRESH;
+        }
+        if (age - ttlMillis < maxStaleMillis) {
+            return Freshness.STALE;
+        }
+        return Freshness.EXPIRED;
+    }
+
+    /**
+     * Get the time since a dataset scope was last fetched
+     * @param context Any context
+     * @param scope Sub-key, or null for the whole dataset
+     * @return Age in milliseconds, or Long.MAX_VALUE if never fetched
+     */
+    public long getAgeMillis(Context context, String scope) {
+        long fetchedAt = getFetchedAt(context, scope);
+        if (fetchedAt == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, System.currentTimeMillis() - fetchedAt);
+    }
+
+    /**
+     * Get when a dataset scope was last fetched
+     * @param context Any context
+     * @param scope Sub-key, or null for the whole dataset
+     * @return Fetch time in milliseconds, or 0 if never fetched
+     */
+    public long getFetchedAt(Context context, String scope) {
+        return prefs(context).getLong(key(scope), 0);
+    }
+
+    /**
+     * Record a successful read of the source of truth
+     * @param context Any context
+     * @param scope Sub-key, or null for the whole dataset
+     */
+    public void markFetched(Context context, String scope) {
+        prefs(context).edit().putLong(key(scope), System.currentTimeMillis()).apply();
+    }
+
+    /**
+     * Force the next load to fetch before serving
+     * @param context Any context
+     * @param scope Sub-key, or null for the whole dataset
+     */
+    public void invalidate(Context context, String scope) {
+        prefs(context).edit().remove(key(scope)).apply();
+    }
+
+    public String getDataset() {
+        return dataset;
+    }
+
+    public long getTtlMillis() {
+        return ttlMillis;
+    }
+
+    public long getMaxStaleMillis() {
+        return maxStaleMillis;
+    }
+
+    private String key(String scope) {
+        return scope != null ? dataset + ":" + scope : dataset;
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+}
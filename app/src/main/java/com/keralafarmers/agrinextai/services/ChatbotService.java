@@ -6,11 +6,10 @@ import android.util.Log;
 import com.keralafarmers.agrinextai.database.AppDatabase;
 import com.keralafarmers.agrinextai.database.ChatDao;
 import com.keralafarmers.agrinextai.models.Chat;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+import com.keralafarmers.agrinextai.utils.SingleFlight;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
@@ -23,16 +22,13 @@ import java.util.concurrent.Executors;
 public class ChatbotService {
     private static final String TAG = "ChatbotService";
     private ChatDao chatDao;
+    private KnowledgeBaseService knowledgeBase;
     private ExecutorService executorService;
     private Context context;
     private Random random;
 
-    // Knowledge base for farming queries
-    private static final Map<String, List<FarmingKnowledge>> KNOWLEDGE_BASE = new HashMap<>();
-
-    static {
-        initializeKnowledgeBase();
-    }
+    // Concurrent history reads for the same user or session share one query
+    private static final SingleFlight<String, List<Chat>> HISTORY_LOADS = new SingleFlight<>();
 
     /**
      * Constructor for ChatbotService
@@ -42,6 +38,7 @@ public class ChatbotService {
         this.context = context;
         AppDatabase database = AppDatabase.getInstance(context);
         this.chatDao = database.chatDao();
+        this.knowledgeBase = new KnowledgeBaseService(context);
         this.executorService = Executors.newSingleThreadExecutor();
         this.random = new Random();
     }
@@ -130,7 +127,8 @@ public class ChatbotService {
     public void getChatHistory(int userId, ChatHistoryCallback callback) {
         executorService.execute(() -> {
             try {
-                List<Chat> chatHistory = chatDao.getChatsByUser(userId);
+                List<Chat> chatHistory = HISTORY_LOADS.run("user:" + userId,
+                        () -> chatDao.getChatsByUser(userId));
                 if (callback != null) {
                     callback.onSuccess(chatHistory);
                 }
@@ -151,7 +149,8 @@ public class ChatbotService {
     public void getSessionChat(String sessionId, ChatHistoryCallback callback) {
         executorService.execute(() -> {
             try {
-                List<Chat> sessionChat = chatDao.getChatsBySession(sessionId);
+                List<Chat> sessionChat = HISTORY_LOADS.run("session:" + sessionId,
+                        () -> chatDao.getChatsBySession(sessionId));
                 if (callback != null) {
                     callback.onSuccess(sessionChat);
                 }
@@ -215,52 +214,31 @@ public class ChatbotService {
      * @return Generated response
      */
     private String generateResponse(String message, String language) {
-        String normalizedMessage = message.toLowerCase().trim();
-        
-        // Check knowledge base for matching responses
-        for (String category : KNOWLEDGE_BASE.keySet()) {
-            List<FarmingKnowledge> knowledgeList = KNOWLEDGE_BASE.get(category);
-            for (FarmingKnowledge knowledge : knowledgeList) {
-                if (matchesKeywords(normalizedMessage, knowledge.keywords)) {
-                    return getResponseByLanguage(knowledge, language);
-                }
-            }
+        // Check knowledge base for a matching response
+        KnowledgeEntry knowledge = knowledgeBase.findEntry(message);
+        if (knowledge != null) {
+            return getResponseByLanguage(knowledge, language);
         }
 
         // Default responses if no match found
         return getDefaultResponse(language);
     }
 
-    /**
-     * Check if message matches any keywords
-     * @param message User message
-     * @param keywords List of keywords to match
-     * @return true if any keyword matches
-     */
-    private boolean matchesKeywords(String message, List<String> keywords) {
-        for (String keyword : keywords) {
-            if (message.contains(keyword.toLowerCase())) {
-                return true;
-            }
-        }
-        return false;
-    }
-
     /**
      * Get response in specified language
-     * @param knowledge FarmingKnowledge object
+     * @param knowledge Knowledge base entry
      * @param language Language code
      * @return Response in specified language
      */
-    private String getResponseByLanguage(FarmingKnowledge knowledge, String language) {
+    private String getResponseByLanguage(KnowledgeEntry knowledge, String language) {
         switch (language.toLowerCase()) {
             case "hi":
-                return knowledge.responseHi;
+                return knowledge.getResponseHi();
             case "ml":
-                return knowledge.responseMl;
+                return knowledge.getResponseMl();
             case "en":
             default:
-                return knowledge.responseEn;
+                return knowledge.getResponseEn();
         }
     }
 
@@ -355,44 +333,6 @@ public class ChatbotService {
         }
     }
 
-    /**
-     * Initialize knowledge base with farming information
-     */
-    private static void initializeKnowledgeBase() {
-        // Rice farming knowledge
-        List<FarmingKnowledge> riceKnowledge = new ArrayList<>();
-        riceKnowledge.add(new FarmingKnowledge(
-            java.util.Arrays.asList("rice", "paddy", "cultivation", "planting"),
-            "For rice cultivation, prepare the field by puddling, maintain 2-3 inches of standing water, and plant 20-25 day old seedlings with 15cm spacing.",
-            "धान की खेती के लिए खेत को तैयार करें, 2-3 इंच पानी बनाए रखें, और 20-25 दिन पुराने पौधे 15 सेमी की दूरी पर लगाएं।",
-            "നെല്ലുകൃഷിക്കായി വയൽ തയ്യാറാക്കി 2-3 ഇഞ്ച് വെള്ളം നിലനിർത്തി 20-25 ദിവസം പഴക്കമുള്ള തൈകൾ 15 സെമീ അകലത്തിൽ നടുക."
-        ));
-
-        // Pest control knowledge
-        List<FarmingKnowledge> pestKnowledge = new ArrayList<>();
-        pestKnowledge.add(new FarmingKnowledge(
-            java.util.Arrays.asList("pest", "insect", "control", "spray"),
-            "Use integrated pest management: neem oil spray, beneficial insects, crop rotation, and targeted pesticides only when necessary.",
-            "एकीकृत कीट प्रबंधन का उपयोग करें: नीम तेल स्प्रे, लाभकारी कीड़े, फसल चक्रण, और केवल आवश्यक होने पर लक्षित कीटनाशक।",
-            "സംയോജിത കീടനിയന്ത്രണം ഉപയോഗിക്കുക: വേപ്പെണ്ണ സ്പ്രേ, ഗുണകരമായ പ്രാണികൾ, വിള ഭ്രമണം, ആവശ്യമുള്ളപ്പോൾ മാത്രം കീടനാശിനി."
-        ));
-
-        // Fertilizer knowledge
-        List<FarmingKnowledge> fertilizerKnowledge = new ArrayList<>();
-        fertilizerKnowledge.add(new FarmingKnowledge(
-            java.util.Arrays.asList("fertilizer", "nutrient", "manure", "compost"),
-            "Apply balanced NPK fertilizer: 120kg N, 60kg P2O5, 40kg K2O per hectare. Use organic compost and green manure for soil health.",
-            "संतुलित एनपीके उर्वरक डालें: 120 किग्रा नाइट्रोजन, 60 किग्रा फास्फोरस, 40 किग्रा पोटाश प्रति हेक्टेयर। मिट्टी के स्वास्थ्य के लिए कंपोस्ट का उपयोग करें।",
-            "സമതുലിത എൻപികെ വള പ്രയോഗിക്കുക: ഹെക്ടറിന് 120 കിലോ നൈട്രജൻ, 60 കിലോ ഫോസ്ഫറസ്, 40 കിലോ പൊട്ടാഷ്. മണ്ണിന്റെ ആരോഗ്യത്തിന് കമ്പോസ്റ്റ് ഉപയോഗിക്കുക."
-        ));
-
-        KNOWLEDGE_BASE.put("RICE", riceKnowledge);
-        KNOWLEDGE_BASE.put("PEST_CONTROL", pestKnowledge);
-        KNOWLEDGE_BASE.put("FERTILIZER", fertilizerKnowledge);
-        
-        // Add more knowledge categories...
-    }
-
     // Callback interfaces
     public interface ChatCallback {
         void onSuccess(Chat userMessage, Chat botResponse, String sessionId);
@@ -414,17 +354,4 @@ public class ChatbotService {
         void onResponse(String response);
         void onError(String error);
     }
-
-    // Inner class for farming knowledge
-    private static class FarmingKnowledge {
-        List<String> keywords;
-        String responseEn, responseHi, responseMl;
-
-        FarmingKnowledge(List<String> keywords, String responseEn, String responseHi, String responseMl) {
-            this.keywords = keywords;
-            this.responseEn = responseEn;
-            this.responseHi = responseHi;
-            this.responseMl = responseMl;
-        }
-    }
 }
\ No newline at end of file
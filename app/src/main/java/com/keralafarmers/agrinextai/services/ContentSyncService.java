@@ -0,0 +1,131 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.ContentSyncDao;
+import com.keralafarmers.agrinextai.models.ContentSyncState;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.network.ContentChanges;
+import com.keralafarmers.agrinextai.network.ContentChangesParser;
+import com.keralafarmers.agrinextai.network.FeedResult;
+
+import java.io.IOException;
+
+/**
+ * Differential sync of reference content: schemes, the NGO directory and
+ * the chatbot knowledge base
+ * Each dataset downloads only the records changed since its last sync token
+ * and applies them, together with the new token, in one Room transaction.
+ * The owning service then patches its in-memory index with the same changes
+ * instead of rebuilding it. Without a configured feed server the bundled
+ * content stays in use. The bundled content is written once per dataset
+ * (see ContentSyncDao.seedOnce), so a snapshot that empties a dataset is
+ * kept as it is.
+ */
+public class ContentSyncService {
+    private static final String TAG = "ContentSyncService";
+
+    public static final String DATASET_SCHEMES = "schemes";
+    public static final String DATASET_NGOS = "ngos";
+    public static final String DATASET_KNOWLEDGE = "knowledge";
+
+    /**
+     * Stores one dataset's changes and keeps its in-memory index in step
+     */
+    public interface ContentStore<T> {
+        /**
+         * Write a change set; runs inside the sync transaction
+         */
+        void writeChanges(ContentChanges<T> changes);
+
+        /**
+         * Apply a committed change set to in-memory indexes
+         */
+        void onChangesCommitted(ContentChanges<T> changes);
+    }
+
+    private Context context;
+    private AppDatabase database;
+    private ContentSyncDao contentSyncDao;
+
+    public ContentSyncService(Context context) {
+        this.context = context.getApplicationContext();
+        this.database = AppDatabase.getInstance(context);
+        this.contentSyncDao = database.contentSyncDao();
+    }
+
+    /**
+     * Sync every dataset its cache policy says is due
+     * Blocking; call from a background thread. A failing dataset does not
+     * stop the others.
+     * @return Number of records added, changed or removed
+     * @throws IOException If any dataset failed to sync
+     */
+    public int syncDue() throws IOException {
+        ApiClient apiClient = ApiClient.getInstance(context);
+        if (apiClient == null) {
+            return 0;
+        }
+        int changed = 0;
+        int failures = 0;
+        try {
+            changed += syncIfDue(apiClient, DATASET_SCHEMES, CachePolicy.SCHEMES,
+                    ContentChangesParser.forSchemes(), new SchemeService(context));
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error syncing " + DATASET_SCHEMES, e);
+            failures++;
+        }
+        try {
+            changed += syncIfDue(apiClient, DATASET_NGOS, CachePolicy.NGO_DIRECTORY,
+                    ContentChangesParser.forNgos(), new NgoDirectoryService(context));
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error syncing " + DATASET_NGOS, e);
+            failures++;
+        }
+        try {
+            changed += syncIfDue(apiClient, DATASET_KNOWLEDGE, CachePolicy.KNOWLEDGE_BASE,
+                    ContentChangesParser.forKnowledge(), new KnowledgeBaseService(context));
+        } catch (IOException | RuntimeException e) {
+            Log.e(TAG, "Error syncing " + DATASET_KNOWLEDGE, e);
+            failures++;
+        }
+        if (failures > 0) {
+            throw new IOException(failures + " content datasets failed to sync");
+        }
+        return changed;
+    }
+
+    /**
+     * Sync one dataset if its cache policy says it is due
+     * A failure while writing rolls back both the changes and the token, and
+     * the in-memory index is only patched after the commit.
+     * @return Number of records added, changed or removed
+     * @throws IOException If the change set cannot be fetched or parsed
+     */
+    <T> int syncIfDue(ApiClient apiClient, String dataset, CachePolicy policy,
+                      ContentChangesParser<T> parser, ContentStore<T> store) throws IOException {
+        if (policy.getFreshness(context, null) == CachePolicy.Freshness.FRESH) {
+            return 0;
+        }
+        String token = contentSyncDao.getToken(dataset);
+        FeedResult<ContentChanges<T>> result = apiClient.fetch(
+                apiClient.getFeedApi().getContentChanges(dataset, token), parser);
+        int changed = 0;
+        if (result.isModified() && !result.getItems().isEmpty()) {
+            ContentChanges<T> changes = result.getItems().get(0);
+            database.runInTransaction(() -> {
+                store.writeChanges(changes);
+                contentSyncDao.upsertState(new ContentSyncState(dataset, changes.getToken(),
+                        System.currentTimeMillis()));
+            });
+            store.onChangesCommitted(changes);
+            changed = changes.size();
+            Log.d(TAG, "Synced " + dataset + ": " + changed + " changes"
+                    + (changes.isReset() ? " (full snapshot)" : ""));
+        }
+        policy.markFetched(context, null);
+        return changed;
+    }
+}
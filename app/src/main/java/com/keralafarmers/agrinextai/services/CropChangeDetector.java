@@ -0,0 +1,129 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.PlotIndexBaseline;
+import com.keralafarmers.agrinextai.models.PlotIndexObservation;
+import com.keralafarmers.agrinextai.raster.FieldIndexSummary;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Scores the NDVI change of a plot between satellite passes
+ * Each change is compared with the plot's own history of changes in the
+ * same part of the year, so a seasonal harvest is not flagged once it has
+ * been seen before while an unexpected drop in the growing season is. Only
+ * the previous usable pass and twelve monthly accumulators are needed, so
+ * a new scene is scored without reading any older raster.
+ */
+final class CropChangeDetector {
+
+    static final int SEASONS = 12;
+
+    // Less cloud-free cover than this makes the mean unrepresentative of the plot
+    private static final double MIN_COVERAGE = 0.6;
+    // Passes further apart than this are not compared
+    private static final int MAX_PASS_GAP_DAYS = 45;
+    // Samples needed in the month and its neighbours before the seasonal baseline is used
+    private static final int MIN_SEASONAL_SAMPLES = 4;
+    // Samples needed in the whole year otherwise
+    private static final int MIN_SAMPLES = 3;
+    // Floor for the baseline spread, so a plot with very steady history is not over-sensitive
+    private static final double MIN_STD = 0.03;
+    private static final double ALERT_Z = -2.0;
+    private static final double MIN_ALERT_DROP = 0.08;
+
+    private CropChangeDetector() {
+    }
+
+    /**
+     * Fill an observation from a scene's statistics and score it
+     * @param observation New observation; plot, scene and day already set
+     * @param summary Index statistics of the plot in the scene
+     * @param plotAreaM2 Plot area, for cloud cover
+     * @param previous Latest earlier usable observation, or null
+     * @param baselines Baselines by season, updated in place; null entries are created as needed
+     * @return Season whose baseline changed, or -1
+     */
+    static int score(PlotIndexObservation observation, FieldIndexSummary summary, double plotAreaM2,
+                     PlotIndexObservation previous, PlotIndexBaseline[] baselines) {
+        observation.setPixelCount(summary.getPixelCount());
+        observation.setCoverage(plotAreaM2 > 0 ? Math.min(1, summary.getAreaM2() / plotAreaM2) : 0);
+        observation.setMeanNdvi(zeroIfNaN(summary.getMeanNdvi()));
+        observation.setMeanNdwi(zeroIfNaN(summary.getMeanNdwi()));
+        observation.setUsable(summary.getPixelCount() > 0 && !Double.isNaN(summary.getMeanNdvi())
+                && observation.getCoverage() >= MIN_COVERAGE);
+        if (!observation.isUsable() || previous == null
+                || observation.getEpochDay() - previous.getEpochDay() > MAX_PASS_GAP_DAYS
+                || observation.getEpochDay() <= previous.getEpochDay()) {
+            return -1;
+        }
+
+        double change = observation.getMeanNdvi() - previous.getMeanNdvi();
+        observation.setHasChange(true);
+        observation.setNdviChange(change);
+
+        int season = seasonOf(observation.getEpochDay());
+        double[] stats = pooled(baselines, season);
+        if (stats[0] >= MIN_SAMPLES) {
+            double std = Math.max(MIN_STD, Math.sqrt(stats[2] / (stats[0] - 1)));
+            double z = (change - stats[1]) / std;
+            observation.setScored(true);
+            observation.setZScore(z);
+            observation.setAlert(z <= ALERT_Z && change <= -MIN_ALERT_DROP);
+        }
+
+        if (baselines[season] == null) {
+            baselines[season] = new PlotIndexBaseline(observation.getPlotId(), season);
+        }
+        baselines[season].add(change);
+        return season;
+    }
+
+    /**
+     * Baseline statistics for a season: the month and its neighbours if they
+     * hold enough samples, otherwise the whole year
+     * @return {count, mean, m2}
+     */
+    static double[] pooled(PlotIndexBaseline[] baselines, int season) {
+        double[] stats = new double[3];
+        for (int offset = -1; offset <= 1; offset++) {
+            merge(stats, baselines[(season + offset + SEASONS) % SEASONS]);
+        }
+        if (stats[0] >= MIN_SEASONAL_SAMPLES) {
+            return stats;
+        }
+        stats = new double[3];
+        for (PlotIndexBaseline baseline : baselines) {
+            merge(stats, baseline);
+        }
+        return stats;
+    }
+
+    /**
+     * Combine accumulators (Chan et al. parallel variance)
+     */
+    private static void merge(double[] stats, PlotIndexBaseline baseline) {
+        if (baseline == null || baseline.getSampleCount() == 0) {
+            return;
+        }
+        double count = stats[0] + baseline.getSampleCount();
+        double delta = baseline.getMean() - stats[1];
+        stats[2] += baseline.getM2() + delta * delta * stats[0] * baseline.getSampleCount() / count;
+        stats[1] += delta * baseline.getSampleCount() / count;
+        stats[0] = count;
+    }
+
+    /**
+     * @return Month of an epoch day, 0 = January
+     */
+    static int seasonOf(int epochDay) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(EpochDay.toUtcMillis(epochDay));
+        return calendar.get(Calendar.MONTH);
+    }
+
+    private static double zeroIfNaN(double value) {
+        return Double.isNaN(value) ? 0 : value;
+    }
+}
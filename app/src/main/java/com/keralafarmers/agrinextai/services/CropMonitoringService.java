@@ -0,0 +1,399 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.FarmBoundaryDao;
+import com.keralafarmers.agrinextai.database.PlotIndexDao;
+import com.keralafarmers.agrinextai.geometry.GeoPolygon;
+import com.keralafarmers.agrinextai.models.FarmBoundary;
+import com.keralafarmers.agrinextai.models.PlotIndexBaseline;
+import com.keralafarmers.agrinextai.models.PlotIndexObservation;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.network.SceneCatalogParser;
+import com.keralafarmers.agrinextai.raster.FieldIndexAnalyzer;
+import com.keralafarmers.agrinextai.raster.FieldIndexSummary;
+import com.keralafarmers.agrinextai.raster.IndexTileCache;
+import com.keralafarmers.agrinextai.raster.RasterScene;
+import com.keralafarmers.agrinextai.raster.SampleScene;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import okhttp3.ResponseBody;
+import retrofit2.Response;
+
+/**
+ * Service class for satellite crop monitoring
+ * Scenes live as raw tiles under files/rasters/<scene id>, downloaded from the
+ * feed server's scene catalog when one is configured; computed NDVI and
+ * NDWI tiles are cached compressed under cache/index_tiles. A farm polygon is
+ * analyzed against the most recent scene that covers it, falling back to the
+ * generated sample scene when no imagery has been downloaded; such results
+ * are marked as sample data and must be shown as a demo.
+ * Each plot also keeps a time stack of per-scene statistics; real scenes are
+ * ingested once, when first seen, and change alerts are read back from the
+ * stored summaries. The sample scene never enters a time stack.
+ */
+public class CropMonitoringService {
+    private static final String TAG = "CropMonitoringService";
+
+    private static final String SCENE_DIR = "rasters";
+    private static final String CACHE_DIR = "index_tiles";
+
+    // Open scenes and their tile caches, shared so decoded tiles survive screen changes
+    private static final Map<String, IndexTileCache> CACHES = new HashMap<>();
+    private static final Map<String, RasterScene> SCENES = new HashMap<>();
+
+    private final Context context;
+    private final File sceneRoot;
+    private final File cacheRoot;
+    private final FarmBoundaryDao farmBoundaryDao;
+    private final PlotIndexDao plotIndexDao;
+
+    public CropMonitoringService(Context context) {
+        this.context = context.getApplicationContext();
+        this.sceneRoot = new File(context.getFilesDir(), SCENE_DIR);
+        this.cacheRoot = new File(context.getCacheDir(), CACHE_DIR);
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.farmBoundaryDao = database.farmBoundaryDao();
+        this.plotIndexDao = database.plotIndexDao();
+    }
+
+    /**
+     * Interface for field analysis callbacks
+     */
+    public interface FieldCallback {
+        void onSuccess(FieldIndexSummary summary);
+        void onError(String error);
+    }
+
+    /**
+     * Interface for crop change callbacks
+     */
+    public interface ChangeCallback {
+        void onSuccess(List<PlotIndexObservation> latest);
+        void onError(String error);
+    }
+
+    /**
+     * Compute NDVI and NDWI statistics for a farm polygon
+     * @param latitudes Polygon vertex latitudes
+     * @param longitudes Polygon vertex longitudes
+     * @param callback Field callback, on the main thread
+     */
+    public void analyzeField(double[] latitudes, double[] longitudes, FieldCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private FieldIndexSummary summary;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    summary = analyzeFieldBlocking(latitudes, longitudes);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error analyzing field", e);
+                    return "Error analyzing field: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(summary);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Compute NDVI and NDWI statistics for a farm polygon
+     * Blocking; call from a background thread
+     * @return Summary from the newest covering scene
+     * @throws IOException If no scene can be read
+     */
+    public FieldIndexSummary analyzeFieldBlocking(double[] latitudes, double[] longitudes) throws IOException {
+        double centreLat = 0, centreLon = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            centreLat += latitudes[i] / latitudes.length;
+            centreLon += longitudes[i] / longitudes.length;
+        }
+        RasterScene scene = findScene(centreLat, centreLon);
+        return FieldIndexAnalyzer.analyze(scene, getCache(scene), latitudes, longitudes);
+    }
+
+    /**
+     * Ingest new scenes for a user's plots and return each plot's latest pass
+     * @param userId User ID
+     * @param callback Change callback with the newest usable observation per plot; empty
+     *                 when the user has no boundary
+     */
+    public void detectChanges(int userId, ChangeCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private List<PlotIndexObservation> latest;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    latest = detectChangesBlocking(userId);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error detecting crop changes", e);
+                    return "Error detecting crop changes: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(latest);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Download and ingest new scenes for a user's plots and return each plot's latest pass
+     * A failed download only means no new scenes; what is already on the device is still ingested.
+     * Blocking; call from a background thread
+     */
+    public List<PlotIndexObservation> detectChangesBlocking(int userId) throws IOException {
+        List<FarmBoundary> boundaries = farmBoundaryDao.getBoundariesForUser(userId);
+        List<PlotIndexObservation> latest = new ArrayList<>();
+        for (FarmBoundary boundary : boundaries) {
+            GeoPolygon plot = FarmBoundaryService.getOuterRing(boundary);
+            try {
+                downloadScenesBlocking((plot.getMinLat() + plot.getMaxLat()) / 2,
+                        (plot.getMinLon() + plot.getMaxLon()) / 2);
+            } catch (IOException e) {
+                Log.w(TAG, "Scene download failed for plot " + boundary.getId(), e);
+            }
+            ingestPlot(boundary.getId(), plot, boundary.getAreaM2());
+            addLatest(latest, boundary.getId());
+        }
+        return latest;
+    }
+
+    /**
+     * Download catalog scenes covering a point that are not on the device yet
+     * A scene is fetched into a hidden staging directory and renamed into place
+     * only once its header and every tile have arrived, so listScenes never
+     * opens a partial scene. Nothing is fetched when no server is configured.
+     * Blocking; call from a background thread
+     * @param latitude Latitude
+     * @param longitude Longitude
+     * @return Number of scenes added
+     * @throws IOException If the catalog or a scene file cannot be fetched
+     */
+    public int downloadScenesBlocking(double latitude, double longitude) throws IOException {
+        ApiClient client = ApiClient.getInstance(context);
+        if (client == null) {
+            return 0;
+        }
+        List<String> sceneIds = client.fetchFull(client.getFeedApi().getScenes(latitude, longitude),
+                new SceneCatalogParser()).getItems();
+        int added = 0;
+        for (String sceneId : sceneIds) {
+            // IDs become directory names; the sample scene's is reserved
+            if (sceneId.startsWith(".") || sceneId.contains("/") || sceneId.contains("\\")
+                    || SampleScene.SCENE_ID.equals(sceneId) || new File(sceneRoot, sceneId).exists()) {
+                continue;
+            }
+            File staging = new File(sceneRoot, "." + sceneId + ".part");
+            deleteFiles(staging);
+            if (!staging.mkdirs()) {
+                throw new IOException("Cannot create " + staging);
+            }
+            downloadSceneFile(client, sceneId, RasterScene.HEADER_FILE, staging);
+            RasterScene header = RasterScene.open(staging);
+            for (int tileY = 0; tileY < header.getTilesY(); tileY++) {
+                for (int tileX = 0; tileX < header.getTilesX(); tileX++) {
+                    downloadSceneFile(client, sceneId, RasterScene.tileFileName(tileX, tileY), staging);
+                }
+            }
+            if (!staging.renameTo(new File(sceneRoot, sceneId))) {
+                deleteFiles(staging);
+                throw new IOException("Cannot move scene " + sceneId + " into place");
+            }
+            added++;
+        }
+        if (added > 0) {
+            Log.d(TAG, "Downloaded " + added + " scenes");
+        }
+        return added;
+    }
+
+    private static void downloadSceneFile(ApiClient client, String sceneId, String fileName, File directory)
+            throws IOException {
+        Response<ResponseBody> response = client.getFeedApi().getSceneFile(sceneId, fileName).execute();
+        ResponseBody body = response.body();
+        try {
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for " + sceneId + "/" + fileName);
+            }
+            try (InputStream in = body.byteStream();
+                 OutputStream out = new FileOutputStream(new File(directory, fileName))) {
+                byte[] buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        } finally {
+            if (body != null) {
+                body.close();
+            }
+        }
+    }
+
+    private static void deleteFiles(File directory) {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private void addLatest(List<PlotIndexObservation> latest, int plotId) {
+        PlotIndexObservation observation = plotIndexDao.getLatestUsable(plotId);
+        if (observation != null) {
+            latest.add(observation);
+        }
+    }
+
+    /**
+     * Add every covering real scene not yet in a plot's time stack, oldest first
+     * A scene older than the plot's latest usable pass is stored but not scored.
+     * Synthetic sample pixels would pass for a measured pass, so that scene is skipped.
+     */
+    private void ingestPlot(int plotId, GeoPolygon plot, double plotAreaM2) throws IOException {
+        Set<String> ingested = new HashSet<>(plotIndexDao.getSceneIds(plotId));
+        double centreLat = (plot.getMinLat() + plot.getMaxLat()) / 2;
+        double centreLon = (plot.getMinLon() + plot.getMaxLon()) / 2;
+        List<RasterScene> scenes = new ArrayList<>();
+        for (RasterScene scene : listScenes()) {
+            if (!SampleScene.SCENE_ID.equals(scene.getSceneId())
+                    && !ingested.contains(scene.getSceneId()) && scene.contains(centreLat, centreLon)) {
+                scenes.add(scene);
+            }
+        }
+        if (scenes.isEmpty()) {
+            return;
+        }
+        scenes.sort((a, b) -> Long.compare(a.getAcquiredAt(), b.getAcquiredAt()));
+
+        PlotIndexBaseline[] baselines = new PlotIndexBaseline[CropChangeDetector.SEASONS];
+        for (PlotIndexBaseline baseline : plotIndexDao.getBaselines(plotId)) {
+            baselines[baseline.getSeason()] = baseline;
+        }
+        PlotIndexObservation previous = plotIndexDao.getLatestUsable(plotId);
+        double[] latitudes = plot.getLatitudes();
+        double[] longitudes = plot.getLongitudes();
+        List<PlotIndexObservation> observations = new ArrayList<>();
+        Set<Integer> changedSeasons = new HashSet<>();
+        for (RasterScene scene : scenes) {
+            PlotIndexObservation observation = new PlotIndexObservation(plotId, scene.getSceneId(),
+                    EpochDay.fromMillis(scene.getAcquiredAt()));
+            FieldIndexSummary summary = FieldIndexAnalyzer.analyze(scene, getCache(scene), latitudes, longitudes);
+            int season = CropChangeDetector.score(observation, summary, plotAreaM2, previous, baselines);
+            if (season >= 0) {
+                changedSeasons.add(season);
+            }
+            if (observation.isUsable() && (previous == null || observation.getEpochDay() > previous.getEpochDay())) {
+                previous = observation;
+            }
+            observations.add(observation);
+        }
+        List<PlotIndexBaseline> changed = new ArrayList<>();
+        for (int season : changedSeasons) {
+            changed.add(baselines[season]);
+        }
+        plotIndexDao.saveIngest(observations, changed);
+        Log.d(TAG, "Ingested " + observations.size() + " scenes for plot " + plotId);
+    }
+
+    private IndexTileCache getCache(RasterScene scene) {
+        synchronized (CACHES) {
+            IndexTileCache cache = CACHES.get(scene.getSceneId());
+            if (cache == null) {
+                cache = new IndexTileCache(scene, cacheRoot);
+                CACHES.put(scene.getSceneId(), cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Open every readable scene, writing the sample scene on first use
+     * Hidden directories are downloads still in progress and are skipped.
+     * Blocking; call from a background thread
+     */
+    public List<RasterScene> listScenes() throws IOException {
+        SampleScene.writeIfMissing(sceneRoot);
+        List<RasterScene> scenes = new ArrayList<>();
+        File[] directories = sceneRoot.listFiles(file -> file.isDirectory() && !file.getName().startsWith("."));
+        if (directories != null) {
+            for (File directory : directories) {
+                RasterScene scene = openScene(directory);
+                if (scene != null) {
+                    scenes.add(scene);
+                }
+            }
+        }
+        return scenes;
+    }
+
+    /**
+     * Find the most recently acquired scene covering a point
+     * The sample scene is written on first use and used when nothing else covers the point.
+     */
+    private RasterScene findScene(double latitude, double longitude) throws IOException {
+        RasterScene best = null;
+        for (RasterScene scene : listScenes()) {
+            if (scene.contains(latitude, longitude)
+                    && (best == null || scene.getAcquiredAt() > best.getAcquiredAt())) {
+                best = scene;
+            }
+        }
+        if (best == null) {
+            best = openScene(new File(sceneRoot, SampleScene.SCENE_ID));
+        }
+        if (best == null) {
+            throw new IOException("No readable satellite scene");
+        }
+        return best;
+    }
+
+    private RasterScene openScene(File directory) {
+        synchronized (SCENES) {
+            RasterScene scene = SCENES.get(directory.getPath());
+            if (scene == null) {
+                try {
+                    scene = RasterScene.open(directory);
+                    SCENES.put(directory.getPath(), scene);
+                } catch (IOException e) {
+                    Log.w(TAG, "Skipping unreadable scene " + directory.getName(), e);
+                }
+            }
+            return scene;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.util.Locale;
+
+/**
+ * FAO-56 crop coefficient curve and rooting parameters for one crop
+ * Seasonal crops go through initial, development, mid-season and late stages
+ * counted from the planting date; perennials use their mid-season Kc all year.
+ */
+public final class CropWaterProfile {
+
+    private static final CropWaterProfile[] PROFILES = {
+            new CropWaterProfile(new String[]{"rice", "paddy"}, 30, 30, 60, 30, 1.05, 1.20, 0.90, 0.5, 0.20),
+            new CropWaterProfile(new String[]{"banana", "plantain"}, 120, 90, 120, 60, 0.50, 1.10, 1.00, 0.5, 0.35),
+            new CropWaterProfile(new String[]{"ginger"}, 30, 60, 90, 40, 0.50, 1.05, 0.80, 0.3, 0.40),
+            new CropWaterProfile(new String[]{"turmeric"}, 30, 60, 110, 40, 0.50, 1.05, 0.80, 0.3, 0.40),
+            new CropWaterProfile(new String[]{"tapioca", "cassava"}, 20, 40, 90, 60, 0.30, 0.80, 0.30, 0.7, 0.35),
+            perennial(new String[]{"coconut"}, 1.00, 1.0, 0.65),
+            perennial(new String[]{"pepper"}, 0.90, 0.6, 0.40),
+            perennial(new String[]{"cardamom"}, 0.85, 0.4, 0.35),
+            perennial(new String[]{"rubber"}, 1.00, 1.0, 0.60),
+            perennial(new String[]{"coffee"}, 0.95, 0.9, 0.40),
+            perennial(new String[]{"arecanut", "areca"}, 1.00, 0.9, 0.50)
+    };
+
+    // Vegetables and anything unlisted
+    private static final CropWaterProfile DEFAULT =
+            new CropWaterProfile(new String[0], 20, 30, 40, 20, 0.60, 1.05, 0.90, 0.5, 0.45);
+
+    private final String[] keywords;
+    private final int initialDays, developmentDays, midDays, lateDays;
+    private final double kcInitial, kcMid, kcEnd;
+    private final double rootDepthM;
+    private final double depletionFraction;
+
+    private CropWaterProfile(String[] keywords, int initialDays, int developmentDays, int midDays, int lateDays,
+                             double kcInitial, double kcMid, double kcEnd, double rootDepthM,
+                             double depletionFraction) {
+        this.keywords = keywords;
+        this.initialDays = initialDays;
+        this.developmentDays = developmentDays;
+        this.midDays = midDays;
+        this.lateDays = lateDays;
+        this.kcInitial = kcInitial;
+        this.kcMid = kcMid;
+        this.kcEnd = kcEnd;
+        this.rootDepthM = rootDepthM;
+        this.depletionFraction = depletionFraction;
+    }
+
+    private static CropWaterProfile perennial(String[] keywords, double kc, double rootDepthM,
+                                              double depletionFraction) {
+        return new CropWaterProfile(keywords, 0, 0, 0, 0, kc, kc, kc, rootDepthM, depletionFraction);
+    }
+
+    /**
+     * Find the profile for a crop name as entered on a harvest card
+     * @param cropName Crop name, e.g. "Black Pepper"
+     * @return Matching profile, or the generic vegetable profile
+     */
+    public static CropWaterProfile forCrop(String cropName) {
+        if (cropName != null) {
+            String name = cropName.toLowerCase(Locale.ROOT);
+            for (CropWaterProfile profile : PROFILES) {
+                for (String keyword : profile.keywords) {
+                    if (name.contains(keyword)) {
+                        return profile;
+                    }
+                }
+            }
+        }
+        return DEFAULT;
+    }
+
+    /**
+     * Crop coefficient on a day after planting, interpolated linearly through
+     * the development and late stages as in FAO-56
+     * @param daysAfterPlanting Days since planting (negative before planting)
+     * @return Kc
+     */
+    public double kcAt(int daysAfterPlanting) {
+        if (isPerennial()) {
+            return kcMid;
+        }
+        int day = Math.max(0, daysAfterPlanting);
+        if (day < initialDays) {
+            return kcInitial;
+        }
+        day -= initialDays;
+        if (day < developmentDays) {
+            return kcInitial + (kcMid - kcInitial) * day / developmentDays;
+        }
+        day -= developmentDays;
+        if (day < midDays) {
+            return kcMid;
+        }
+        day -= midDays;
+        if (day < lateDays) {
+            return kcMid + (kcEnd - kcMid) * day / lateDays;
+        }
+        return kcEnd;
+    }
+
+    /**
+     * @param plantingDate Planting timestamp
+     * @return Epoch day of planting
+     */
+    public static int plantingDay(long plantingDate) {
+        return EpochDay.fromMillis(plantingDate);
+    }
+
+    public boolean isPerennial() {
+        return initialDays + developmentDays + midDays + lateDays == 0;
+    }
+
+    public double getRootDepthM() {
+        return rootDepthM;
+    }
+
+    /**
+     * @return Fraction of total available water the crop can use before stress (FAO-56 p)
+     */
+    public double getDepletionFraction() {
+        return depletionFraction;
+    }
+
+    /**
+     * Available water capacity of the root zone soil
+     * @param soilType Soil type as entered on a harvest card
+     * @return mm of plant-available water per metre of soil
+     */
+    public static double availableWaterPerMetre(String soilType) {
+        String soil = soilType != null ? soilType.toLowerCase(Locale.ROOT) : "";
+        if (soil.contains("sand")) {
+            return 70;
+        } else if (soil.contains("later")) {
+            return 100;
+        } else if (soil.contains("clay")) {
+            return 170;
+        } else if (soil.contains("alluvial")) {
+            return 150;
+        } else if (soil.contains("loam")) {
+            return 140;
+        }
+        return 120;
+    }
+}
@@ -0,0 +1,140 @@
+package com.keralafarmers.agrinextai.services;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Weather risk model for one disease in AIAdvisorService's disease database
+ * Risk is a temperature suitability factor (a trapezoid over the 3-day mean)
+ * times a weighted sum of saturating moisture factors, giving a score in 0..1.
+ * Parameters follow published infection conditions for each pathogen,
+ * simplified to what daily weather rows can support.
+ */
+public final class DiseaseRiskModel {
+
+    public static final double MODERATE_THRESHOLD = 0.35;
+    public static final double HIGH_THRESHOLD = 0.65;
+
+    public static final List<DiseaseRiskModel> MODELS = Collections.unmodifiableList(Arrays.asList(
+            // Magnaporthe oryzae: long dew periods at mild temperatures
+            new DiseaseRiskModel("rice_blast", new String[]{"rice", "paddy"},
+                    18, 22, 28, 32,
+                    30, 0.6, 3, 0.2, 0, 0, 5, 0.2),
+            // Xanthomonas oryzae: warm, wind-driven rain spells
+            new DiseaseRiskModel("bacterial_blight", new String[]{"rice", "paddy"},
+                    22, 25, 34, 36,
+                    0, 0, 4, 0.4, 60, 0.4, 5, 0.2),
+            // Bipolaris oryzae: warm, humid weather with wet leaves
+            new DiseaseRiskModel("brown_spot", new String[]{"rice", "paddy"},
+                    20, 25, 30, 35,
+                    24, 0.5, 0, 0, 0, 0, 6, 0.5),
+            // Phyllosticta: cool monsoon highlands with continuous rain
+            new DiseaseRiskModel("cardamom_leaf_spot", new String[]{"cardamom"},
+                    16, 18, 25, 30,
+                    30, 0.3, 5, 0.5, 0, 0, 6, 0.2),
+            // Phytophthora capsici: waterlogged soils after sustained heavy rain
+            new DiseaseRiskModel("pepper_quick_wilt", new String[]{"pepper"},
+                    20, 22, 29, 32,
+                    0, 0, 6, 0.4, 150, 0.5, 6, 0.1)
+    ));
+
+    private final String diseaseKey;
+    private final String[] cropKeywords;
+    private final double tempMin, tempOptLow, tempOptHigh, tempMax;
+    private final double wetHoursFull, wetWeight;
+    private final double rainDaysFull, rainDaysWeight;
+    private final double rainfallFull, rainfallWeight;
+    private final double humidDaysFull, humidWeight;
+
+    /**
+     * Each factor reaches 1 at its "full" value; a weight of 0 disables it
+     */
+    DiseaseRiskModel(String diseaseKey, String[] cropKeywords,
+                     double tempMin, double tempOptLow, double tempOptHigh, double tempMax,
+                     double wetHoursFull, double wetWeight,
+                     double rainDaysFull, double rainDaysWeight,
+                     double rainfallFull, double rainfallWeight,
+                     double humidDaysFull, double humidWeight) {
+        this.diseaseKey = diseaseKey;
+        this.cropKeywords = cropKeywords;
+        this.tempMin = tempMin;
+        this.tempOptLow = tempOptLow;
+        this.tempOptHigh = tempOptHigh;
+        this.tempMax = tempMax;
+        this.wetHoursFull = wetHoursFull;
+        this.wetWeight = wetWeight;
+        this.rainDaysFull = rainDaysFull;
+        this.rainDaysWeight = rainDaysWeight;
+        this.rainfallFull = rainfallFull;
+        this.rainfallWeight = rainfallWeight;
+        this.humidDaysFull = humidDaysFull;
+        this.humidWeight = humidWeight;
+    }
+
+    /**
+     * Score the risk for the last day of the features' window
+     * @param features Rolling weather features
+     * @return Risk score from 0 (none) to 1 (conditions fully favourable)
+     */
+    public double score(WeatherFeatures features) {
+        double temperature = features.getMeanTemperature3Days();
+        if (Double.isNaN(temperature)) {
+            return 0;
+        }
+        double moisture = wetWeight * saturate(features.getLeafWetnessHours3Days(), wetHoursFull)
+                + rainDaysWeight * saturate(features.getConsecutiveRainDays(), rainDaysFull)
+                + rainfallWeight * saturate(features.getRainfall7Days(), rainfallFull)
+                + humidWeight * saturate(features.getHumidDays(), humidDaysFull);
+        return temperatureFactor(temperature) * moisture;
+    }
+
+    /**
+     * Check whether a grown crop is a host of this disease
+     * @param cropName Crop name as entered by the farmer, e.g. "Rice (Paddy)"
+     * @return True if the name mentions a host crop
+     */
+    public boolean affects(String cropName) {
+        if (cropName == null) {
+            return false;
+        }
+        String name = cropName.toLowerCase(Locale.ROOT);
+        for (String keyword : cropKeywords) {
+            if (name.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getDiseaseKey() {
+        return diseaseKey;
+    }
+
+    public static DiseaseRiskModel forDisease(String diseaseKey) {
+        for (DiseaseRiskModel model : MODELS) {
+            if (model.diseaseKey.equals(diseaseKey)) {
+                return model;
+            }
+        }
+        return null;
+    }
+
+    private double temperatureFactor(double temperature) {
+        if (temperature <= tempMin || temperature >= tempMax) {
+            return 0;
+        }
+        if (temperature < tempOptLow) {
+            return (temperature - tempMin) / (tempOptLow - tempMin);
+        }
+        if (temperature > tempOptHigh) {
+            return (tempMax - temperature) / (tempMax - tempOptHigh);
+        }
+        return 1;
+    }
+
+    private static double saturate(double value, double full) {
+        return full > 0 ? Math.min(1, value / full) : 0;
+    }
+}
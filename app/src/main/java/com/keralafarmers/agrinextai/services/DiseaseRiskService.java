@@ -0,0 +1,184 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.DiseaseRiskDao;
+import com.keralafarmers.agrinextai.database.HarvestCardDao;
+import com.keralafarmers.agrinextai.database.WeatherDao;
+import com.keralafarmers.agrinextai.models.DiseaseRiskScore;
+import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+import com.keralafarmers.agrinextai.utils.GeoHash;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for weather-driven crop disease risk
+ * Each weather cell keeps rolling WeatherFeatures that advance as weather
+ * windows are loaded. The features live in memory only; the first window a
+ * process sees for a cell rebuilds them from the cell's stored weather rows,
+ * so a restart does not shorten the 7-day window. Every disease model is scored for today and, on a
+ * projected copy of the features, for each forecast day; the daily scores
+ * are cached in Room and filtered to the crops a user grows when read.
+ */
+public class DiseaseRiskService {
+    private static final String TAG = "DiseaseRiskService";
+
+    // Scores older than this are dropped by cleanup
+    private static final int RETENTION_DAYS = 30;
+    private static final int FORECAST_DAYS = 5;
+
+    // Observed features per weather cell; guarded by the map
+    private static final Map<String, WeatherFeatures> FEATURES = new HashMap<>();
+
+    private DiseaseRiskDao diseaseRiskDao;
+    private HarvestCardDao harvestCardDao;
+    private WeatherDao weatherDao;
+
+    public DiseaseRiskService(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.diseaseRiskDao = database.diseaseRiskDao();
+        this.harvestCardDao = database.harvestCardDao();
+        this.weatherDao = database.weatherDao();
+    }
+
+    /**
+     * Interface for disease risk callbacks
+     */
+    public interface RiskCallback {
+        void onSuccess(List<DiseaseRiskScore> scores);
+        void onError(String error);
+    }
+
+    /**
+     * Advance a cell's features with a loaded weather window and cache the scores
+     * Blocking; called by WeatherService after the window is stored
+     * @param cell Weather cell
+     * @param window Daily rows ordered by day
+     */
+    public void onWeatherWindow(String cell, List<Weather> window) {
+        int today = EpochDay.today();
+        long now = System.currentTimeMillis();
+        List<DiseaseRiskScore> scores = new ArrayList<>();
+
+        boolean known;
+        synchronized (FEATURES) {
+            known = FEATURES.containsKey(cell);
+        }
+        // Read outside the lock; a racing window for the same cell just wins the put
+        WeatherFeatures restored = known ? null : restoreFeatures(cell, today);
+
+        WeatherFeatures projected;
+        synchronized (FEATURES) {
+            WeatherFeatures observed = FEATURES.get(cell);
+            if (observed == null) {
+                observed = restored;
+                FEATURES.put(cell, observed);
+            }
+            for (Weather weather : window) {
+                if (weather.getEpochDay() <= today) {
+                    observed.observe(weather);
+                }
+            }
+            if (observed.getLastDay() == today) {
+                addScores(scores, cell, today, observed, false, now);
+            }
+            projected = observed.copy();
+        }
+
+        for (Weather weather : window) {
+            int day = weather.getEpochDay();
+            if (day > today && day <= today + FORECAST_DAYS && projected.observe(weather)) {
+                addScores(scores, cell, day, projected, true, now);
+            }
+        }
+        if (!scores.isEmpty()) {
+            diseaseRiskDao.upsertScores(scores);
+        }
+    }
+
+    /**
+     * Rebuild a cell's observed features from its stored rows of the last 7 days
+     */
+    private WeatherFeatures restoreFeatures(String cell, int today) {
+        WeatherFeatures features = new WeatherFeatures();
+        for (Weather weather : weatherDao.getWeatherByDateRange(cell, today - WeatherFeatures.WINDOW_DAYS + 1, today)) {
+            features.observe(weather);
+        }
+        return features;
+    }
+
+    private static void addScores(List<DiseaseRiskScore> scores, String cell, int day, WeatherFeatures features,
+                                  boolean isForecast, long now) {
+        for (DiseaseRiskModel model : DiseaseRiskModel.MODELS) {
+            scores.add(new DiseaseRiskScore(cell, day, model.getDiseaseKey(), model.score(features), isForecast, now));
+        }
+    }
+
+    /**
+     * Get today's and the forecast days' risk scores for the diseases of a user's crops
+     * @param userId User ID
+     * @param latitude Farm latitude
+     * @param longitude Farm longitude
+     * @param callback Risk callback, on the main thread
+     */
+    public void getRisksForUser(int userId, double latitude, double longitude, RiskCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private final List<DiseaseRiskScore> result = new ArrayList<>();
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    Set<String> diseases = new HashSet<>();
+                    for (String crop : harvestCardDao.getUniqueCrops(userId)) {
+                        for (DiseaseRiskModel model : DiseaseRiskModel.MODELS) {
+                            if (model.affects(crop)) {
+                                diseases.add(model.getDiseaseKey());
+                            }
+                        }
+                    }
+                    if (diseases.isEmpty()) {
+                        return "SUCCESS";
+                    }
+                    String cell = GeoHash.encode(latitude, longitude, GeoHash.WEATHER_CELL_PRECISION);
+                    int today = EpochDay.today();
+                    for (DiseaseRiskScore score : diseaseRiskDao.getScores(cell, today, today + FORECAST_DAYS)) {
+                        if (diseases.contains(score.getDiseaseKey())) {
+                            result.add(score);
+                        }
+                    }
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error loading disease risks", e);
+                    return "Error loading disease risks: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(result);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Delete scores older than 30 days
+     * Blocking; call from a background thread
+     * @return Number of rows deleted
+     */
+    public int deleteOldScores() {
+        return diseaseRiskDao.deleteScoresBefore(EpochDay.today() - RETENTION_DAYS);
+    }
+}
@@ -0,0 +1,94 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.gson.stream.JsonReader;
+import com.keralafarmers.agrinextai.geometry.AdminRegionIndex;
+import com.keralafarmers.agrinextai.network.AdminRegionParser;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+/**
+ * Offline reverse geocoding of a GPS fix to its Kerala district and taluk
+ * Boundaries ship as a GeoJSON asset and are indexed once per process on
+ * first use (a few milliseconds); after that a lookup is an R-tree probe
+ * plus a point-in-polygon test on one or two regions, cheap enough for the
+ * main thread. District names are the canonical ones in DistrictRoutes.
+ */
+public final class DistrictLocator {
+    private static final String TAG = "DistrictLocator";
+
+    private static final String BOUNDARY_ASSET = "geo/kerala_admin.geojson";
+
+    private static volatile AdminRegionIndex index;
+
+    private DistrictLocator() {
+    }
+
+    /**
+     * @return District name as in DistrictRoutes.DISTRICTS, or null outside Kerala
+     */
+    public static String findDistrict(Context context, double latitude, double longitude) {
+        AdminRegionIndex.Region region = getIndex(context)
+                .find(AdminRegionIndex.LEVEL_DISTRICT, latitude, longitude);
+        if (region == null) {
+            return null;
+        }
+        int district = DistrictRoutes.indexOf(region.getName());
+        return district >= 0 ? DistrictRoutes.DISTRICTS[district] : region.getName();
+    }
+
+    /**
+     * @return Taluk name, or null outside Kerala or where no taluk boundaries are bundled
+     */
+    public static String findTaluk(Context context, double latitude, double longitude) {
+        AdminRegionIndex.Region region = getIndex(context)
+                .find(AdminRegionIndex.LEVEL_TALUK, latitude, longitude);
+        return region != null ? region.getName() : null;
+    }
+
+    /**
+     * Human-readable place for a fix, e.g. "Palakkad, Kerala"
+     * @param fallback Label to use outside the covered area
+     */
+    public static String describe(Context context, double latitude, double longitude, String fallback) {
+        String district = findDistrict(context, latitude, longitude);
+        if (district == null) {
+            return fallback;
+        }
+        String taluk = findTaluk(context, latitude, longitude);
+        return (taluk != null ? taluk + ", " : "") + district + ", Kerala";
+    }
+
+    private static AdminRegionIndex getIndex(Context context) {
+        AdminRegionIndex current = index;
+        if (current == null) {
+            synchronized (DistrictLocator.class) {
+                current = index;
+                if (current == null) {
+                    current = load(context.getApplicationContext());
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static AdminRegionIndex load(Context context) {
+        try (Reader reader = new InputStreamReader(context.getAssets().open(BOUNDARY_ASSET),
+                StandardCharsets.UTF_8);
+             JsonReader json = new JsonReader(reader)) {
+            AdminRegionIndex loaded = new AdminRegionIndex(new AdminRegionParser().parse(json));
+            Log.d(TAG, "Indexed " + loaded.size() + " boundaries");
+            return loaded;
+        } catch (Exception e) {
+            // Without boundaries every lookup misses and callers fall back to their defaults
+            Log.e(TAG, "Error loading district boundaries", e);
+            return new AdminRegionIndex(Collections.emptyList());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.keralafarmers.agrinextai.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Road distances and produce transport costs between Kerala's 14 districts
+ * A bundled graph of road links between district headquarters is expanded
+ * once with Floyd-Warshall into all-pairs matrices, so any lookup is an
+ * array read. Costs follow the cheapest route, with ghat roads into the
+ * highland districts weighted above plains roads.
+ */
+public final class DistrictRoutes {
+
+    public static final String[] DISTRICTS = {
+            "Thiruvananthapuram", "Kollam", "Pathanamthitta", "Alappuzha", "Kottayam",
+            "Idukki", "Ernakulam", "Thrissur", "Palakkad", "Malappuram",
+            "Kozhikode", "Wayanad", "Kannur", "Kasaragod"
+    };
+
+    // {latitude, longitude} of each district headquarters, in DISTRICTS order
+    private static final double[][] HEADQUARTERS = {
+            {8.5241, 76.9366}, {8.8932, 76.6141}, {9.2648, 76.7870}, {9.4981, 76.3388}, {9.5916, 76.5222},
+            {9.8497, 76.9720}, {10.0159, 76.3419}, {10.5276, 76.2144}, {10.7867, 76.6548}, {11.0510, 76.0711},
+            {11.2588, 75.7804}, {11.6085, 76.0830}, {11.8745, 75.3704}, {12.4996, 74.9869}
+    };
+
+    // Freight for a shared pickup load, per kg per road km
+    public static final double FREIGHT_PER_KG_KM = 0.025;
+    // Loading, unloading and market entry per kg, paid on every sale
+    public static final double HANDLING_PER_KG = 0.5;
+    // Farm-gate to market distance when selling in the home district
+    private static final double LOCAL_DISTANCE_KM = 20;
+    private static final double GHAT = 1.3;
+    private static final double PLAINS = 1.0;
+
+    private static final int THIRUVANANTHAPURAM = 0, KOLLAM = 1, PATHANAMTHITTA = 2, ALAPPUZHA = 3,
+            KOTTAYAM = 4, IDUKKI = 5, ERNAKULAM = 6, THRISSUR = 7, PALAKKAD = 8, MALAPPURAM = 9,
+            KOZHIKODE = 10, WAYANAD = 11, KANNUR = 12, KASARAGOD = 13;
+
+    // {from, to, road km, terrain factor} between neighbouring headquarters
+    private static final double[][] ROAD_LINKS = {
+            {THIRUVANANTHAPURAM, KOLLAM, 70, PLAINS},
+            {KOLLAM, PATHANAMTHITTA, 58, PLAINS},
+            {KOLLAM, ALAPPUZHA, 85, PLAINS},
+            {PATHANAMTHITTA, ALAPPUZHA, 60, PLAINS},
+            {PATHANAMTHITTA, KOTTAYAM, 50, PLAINS},
+            {ALAPPUZHA, KOTTAYAM, 46, PLAINS},
+            {ALAPPUZHA, ERNAKULAM, 55, PLAINS},
+            {KOTTAYAM, ERNAKULAM, 65, PLAINS},
+            {KOTTAYAM, IDUKKI, 95, GHAT},
+            {IDUKKI, ERNAKULAM, 110, GHAT},
+            {ERNAKULAM, THRISSUR, 75, PLAINS},
+            {THRISSUR, PALAKKAD, 66, PLAINS},
+            {THRISSUR, MALAPPURAM, 85, PLAINS},
+            {PALAKKAD, MALAPPURAM, 95, PLAINS},
+            {MALAPPURAM, KOZHIKODE, 50, PLAINS},
+            {KOZHIKODE, WAYANAD, 72, GHAT},
+            {KOZHIKODE, KANNUR, 92, PLAINS},
+            {WAYANAD, KANNUR, 90, GHAT},
+            {KANNUR, KASARAGOD, 90, PLAINS}
+    };
+
+    private static final int N = DISTRICTS.length;
+    private static final double[][] DISTANCE_KM = new double[N][N];
+    private static final double[][] COST_PER_KG = new double[N][N];
+    private static final int[][] NEXT_HOP = new int[N][N];
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < N; i++) {
+            INDEX.put(DISTRICTS[i].toLowerCase(Locale.ROOT), i);
+        }
+        buildMatrices();
+    }
+
+    private DistrictRoutes() {
+    }
+
+    /**
+     * All-pairs cheapest routes by Floyd-Warshall over freight-weighted road km
+     */
+    private static void buildMatrices() {
+        double[][] weighted = new double[N][N];
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                weighted[i][j] = i == j ? 0 : Double.POSITIVE_INFINITY;
+                DISTANCE_KM[i][j] = i == j ? 0 : Double.POSITIVE_INFINITY;
+                NEXT_HOP[i][j] = i == j ? i : -1;
+            }
+        }
+        for (double[] link : ROAD_LINKS) {
+            int a = (int) link[0];
+            int b = (int) link[1];
+            double km = link[2];
+            double weight = km * link[3];
+            weighted[a][b] = weighted[b][a] = weight;
+            DISTANCE_KM[a][b] = DISTANCE_KM[b][a] = km;
+            NEXT_HOP[a][b] = b;
+            NEXT_HOP[b][a] = a;
+        }
+        for (int k = 0; k < N; k++) {
+            for (int i = 0; i < N; i++) {
+                for (int j = 0; j < N; j++) {
+                    double viaK = weighted[i][k] + weighted[k][j];
+                    if (viaK < weighted[i][j]) {
+                        weighted[i][j] = viaK;
+                        DISTANCE_KM[i][j] = DISTANCE_KM[i][k] + DISTANCE_KM[k][j];
+                        NEXT_HOP[i][j] = NEXT_HOP[i][k];
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < N; i++) {
+            for (int j = 0; j < N; j++) {
+                double freightKm = i == j ? LOCAL_DISTANCE_KM : weighted[i][j];
+                COST_PER_KG[i][j] = HANDLING_PER_KG + FREIGHT_PER_KG_KM * freightKm;
+            }
+        }
+    }
+
+    /**
+     * Look up a district by name (case-insensitive)
+     * @param district District name
+     * @return District index, or -1 if unknown
+     */
+    public static int indexOf(String district) {
+        if (district == null) {
+            return -1;
+        }
+        Integer index = INDEX.get(district.trim().toLowerCase(Locale.ROOT));
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Find the first district named anywhere in a free-text place, e.g. "Kuttanad, Alappuzha"
+     * @param text Place description
+     * @return District index, or -1 if none is mentioned
+     */
+    public static int findInText(String text) {
+        if (text == null) {
+            return -1;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < N; i++) {
+            if (lower.contains(DISTRICTS[i].toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param district District index
+     * @return {latitude, longitude} of the district headquarters
+     */
+    public static double[] getHeadquarters(int district) {
+        return HEADQUARTERS[district].clone();
+    }
+
+    public static int getDistrictCount() {
+        return N;
+    }
+
+    /**
+     * Road distance along the cheapest route
+     * @param from Origin district index
+     * @param to Destination district index
+     * @return Distance in km (0 within a district)
+     */
+    public static double getDistanceKm(int from, int to) {
+        return DISTANCE_KM[from][to];
+    }
+
+    /**
+     * Cost of getting one kg from an origin district to a market and selling it there
+     * @param from Origin district index
+     * @param to Market district index
+     * @return Handling plus freight in ₹ per kg
+     */
+    public static double getCostPerKg(int from, int to) {
+        return COST_PER_KG[from][to];
+    }
+
+    /**
+     * Row of the cost matrix for one origin, for tight ranking loops
+     * @param from Origin district index
+     * @return Cost per kg to each district (shared array, do not modify)
+     */
+    static double[] getCostRow(int from) {
+        return COST_PER_KG[from];
+    }
+
+    /**
+     * Districts passed through on the cheapest route
+     * @param from Origin district index
+     * @param to Destination district index
+     * @return District names from origin to destination, inclusive
+     */
+    public static List<String> getRoute(int from, int to) {
+        if (NEXT_HOP[from][to] < 0) {
+            return Collections.emptyList();
+        }
+        List<String> route = new ArrayList<>();
+        int current = from;
+        route.add(DISTRICTS[current]);
+        while (current != to) {
+            current = NEXT_HOP[current][to];
+            route.add(DISTRICTS[current]);
+        }
+        return route;
+    }
+}
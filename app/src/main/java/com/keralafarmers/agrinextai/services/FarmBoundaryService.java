@@ -0,0 +1,246 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.FarmBoundaryDao;
+import com.keralafarmers.agrinextai.database.PlotIndexDao;
+import com.keralafarmers.agrinextai.database.UserDao;
+import com.keralafarmers.agrinextai.geometry.FarmOverlapIndex;
+import com.keralafarmers.agrinextai.geometry.GeoPolygon;
+import com.keralafarmers.agrinextai.geometry.PolygonArea;
+import com.keralafarmers.agrinextai.models.FarmBoundary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Service class for surveyed farm boundaries
+ * Areas are computed once on save and stored with the boundary; the user's
+ * farm size becomes the sum of their boundaries. Overlap checks run against
+ * an R-tree of every stored boundary, built on first use and rebuilt after
+ * the next save.
+ */
+public class FarmBoundaryService {
+    private static final String TAG = "FarmBoundaryService";
+
+    public static final double SQUARE_METRES_PER_ACRE = 4046.8564224;
+
+    // Shared across screens; null until first needed or after a boundary changes
+    private static volatile FarmOverlapIndex overlapIndex;
+    // Bumped on every boundary save so a build that raced one is not published; guarded by the class
+    private static int boundariesVersion;
+
+    private AppDatabase database;
+    private FarmBoundaryDao farmBoundaryDao;
+    private UserDao userDao;
+    private PlotIndexDao plotIndexDao;
+
+    public FarmBoundaryService(Context context) {
+        this.database = AppDatabase.getInstance(context);
+        this.farmBoundaryDao = database.farmBoundaryDao();
+        this.userDao = database.userDao();
+        this.plotIndexDao = database.plotIndexDao();
+    }
+
+    /**
+     * Interface for single boundary callbacks
+     */
+    public interface BoundaryCallback {
+        void onSuccess(FarmBoundary boundary);
+        void onError(String error);
+    }
+
+    /**
+     * Interface for boundary list callbacks
+     */
+    public interface BoundaryListCallback {
+        void onSuccess(List<FarmBoundary> boundaries);
+        void onError(String error);
+    }
+
+    /**
+     * Interface for overlap index callbacks
+     */
+    public interface OverlapIndexCallback {
+        void onSuccess(FarmOverlapIndex index);
+        void onError(String error);
+    }
+
+    public static double toAcres(double squareMetres) {
+        return squareMetres / SQUARE_METRES_PER_ACRE;
+    }
+
+    /**
+     * Measure and store a boundary, then update the owner's farm size
+     * @param boundary Boundary row; id 0 inserts a new one
+     * @param outer Outer ring
+     * @param exclusions Ponds, buildings and paths inside the boundary
+     * @param callback Boundary callback with the stored row; an error if any ring crosses itself
+     */
+    public void saveBoundary(FarmBoundary boundary, GeoPolygon outer, List<GeoPolygon> exclusions,
+                             BoundaryCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    // Areas are only defined for simple rings; the editor blocks these, this guards other callers
+                    if (!PolygonArea.isSimple(outer)) {
+                        return "Error saving farm boundary: the boundary crosses itself";
+                    }
+                    for (GeoPolygon exclusion : exclusions) {
+                        if (!PolygonArea.isSimple(exclusion)) {
+                            return "Error saving farm boundary: an excluded area crosses itself";
+                        }
+                    }
+                    boundary.setOuterRing(GeoPolygon.encodeRings(Collections.singletonList(outer)));
+                    boundary.setExclusionRings(GeoPolygon.encodeRings(exclusions));
+                    boundary.setMinLat(outer.getMinLat());
+                    boundary.setMaxLat(outer.getMaxLat());
+                    boundary.setMinLon(outer.getMinLon());
+                    boundary.setMaxLon(outer.getMaxLon());
+                    boundary.setAreaM2(PolygonArea.geodesicArea(outer));
+                    boundary.setCultivableAreaM2(PolygonArea.cultivableArea(outer, exclusions));
+                    boundary.setUpdatedAt(System.currentTimeMillis());
+
+                    // The new outline and its cleared time stack are written together
+                    int id = database.runInTransaction(() -> {
+                        if (boundary.getId() != 0) {
+                            // Index statistics of the old outline are not comparable with the new one
+                            plotIndexDao.deletePlot(boundary.getId());
+                        }
+                        return (int) farmBoundaryDao.upsertBoundary(boundary);
+                    });
+                    boundary.setId(id);
+                    invalidateIndex();
+
+                    double totalArea = farmBoundaryDao.getTotalArea(boundary.getUserId());
+                    userDao.updateFarmSize(boundary.getUserId(), toAcres(totalArea));
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error saving farm boundary", e);
+                    return "Error saving farm boundary: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(boundary);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Get a user's boundaries
+     * @param userId User ID
+     * @param callback Boundary list callback
+     */
+    public void getBoundariesForUser(int userId, BoundaryListCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private List<FarmBoundary> boundaries;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    boundaries = farmBoundaryDao.getBoundariesForUser(userId);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error loading farm boundaries", e);
+                    return "Error loading farm boundaries: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(boundaries);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Get the overlap index of all stored boundaries, building it if needed
+     * @param callback Overlap index callback
+     */
+    public void getOverlapIndex(OverlapIndexCallback callback) {
+        FarmOverlapIndex cached = overlapIndex;
+        if (cached != null) {
+            callback.onSuccess(cached);
+            return;
+        }
+        new AsyncTask<Void, Void, String>() {
+            private FarmOverlapIndex index;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    int version;
+                    synchronized (FarmBoundaryService.class) {
+                        version = boundariesVersion;
+                    }
+                    List<FarmBoundary> boundaries = farmBoundaryDao.getAllBoundaries();
+                    int[] ids = new int[boundaries.size()];
+                    List<GeoPolygon> polygons = new ArrayList<>(boundaries.size());
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = boundaries.get(i).getId();
+                        polygons.add(getOuterRing(boundaries.get(i)));
+                    }
+                    index = new FarmOverlapIndex(ids, polygons);
+                    synchronized (FarmBoundaryService.class) {
+                        // A save during the build may be missing from it; leave the next caller to rebuild
+                        if (boundariesVersion == version) {
+                            overlapIndex = index;
+                        }
+                    }
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error building overlap index", e);
+                    return "Error building overlap index: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(index);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Drop the shared overlap index and stop any in-flight build from publishing
+     */
+    private static void invalidateIndex() {
+        synchronized (FarmBoundaryService.class) {
+            boundariesVersion++;
+            overlapIndex = null;
+        }
+    }
+
+    /**
+     * Decode a stored boundary's outer ring
+     */
+    public static GeoPolygon getOuterRing(FarmBoundary boundary) {
+        return GeoPolygon.decodeRings(boundary.getOuterRing()).get(0);
+    }
+
+    /**
+     * Decode a stored boundary's exclusion rings
+     */
+    public static List<GeoPolygon> getExclusions(FarmBoundary boundary) {
+        return GeoPolygon.decodeRings(boundary.getExclusionRings());
+    }
+}
@@ -0,0 +1,206 @@
+package com.keralafarmers.agrinextai.services;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Additive Holt-Winters model over daily prices with a weekly season
+ * All state is a handful of primitives plus one double per weekday, and
+ * each observation updates it in O(1). A second observation on the same
+ * day replaces the first (the pre-update values of that day are kept), so
+ * several syncs a day do not count as several days.
+ */
+public final class HoltWintersModel {
+
+    public static final int SEASON_LENGTH = 7;
+
+    // Smoothing factors for level, trend and weekly season
+    private static final double ALPHA = 0.3;
+    private static final double BETA = 0.05;
+    private static final double GAMMA = 0.1;
+
+    // 95% two-sided normal quantile
+    private static final double Z_95 = 1.96;
+
+    private static final int STATE_VERSION = 1;
+    private static final int STATE_BYTES = 4 + 8 * (2 + SEASON_LENGTH + 3) + 4 + 4 + 4 + 8 + 8;
+
+    private double level;
+    private double trend; // per day
+    private final double[] season = new double[SEASON_LENGTH];
+
+    // Values before the last day's update, for same-day replacement
+    private double prevLevel;
+    private double prevTrend;
+    private double prevSeason;
+    private double lastSquaredError;
+    private int lastGap = 1; // days between the last two observed days
+
+    private int lastDay;
+    private int observations;
+    private double sumSquaredError;
+
+    /**
+     * Add a daily price
+     * @param epochDay Day of the price (see EpochDay)
+     * @param price Price per kg
+     */
+    public void observe(int epochDay, double price) {
+        if (observations == 0) {
+            level = price;
+            trend = 0;
+            lastDay = epochDay;
+            observations = 1;
+            prevLevel = price;
+            prevTrend = 0;
+            prevSeason = 0;
+            lastSquaredError = 0;
+            return;
+        }
+        if (epochDay < lastDay) {
+            return; // late data for a day already passed
+        }
+
+        int slot = seasonSlot(epochDay);
+        if (epochDay == lastDay) {
+            if (observations == 1) {
+                level = price;
+                prevLevel = price;
+                return;
+            }
+            // Undo this day's update before applying the replacement
+            level = prevLevel;
+            trend = prevTrend;
+            season[slot] = prevSeason;
+            sumSquaredError -= lastSquaredError;
+            observations--;
+            lastDay = lastDay - lastGap;
+        }
+
+        int gap = epochDay - lastDay;
+        double seasonal = season[slot];
+        double projectedLevel = level + trend * gap;
+        double error = price - (projectedLevel + seasonal);
+
+        prevLevel = level;
+        prevTrend = trend;
+        prevSeason = seasonal;
+
+        double newLevel = ALPHA * (price - seasonal) + (1 - ALPHA) * projectedLevel;
+        trend = BETA * (newLevel - level) / gap + (1 - BETA) * trend;
+        level = newLevel;
+        season[slot] = GAMMA * (price - newLevel) + (1 - GAMMA) * seasonal;
+
+        lastSquaredError = error * error;
+        sumSquaredError += lastSquaredError;
+        observations++;
+        lastGap = gap;
+        lastDay = epochDay;
+    }
+
+    /**
+     * Forecast the next days with 95% confidence bands
+     * @param horizon Number of days after the last observed day
+     * @return Forecast, or null if no price has been observed
+     */
+    public PriceForecast forecast(int horizon) {
+        if (observations == 0) {
+            return null;
+        }
+        double[] mean = new double[horizon];
+        double[] lower = new double[horizon];
+        double[] upper = new double[horizon];
+        double sigma = getResidualStdDev();
+        for (int h = 1; h <= horizon; h++) {
+            double value = level + trend * h + season[seasonSlot(lastDay + h)];
+            // Error variance multiplier for additive Holt-Winters, seasonal term omitted
+            double varianceFactor = 1 + (h - 1) * ALPHA * ALPHA * (1 + h * BETA + h * (2.0 * h - 1) * BETA * BETA / 6);
+            double width = Z_95 * sigma * Math.sqrt(varianceFactor);
+            mean[h - 1] = Math.max(0, value);
+            lower[h - 1] = Math.max(0, value - width);
+            upper[h - 1] = Math.max(0, value + width);
+        }
+        return new PriceForecast(lastDay, mean, lower, upper);
+    }
+
+    /**
+     * Root mean squared one-step-ahead error so far
+     * @return Residual standard deviation (0 with fewer than two days)
+     */
+    public double getResidualStdDev() {
+        int errors = observations - 1;
+        return errors > 0 ? Math.sqrt(Math.max(0, sumSquaredError) / errors) : 0;
+    }
+
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    public int getObservations() {
+        return observations;
+    }
+
+    public double getLevel() {
+        return level;
+    }
+
+    public double getTrend() {
+        return trend;
+    }
+
+    /**
+     * Serialize the state for storage
+     * @return Fixed-size byte array
+     */
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(STATE_BYTES);
+        buffer.putInt(STATE_VERSION);
+        buffer.putDouble(level);
+        buffer.putDouble(trend);
+        for (double value : season) {
+            buffer.putDouble(value);
+        }
+        buffer.putDouble(prevLevel);
+        buffer.putDouble(prevTrend);
+        buffer.putDouble(prevSeason);
+        buffer.putInt(lastGap);
+        buffer.putInt(lastDay);
+        buffer.putInt(observations);
+        buffer.putDouble(sumSquaredError);
+        buffer.putDouble(lastSquaredError);
+        return buffer.array();
+    }
+
+    /**
+     * Restore a model from toBytes() output
+     * @param bytes Serialized state
+     * @return Model, or a fresh one if the bytes are missing or from another version
+     */
+    public static HoltWintersModel fromBytes(byte[] bytes) {
+        HoltWintersModel model = new HoltWintersModel();
+        if (bytes == null || bytes.length != STATE_BYTES) {
+            return model;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != STATE_VERSION) {
+            return model;
+        }
+        model.level = buffer.getDouble();
+        model.trend = buffer.getDouble();
+        for (int i = 0; i < SEASON_LENGTH; i++) {
+            model.season[i] = buffer.getDouble();
+        }
+        model.prevLevel = buffer.getDouble();
+        model.prevTrend = buffer.getDouble();
+        model.prevSeason = buffer.getDouble();
+        model.lastGap = buffer.getInt();
+        model.lastDay = buffer.getInt();
+        model.observations = buffer.getInt();
+        model.sumSquaredError = buffer.getDouble();
+        model.lastSquaredError = buffer.getDouble();
+        return model;
+    }
+
+    private static int seasonSlot(int epochDay) {
+        return Math.floorMod(epochDay, SEASON_LENGTH);
+    }
+}
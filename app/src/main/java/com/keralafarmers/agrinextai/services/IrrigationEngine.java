@@ -0,0 +1,199 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * FAO-56 reference evapotranspiration and root zone water balance
+ * ET0 is computed once per weather cell into a primitive array; every farm in
+ * the cell then runs a single pass over that array with its own crop
+ * coefficients, so a batch allocates nothing per farm and day.
+ */
+final class IrrigationEngine {
+
+    // Solar constant, MJ m-2 min-1
+    private static final double GSC = 0.0820;
+    // Psychrometric constant at ~100 m elevation, kPa/°C
+    private static final double GAMMA = 0.0674;
+    // Hargreaves radiation adjustment for coastal/interior locations
+    private static final double KRS = 0.19;
+    // Wind at the 10 m reporting height converted to 2 m (FAO-56 eq 47)
+    private static final double WIND_10M_TO_2M = 0.748;
+
+    private IrrigationEngine() {
+    }
+
+    /**
+     * Daily weather of one cell as parallel primitive arrays
+     */
+    static final class WeatherArrays {
+        final int[] days;
+        final double[] rainfall;
+        final double[] et0;
+        final int size;
+
+        WeatherArrays(int[] days, double[] rainfall, double[] et0) {
+            this.days = days;
+            this.rainfall = rainfall;
+            this.et0 = et0;
+            this.size = days.length;
+        }
+    }
+
+    /**
+     * Convert a loaded weather window to arrays and compute ET0 for each day
+     * Penman-Monteith is used when wind is reported, Hargreaves otherwise.
+     * Simulated (offline) days are left out, so only feed weather moves the balance.
+     * @param window Daily rows ordered by day
+     * @param latitude Cell latitude in degrees
+     * @return Arrays for the balance pass
+     */
+    static WeatherArrays prepare(List<Weather> window, double latitude) {
+        int n = 0;
+        for (Weather weather : window) {
+            if (!weather.isSimulated()) {
+                n++;
+            }
+        }
+        int[] days = new int[n];
+        double[] rainfall = new double[n];
+        double[] et0 = new double[n];
+        int i = 0;
+        for (Weather weather : window) {
+            if (weather.isSimulated()) {
+                continue;
+            }
+            days[i] = weather.getEpochDay();
+            rainfall[i] = Math.max(0, weather.getRainfall());
+            double ra = extraterrestrialRadiation(latitude, dayOfYear(days[i]));
+            double tMin = Math.min(weather.getMinTemperature(), weather.getMaxTemperature());
+            double tMax = Math.max(weather.getMinTemperature(), weather.getMaxTemperature());
+            et0[i] = weather.getWindSpeed() > 0
+                    ? penmanMonteith(tMin, tMax, weather.getHumidity(), weather.getWindSpeed(), ra)
+                    : hargreaves(tMin, tMax, ra);
+            i++;
+        }
+        return new WeatherArrays(days, rainfall, et0);
+    }
+
+    /**
+     * Extraterrestrial radiation (FAO-56 eq 21)
+     * @param latitude Latitude in degrees
+     * @param dayOfYear 1..366
+     * @return Ra in MJ m-2 day-1
+     */
+    static double extraterrestrialRadiation(double latitude, int dayOfYear) {
+        double phi = Math.toRadians(latitude);
+        double dr = 1 + 0.033 * Math.cos(2 * Math.PI / 365 * dayOfYear);
+        double delta = 0.409 * Math.sin(2 * Math.PI / 365 * dayOfYear - 1.39);
+        double ws = Math.acos(Math.max(-1, Math.min(1, -Math.tan(phi) * Math.tan(delta))));
+        return 24 * 60 / Math.PI * GSC * dr
+                * (ws * Math.sin(phi) * Math.sin(delta) + Math.cos(phi) * Math.cos(delta) * Math.sin(ws));
+    }
+
+    /**
+     * Hargreaves reference evapotranspiration (FAO-56 eq 52)
+     * @return ET0 in mm/day
+     */
+    static double hargreaves(double tMin, double tMax, double ra) {
+        double tMean = (tMin + tMax) / 2;
+        return Math.max(0, 0.0023 * (tMean + 17.8) * Math.sqrt(tMax - tMin) * 0.408 * ra);
+    }
+
+    /**
+     * FAO-56 Penman-Monteith reference evapotranspiration (eq 6) from daily rows
+     * Solar radiation is estimated from the temperature range (eq 50) and
+     * actual vapour pressure from mean relative humidity (eq 19).
+     * @param humidity Mean relative humidity, %
+     * @param windKmh Wind speed at 10 m, km/h
+     * @return ET0 in mm/day
+     */
+    static double penmanMonteith(double tMin, double tMax, double humidity, double windKmh, double ra) {
+        double tMean = (tMin + tMax) / 2;
+        double es = (saturationVapourPressure(tMax) + saturationVapourPressure(tMin)) / 2;
+        double ea = es * Math.max(0, Math.min(100, humidity)) / 100;
+        double slope = 4098 * saturationVapourPressure(tMean) / ((tMean + 237.3) * (tMean + 237.3));
+        double u2 = windKmh / 3.6 * WIND_10M_TO_2M;
+
+        double rs = KRS * Math.sqrt(tMax - tMin) * ra;
+        double rso = 0.75 * ra;
+        double rns = 0.77 * rs;
+        double tMaxK4 = Math.pow(tMax + 273.16, 4);
+        double tMinK4 = Math.pow(tMin + 273.16, 4);
+        double rnl = 4.903e-9 * (tMaxK4 + tMinK4) / 2 * (0.34 - 0.14 * Math.sqrt(ea))
+                * (1.35 * Math.min(1, rso > 0 ? rs / rso : 0) - 0.35);
+        double rn = rns - rnl;
+
+        double numerator = 0.408 * slope * rn + GAMMA * 900 / (tMean + 273) * u2 * (es - ea);
+        double denominator = slope + GAMMA * (1 + 0.34 * u2);
+        return Math.max(0, numerator / denominator);
+    }
+
+    private static double saturationVapourPressure(double temperature) {
+        return 0.6108 * Math.exp(17.27 * temperature / (temperature + 237.3));
+    }
+
+    private static int dayOfYear(int epochDay) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(EpochDay.toUtcMillis(epochDay));
+        return calendar.get(Calendar.DAY_OF_YEAR);
+    }
+
+    /**
+     * Run the root zone water balance (FAO-56 eq 85) for one farm in a single pass
+     * Days before today advance the stored depletion with rain and the
+     * irrigation the farmer confirmed; a scheduled irrigation that was not
+     * confirmed is not assumed. Today and the forecast days are projected to
+     * find the first day depletion passes the readily available water.
+     * Effective rainfall is rain in excess of 2 mm, with runoff beyond field capacity.
+     * @param weather Cell arrays from prepare()
+     * @param profile Crop water profile
+     * @param plantingDay Epoch day the crop was planted
+     * @param taw Total available water of the root zone, mm
+     * @param startDay Last day already in the stored depletion (exclusive start)
+     * @param depletion Stored root zone depletion at startDay, mm
+     * @param appliedMm Confirmed irrigation per weather day, parallel to weather.days
+     * @param today Today's epoch day
+     * @param out Filled with {depletion at the end of yesterday, ET0 today, ETc today, irrigation day or -1, depth}
+     */
+    static void runBalance(WeatherArrays weather, CropWaterProfile profile, int plantingDay, double taw,
+                           int startDay, double depletion, double[] appliedMm, int today, double[] out) {
+        double raw = profile.getDepletionFraction() * taw;
+        double dr = Math.max(0, Math.min(taw, depletion));
+        double et0Today = 0;
+        double etcToday = 0;
+        double irrigationDay = -1;
+        double irrigationDepth = 0;
+        out[0] = dr;
+
+        for (int i = 0; i < weather.size; i++) {
+            int day = weather.days[i];
+            double etc = profile.kcAt(day - plantingDay) * weather.et0[i];
+            if (day > startDay) {
+                double effectiveRain = Math.max(0, weather.rainfall[i] - 2);
+                dr = Math.max(0, Math.min(taw, dr - effectiveRain - appliedMm[i] + etc));
+            }
+            if (day < today) {
+                out[0] = dr;
+                continue;
+            }
+            if (day == today) {
+                et0Today = weather.et0[i];
+                etcToday = etc;
+            }
+            if (dr > raw) {
+                irrigationDay = day;
+                irrigationDepth = dr;
+                break;
+            }
+        }
+        out[1] = et0Today;
+        out[2] = etcToday;
+        out[3] = irrigationDay;
+        out[4] = irrigationDepth;
+    }
+}
@@ -0,0 +1,301 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.HarvestCardDao;
+import com.keralafarmers.agrinextai.database.IrrigationDao;
+import com.keralafarmers.agrinextai.models.IrrigationEvent;
+import com.keralafarmers.agrinextai.models.IrrigationPlan;
+import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+import com.keralafarmers.agrinextai.utils.GeoHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class for evapotranspiration-based irrigation scheduling
+ * The nightly batch groups every planted farm by weather cell, computes
+ * reference ET0 once per cell and runs each farm's root zone water balance
+ * in one pass, carrying depletion forward from the previous night's plan.
+ * Only irrigation the farmer confirmed with recordIrrigation() refills the root zone.
+ */
+public class IrrigationService {
+    private static final String TAG = "IrrigationService";
+
+    // Plans not advanced for this long belong to farms that are no longer planted
+    private static final int STALE_DAYS = 7;
+
+    private HarvestCardDao harvestCardDao;
+    private IrrigationDao irrigationDao;
+    private WeatherService weatherService;
+
+    public IrrigationService(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.harvestCardDao = database.harvestCardDao();
+        this.irrigationDao = database.irrigationDao();
+        this.weatherService = new WeatherService(context);
+    }
+
+    /**
+     * Interface for irrigation plan callbacks
+     */
+    public interface PlanCallback {
+        void onSuccess(List<IrrigationPlan> plans);
+        void onError(String error);
+    }
+
+    /**
+     * Interface for recorded irrigation callbacks
+     */
+    public interface EventCallback {
+        void onSuccess(IrrigationEvent event);
+        void onError(String error);
+    }
+
+    /**
+     * Record irrigation the farmer applied and recompute that farm's plan
+     * @param cardId Harvest card of the farm
+     * @param epochDay Day the water was applied
+     * @param depthMm Depth applied, mm
+     * @param callback Event callback, on the main thread
+     */
+    public void recordIrrigation(String cardId, int epochDay, double depthMm, EventCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private IrrigationEvent event;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    event = new IrrigationEvent(cardId, epochDay, Math.max(0, depthMm));
+                    event.setId((int) irrigationDao.insertEvent(event));
+                    advancePlans(cardId);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error recording irrigation", e);
+                    return "Error recording irrigation: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(event);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Advance the water balance and next irrigation of every planted farm
+     * Blocking; called by IrrigationWorker
+     * @return Number of plans updated
+     */
+    public int runBatch() {
+        int today = EpochDay.today();
+        int updated = advancePlans(null);
+        irrigationDao.deletePlansBefore(today - STALE_DAYS);
+        irrigationDao.deleteEventsBefore(today - STALE_DAYS);
+        return updated;
+    }
+
+    /**
+     * Run the water balance of every planted farm, or of one farm
+     * @param onlyCardId Harvest card to recompute, or null for all
+     * @return Number of plans updated
+     */
+    private int advancePlans(String onlyCardId) {
+        long now = System.currentTimeMillis();
+        int today = EpochDay.today();
+
+        Map<String, IrrigationPlan> stored = new HashMap<>();
+        for (IrrigationPlan plan : irrigationDao.getAllPlans()) {
+            stored.put(plan.getCardId(), plan);
+        }
+        Map<String, List<IrrigationEvent>> eventsByCard = new HashMap<>();
+        for (IrrigationEvent event : irrigationDao.getEventsFrom(today - STALE_DAYS)) {
+            List<IrrigationEvent> events = eventsByCard.get(event.getCardId());
+            if (events == null) {
+                events = new ArrayList<>();
+                eventsByCard.put(event.getCardId(), events);
+            }
+            events.add(event);
+        }
+
+        // Latest planting of each crop on each farm, grouped by weather cell
+        double[] fallback = weatherService.getLastLocation();
+        Set<String> seen = new HashSet<>();
+        Map<String, List<HarvestCardDao.IrrigationFarm>> farmsByCell = new LinkedHashMap<>();
+        Map<String, double[]> cellLocations = new HashMap<>();
+        for (HarvestCardDao.IrrigationFarm farm : harvestCardDao.getIrrigationFarms(now)) {
+            String farmKey = farm.userId + "|" + lower(farm.farmLocation) + "|" + lower(farm.cropName);
+            if (!seen.add(farmKey) || (onlyCardId != null && !onlyCardId.equals(farm.cardId))) {
+                continue;
+            }
+            CropWaterProfile profile = CropWaterProfile.forCrop(farm.cropName);
+            if (!profile.isPerennial() && farm.harvestDate > 0 && farm.harvestDate < now) {
+                // Season already harvested
+                continue;
+            }
+            int district = DistrictRoutes.findInText(farm.farmLocation);
+            double[] location = district >= 0 ? DistrictRoutes.getHeadquarters(district) : fallback;
+            String cell = GeoHash.encode(location[0], location[1], GeoHash.WEATHER_CELL_PRECISION);
+            List<HarvestCardDao.IrrigationFarm> farms = farmsByCell.get(cell);
+            if (farms == null) {
+                farms = new ArrayList<>();
+                farmsByCell.put(cell, farms);
+                cellLocations.put(cell, location);
+            }
+            farms.add(farm);
+        }
+
+        List<IrrigationPlan> updated = new ArrayList<>();
+        double[] out = new double[5];
+        double[] appliedMm = new double[0];
+        for (Map.Entry<String, List<HarvestCardDao.IrrigationFarm>> entry : farmsByCell.entrySet()) {
+            double[] location = cellLocations.get(entry.getKey());
+            IrrigationEngine.WeatherArrays weather;
+            try {
+                List<Weather> window = weatherService.loadFarmWeatherWindow(location[0], location[1]);
+                weather = IrrigationEngine.prepare(window, location[0]);
+            } catch (Exception e) {
+                Log.e(TAG, "Error loading weather for cell " + entry.getKey(), e);
+                continue;
+            }
+            if (weather.size == 0) {
+                // Offline, or no feed days for the cell: leave the stored balance as it is
+                continue;
+            }
+            int windowStart = weather.days[0] - 1;
+            if (appliedMm.length < weather.size) {
+                appliedMm = new double[weather.size];
+            }
+
+            for (HarvestCardDao.IrrigationFarm farm : entry.getValue()) {
+                CropWaterProfile profile = CropWaterProfile.forCrop(farm.cropName);
+                int plantingDay = CropWaterProfile.plantingDay(farm.plantingDate);
+                double taw = CropWaterProfile.availableWaterPerMetre(farm.soilType) * profile.getRootDepthM();
+
+                // Continue the stored balance if it reaches into this window, otherwise start at field capacity
+                IrrigationPlan plan = stored.get(farm.cardId);
+                int startDay = Math.max(windowStart, plantingDay - 1);
+                double depletion = 0;
+                long balancedAt = 0;
+                if (plan != null && plan.getBalanceDay() >= startDay) {
+                    startDay = plan.getBalanceDay();
+                    depletion = plan.getDepletionMm();
+                    balancedAt = plan.getUpdatedAt();
+                }
+                if (plan == null) {
+                    plan = new IrrigationPlan(farm.cardId, farm.userId, farm.cropName, farm.farmLocation);
+                }
+                depletion -= applyEvents(eventsByCard.get(farm.cardId), weather, startDay, balancedAt, appliedMm);
+
+                IrrigationEngine.runBalance(weather, profile, plantingDay, taw, startDay, Math.max(0, depletion),
+                        appliedMm, today, out);
+                plan.setUserId(farm.userId);
+                plan.setCropName(farm.cropName);
+                plan.setFarmLocation(farm.farmLocation);
+                plan.setBalanceDay(Math.max(startDay, today - 1));
+                plan.setDepletionMm(out[0]);
+                plan.setTawMm(taw);
+                plan.setRawMm(profile.getDepletionFraction() * taw);
+                plan.setEt0Mm(out[1]);
+                plan.setEtcMm(out[2]);
+                plan.setNextIrrigationDay((int) out[3]);
+                plan.setIrrigationDepthMm(out[4]);
+                plan.setUpdatedAt(now);
+                updated.add(plan);
+            }
+        }
+
+        if (!updated.isEmpty()) {
+            irrigationDao.upsertPlans(updated);
+        }
+        return updated.size();
+    }
+
+    /**
+     * Spread a farm's confirmed irrigation over the weather days of the balance pass
+     * Events after startDay land on their day, or the next day the feed covers.
+     * Events up to startDay confirmed after the stored balance was computed
+     * were missed by it and are returned to be taken off the starting depletion.
+     * @param events The farm's events, or null
+     * @param weather Cell arrays
+     * @param startDay Last day already in the stored depletion
+     * @param balancedAt When the stored depletion was computed, 0 if none
+     * @param appliedMm Cleared and filled per weather day
+     * @return Depth missed by the stored depletion, mm
+     */
+    private static double applyEvents(List<IrrigationEvent> events, IrrigationEngine.WeatherArrays weather,
+                                      int startDay, long balancedAt, double[] appliedMm) {
+        Arrays.fill(appliedMm, 0);
+        if (events == null) {
+            return 0;
+        }
+        double missed = 0;
+        for (IrrigationEvent event : events) {
+            if (event.getEpochDay() <= startDay) {
+                if (event.getRecordedAt() > balancedAt) {
+                    missed += event.getDepthMm();
+                }
+                continue;
+            }
+            int i = Arrays.binarySearch(weather.days, 0, weather.size, event.getEpochDay());
+            if (i < 0) {
+                i = -i - 1;
+            }
+            if (i < weather.size) {
+                appliedMm[i] += event.getDepthMm();
+            }
+        }
+        return missed;
+    }
+
+    private static String lower(String value) {
+        return value != null ? value.trim().toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Get a user's irrigation plans, soonest irrigation first
+     * @param userId User ID
+     * @param callback Plan callback, on the main thread
+     */
+    public void getPlansForUser(int userId, PlanCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private List<IrrigationPlan> plans;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    plans = irrigationDao.getPlansForUser(userId);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error loading irrigation plans", e);
+                    return "Error loading irrigation plans: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(plans);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+}
@@ -0,0 +1,185 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.ContentSyncDao;
+import com.keralafarmers.agrinextai.database.KnowledgeDao;
+import com.keralafarmers.agrinextai.models.KnowledgeEntry;
+import com.keralafarmers.agrinextai.network.ContentChanges;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Service class for the chatbot knowledge base
+ * Entries are stored in Room so the content sync can update answers without
+ * an app release. Lookups run against an in-memory keyword index, built on
+ * first use and patched entry by entry as synced changes arrive.
+ */
+public class KnowledgeBaseService implements ContentSyncService.ContentStore<KnowledgeEntry> {
+    private static final String TAG = "KnowledgeBaseService";
+
+    // Shared across chat screens; null until first needed or after the knowledge base is replaced
+    private static volatile KeywordIndex keywordIndex;
+
+    private KnowledgeDao knowledgeDao;
+    private ContentSyncDao contentSyncDao;
+
+    public KnowledgeBaseService(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.knowledgeDao = database.knowledgeDao();
+        this.contentSyncDao = database.contentSyncDao();
+    }
+
+    /**
+     * Entries with their keywords lowercased once, in id order
+     */
+    private static final class KeywordIndex {
+        final TreeMap<Integer, String[]> keywordsById;
+        final Map<Integer, KnowledgeEntry> byId;
+
+        KeywordIndex(TreeMap<Integer, String[]> keywordsById, Map<Integer, KnowledgeEntry> byId) {
+            this.keywordsById = keywordsById;
+            this.byId = byId;
+        }
+
+        static KeywordIndex of(List<KnowledgeEntry> entries) {
+            return new KeywordIndex(new TreeMap<>(), new TreeMap<>()).withChanges(entries, new int[0]);
+        }
+
+        /**
+         * Copy of this index with changed entries re-tokenized; this one is left as is
+         */
+        KeywordIndex withChanges(List<KnowledgeEntry> upserts, int[] removedIds) {
+            TreeMap<Integer, String[]> keywords = new TreeMap<>(keywordsById);
+            Map<Integer, KnowledgeEntry> entries = new TreeMap<>(byId);
+            for (int id : removedIds) {
+                keywords.remove(id);
+                entries.remove(id);
+            }
+            for (KnowledgeEntry entry : upserts) {
+                keywords.put(entry.getId(), splitKeywords(entry.getKeywords()));
+                entries.put(entry.getId(), entry);
+            }
+            return new KeywordIndex(keywords, entries);
+        }
+
+        KnowledgeEntry find(String normalizedMessage) {
+            for (Map.Entry<Integer, String[]> candidate : keywordsById.entrySet()) {
+                for (String keyword : candidate.getValue()) {
+                    if (normalizedMessage.contains(keyword)) {
+                        return byId.get(candidate.getKey());
+                    }
+                }
+            }
+            return null;
+        }
+
+        private static String[] splitKeywords(String keywords) {
+            List<String> result = new ArrayList<>();
+            if (keywords != null) {
+                for (String keyword : keywords.split(",")) {
+                    String normalized = keyword.trim().toLowerCase(Locale.ROOT);
+                    if (!normalized.isEmpty()) {
+                        result.add(normalized);
+                    }
+                }
+            }
+            return result.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Find the first entry with a keyword contained in a message
+     * Blocking
+     * @param message User message, any case
+     * @return Matching entry, or null if none matches
+     */
+    public KnowledgeEntry findEntry(String message) {
+        return getIndex().find(message.toLowerCase(Locale.ROOT).trim());
+    }
+
+    @Override
+    public void writeChanges(ContentChanges<KnowledgeEntry> changes) {
+        if (changes.isReset()) {
+            knowledgeDao.deleteAllEntries();
+        } else if (changes.getDeletedIds().length > 0) {
+            knowledgeDao.deleteEntries(changes.getDeletedIds());
+        }
+        if (!changes.getUpserts().isEmpty()) {
+            knowledgeDao.upsertEntries(changes.getUpserts());
+        }
+    }
+
+    @Override
+    public void onChangesCommitted(ContentChanges<KnowledgeEntry> changes) {
+        synchronized (KnowledgeBaseService.class) {
+            KeywordIndex current = keywordIndex;
+            // A snapshot replaces everything, so it is indexed from scratch on the next lookup
+            keywordIndex = current == null || changes.isReset() ? null
+                    : current.withChanges(changes.getUpserts(), changes.getDeletedIds());
+        }
+    }
+
+    private KeywordIndex getIndex() {
+        KeywordIndex current = keywordIndex;
+        if (current == null) {
+            synchronized (KnowledgeBaseService.class) {
+                current = keywordIndex;
+                if (current == null) {
+                    contentSyncDao.seedOnce(ContentSyncService.DATASET_KNOWLEDGE,
+                            () -> knowledgeDao.upsertEntries(getSeedEntries()));
+                    current = KeywordIndex.of(knowledgeDao.getAllEntries());
+                    keywordIndex = current;
+                    Log.d(TAG, "Indexed " + current.byId.size() + " knowledge entries");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Bundled farming knowledge
+     * In production, replace this with the knowledge base from the content server
+     */
+    private List<KnowledgeEntry> getSeedEntries() {
+        List<KnowledgeEntry> entries = new ArrayList<>();
+
+        // Rice farming knowledge
+        entries.add(createEntry(1, "RICE", "rice, paddy, cultivation, planting",
+            "For rice cultivation, prepare the field by puddling, maintain 2-3 inches of standing water, and plant 20-25 day old seedlings with 15cm spacing.",
+            "धान की खेती के लिए खेत को तैयार करें, 2-3 इंच पानी बनाए रखें, और 20-25 दिन पुराने पौधे 15 सेमी की दूरी पर लगाएं।",
+            "നെല്ലുകൃഷിക്കായി വയൽ തയ്യാറാക്കി 2-3 ഇഞ്ച് വെള്ളം നിലനിർത്തി 20-25 ദിവസം പഴക്കമുള്ള തൈകൾ 15 സെമീ അകലത്തിൽ നടുക."));
+
+        // Pest control knowledge
+        entries.add(createEntry(2, "PEST_CONTROL", "pest, insect, control, spray",
+            "Use integrated pest management: neem oil spray, beneficial insects, crop rotation, and targeted pesticides only when necessary.",
+            "एकीकृत कीट प्रबंधन का उपयोग करें: नीम तेल स्प्रे, लाभकारी कीड़े, फसल चक्रण, और केवल आवश्यक होने पर लक्षित कीटनाशक।",
+            "സംയോജിത കീടനിയന്ത്രണം ഉപയോഗിക്കുക: വേപ്പെണ്ണ സ്പ്രേ, ഗുണകരമായ പ്രാണികൾ, വിള ഭ്രമണം, ആവശ്യമുള്ളപ്പോൾ മാത്രം കീടനാശിനി."));
+
+        // Fertilizer knowledge
+        entries.add(createEntry(3, "FERTILIZER", "fertilizer, nutrient, manure, compost",
+            "Apply balanced NPK fertilizer: 120kg N, 60kg P2O5, 40kg K2O per hectare. Use organic compost and green manure for soil health.",
+            "संतुलित एनपीके उर्वरक डालें: 120 किग्रा नाइट्रोजन, 60 किग्रा फास्फोरस, 40 किग्रा पोटाश प्रति हेक्टेयर। मिट्टी के स्वास्थ्य के लिए कंपोस्ट का उपयोग करें।",
+            "സമതുലിത എൻപികെ വള പ്രയോഗിക്കുക: ഹെക്ടറിന് 120 കിലോ നൈട്രജൻ, 60 കിലോ ഫോസ്ഫറസ്, 40 കിലോ പൊട്ടാഷ്. മണ്ണിന്റെ ആരോഗ്യത്തിന് കമ്പോസ്റ്റ് ഉപയോഗിക്കുക."));
+
+        return entries;
+    }
+
+    private KnowledgeEntry createEntry(int id, String category, String keywords, String responseEn,
+                                       String responseHi, String responseMl) {
+        KnowledgeEntry entry = new KnowledgeEntry();
+        entry.setId(id);
+        entry.setCategory(category);
+        entry.setKeywords(keywords);
+        entry.setResponseEn(responseEn);
+        entry.setResponseHi(responseHi);
+        entry.setResponseMl(responseMl);
+        return entry;
+    }
+}
@@ -0,0 +1,322 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.tiles.HttpTileSource;
+import com.keralafarmers.agrinextai.tiles.MbTilesStore;
+import com.keralafarmers.agrinextai.tiles.SceneTileSource;
+import com.keralafarmers.agrinextai.tiles.TilePrefetcher;
+import com.keralafarmers.agrinextai.tiles.TileMath;
+import com.keralafarmers.agrinextai.tiles.TileProvider;
+import com.keralafarmers.agrinextai.tiles.TileSource;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Service class for the offline satellite basemap
+ * Tiles are served from memory, then from the on-device MBTiles store, and
+ * only then from the tile source, whose results are stored for next time.
+ * The source is the tile server set with setTileUrl, else the tiles path of
+ * the configured feed server; tiles rendered from the local satellite scenes
+ * stand in only while neither is configured. Each source gets its own store
+ * file so switching servers never mixes imagery.
+ */
+public class MapTileService implements TileProvider {
+    private static final String TAG = "MapTileService";
+
+    private static final String PREF_NAME = "map_prefs";
+    private static final String KEY_TILE_URL = "tile_url";
+    // XYZ tiles served next to the feeds when no tile server is set
+    private static final String FEED_TILE_PATH = "tiles/{z}/{x}/{y}.png";
+
+    private static final String STORE_DIR = "tiles";
+    private static final long STORE_MAX_BYTES = 64L * 1024 * 1024; // 64 MB
+    private static final int SERVER_MIN_ZOOM = 3;
+    private static final int SERVER_MAX_ZOOM = 19;
+
+    // Prefetch covers the farm plus this share of its size on each side
+    private static final double PREFETCH_MARGIN = 0.5;
+    private static final int PREFETCH_MIN_ZOOM = 13;
+    private static final int PREFETCH_MAX_ZOOM = 18;
+    private static final double PREFETCH_TILES_PER_SECOND = 8;
+    private static final int PREFETCH_THREADS = 4;
+
+    // Shared by every screen: the current source and its store, one decoded-tile cache, one loader pool
+    private static volatile MbTilesStore store;
+    private static volatile TileSource source;
+    private static volatile String sourceKey;
+    // Resolved tile URL and store name; dropped when either server preference changes
+    private static volatile TileConfig config;
+    private static boolean listening;
+    private static final SharedPreferences.OnSharedPreferenceChangeListener CONFIG_LISTENER = (prefs, key) -> {
+        synchronized (MapTileService.class) {
+            config = null;
+        }
+    };
+    private static final LruCache<Long, Bitmap> MEMORY_CACHE = new LruCache<Long, Bitmap>(memoryCacheBytes()) {
+        @Override
+        protected int sizeOf(Long key, Bitmap bitmap) {
+            return bitmap.getByteCount();
+        }
+    };
+    private static final ExecutorService LOADER = Executors.newFixedThreadPool(2);
+    // Tiles being loaded; touched on the main thread only
+    private static final Set<Long> LOADING = new HashSet<>();
+    // Tiles the source did not have, so drawing does not retry them every frame
+    private static final Set<Long> UNAVAILABLE = Collections.synchronizedSet(new HashSet<>());
+
+    private final Context context;
+    private final CropMonitoringService cropMonitoringService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public MapTileService(Context context) {
+        this.context = context.getApplicationContext();
+        this.cropMonitoringService = new CropMonitoringService(this.context);
+        synchronized (MapTileService.class) {
+            if (!listening) {
+                // The static listener field keeps it reachable; preferences only hold listeners weakly
+                prefs(this.context).registerOnSharedPreferenceChangeListener(CONFIG_LISTENER);
+                ApiClient.registerBaseUrlListener(this.context, CONFIG_LISTENER);
+                listening = true;
+            }
+        }
+    }
+
+    /**
+     * Interface for prefetch callbacks
+     */
+    public interface PrefetchCallback {
+        void onProgress(int done, int total);
+        void onSuccess(TilePrefetcher.Result result);
+        void onError(String error);
+    }
+
+    /**
+     * Point the basemap at an XYZ tile server
+     * @param context Any context
+     * @param urlTemplate URL with {z}, {x} and {y}, or null to use the feed server's tiles
+     */
+    public static void setTileUrl(Context context, String urlTemplate) {
+        prefs(context).edit().putString(KEY_TILE_URL, urlTemplate).apply();
+        synchronized (MapTileService.class) {
+            config = null;
+        }
+    }
+
+    @Override
+    public int getMinZoom() {
+        TileSource current = source;
+        return current != null ? current.getMinZoom() : PREFETCH_MIN_ZOOM;
+    }
+
+    @Override
+    public int getMaxZoom() {
+        TileSource current = source;
+        return current != null ? current.getMaxZoom() : PREFETCH_MAX_ZOOM;
+    }
+
+    @Override
+    public Bitmap getTile(int zoom, int x, int y, Runnable onLoaded) {
+        long key = TileMath.key(zoom, x, y);
+        Bitmap bitmap = MEMORY_CACHE.get(key);
+        // A new source invalidates what was decoded from the old one
+        if (!getConfig().key.equals(sourceKey)) {
+            bitmap = null;
+        }
+        if (bitmap != null || UNAVAILABLE.contains(key) || !LOADING.add(key)) {
+            return bitmap;
+        }
+        LOADER.execute(() -> {
+            Bitmap loaded = null;
+            boolean failed = false;
+            try {
+                loaded = loadTile(zoom, x, y);
+            } catch (Exception e) {
+                // Possibly transient (no connection, store switching); leave the tile to be retried
+                Log.w(TAG, "Error loading tile " + zoom + "/" + x + "/" + y, e);
+                failed = true;
+            }
+            Bitmap result = loaded;
+            boolean missing = result == null && !failed;
+            mainHandler.post(() -> {
+                LOADING.remove(key);
+                if (result != null) {
+                    MEMORY_CACHE.put(key, result);
+                    onLoaded.run();
+                } else if (missing) {
+                    UNAVAILABLE.add(key);
+                }
+            });
+        });
+        return null;
+    }
+
+    /**
+     * Read a tile from disk, fetching and storing it if needed, and decode it
+     * @return Bitmap, or null if neither the store nor the source has it
+     */
+    private Bitmap loadTile(int zoom, int x, int y) throws Exception {
+        TileSource tileSource;
+        MbTilesStore tileStore;
+        synchronized (MapTileService.class) {
+            tileSource = getSource();
+            tileStore = store;
+            tileStore.retain();
+        }
+        try {
+            byte[] data = tileStore.getTile(zoom, x, y);
+            if (data == null) {
+                data = tileSource.fetchTile(zoom, x, y);
+                if (data == null) {
+                    return null;
+                }
+                tileStore.putTile(zoom, x, y, data);
+            }
+            return BitmapFactory.decodeByteArray(data, 0, data.length);
+        } finally {
+            tileStore.release();
+        }
+    }
+
+    /**
+     * Download the basemap around a farm for offline use
+     * @param callback Prefetch callback, on the main thread
+     */
+    public void prefetchArea(double minLat, double minLon, double maxLat, double maxLon, PrefetchCallback callback) {
+        double padLat = (maxLat - minLat) * PREFETCH_MARGIN;
+        double padLon = (maxLon - minLon) * PREFETCH_MARGIN;
+        new AsyncTask<Void, Integer, String>() {
+            private TilePrefetcher.Result result;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    TileSource tileSource;
+                    MbTilesStore tileStore;
+                    synchronized (MapTileService.class) {
+                        tileSource = getSource();
+                        tileStore = store;
+                        tileStore.retain();
+                    }
+                    try {
+                        TilePrefetcher prefetcher = new TilePrefetcher(tileSource, tileStore,
+                                PREFETCH_TILES_PER_SECOND, PREFETCH_THREADS);
+                        result = prefetcher.prefetch(minLat - padLat, minLon - padLon, maxLat + padLat,
+                                maxLon + padLon, PREFETCH_MIN_ZOOM, PREFETCH_MAX_ZOOM, new AtomicBoolean(),
+                                (done, total) -> publishProgress(done, total));
+                    } finally {
+                        tileStore.release();
+                    }
+                    // Tiles that were unavailable while browsing may exist now
+                    UNAVAILABLE.clear();
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error downloading map tiles", e);
+                    return "Error downloading map tiles: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onProgressUpdate(Integer... values) {
+                callback.onProgress(values[0], values[1]);
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(result);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Current tile source, opening its store
+     * Switching sources closes the old store once loads and downloads that
+     * retained it have finished. Callers that use the store retain it while
+     * still holding the class lock, so it cannot be closed under them.
+     */
+    private TileSource getSource() throws Exception {
+        TileConfig current = getConfig();
+        String url = current.url;
+        String key = current.key;
+        synchronized (MapTileService.class) {
+            if (source == null || !key.equals(sourceKey)) {
+                TileSource next = url != null
+                        ? new HttpTileSource(key, url, SERVER_MIN_ZOOM, SERVER_MAX_ZOOM)
+                        : new SceneTileSource(cropMonitoringService.listScenes());
+                if (store != null) {
+                    store.close();
+                }
+                store = new MbTilesStore(new File(new File(context.getFilesDir(), STORE_DIR), key + ".mbtiles"),
+                        STORE_MAX_BYTES);
+                store.setMetadata("name", next.getName());
+                store.setMetadata("type", "baselayer");
+                store.setMetadata("version", "1.3");
+                store.setMetadata("format", url != null && url.endsWith(".jpg") ? "jpg" : "png");
+                source = next;
+                sourceKey = key;
+                MEMORY_CACHE.evictAll();
+                UNAVAILABLE.clear();
+            }
+            return source;
+        }
+    }
+
+    /**
+     * Configured tile URL and store name, resolved once per preference change
+     */
+    private TileConfig getConfig() {
+        TileConfig current = config;
+        if (current != null) {
+            return current;
+        }
+        synchronized (MapTileService.class) {
+            if (config == null) {
+                String url = prefs(context).getString(KEY_TILE_URL, null);
+                if (url == null) {
+                    String baseUrl = ApiClient.getBaseUrl(context);
+                    url = baseUrl != null ? baseUrl + FEED_TILE_PATH : null;
+                }
+                config = new TileConfig(url,
+                        url != null ? "server_" + Integer.toHexString(url.hashCode()) : "local_scenes");
+            }
+            return config;
+        }
+    }
+
+    private static int memoryCacheBytes() {
+        return (int) Math.min(Runtime.getRuntime().maxMemory() / 8, 16L * 1024 * 1024);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
+    }
+
+    private static final class TileConfig {
+        final String url; // null when the local scenes are rendered
+        final String key;
+
+        TileConfig(String url, String key) {
+            this.url = url;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+
+/**
+ * One market ranked for a seller: its price minus the cost of getting produce there
+ */
+public class MarketOption {
+    private final MarketPrice marketPrice;
+    private final double distanceKm;
+    private final double transportCostPerKg;
+    private final double netPricePerKg;
+
+    public MarketOption(MarketPrice marketPrice, double distanceKm, double transportCostPerKg) {
+        this.marketPrice = marketPrice;
+        this.distanceKm = distanceKm;
+        this.transportCostPerKg = transportCostPerKg;
+        this.netPricePerKg = marketPrice.getPricePerKg() - transportCostPerKg;
+    }
+
+    public MarketPrice getMarketPrice() {
+        return marketPrice;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+
+    public double getTransportCostPerKg() {
+        return transportCostPerKg;
+    }
+
+    /**
+     * @return What the seller realizes per kg after handling and freight
+     */
+    public double getNetPricePerKg() {
+        return netPricePerKg;
+    }
+}
@@ -6,14 +6,22 @@ import android.util.Log;
 import com.keralafarmers.agrinextai.database.AppDatabase;
 import com.keralafarmers.agrinextai.database.MarketPriceDao;
 import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.network.FeedResult;
+import com.keralafarmers.agrinextai.network.MarketPriceParser;
+import com.keralafarmers.agrinextai.utils.SingleFlight;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service class for managing market price data
@@ -21,11 +29,30 @@ import java.util.concurrent.Executors;
  */
 public class MarketPriceService {
     private static final String TAG = "MarketPriceService";
+    private AppDatabase database;
     private MarketPriceDao marketPriceDao;
+    private PriceAlertService priceAlertService;
+    private PriceForecastService priceForecastService;
+    private PriceHistoryService priceHistoryService;
     private ExecutorService executorService;
     private Random random;
     private Context context;
 
+    // Latest in-memory index, shared by every service instance; rebuilt once per sync, patched by ticks
+    private static final AtomicReference<MarketPriceSnapshot> CURRENT_SNAPSHOT = new AtomicReference<>();
+
+    // Concurrent loads from any screen or worker share one fetch and DB write
+    private static final SingleFlight<String, List<MarketPrice>> PRICE_LOADS = new SingleFlight<>();
+    private static final String LOAD_REFRESH = "refresh";
+    private static final String LOAD_CACHED = "cached";
+
+    // Ticked prices reach forecasts and history at most this often; alerts see every flush
+    private static final long TICK_DERIVED_INTERVAL_MS = 60 * 1000L;
+
+    // Latest ticked row per series not yet fed to forecasts and history; guarded by itself
+    private final Map<String, MarketPrice> pendingTicked = new HashMap<>();
+    private long tickedFlushedAt;
+
     // Mock market data for Kerala
     private static final Map<String, CropInfo> CROP_DATABASE = new HashMap<>();
 
@@ -83,9 +110,12 @@ public class MarketPriceService {
      */
     public MarketPriceService(Context context) {
         this.context = context;
-        AppDatabase database = AppDatabase.getInstance(context);
+        this.database = AppDatabase.getInstance(context);
         this.marketPriceDao = database.marketPriceDao();
         this.executorService = Executors.newSingleThreadExecutor();
+        this.priceAlertService = new PriceAlertService(context);
+        this.priceForecastService = new PriceForecastService(context);
+        this.priceHistoryService = new PriceHistoryService(context);
         this.random = new Random();
     }
 
@@ -96,25 +126,10 @@ public class MarketPriceService {
     public void fetchMarketPrices(MarketPriceCallback callback) {
         executorService.execute(() -> {
             try {
-                // Simulate API call delay
-                Thread.sleep(2000);
-
-                // Generate mock market prices
-                List<MarketPrice> mockPrices = generateMockMarketPrices();
-
-                // Clear old data and insert new prices
-                marketPriceDao.deleteAllMarketPrices();
-                List<Long> insertedIds = marketPriceDao.insertMarketPrices(mockPrices);
-
-                // Fetch updated prices from database
-                List<MarketPrice> updatedPrices = marketPriceDao.getAllMarketPrices();
-
+                List<MarketPrice> updatedPrices = refreshMarketPrices();
                 if (callback != null) {
                     callback.onSuccess(updatedPrices);
                 }
-
-                Log.d(TAG, "Market prices updated successfully. Inserted " + insertedIds.size() + " records.");
-
             } catch (Exception e) {
                 Log.e(TAG, "Error fetching market prices", e);
                 if (callback != null) {
@@ -124,9 +139,211 @@ public class MarketPriceService {
         });
     }
 
+    /**
+     * Fetch prices, replace the stored set and rebuild the snapshot
+     * Blocking; call from a background thread (service executor or WorkManager worker).
+     * Callers that arrive while a refresh is running share its result.
+     * @return Updated active prices
+     */
+    public List<MarketPrice> refreshMarketPrices() {
+        return PRICE_LOADS.run(LOAD_REFRESH, this::fetchAndStorePrices);
+    }
+
+    private List<MarketPrice> fetchAndStorePrices() {
+        List<MarketPrice> freshPrices;
+        ApiClient apiClient = ApiClient.getInstance(context);
+        if (apiClient != null) {
+            try {
+                MarketPriceParser parser = new MarketPriceParser();
+                FeedResult<MarketPrice> result = apiClient.fetch(
+                        apiClient.getFeedApi().getMarketPrices("Kerala"), parser);
+                if (!result.isModified()) {
+                    List<MarketPrice> cachedPrices = marketPriceDao.getAllMarketPrices();
+                    if (!cachedPrices.isEmpty()) {
+                        // Feed unchanged since the last sync: keep rows and snapshot as they are
+                        if (CURRENT_SNAPSHOT.get() == null) {
+                            CURRENT_SNAPSHOT.compareAndSet(null, MarketPriceSnapshot.build(cachedPrices));
+                        }
+                        CachePolicy.MARKET_PRICES.markFetched(context, null);
+                        Log.d(TAG, "Market prices not modified");
+                        return cachedPrices;
+                    }
+                    // Rows were purged since the validator was stored: fetch the whole feed again
+                    result = apiClient.fetchFull(apiClient.getFeedApi().getMarketPrices("Kerala"), parser);
+                }
+                freshPrices = result.getItems();
+            } catch (IOException e) {
+                // Keep the stored prices and fetch time; generated prices are for offline mode only
+                throw new IllegalStateException("Market feed unavailable", e);
+            }
+        } else {
+            // No feed server configured: generate mock market prices
+            freshPrices = generateMockMarketPrices();
+        }
+
+        // Replace old data with the new prices in one transaction, so readers never see an empty table
+        List<MarketPrice> storedPrices = freshPrices;
+        List<Long> insertedIds = database.runInTransaction(() -> {
+            marketPriceDao.deleteAllMarketPrices();
+            return marketPriceDao.insertMarketPrices(storedPrices);
+        });
+
+        // Fetch updated prices from database
+        List<MarketPrice> updatedPrices = marketPriceDao.getAllMarketPrices();
+        CURRENT_SNAPSHOT.set(MarketPriceSnapshot.build(updatedPrices));
+        CachePolicy.MARKET_PRICES.markFetched(context, null);
+        onPricesStored(updatedPrices, updatedPrices);
+
+        Log.d(TAG, "Market prices updated successfully. Inserted " + insertedIds.size() + " records.");
+        return updatedPrices;
+    }
+
+    /**
+     * Run alerts, forecasts and history over newly stored prices
+     * @param changed Rows whose price was just stored
+     * @param current Every current row; alerts need it to re-arm rules that no longer match
+     */
+    private void onPricesStored(List<MarketPrice> changed, List<MarketPrice> current) {
+        try {
+            priceAlertService.processPrices(current);
+        } catch (Exception e) {
+            // Alerts must never fail a price sync
+            Log.e(TAG, "Error evaluating price alerts", e);
+        }
+        onPricesDerived(changed);
+    }
+
+    /**
+     * Update forecasts and history of the series with new prices
+     * @param changed Rows whose price was just stored
+     */
+    private void onPricesDerived(List<MarketPrice> changed) {
+        try {
+            priceForecastService.onPricesIngested(changed);
+        } catch (Exception e) {
+            Log.e(TAG, "Error updating price forecasts", e);
+        }
+        try {
+            priceHistoryService.recordPrices(changed);
+        } catch (Exception e) {
+            Log.e(TAG, "Error recording price history", e);
+        }
+    }
+
+    /**
+     * Apply a batch of live ticker updates to the in-memory snapshot and Room
+     * Each tick is applied with MarketPrice.withTick() to the snapshot's row and
+     * the resulting rows are written back by id, so memory and Room agree.
+     * Alerts are evaluated for the ticked crops on every batch; forecasts and
+     * history take the ticked series at most once per TICK_DERIVED_INTERVAL_MS.
+     * Blocking; called by MarketTickerService at its flush interval
+     * @param ticks Latest tick per row
+     */
+    public void applyPriceTicks(List<MarketPrice> ticks) {
+        if (ticks.isEmpty()) {
+            return;
+        }
+        MarketPriceSnapshot updated;
+        List<MarketPrice> changed;
+        while (true) {
+            MarketPriceSnapshot snapshot = CURRENT_SNAPSHOT.get();
+            if (snapshot == null) {
+                // Nothing loaded yet: index the stored rows first
+                CURRENT_SNAPSHOT.compareAndSet(null, MarketPriceSnapshot.build(marketPriceDao.getAllMarketPrices()));
+                continue;
+            }
+            changed = new ArrayList<>(ticks.size());
+            for (MarketPrice tick : ticks) {
+                MarketPrice row = snapshot.getRow(tick.getRowKey());
+                if (row != null) {
+                    changed.add(row.withTick(tick));
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            // A full refresh may swap in a new snapshot meanwhile; the ticks are then applied to that one
+            updated = snapshot.withUpdatedRows(changed);
+            if (CURRENT_SNAPSHOT.compareAndSet(snapshot, updated)) {
+                break;
+            }
+        }
+        marketPriceDao.updateMarketPrices(changed);
+
+        Set<String> crops = new HashSet<>();
+        for (MarketPrice price : changed) {
+            crops.add(price.getCropName());
+        }
+        try {
+            // Every current row of the ticked crops, so rules that stopped holding re-arm
+            priceAlertService.processPrices(
+                    updated.query(new MarketPriceSnapshot.Filter().crops(crops.toArray(new String[0]))), crops);
+        } catch (Exception e) {
+            Log.e(TAG, "Error evaluating price alerts", e);
+        }
+
+        List<MarketPrice> due = null;
+        long now = System.currentTimeMillis();
+        synchronized (pendingTicked) {
+            for (MarketPrice price : changed) {
+                pendingTicked.put(price.getRowKey(), price);
+            }
+            if (now - tickedFlushedAt >= TICK_DERIVED_INTERVAL_MS) {
+                due = new ArrayList<>(pendingTicked.values());
+                pendingTicked.clear();
+                tickedFlushedAt = now;
+            }
+        }
+        if (due != null) {
+            onPricesDerived(due);
+        }
+    }
+
+    /**
+     * Feed ticked series still waiting for the debounce interval to forecasts and history
+     * Blocking; called by MarketTickerService when the ticker stops
+     */
+    public void flushTickedPrices() {
+        List<MarketPrice> due;
+        synchronized (pendingTicked) {
+            due = new ArrayList<>(pendingTicked.values());
+            pendingTicked.clear();
+            tickedFlushedAt = System.currentTimeMillis();
+        }
+        if (!due.isEmpty()) {
+            onPricesDerived(due);
+        }
+    }
+
+    /**
+     * Delete price records not updated in the last 7 days
+     * Blocking; call from a background thread
+     * @return Number of rows deleted
+     */
+    public int deleteStalePrices() {
+        long sevenDaysAgo = System.currentTimeMillis() - (7 * 24 * 60 * 60 * 1000L);
+        return marketPriceDao.deleteOldRecords(sevenDaysAgo);
+    }
+
+    /**
+     * Get the forecasting service fed by this service's syncs
+     * @return PriceForecastService instance
+     */
+    public PriceForecastService getPriceForecastService() {
+        return priceForecastService;
+    }
+
+    /**
+     * Get the history store fed by this service's syncs
+     * @return PriceHistoryService instance
+     */
+    public PriceHistoryService getPriceHistoryService() {
+        return priceHistoryService;
+    }
+
     /**
      * Get all market prices (alias for getCachedMarketPrices)
-     * @param callback Callback to receive prices
+     * @param callback Callback to receive prices; may be called twice, see getCachedMarketPrices
      */
     public void getAllMarketPrices(MarketPriceCallback callback) {
         getCachedMarketPrices(callback);
@@ -134,25 +351,146 @@ public class MarketPriceService {
     
     /**
      * Get cached market prices from database
-     * @param callback Callback to receive prices
+     * Two-phase: stored prices are returned immediately, and when they are
+     * older than the MARKET_PRICES TTL onSuccess is called a second time after
+     * the background refresh (with the same rows if it fails). Callers must
+     * treat onSuccess as "replace what is shown"; use loadMarketPrices to tell
+     * the phases apart.
+     * @param callback Callback to receive prices, once or twice
      */
     public void getCachedMarketPrices(MarketPriceCallback callback) {
-        executorService.execute(() -> {
-            try {
+        loadMarketPrices(new CachePolicy.Callback<List<MarketPrice>>() {
+            @Override
+            public void onData(List<MarketPrice> prices, long ageMillis, boolean refreshing, boolean stale) {
+                if (callback != null) {
+                    callback.onSuccess(prices);
+                }
+            }
+
+            @Override
+            public void onError(String error) {
+                if (callback != null) {
+                    callback.onError(error);
+                }
+            }
+        });
+    }
+
+    /**
+     * Load market prices under the MARKET_PRICES stale-while-revalidate policy
+     * @param callback Receives prices with their age, on a background thread
+     */
+    public void loadMarketPrices(CachePolicy.Callback<List<MarketPrice>> callback) {
+        CachePolicy.MARKET_PRICES.load(context, null, executorService, new CachePolicy.Source<List<MarketPrice>>() {
+            @Override
+            public List<MarketPrice> readCached() {
                 List<MarketPrice> cachedPrices = marketPriceDao.getAllMarketPrices();
-                
                 if (cachedPrices.isEmpty()) {
-                    // If no cached data, fetch fresh data
-                    fetchMarketPrices(callback);
-                } else {
-                    if (callback != null) {
-                        callback.onSuccess(cachedPrices);
-                    }
+                    return null;
+                }
+                if (CURRENT_SNAPSHOT.get() == null) {
+                    CURRENT_SNAPSHOT.compareAndSet(null, MarketPriceSnapshot.build(cachedPrices));
+                }
+                return cachedPrices;
+            }
+
+            @Override
+            public List<MarketPrice> fetch() {
+                return refreshMarketPrices();
+            }
+        }, callback);
+    }
+
+    /**
+     * Read stored prices, fetching once if none are stored yet
+     * Shared by concurrent callers so an empty table triggers a single refresh.
+     * @return Active prices
+     */
+    private List<MarketPrice> loadCachedPrices() {
+        return PRICE_LOADS.run(LOAD_CACHED, () -> {
+            List<MarketPrice> cachedPrices = marketPriceDao.getAllMarketPrices();
+            if (cachedPrices.isEmpty()) {
+                // If no cached data, fetch fresh data
+                return refreshMarketPrices();
+            }
+            if (CURRENT_SNAPSHOT.get() == null) {
+                CURRENT_SNAPSHOT.compareAndSet(null, MarketPriceSnapshot.build(cachedPrices));
+            }
+            return cachedPrices;
+        });
+    }
+
+    /**
+     * Get the in-memory snapshot of the last sync
+     * @return Current snapshot, or null if prices have not been loaded yet
+     */
+    public MarketPriceSnapshot getMarketSnapshot() {
+        return CURRENT_SNAPSHOT.get();
+    }
+
+    /**
+     * Filter market prices by any combination of facets
+     * Served from the in-memory snapshot; the database is read only if no snapshot exists yet.
+     * @param filter Facet filter
+     * @param callback Callback to receive prices
+     */
+    public void filterMarketPrices(MarketPriceSnapshot.Filter filter, MarketPriceCallback callback) {
+        MarketPriceSnapshot snapshot = CURRENT_SNAPSHOT.get();
+        if (snapshot != null) {
+            if (callback != null) {
+                callback.onSuccess(snapshot.query(filter));
+            }
+            return;
+        }
+        executorService.execute(() -> {
+            try {
+                MarketPriceSnapshot built = CURRENT_SNAPSHOT.get();
+                if (built == null) {
+                    loadCachedPrices();
+                    built = CURRENT_SNAPSHOT.get();
+                }
+                if (callback != null) {
+                    callback.onSuccess(built.query(filter));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error filtering prices", e);
+                if (callback != null) {
+                    callback.onError("Failed to filter prices");
+                }
+            }
+        });
+    }
+
+    /**
+     * Find the markets where a crop fetches the most after transport
+     * Ranked from the in-memory snapshot with the precomputed district cost matrix.
+     * @param cropName Name of the crop
+     * @param originDistrict District the farmer sells from
+     * @param limit Maximum number of markets
+     * @param callback Callback to receive ranked markets
+     */
+    public void findBestMarkets(String cropName, String originDistrict, int limit, BestMarketCallback callback) {
+        MarketPriceSnapshot snapshot = CURRENT_SNAPSHOT.get();
+        if (snapshot != null) {
+            if (callback != null) {
+                callback.onSuccess(snapshot.rankMarkets(cropName, originDistrict, limit));
+            }
+            return;
+        }
+        executorService.execute(() -> {
+            try {
+                MarketPriceSnapshot built = CURRENT_SNAPSHOT.get();
+                if (built == null) {
+                    loadCachedPrices();
+                    built = CURRENT_SNAPSHOT.get();
+                }
+                if (callback != null) {
+                    callback.onSuccess(built.rankMarkets(cropName, originDistrict, limit));
                 }
             } catch (Exception e) {
-                Log.e(TAG, "Error getting cached prices", e);
+                Log.e(TAG, "Error ranking markets", e);
                 if (callback != null) {
-                    callback.onError("Failed to get cached prices: " + e.getMessage());
+                    callback.onError("Failed to find best markets");
                 }
             }
         });
@@ -334,6 +672,9 @@ public class MarketPriceService {
         if (executorService != null && !executorService.isShutdown()) {
             executorService.shutdown();
         }
+        priceAlertService.cleanup();
+        priceForecastService.cleanup();
+        priceHistoryService.cleanup();
     }
 
     /**
@@ -356,7 +697,7 @@ public class MarketPriceService {
         }
     }
 
-    // Callback interfaces
+    // Callback interfaces; onSuccess of a cached load may repeat, see getCachedMarketPrices
     public interface MarketPriceCallback {
         void onSuccess(List<MarketPrice> marketPrices);
         void onError(String error);
@@ -367,6 +708,11 @@ public class MarketPriceService {
         void onError(String error);
     }
 
+    public interface BestMarketCallback {
+        void onSuccess(List<MarketOption> options);
+        void onError(String error);
+    }
+
     // Inner class for crop information
     private static class CropInfo {
         String nameEn, nameHi, nameMl, variety;
@@ -0,0 +1,505 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable in-memory index over one sync of market prices
+ * Each facet value maps to a BitSet of row positions, and prices are kept in
+ * primitive arrays with precomputed sort orders, so any filter combination
+ * is a few bitset operations and never touches SQLite. Ticker updates derive
+ * a new snapshot that shares every index a tick cannot change.
+ */
+public final class MarketPriceSnapshot {
+
+    // Sort orders
+    public static final int SORT_CROP_NAME = 0;
+    public static final int SORT_PRICE_ASC = 1;
+    public static final int SORT_PRICE_DESC = 2;
+    public static final int SORT_CHANGE_DESC = 3;
+    public static final int SORT_CHANGE_ASC = 4;
+    private static final int SORT_COUNT = 5;
+
+    private final MarketPrice[] rows;
+    private final double[] prices;
+    private final double[] changes;
+    private final byte[] districtIds; // DistrictRoutes index per row, -1 if unknown
+    private final long builtAt;
+
+    // Facet indexes other than trend are never modified after construction, so derived snapshots share them
+    private final Map<String, Integer> rowByKey;
+    private final Map<String, BitSet> districtIndex;
+    private final Map<String, BitSet> cropIndex;
+    private final Map<String, BitSet> marketIndex;
+    private final Map<String, BitSet> gradeIndex;
+    private final Map<String, BitSet> trendIndex;
+    private final BitSet organicRows;
+    private final BitSet allRows;
+    private final int[][] sortOrders = new int[SORT_COUNT][];
+
+    private MarketPriceSnapshot(List<MarketPrice> marketPrices) {
+        int size = marketPrices.size();
+        this.rows = marketPrices.toArray(new MarketPrice[0]);
+        this.prices = new double[size];
+        this.changes = new double[size];
+        this.districtIds = new byte[size];
+        this.rowByKey = new HashMap<>(size * 2);
+        this.districtIndex = new HashMap<>();
+        this.cropIndex = new HashMap<>();
+        this.marketIndex = new HashMap<>();
+        this.gradeIndex = new HashMap<>();
+        this.trendIndex = new HashMap<>();
+        this.organicRows = new BitSet(size);
+        this.allRows = new BitSet(size);
+        this.allRows.set(0, size);
+        this.builtAt = System.currentTimeMillis();
+
+        for (int i = 0; i < size; i++) {
+            MarketPrice price = rows[i];
+            prices[i] = price.getPricePerKg();
+            changes[i] = price.getChangePercentage();
+            districtIds[i] = (byte) DistrictRoutes.indexOf(price.getDistrict());
+            rowByKey.put(price.getRowKey(), i);
+            addToIndex(districtIndex, price.getDistrict(), i, size);
+            addToIndex(cropIndex, price.getCropName(), i, size);
+            addToIndex(marketIndex, price.getMarketName(), i, size);
+            addToIndex(gradeIndex, price.getQualityGrade(), i, size);
+            addToIndex(trendIndex, trendKey(price), i, size);
+            if (price.isOrganic()) {
+                organicRows.set(i);
+            }
+        }
+
+        sortOrders[SORT_CROP_NAME] = sortedOrder((a, b) -> compareNames(rows[a].getCropName(), rows[b].getCropName()));
+        sortOrders[SORT_PRICE_ASC] = sortedOrder((a, b) -> Double.compare(prices[a], prices[b]));
+        sortOrders[SORT_PRICE_DESC] = sortedOrder((a, b) -> Double.compare(prices[b], prices[a]));
+        sortOrders[SORT_CHANGE_DESC] = sortedOrder((a, b) -> Double.compare(changes[b], changes[a]));
+        sortOrders[SORT_CHANGE_ASC] = sortedOrder((a, b) -> Double.compare(changes[a], changes[b]));
+    }
+
+    /**
+     * Build a snapshot from the prices of one sync
+     * Call this off the main thread; querying is cheap afterwards.
+     * @param marketPrices Active market prices
+     * @return New snapshot
+     */
+    public static MarketPriceSnapshot build(List<MarketPrice> marketPrices) {
+        return new MarketPriceSnapshot(marketPrices != null ? marketPrices : Collections.<MarketPrice>emptyList());
+    }
+
+    /**
+     * Derive a snapshot with updated copies of some rows
+     * Only the prices, trends and price or change orders of the updated rows
+     * are touched; each order is repaired by merging the re-sorted updated
+     * rows back into the others, O(n + k log k) instead of a full rebuild.
+     * @param updated Rows from MarketPrice.withTick(), matched by MarketPrice.getRowKey(); others are ignored
+     * @return New snapshot; untouched rows and indexes are shared with this one
+     */
+    private MarketPriceSnapshot(MarketPriceSnapshot base, List<MarketPrice> updated) {
+        this.rows = base.rows.clone();
+        this.prices = base.prices.clone();
+        this.changes = base.changes.clone();
+        this.districtIds = base.districtIds;
+        this.builtAt = base.builtAt;
+        this.rowByKey = base.rowByKey;
+        this.districtIndex = base.districtIndex;
+        this.cropIndex = base.cropIndex;
+        this.marketIndex = base.marketIndex;
+        this.gradeIndex = base.gradeIndex;
+        this.organicRows = base.organicRows;
+        this.allRows = base.allRows;
+        this.trendIndex = new HashMap<>(base.trendIndex);
+
+        BitSet touched = new BitSet(rows.length);
+        Set<String> copiedTrends = new HashSet<>();
+        for (MarketPrice price : updated) {
+            Integer row = rowByKey.get(price.getRowKey());
+            if (row == null) {
+                continue;
+            }
+            String oldTrend = trendKey(rows[row]);
+            String newTrend = trendKey(price);
+            rows[row] = price;
+            prices[row] = price.getPricePerKg();
+            changes[row] = price.getChangePercentage();
+            touched.set(row);
+            if (oldTrend == null ? newTrend != null : !oldTrend.equals(newTrend)) {
+                // Copy a trend's bitset before its first change; the base snapshot still uses it
+                if (oldTrend != null && copiedTrends.add(oldTrend)) {
+                    trendIndex.put(oldTrend, (BitSet) trendIndex.get(oldTrend).clone());
+                }
+                if (oldTrend != null) {
+                    trendIndex.get(oldTrend).clear(row);
+                }
+                if (newTrend != null) {
+                    BitSet bits = trendIndex.get(newTrend);
+                    if (bits == null) {
+                        trendIndex.put(newTrend, new BitSet(rows.length));
+                        copiedTrends.add(newTrend);
+                    } else if (copiedTrends.add(newTrend)) {
+                        trendIndex.put(newTrend, (BitSet) bits.clone());
+                    }
+                    trendIndex.get(newTrend).set(row);
+                }
+            }
+        }
+
+        sortOrders[SORT_CROP_NAME] = base.sortOrders[SORT_CROP_NAME];
+        sortOrders[SORT_PRICE_ASC] = repairOrder(base.sortOrders[SORT_PRICE_ASC], touched,
+                (a, b) -> Double.compare(prices[a], prices[b]));
+        sortOrders[SORT_PRICE_DESC] = repairOrder(base.sortOrders[SORT_PRICE_DESC], touched,
+                (a, b) -> Double.compare(prices[b], prices[a]));
+        sortOrders[SORT_CHANGE_DESC] = repairOrder(base.sortOrders[SORT_CHANGE_DESC], touched,
+                (a, b) -> Double.compare(changes[b], changes[a]));
+        sortOrders[SORT_CHANGE_ASC] = repairOrder(base.sortOrders[SORT_CHANGE_ASC], touched,
+                (a, b) -> Double.compare(changes[a], changes[b]));
+    }
+
+    /**
+     * Derive a snapshot with ticker updates applied to their rows
+     * @param updated Updated copies of rows, e.g. from MarketPrice.withTick()
+     * @return New snapshot; this one is unchanged
+     */
+    public MarketPriceSnapshot withUpdatedRows(List<MarketPrice> updated) {
+        return new MarketPriceSnapshot(this, updated);
+    }
+
+    /**
+     * Get the current row of a series
+     * @param rowKey MarketPrice.getRowKey() of the series
+     * @return Row, or null if this snapshot has none
+     */
+    public MarketPrice getRow(String rowKey) {
+        Integer row = rowByKey.get(rowKey);
+        return row != null ? rows[row] : null;
+    }
+
+    /**
+     * Get the prices matching a filter, in the filter's sort order
+     * @param filter Facet filter (null matches everything)
+     * @return Matching prices
+     */
+    public List<MarketPrice> query(Filter filter) {
+        BitSet matches = match(filter);
+        int[] order = sortOrders[filter != null ? filter.sortOrder : SORT_CROP_NAME];
+        List<MarketPrice> result = new ArrayList<>(matches.cardinality());
+        for (int row : order) {
+            if (matches.get(row)) {
+                result.add(rows[row]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Count the prices matching a filter without materializing them
+     * @param filter Facet filter (null matches everything)
+     * @return Number of matching prices
+     */
+    public int count(Filter filter) {
+        return match(filter).cardinality();
+    }
+
+    /**
+     * Average price per kg over the rows matching a filter
+     * @param filter Facet filter (null matches everything)
+     * @return Average price, or 0 when nothing matches
+     */
+    public double averagePrice(Filter filter) {
+        BitSet matches = match(filter);
+        int count = 0;
+        double sum = 0;
+        for (int row = matches.nextSetBit(0); row >= 0; row = matches.nextSetBit(row + 1)) {
+            sum += prices[row];
+            count++;
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * Rank the markets for a crop by what a seller from one district realizes per kg
+     * Net price is the market price minus handling and freight along the cheapest
+     * route; rows in unknown districts are skipped.
+     * @param cropName Name of the crop
+     * @param originDistrict District the produce starts from
+     * @param limit Maximum number of markets to return
+     * @return Best markets first; empty if the origin district is unknown
+     */
+    public List<MarketOption> rankMarkets(String cropName, String originDistrict, int limit) {
+        int origin = DistrictRoutes.indexOf(originDistrict);
+        BitSet cropRows = cropIndex.get(cropName);
+        if (origin < 0 || cropRows == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        double[] costs = DistrictRoutes.getCostRow(origin);
+
+        // Bounded insertion into a best-first top list; limit is small in practice
+        int[] topRows = new int[limit];
+        double[] topNets = new double[limit];
+        int found = 0;
+        for (int row = cropRows.nextSetBit(0); row >= 0; row = cropRows.nextSetBit(row + 1)) {
+            int district = districtIds[row];
+            if (district < 0) {
+                continue;
+            }
+            double net = prices[row] - costs[district];
+            if (found == limit && net <= topNets[limit - 1]) {
+                continue;
+            }
+            int slot = found < limit ? found++ : limit - 1;
+            while (slot > 0 && topNets[slot - 1] < net) {
+                topRows[slot] = topRows[slot - 1];
+                topNets[slot] = topNets[slot - 1];
+                slot--;
+            }
+            topRows[slot] = row;
+            topNets[slot] = net;
+        }
+
+        List<MarketOption> result = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int row = topRows[i];
+            int district = districtIds[row];
+            result.add(new MarketOption(rows[row], DistrictRoutes.getDistanceKm(origin, district), costs[district]));
+        }
+        return result;
+    }
+
+    public Set<String> getDistricts() {
+        return Collections.unmodifiableSet(new TreeSet<>(districtIndex.keySet()));
+    }
+
+    public Set<String> getCrops() {
+        return Collections.unmodifiableSet(new TreeSet<>(cropIndex.keySet()));
+    }
+
+    public Set<String> getMarkets() {
+        return Collections.unmodifiableSet(new TreeSet<>(marketIndex.keySet()));
+    }
+
+    public Set<String> getGrades() {
+        return Collections.unmodifiableSet(new TreeSet<>(gradeIndex.keySet()));
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    private BitSet match(Filter filter) {
+        BitSet result = (BitSet) allRows.clone();
+        if (filter == null) {
+            return result;
+        }
+        intersect(result, districtIndex, filter.districts);
+        intersect(result, cropIndex, filter.crops);
+        intersect(result, marketIndex, filter.markets);
+        intersect(result, gradeIndex, filter.grades);
+        intersect(result, trendIndex, filter.trends);
+        if (filter.organic != null) {
+            if (filter.organic) {
+                result.and(organicRows);
+            } else {
+                result.andNot(organicRows);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * AND the result with the union of the selected facet values
+     */
+    private static void intersect(BitSet result, Map<String, BitSet> index, Set<String> selected) {
+        if (selected == null || selected.isEmpty()) {
+            return;
+        }
+        BitSet union = new BitSet(result.size());
+        for (String value : selected) {
+            BitSet rowsForValue = index.get(value);
+            if (rowsForValue != null) {
+                union.or(rowsForValue);
+            }
+        }
+        result.and(union);
+    }
+
+    private static void addToIndex(Map<String, BitSet> index, String value, int row, int size) {
+        if (value == null) {
+            return;
+        }
+        BitSet bits = index.get(value);
+        if (bits == null) {
+            bits = new BitSet(size);
+            index.put(value, bits);
+        }
+        bits.set(row);
+    }
+
+    private static String trendKey(MarketPrice price) {
+        return price.getTrend() != null ? price.getTrend().toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * Restore a sort order after the touched rows' sort values changed
+     * @param order Order before the change
+     * @param touched Rows whose values changed
+     * @param comparator Order on the new values
+     * @return New order
+     */
+    private static int[] repairOrder(int[] order, BitSet touched, RowComparator comparator) {
+        int touchedCount = touched.cardinality();
+        if (touchedCount == 0) {
+            return order;
+        }
+        int[] moved = new int[touchedCount];
+        for (int row = touched.nextSetBit(0), i = 0; row >= 0; row = touched.nextSetBit(row + 1)) {
+            moved[i++] = row;
+        }
+        sortRows(moved, comparator);
+
+        // Untouched rows keep their relative order; merge the moved rows back in
+        int[] repaired = new int[order.length];
+        int out = 0;
+        int m = 0;
+        for (int row : order) {
+            if (touched.get(row)) {
+                continue;
+            }
+            while (m < moved.length && comparator.compare(moved[m], row) < 0) {
+                repaired[out++] = moved[m++];
+            }
+            repaired[out++] = row;
+        }
+        while (m < moved.length) {
+            repaired[out++] = moved[m++];
+        }
+        return repaired;
+    }
+
+    /**
+     * Stable merge sort of row positions, without boxing them
+     */
+    private static void sortRows(int[] rows, RowComparator comparator) {
+        if (rows.length < 2) {
+            return;
+        }
+        int[] buffer = new int[rows.length];
+        for (int width = 1; width < rows.length; width *= 2) {
+            for (int from = 0; from < rows.length; from += 2 * width) {
+                int middle = Math.min(from + width, rows.length);
+                int to = Math.min(from + 2 * width, rows.length);
+                int left = from, right = middle, out = from;
+                while (left < middle && right < to) {
+                    buffer[out++] = comparator.compare(rows[right], rows[left]) < 0 ? rows[right++] : rows[left++];
+                }
+                while (left < middle) {
+                    buffer[out++] = rows[left++];
+                }
+                while (right < to) {
+                    buffer[out++] = rows[right++];
+                }
+            }
+            System.arraycopy(buffer, 0, rows, 0, rows.length);
+        }
+    }
+
+    private static int compareNames(String a, String b) {
+        if (a == null) return b == null ? 0 : 1;
+        if (b == null) return -1;
+        return a.compareToIgnoreCase(b);
+    }
+
+    private int[] sortedOrder(RowComparator comparator) {
+        int[] order = new int[rows.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        sortRows(order, comparator);
+        return order;
+    }
+
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Facet filter for a snapshot query
+     * Values within one facet are OR-ed; different facets are AND-ed.
+     */
+    public static class Filter {
+        private Set<String> districts;
+        private Set<String> crops;
+        private Set<String> markets;
+        private Set<String> grades;
+        private Set<String> trends;
+        private Boolean organic;
+        private int sortOrder = SORT_CROP_NAME;
+
+        public Filter districts(String... values) {
+            this.districts = toSet(values, false);
+            return this;
+        }
+
+        public Filter crops(String... values) {
+            this.crops = toSet(values, false);
+            return this;
+        }
+
+        public Filter markets(String... values) {
+            this.markets = toSet(values, false);
+            return this;
+        }
+
+        public Filter grades(String... values) {
+            this.grades = toSet(values, false);
+            return this;
+        }
+
+        public Filter trends(String... values) {
+            this.trends = toSet(values, true);
+            return this;
+        }
+
+        /**
+         * @param organic true for organic only, false for non-organic only, null for both
+         */
+        public Filter organic(Boolean organic) {
+            this.organic = organic;
+            return this;
+        }
+
+        public Filter sortBy(int sortOrder) {
+            if (sortOrder < 0 || sortOrder >= SORT_COUNT) {
+                throw new IllegalArgumentException("Unknown sort order: " + sortOrder);
+            }
+            this.sortOrder = sortOrder;
+            return this;
+        }
+
+        private static Set<String> toSet(String[] values, boolean upperCase) {
+            if (values == null || values.length == 0) {
+                return null;
+            }
+            Set<String> set = new HashSet<>();
+            for (String value : values) {
+                if (value != null) {
+                    set.add(upperCase ? value.toUpperCase(Locale.ROOT) : value);
+                }
+            }
+            return set;
+        }
+    }
+}
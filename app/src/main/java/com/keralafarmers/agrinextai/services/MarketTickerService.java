@@ -0,0 +1,162 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.view.Choreographer;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.network.MarketTickerClient;
+import com.keralafarmers.agrinextai.utils.Conflator;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live market ticker: streams price ticks and fans them out at two rates
+ * The UI gets at most one batch per display frame and Room plus the
+ * in-memory snapshot get one batch per flush interval; forecasts and history
+ * follow at MarketPriceService's slower debounce. Both paths keep only
+ * the latest tick per row, so bursts of hundreds of ticks per second collapse
+ * into a handful of row updates instead of queueing.
+ */
+public class MarketTickerService {
+
+    private static final String TAG = "MarketTickerService";
+    private static final long DB_FLUSH_INTERVAL_MS = 500;
+
+    /**
+     * Receives conflated ticks on the main thread, at most once per frame
+     */
+    public interface TickListener {
+        void onTicks(List<MarketPrice> ticks);
+    }
+
+    private final Context context;
+    private final MarketPriceService marketPriceService;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Conflator<String, MarketPrice> uiTicks = new Conflator<>();
+    private final Conflator<String, MarketPrice> dbTicks = new Conflator<>();
+    private final Choreographer.FrameCallback frameCallback = frameTimeNanos -> deliverFrame();
+    private final Runnable scheduleFrame = () -> Choreographer.getInstance().postFrameCallback(frameCallback);
+
+    private volatile ScheduledExecutorService writer;
+    private MarketTickerClient client;
+    private volatile TickListener listener;
+
+    /**
+     * @param context Application context
+     * @param marketPriceService Service whose table and snapshot receive the ticks
+     */
+    public MarketTickerService(Context context, MarketPriceService marketPriceService) {
+        this.context = context;
+        this.marketPriceService = marketPriceService;
+    }
+
+    /**
+     * Connect to the ticker and start delivering updates
+     * @param tickListener Receives conflated ticks on the main thread
+     * @return False if no feed server is configured (nothing to stream)
+     */
+    public boolean start(TickListener tickListener) {
+        if (client != null) {
+            return true;
+        }
+        // Ticks that raced in after the last stop() would otherwise block scheduling
+        uiTicks.clear();
+        dbTicks.clear();
+        this.listener = tickListener;
+        this.writer = Executors.newSingleThreadScheduledExecutor();
+        this.client = MarketTickerClient.create(context, new MarketTickerClient.Listener() {
+            @Override
+            public void onTicks(List<MarketPrice> ticks) {
+                offer(ticks);
+            }
+
+            @Override
+            public void onConnectionChanged(boolean connected) {
+                Log.d(TAG, connected ? "Ticker connected" : "Ticker disconnected");
+            }
+        });
+        if (client == null) {
+            writer.shutdown();
+            writer = null;
+            return false;
+        }
+        client.start();
+        return true;
+    }
+
+    /**
+     * Disconnect, write any pending ticks and stop UI delivery
+     * Ticked series still waiting for their debounced forecast and history update are fed too.
+     */
+    public void stop() {
+        if (client == null) {
+            return;
+        }
+        client.stop();
+        client = null;
+        listener = null;
+        mainHandler.removeCallbacks(scheduleFrame);
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        uiTicks.clear();
+        writer.execute(() -> {
+            flushToDatabase();
+            try {
+                marketPriceService.flushTickedPrices();
+            } catch (Exception e) {
+                Log.e(TAG, "Error flushing ticked prices", e);
+            }
+        });
+        writer.shutdown();
+        writer = null;
+        Log.d(TAG, "Ticker stopped. Dropped " + dbTicks.getDroppedCount() + " superseded ticks.");
+    }
+
+    private void offer(List<MarketPrice> ticks) {
+        boolean frameNeeded = false;
+        boolean flushNeeded = false;
+        for (MarketPrice tick : ticks) {
+            String key = tick.getRowKey();
+            frameNeeded |= uiTicks.offer(key, tick);
+            flushNeeded |= dbTicks.offer(key, tick);
+        }
+        if (frameNeeded) {
+            // Choreographer must be used from the main looper
+            mainHandler.post(scheduleFrame);
+        }
+        ScheduledExecutorService currentWriter = writer;
+        if (flushNeeded && currentWriter != null) {
+            try {
+                currentWriter.schedule(this::flushToDatabase, DB_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // Stopped meanwhile; stop() already flushed
+            }
+        }
+    }
+
+    private void deliverFrame() {
+        List<MarketPrice> batch = uiTicks.drain();
+        TickListener current = listener;
+        if (!batch.isEmpty() && current != null) {
+            current.onTicks(batch);
+        }
+    }
+
+    private void flushToDatabase() {
+        List<MarketPrice> batch = dbTicks.drain();
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            marketPriceService.applyPriceTicks(batch);
+        } catch (Exception e) {
+            Log.e(TAG, "Error applying ticks", e);
+        }
+    }
+}
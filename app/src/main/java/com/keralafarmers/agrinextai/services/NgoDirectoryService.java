@@ -0,0 +1,392 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.ContentSyncDao;
+import com.keralafarmers.agrinextai.database.NgoDao;
+import com.keralafarmers.agrinextai.geometry.PointIndex;
+import com.keralafarmers.agrinextai.models.NGO;
+import com.keralafarmers.agrinextai.network.ContentChanges;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Service class for the directory of NGOs and Krishi Bhavan offices
+ * Entries are stored in Room with coordinates; "help near me" searches run
+ * against an R-tree of every entry, built on first use and patched as the
+ * content sync delivers changes, so they stay fast with thousands of offices.
+ */
+public class NgoDirectoryService implements ContentSyncService.ContentStore<NGO> {
+    private static final String TAG = "NgoDirectoryService";
+
+    // Seeded agriculture offices get ids above the seeded NGOs'
+    private static final int OFFICE_ID_BASE = 1000;
+
+    // Repack the base tree once synced changes exceed this fraction of the directory
+    private static final int OVERLAY_REPACK_FRACTION = 8;
+
+    // Shared across screens; null until first needed or after the directory is replaced
+    private static volatile Directory directory;
+    // Bumped on every directory write so a build that raced one is not published; guarded by the class
+    private static int directoryVersion;
+
+    private NgoDao ngoDao;
+    private ContentSyncDao contentSyncDao;
+
+    public NgoDirectoryService(Context context) {
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.ngoDao = database.ngoDao();
+        this.contentSyncDao = database.contentSyncDao();
+    }
+
+    /**
+     * Interface for directory search callbacks
+     */
+    public interface NgoListCallback {
+        void onSuccess(List<NGO> ngos);
+        void onError(String error);
+    }
+
+    /**
+     * Interface for category list callbacks
+     */
+    public interface CategoryCallback {
+        void onSuccess(List<String> categories);
+        void onError(String error);
+    }
+
+    /**
+     * Index of the stored directory
+     * Synced changes go into a small overlay R-tree and mask the entries they
+     * replace in the packed base tree, so a sync never repacks the whole
+     * directory; the base is repacked only once the overlay grows large.
+     */
+    private static final class Directory {
+        final PointIndex base;
+        final PointIndex overlay;
+        final Set<Integer> superseded;    // ids changed or removed since the base was packed
+        final Map<Integer, NGO> overlayById;
+        final Map<Integer, NGO> byId;
+
+        Directory(List<NGO> ngos) {
+            byId = new HashMap<>(ngos.size() * 2);
+            for (NGO ngo : ngos) {
+                byId.put(ngo.getId(), ngo);
+            }
+            base = pack(ngos);
+            overlayById = new HashMap<>();
+            overlay = pack(new ArrayList<>());
+            superseded = new HashSet<>();
+        }
+
+        private Directory(PointIndex base, Set<Integer> superseded, Map<Integer, NGO> overlayById,
+                          Map<Integer, NGO> byId) {
+            this.base = base;
+            this.superseded = superseded;
+            this.overlayById = overlayById;
+            this.overlay = pack(new ArrayList<>(overlayById.values()));
+            this.byId = byId;
+        }
+
+        /**
+         * Copy of this directory with synced changes applied; this one is left as is
+         */
+        Directory withChanges(List<NGO> upserts, int[] removedIds) {
+            Map<Integer, NGO> entries = new HashMap<>(byId);
+            Map<Integer, NGO> changed = new HashMap<>(overlayById);
+            Set<Integer> replaced = new HashSet<>(superseded);
+            for (int id : removedIds) {
+                entries.remove(id);
+                changed.remove(id);
+                replaced.add(id);
+            }
+            for (NGO ngo : upserts) {
+                entries.put(ngo.getId(), ngo);
+                changed.put(ngo.getId(), ngo);
+                replaced.add(ngo.getId());
+            }
+            if (changed.size() * OVERLAY_REPACK_FRACTION > entries.size()) {
+                return new Directory(new ArrayList<>(entries.values()));
+            }
+            return new Directory(base, replaced, changed, entries);
+        }
+
+        int size() {
+            return byId.size();
+        }
+
+        /**
+         * Ids of the entries nearest a location, from both trees
+         * @return Up to twice limit ids, not in distance order
+         */
+        int[] nearest(double latitude, double longitude, int limit, IntPredicate filter) {
+            int[] fromBase = base.nearest(latitude, longitude, limit,
+                    id -> !superseded.contains(id) && filter.test(id));
+            if (overlay.size() == 0) {
+                return fromBase;
+            }
+            int[] fromOverlay = overlay.nearest(latitude, longitude, limit, filter);
+            int[] ids = Arrays.copyOf(fromBase, fromBase.length + fromOverlay.length);
+            System.arraycopy(fromOverlay, 0, ids, fromBase.length, fromOverlay.length);
+            return ids;
+        }
+
+        private static PointIndex pack(List<NGO> ngos) {
+            int n = ngos.size();
+            int[] ids = new int[n];
+            double[] latitudes = new double[n];
+            double[] longitudes = new double[n];
+            for (int i = 0; i < n; i++) {
+                NGO ngo = ngos.get(i);
+                ids[i] = ngo.getId();
+                latitudes[i] = ngo.getLatitude();
+                longitudes[i] = ngo.getLongitude();
+            }
+            return new PointIndex(ids, latitudes, longitudes);
+        }
+    }
+
+    /**
+     * Find the organizations closest to a location
+     * @param latitude User's latitude
+     * @param longitude User's longitude
+     * @param category Category to keep (case-insensitive), or null for all
+     * @param verifiedOnly Whether to skip unverified organizations
+     * @param limit Maximum number of results
+     * @param callback List callback, nearest first, each with its distance set
+     */
+    public void findNearest(double latitude, double longitude, String category, boolean verifiedOnly, int limit,
+                            NgoListCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private List<NGO> ngos;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    ngos = findNearestBlocking(latitude, longitude, category, verifiedOnly, limit);
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error searching NGO directory", e);
+                    return "Error searching NGO directory: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(ngos);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Blocking form of findNearest
+     * @return Matching organizations, nearest first
+     */
+    public List<NGO> findNearestBlocking(double latitude, double longitude, String category, boolean verifiedOnly,
+                                         int limit) {
+        Directory current = getDirectory();
+        int[] ids = current.nearest(latitude, longitude, limit, id -> {
+            NGO ngo = current.byId.get(id);
+            return (!verifiedOnly || ngo.isVerified())
+                    && (category == null || category.equalsIgnoreCase(ngo.getCategory()));
+        });
+        // Fresh rows, so distances set here never leak into the shared index
+        Map<Integer, NGO> rows = new HashMap<>(ids.length * 2);
+        for (NGO ngo : ngoDao.getNgosByIds(ids)) {
+            rows.put(ngo.getId(), ngo);
+        }
+        List<NGO> ngos = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            NGO ngo = rows.get(id);
+            if (ngo != null) {
+                ngo.setDistanceKm(PointIndex.distance(latitude, longitude, ngo.getLatitude(),
+                        ngo.getLongitude()) / 1000);
+                ngos.add(ngo);
+            }
+        }
+        // The index ranks on a plane; order exactly by great-circle distance for display
+        ngos.sort(Comparator.comparingDouble(NGO::getDistanceKm));
+        return ngos.size() > limit ? new ArrayList<>(ngos.subList(0, limit)) : ngos;
+    }
+
+    /**
+     * Get the categories in the directory, for filtering
+     * @param callback Category callback
+     */
+    public void getCategories(CategoryCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private List<String> categories;
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    ensureSeeded();
+                    categories = ngoDao.getCategories();
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error loading NGO categories", e);
+                    return "Error loading NGO categories: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(categories);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Store directory entries, replacing those with the same id
+     * Blocking; the search index is rebuilt on the next search.
+     */
+    public void saveNgos(List<NGO> ngos) {
+        ngoDao.upsertNgos(ngos);
+        synchronized (NgoDirectoryService.class) {
+            directoryVersion++;
+            directory = null;
+        }
+    }
+
+    @Override
+    public void writeChanges(ContentChanges<NGO> changes) {
+        if (changes.isReset()) {
+            ngoDao.deleteAllNgos();
+        } else if (changes.getDeletedIds().length > 0) {
+            ngoDao.deleteNgos(changes.getDeletedIds());
+        }
+        if (!changes.getUpserts().isEmpty()) {
+            ngoDao.upsertNgos(changes.getUpserts());
+        }
+    }
+
+    @Override
+    public void onChangesCommitted(ContentChanges<NGO> changes) {
+        synchronized (NgoDirectoryService.class) {
+            directoryVersion++;
+            Directory current = directory;
+            // A snapshot replaces everything, so it is indexed from scratch on the next search
+            directory = current == null || changes.isReset() ? null
+                    : current.withChanges(changes.getUpserts(), changes.getDeletedIds());
+        }
+    }
+
+    private Directory getDirectory() {
+        Directory current = directory;
+        if (current != null) {
+            return current;
+        }
+        ensureSeeded();
+        int version;
+        synchronized (NgoDirectoryService.class) {
+            version = directoryVersion;
+        }
+        current = new Directory(ngoDao.getAllNgos());
+        synchronized (NgoDirectoryService.class) {
+            // The directory changed during the build: use this index for this search only
+            if (directoryVersion == version) {
+                directory = current;
+            }
+        }
+        Log.d(TAG, "Indexed " + current.size() + " directory entries");
+        return current;
+    }
+
+    /**
+     * Store the bundled directory on first run, never after a sync emptied it
+     */
+    private void ensureSeeded() {
+        contentSyncDao.seedOnce(ContentSyncService.DATASET_NGOS, () -> saveNgos(getSeedDirectory()));
+    }
+
+    /**
+     * Bundled Kerala NGOs and one agriculture office per district
+     * In production, replace this with the directory from the content server
+     */
+    private List<NGO> getSeedDirectory() {
+        List<NGO> ngos = new ArrayList<>();
+
+        // Kerala-based Agricultural NGOs
+        ngos.add(createNgo(1, "Kerala Farmer Producer Organization",
+                "Supporting farmers with modern agricultural techniques, seed distribution, and market linkage",
+                "Seeds, Fertilizers, Training, Market Access", "Thiruvananthapuram, Kerala", 8.5241, 76.9366,
+                "+91-9876543210", "info@keralafpo.org", "https://keralafpo.org", "Agricultural Support", 4.8f));
+        ngos.add(createNgo(2, "Organic Farming Foundation Kerala",
+                "Promoting sustainable organic farming practices and certification support",
+                "Organic Certification, Training, Bio-fertilizers", "Kochi, Kerala", 9.9816, 76.2999,
+                "+91-9876543211", "contact@offk.org", "https://organickerala.org", "Organic Farming", 4.6f));
+        ngos.add(createNgo(3, "Kerala Agricultural Development Society",
+                "Financial assistance, crop insurance, and technical support for small farmers",
+                "Financial Aid, Insurance, Equipment", "Palakkad, Kerala", 10.7867, 76.6548,
+                "+91-9876543212", "help@kads.org", "https://kads.gov.in", "Financial Support", 4.7f));
+        ngos.add(createNgo(4, "Spice Board Kerala Support",
+                "Specialized support for spice farmers including cardamom, pepper, and turmeric",
+                "Spice Certification, Quality Testing, Export Support", "Idukki, Kerala", 9.8497, 76.9720,
+                "+91-9876543213", "spices@kerala.gov.in", "https://spiceboard.kerala.gov.in", "Spice Farming", 4.5f));
+        ngos.add(createNgo(5, "Women Farmers Collective Kerala",
+                "Empowering women farmers with training, microfinance, and collective farming",
+                "Women Training, Microfinance, Collective Farming", "Kozhikode, Kerala", 11.2588, 75.7804,
+                "+91-9876543214", "women@farmerskerala.org", "https://womenfarming.kerala.gov.in",
+                "Women Empowerment", 4.9f));
+        ngos.add(createNgo(6, "Kerala Climate Resilient Agriculture",
+                "Climate-smart farming techniques and disaster recovery support",
+                "Climate Training, Disaster Recovery, Resilient Seeds", "Kannur, Kerala", 11.8745, 75.3704,
+                "+91-9876543215", "climate@keralaagriculture.org", "https://climateagriculture.kerala.gov.in",
+                "Climate Support", 4.4f));
+
+        // District agriculture offices, which route farmers to their Krishi Bhavan
+        // No verified phone or email is bundled for them, so those stay empty until a sync adds one
+        for (int i = 0; i < DistrictRoutes.getDistrictCount(); i++) {
+            String district = DistrictRoutes.DISTRICTS[i];
+            double[] headquarters = DistrictRoutes.getHeadquarters(i);
+            NGO office = createNgo(OFFICE_ID_BASE + i, "Principal Agricultural Office, " + district,
+                    "Department of Agriculture office for " + district + " district and its Krishi Bhavans",
+                    "Subsidies, Soil Testing, Scheme Enrolment, Crop Insurance", district + ", Kerala",
+                    headquarters[0], headquarters[1], null, null, "https://keralaagriculture.gov.in",
+                    "Krishi Bhavan", 0f);
+            office.setOrganizationType(NGO.TYPE_KRISHI_BHAVAN);
+            ngos.add(office);
+        }
+        return ngos;
+    }
+
+    private NGO createNgo(int id, String name, String description, String services, String location,
+                          double latitude, double longitude, String phoneNumber, String email, String website,
+                          String category, float rating) {
+        NGO ngo = new NGO();
+        ngo.setId(id);
+        ngo.setName(name);
+        ngo.setDescription(description);
+        ngo.setServices(services);
+        ngo.setLocation(location);
+        ngo.setLatitude(latitude);
+        ngo.setLongitude(longitude);
+        ngo.setOrganizationType(NGO.TYPE_NGO);
+        ngo.setPhoneNumber(phoneNumber);
+        ngo.setEmail(email);
+        ngo.setWebsite(website);
+        ngo.setCategory(category);
+        ngo.setRating(rating);
+        ngo.setVerified(true);
+        return ngo;
+    }
+}
@@ -0,0 +1,198 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory index over active price alert rules
+ * Rules are bucketed by (crop, district), with a wildcard district bucket
+ * per crop, and each condition keeps its thresholds in a sorted array.
+ * Matching a price is two bucket lookups plus one binary search per
+ * condition, so the cost does not grow with the number of rules that miss.
+ */
+public final class PriceAlertIndex {
+
+    private static final String ANY_DISTRICT = "*";
+
+    private final Map<String, Bucket> buckets;
+    private final int size;
+
+    private PriceAlertIndex(List<PriceAlertRule> rules) {
+        Map<String, List<PriceAlertRule>> grouped = new HashMap<>();
+        int count = 0;
+        for (PriceAlertRule rule : rules) {
+            if (rule.getCropName() == null || rule.getCondition() == null) {
+                continue;
+            }
+            String key = key(rule.getCropName(), rule.getDistrict() != null ? rule.getDistrict() : ANY_DISTRICT);
+            List<PriceAlertRule> group = grouped.get(key);
+            if (group == null) {
+                group = new ArrayList<>();
+                grouped.put(key, group);
+            }
+            group.add(rule);
+            count++;
+        }
+
+        this.buckets = new HashMap<>(grouped.size() * 2);
+        for (Map.Entry<String, List<PriceAlertRule>> entry : grouped.entrySet()) {
+            buckets.put(entry.getKey(), new Bucket(entry.getValue()));
+        }
+        this.size = count;
+    }
+
+    /**
+     * Build an index from active rules
+     * @param rules Active rules
+     * @return New index
+     */
+    public static PriceAlertIndex build(List<PriceAlertRule> rules) {
+        return new PriceAlertIndex(rules != null ? rules : Collections.<PriceAlertRule>emptyList());
+    }
+
+    /**
+     * Collect the rules whose condition holds for a price
+     * @param price Incoming market price
+     * @param out Receives matching rules
+     */
+    public void match(MarketPrice price, List<PriceAlertRule> out) {
+        if (price.getCropName() == null) {
+            return;
+        }
+        if (price.getDistrict() != null) {
+            Bucket districtBucket = buckets.get(key(price.getCropName(), price.getDistrict()));
+            if (districtBucket != null) {
+                districtBucket.match(price, out);
+            }
+        }
+        Bucket anyBucket = buckets.get(key(price.getCropName(), ANY_DISTRICT));
+        if (anyBucket != null) {
+            anyBucket.match(price, out);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String key(String cropName, String district) {
+        return cropName.trim().toLowerCase(Locale.ROOT) + '|' + district.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rules for one (crop, district), split by condition
+     */
+    private static final class Bucket {
+        private final Thresholds above;
+        private final Thresholds below;
+        private final Thresholds rise;
+        private final Thresholds drop;
+
+        Bucket(List<PriceAlertRule> rules) {
+            List<PriceAlertRule> aboveRules = new ArrayList<>();
+            List<PriceAlertRule> belowRules = new ArrayList<>();
+            List<PriceAlertRule> riseRules = new ArrayList<>();
+            List<PriceAlertRule> dropRules = new ArrayList<>();
+            for (PriceAlertRule rule : rules) {
+                switch (rule.getCondition()) {
+                    case PriceAlertRule.ABOVE: aboveRules.add(rule); break;
+                    case PriceAlertRule.BELOW: belowRules.add(rule); break;
+                    case PriceAlertRule.RISE_PERCENT: riseRules.add(rule); break;
+                    case PriceAlertRule.DROP_PERCENT: dropRules.add(rule); break;
+                    default: break;
+                }
+            }
+            this.above = new Thresholds(aboveRules);
+            this.below = new Thresholds(belowRules);
+            this.rise = new Thresholds(riseRules);
+            this.drop = new Thresholds(dropRules);
+        }
+
+        void match(MarketPrice price, List<PriceAlertRule> out) {
+            double value = price.getPricePerKg();
+            double change = price.getChangePercentage();
+            // price > threshold
+            above.addLessThan(value, out);
+            // price < threshold
+            below.addGreaterThan(value, out);
+            // change > +threshold
+            rise.addLessThan(change, out);
+            // change < -threshold, i.e. threshold < -change
+            drop.addLessThan(-change, out);
+        }
+    }
+
+    /**
+     * Rules sorted by ascending threshold
+     */
+    private static final class Thresholds {
+        private final double[] values;
+        private final PriceAlertRule[] rules;
+
+        Thresholds(List<PriceAlertRule> unsorted) {
+            List<PriceAlertRule> sorted = new ArrayList<>(unsorted);
+            Collections.sort(sorted, (a, b) -> Double.compare(a.getThreshold(), b.getThreshold()));
+            this.rules = sorted.toArray(new PriceAlertRule[0]);
+            this.values = new double[rules.length];
+            for (int i = 0; i < rules.length; i++) {
+                values[i] = rules[i].getThreshold();
+            }
+        }
+
+        /**
+         * Add rules with threshold strictly below the value
+         */
+        void addLessThan(double value, List<PriceAlertRule> out) {
+            int end = lowerBound(value);
+            for (int i = 0; i < end; i++) {
+                out.add(rules[i]);
+            }
+        }
+
+        /**
+         * Add rules with threshold strictly above the value
+         */
+        void addGreaterThan(double value, List<PriceAlertRule> out) {
+            for (int i = upperBound(value); i < rules.length; i++) {
+                out.add(rules[i]);
+            }
+        }
+
+        // First index with values[i] >= value
+        private int lowerBound(double value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        // First index with values[i] > value
+        private int upperBound(double value) {
+            int low = 0;
+            int high = values.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] <= value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.keralafarmers.agrinextai.R;
+import com.keralafarmers.agrinextai.activities.MarketPriceActivity;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Posts the alerts fired by one price sync as a single batched notification
+ */
+public class PriceAlertNotifier {
+
+    private static final String CHANNEL_ID = "price_alerts";
+    private static final int NOTIFICATION_ID = 3501;
+    private static final int MAX_LINES = 5;
+
+    private final Context context;
+
+    public PriceAlertNotifier(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * Show one inbox-style notification summarizing the fired alerts
+     * Each sync replaces the previous summary instead of stacking notifications.
+     * @param alerts Alerts fired by the sync
+     */
+    public void notify(List<PriceAlertService.FiredAlert> alerts) {
+        if (alerts.isEmpty() || !canPostNotifications()) {
+            return;
+        }
+        createChannel();
+
+        String title = context.getString(R.string.price_alert_title, alerts.size());
+        NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle().setBigContentTitle(title);
+        int shown = Math.min(alerts.size(), MAX_LINES);
+        for (int i = 0; i < shown; i++) {
+            style.addLine(describe(alerts.get(i)));
+        }
+        if (alerts.size() > shown) {
+            style.setSummaryText(context.getString(R.string.price_alert_more, alerts.size() - shown));
+        }
+
+        Intent intent = new Intent(context, MarketPriceActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TOP);
+        PendingIntent contentIntent = PendingIntent.getActivity(context, 0, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_price)
+                .setContentTitle(title)
+                .setContentText(describe(alerts.get(0)))
+                .setStyle(style)
+                .setNumber(alerts.size())
+                .setCategory(NotificationCompat.CATEGORY_RECOMMENDATION)
+                .setPriority(NotificationCompat.PRIORITY_DEFAULT)
+                .setContentIntent(contentIntent)
+                .setAutoCancel(true);
+
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+
+    private String describe(PriceAlertService.FiredAlert alert) {
+        PriceAlertRule rule = alert.getRule();
+        MarketPrice price = alert.getPrice();
+        String place = price.getMarketName() != null ? price.getMarketName() : price.getDistrict();
+        Locale locale = Locale.getDefault();
+        switch (rule.getCondition()) {
+            case PriceAlertRule.BELOW:
+                return String.format(locale, context.getString(R.string.price_alert_below),
+                        price.getCropName(), price.getPricePerKg(), place, rule.getThreshold());
+            case PriceAlertRule.RISE_PERCENT:
+                return String.format(locale, context.getString(R.string.price_alert_rise),
+                        price.getCropName(), price.getChangePercentage(), place, rule.getThreshold());
+            case PriceAlertRule.DROP_PERCENT:
+                return String.format(locale, context.getString(R.string.price_alert_drop),
+                        price.getCropName(), -price.getChangePercentage(), place, rule.getThreshold());
+            case PriceAlertRule.ABOVE:
+            default:
+                return String.format(locale, context.getString(R.string.price_alert_above),
+                        price.getCropName(), price.getPricePerKg(), place, rule.getThreshold());
+        }
+    }
+
+    private boolean canPostNotifications() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return false;
+        }
+        return NotificationManagerCompat.from(context).areNotificationsEnabled();
+    }
+
+    private void createChannel() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID,
+                    context.getString(R.string.price_alert_channel), NotificationManager.IMPORTANCE_DEFAULT);
+            channel.setDescription(context.getString(R.string.price_alert_channel_description));
+            NotificationManager manager = context.getSystemService(NotificationManager.class);
+            if (manager != null) {
+                manager.createNotificationChannel(channel);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.PriceAlertDao;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service class for price alert rules
+ * Rules live in Room; evaluation on each price sync runs against a
+ * PriceAlertIndex shared by all instances and rebuilt only when rules change.
+ * A rule fires once when its condition starts to hold and re-arms after
+ * the condition clears, so a sync never repeats an alert already shown.
+ */
+public class PriceAlertService {
+    private static final String TAG = "PriceAlertService";
+    private PriceAlertDao priceAlertDao;
+    private ExecutorService executorService;
+    private Context context;
+
+    // Built lazily from active rules; cleared whenever a rule is added, changed or removed
+    private static volatile PriceAlertIndex ruleIndex;
+    // Bumped on every rule change so a build that raced one is not published; guarded by the class
+    private static int rulesVersion;
+
+    public PriceAlertService(Context context) {
+        this.context = context;
+        this.priceAlertDao = AppDatabase.getInstance(context).priceAlertDao();
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Add a price alert rule
+     * @param rule Rule to add
+     * @param callback Callback with the stored rule
+     */
+    public void addRule(PriceAlertRule rule, RuleCallback callback) {
+        executorService.execute(() -> {
+            try {
+                long id = priceAlertDao.insertRule(rule);
+                rule.setId((int) id);
+                invalidateIndex();
+                if (callback != null) {
+                    callback.onSuccess(rule);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error adding price alert", e);
+                if (callback != null) {
+                    callback.onError("Failed to add price alert: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Enable or disable a price alert rule
+     * Only the active flag is written, so trigger state recorded by a sync
+     * since the caller loaded the rule is kept.
+     * @param rule Rule to update
+     * @param active New active state
+     * @param callback Callback with the updated rule
+     */
+    public void setRuleActive(PriceAlertRule rule, boolean active, RuleCallback callback) {
+        executorService.execute(() -> {
+            try {
+                priceAlertDao.setRuleActive(rule.getId(), active);
+                rule.setActive(active);
+                invalidateIndex();
+                if (callback != null) {
+                    callback.onSuccess(rule);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error updating price alert", e);
+                if (callback != null) {
+                    callback.onError("Failed to update price alert: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Delete a price alert rule
+     * @param rule Rule to delete
+     * @param callback Callback with the deleted rule
+     */
+    public void deleteRule(PriceAlertRule rule, RuleCallback callback) {
+        executorService.execute(() -> {
+            try {
+                priceAlertDao.deleteRule(rule);
+                invalidateIndex();
+                if (callback != null) {
+                    callback.onSuccess(rule);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error deleting price alert", e);
+                if (callback != null) {
+                    callback.onError("Failed to delete price alert: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Get all price alert rules for a user
+     * @param userId User ID
+     * @param callback Callback with the rules
+     */
+    public void getRulesForUser(int userId, RulesCallback callback) {
+        executorService.execute(() -> {
+            try {
+                List<PriceAlertRule> rules = priceAlertDao.getRulesByUser(userId);
+                if (callback != null) {
+                    callback.onSuccess(rules);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error getting price alerts", e);
+                if (callback != null) {
+                    callback.onError("Failed to get price alerts");
+                }
+            }
+        });
+    }
+
+    /**
+     * Evaluate a sync's prices against all active rules and notify new alerts
+     * Blocking; called from MarketPriceService after prices are stored
+     * @param prices Prices of the sync
+     * @return Alerts fired by this sync
+     */
+    public List<FiredAlert> processPrices(List<MarketPrice> prices) {
+        return processPrices(prices, null);
+    }
+
+    /**
+     * Evaluate the current prices of some crops and notify new alerts
+     * Only rules for those crops can fire or re-arm, so a ticker batch does
+     * not need every other crop's rows.
+     * @param prices Every current price of the crops
+     * @param crops Crops the prices cover, or null for all
+     * @return Alerts fired by these prices
+     */
+    public List<FiredAlert> processPrices(List<MarketPrice> prices, Set<String> crops) {
+        List<FiredAlert> fired = evaluate(prices, crops);
+        if (!fired.isEmpty()) {
+            new PriceAlertNotifier(context).notify(fired);
+        }
+        return fired;
+    }
+
+    /**
+     * Match prices against the rule index and update trigger state
+     * Blocking; call from a background thread
+     * @param prices Prices of the sync
+     * @return Rules that started to hold in this sync, one alert per rule
+     */
+    public List<FiredAlert> evaluate(List<MarketPrice> prices) {
+        return evaluate(prices, null);
+    }
+
+    /**
+     * Match prices against the rule index and update trigger state of the rules for some crops
+     * Blocking; call from a background thread
+     * @param prices Every current price of the crops
+     * @param crops Crops the prices cover, or null for all
+     * @return Rules that started to hold, one alert per rule
+     */
+    public List<FiredAlert> evaluate(List<MarketPrice> prices, Set<String> crops) {
+        PriceAlertIndex index = getIndex();
+        if (index.size() == 0 || prices == null || prices.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // One alert per rule even if several markets match it
+        Map<Integer, FiredAlert> matched = new LinkedHashMap<>();
+        List<PriceAlertRule> hits = new ArrayList<>();
+        for (MarketPrice price : prices) {
+            hits.clear();
+            index.match(price, hits);
+            for (PriceAlertRule rule : hits) {
+                if (!matched.containsKey(rule.getId())) {
+                    matched.put(rule.getId(), new FiredAlert(rule, price));
+                }
+            }
+        }
+
+        Set<Integer> triggered;
+        if (crops == null) {
+            triggered = new HashSet<>(priceAlertDao.getTriggeredRuleIds());
+        } else {
+            // Same normalization as the index buckets
+            List<String> cropKeys = new ArrayList<>(crops.size());
+            for (String crop : crops) {
+                if (crop != null) {
+                    cropKeys.add(crop.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+            triggered = new HashSet<>(priceAlertDao.getTriggeredRuleIdsForCrops(cropKeys));
+        }
+        List<FiredAlert> fired = new ArrayList<>();
+        List<Integer> firedIds = new ArrayList<>();
+        for (FiredAlert alert : matched.values()) {
+            if (!triggered.contains(alert.getRule().getId())) {
+                fired.add(alert);
+                firedIds.add(alert.getRule().getId());
+            }
+        }
+        List<Integer> rearmedIds = new ArrayList<>();
+        for (Integer id : triggered) {
+            if (!matched.containsKey(id)) {
+                rearmedIds.add(id);
+            }
+        }
+
+        priceAlertDao.updateTriggerState(firedIds, rearmedIds, System.currentTimeMillis());
+        Log.d(TAG, "Evaluated " + prices.size() + " prices against " + index.size() +
+                " rules: " + fired.size() + " fired, " + rearmedIds.size() + " re-armed");
+        return fired;
+    }
+
+    private PriceAlertIndex getIndex() {
+        PriceAlertIndex index = ruleIndex;
+        if (index != null) {
+            return index;
+        }
+        int version;
+        synchronized (PriceAlertService.class) {
+            version = rulesVersion;
+        }
+        index = PriceAlertIndex.build(priceAlertDao.getActiveRules());
+        synchronized (PriceAlertService.class) {
+            // A rule changed during the build: use this index for this sync only
+            if (rulesVersion == version) {
+                ruleIndex = index;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Drop the shared index after a rule write has been committed
+     */
+    private static void invalidateIndex() {
+        synchronized (PriceAlertService.class) {
+            rulesVersion++;
+            ruleIndex = null;
+        }
+    }
+
+    /**
+     * Cleanup resources
+     */
+    public void cleanup() {
+        if (executorService != null && !executorService.isShutdown()) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * A rule together with the price that set it off
+     */
+    public static class FiredAlert {
+        private final PriceAlertRule rule;
+        private final MarketPrice price;
+
+        public FiredAlert(PriceAlertRule rule, MarketPrice price) {
+            this.rule = rule;
+            this.price = price;
+        }
+
+        public PriceAlertRule getRule() {
+            return rule;
+        }
+
+        public MarketPrice getPrice() {
+            return price;
+        }
+    }
+
+    // Callback interfaces
+    public interface RuleCallback {
+        void onSuccess(PriceAlertRule rule);
+        void onError(String error);
+    }
+
+    public interface RulesCallback {
+        void onSuccess(List<PriceAlertRule> rules);
+        void onError(String error);
+    }
+}
@@ -0,0 +1,60 @@
+package com.keralafarmers.agrinextai.services;
+
+import java.util.Arrays;
+
+/**
+ * Daily price forecast with 95% confidence bands
+ * Index 0 is the day after the last observed price.
+ */
+public final class PriceForecast {
+
+    private final int lastObservedDay;
+    private final double[] mean;
+    private final double[] lower;
+    private final double[] upper;
+
+    public PriceForecast(int lastObservedDay, double[] mean, double[] lower, double[] upper) {
+        this.lastObservedDay = lastObservedDay;
+        this.mean = mean;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * Forecast limited to the first days
+     * @param days Horizon in days, at most getHorizon()
+     * @return Shorter forecast sharing the same start day
+     */
+    public PriceForecast truncate(int days) {
+        int n = Math.min(days, mean.length);
+        return new PriceForecast(lastObservedDay, Arrays.copyOf(mean, n), Arrays.copyOf(lower, n),
+                Arrays.copyOf(upper, n));
+    }
+
+    public int getLastObservedDay() {
+        return lastObservedDay;
+    }
+
+    public int getHorizon() {
+        return mean.length;
+    }
+
+    public double getMean(int dayIndex) {
+        return mean[dayIndex];
+    }
+
+    public double getLower(int dayIndex) {
+        return lower[dayIndex];
+    }
+
+    public double getUpper(int dayIndex) {
+        return upper[dayIndex];
+    }
+
+    /**
+     * @return Forecast price on the last day of the horizon
+     */
+    public double getFinalMean() {
+        return mean.length > 0 ? mean[mean.length - 1] : 0;
+    }
+}
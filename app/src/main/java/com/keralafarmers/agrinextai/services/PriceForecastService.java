@@ -0,0 +1,295 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.PriceForecastDao;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceSeriesState;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Service class for per-series market price forecasts
+ * Each (crop, market) series keeps a HoltWintersModel that is updated in O(1)
+ * per ingested price and persisted as a small blob. After each sync the
+ * 30-day forecasts of the updated series are recomputed in parallel and
+ * merged into the in-memory set; 7-day forecasts are a prefix of the same arrays.
+ */
+public class PriceForecastService {
+    private static final String TAG = "PriceForecastService";
+
+    public static final int SHORT_HORIZON_DAYS = 7;
+    public static final int LONG_HORIZON_DAYS = 30;
+
+    // Series not updated for this long are dropped by cleanup
+    private static final long STALE_SERIES_MILLIS = 90 * EpochDay.MILLIS_PER_DAY;
+
+    // Shared forecasting workers; batch size keeps per-task overhead small
+    private static final int FORECAST_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+    private static final int SERIES_PER_TASK = 64;
+    private static final ExecutorService FORECAST_POOL = Executors.newFixedThreadPool(FORECAST_THREADS);
+
+    // Models by series key, loaded from Room on first use; guarded by MODEL_LOCK
+    private static final Object MODEL_LOCK = new Object();
+    private static Map<String, Series> models;
+
+    // Latest forecasts by series key, replaced as a whole after each batch
+    private static volatile Map<String, SeriesForecast> latestForecasts = Collections.emptyMap();
+
+    private PriceForecastDao priceForecastDao;
+    private ExecutorService executorService;
+
+    public PriceForecastService(Context context) {
+        this.priceForecastDao = AppDatabase.getInstance(context).priceForecastDao();
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Feed a sync's prices into their series models, then refresh those series' forecasts
+     * Every series is forecast on the first batch after the models are loaded.
+     * Blocking; called from MarketPriceService after prices are stored
+     * @param prices Prices of the sync
+     */
+    public void onPricesIngested(List<MarketPrice> prices) {
+        long now = System.currentTimeMillis();
+        synchronized (MODEL_LOCK) {
+            boolean loadedNow = models == null;
+            ensureLoaded();
+            List<PriceSeriesState> changed = new ArrayList<>(prices.size());
+            Set<String> changedKeys = new HashSet<>();
+            for (MarketPrice price : prices) {
+                if (price.getCropName() == null || price.getPricePerKg() <= 0) {
+                    continue;
+                }
+                String key = seriesKey(price);
+                Series series = models.get(key);
+                if (series == null) {
+                    series = new Series(price.getCropName(), price.getMarketName(), price.getDistrict(),
+                            new HoltWintersModel());
+                    models.put(key, series);
+                }
+                long observedAt = price.getPriceDate() > 0 ? price.getPriceDate() : price.getLastUpdated();
+                series.model.observe(EpochDay.fromMillis(observedAt), price.getPricePerKg());
+                changed.add(new PriceSeriesState(key, series.cropName, series.marketName, series.district,
+                        series.model.toBytes(), now));
+                changedKeys.add(key);
+            }
+            priceForecastDao.upsertStates(changed);
+            if (loadedNow || latestForecasts.isEmpty()) {
+                latestForecasts = forecast(models.keySet(), Collections.<String, SeriesForecast>emptyMap());
+            } else {
+                latestForecasts = forecast(changedKeys, latestForecasts);
+            }
+        }
+        Log.d(TAG, "Updated " + prices.size() + " series; " + latestForecasts.size() + " forecasts ready");
+    }
+
+    /**
+     * Get the latest forecast for one series
+     * @param price Any price row of the series
+     * @return Forecast, or null if the series has no history yet
+     */
+    public SeriesForecast getForecast(MarketPrice price) {
+        return latestForecasts.get(seriesKey(price));
+    }
+
+    /**
+     * Key of the series a price row feeds: crop, market and district, across grades
+     * @param price Price row
+     * @return Series key
+     */
+    static String seriesKey(MarketPrice price) {
+        return price.getCropName() + '|' + price.getMarketName() + '|' + price.getDistrict();
+    }
+
+    /**
+     * Get the latest forecasts for a crop across all markets
+     * @param cropName Name of the crop
+     * @param callback Callback with the forecasts
+     */
+    public void getForecastsForCrop(String cropName, ForecastCallback callback) {
+        executorService.execute(() -> {
+            try {
+                List<SeriesForecast> result = new ArrayList<>();
+                for (SeriesForecast forecast : latestForecasts.values()) {
+                    if (cropName.equalsIgnoreCase(forecast.getCropName())) {
+                        result.add(forecast);
+                    }
+                }
+                if (callback != null) {
+                    callback.onSuccess(result);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error getting forecasts", e);
+                if (callback != null) {
+                    callback.onError("Failed to get forecasts");
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop series that have not been updated for 90 days
+     * Blocking; call from a background thread
+     * @return Number of series removed
+     */
+    public int deleteStaleSeries() {
+        synchronized (MODEL_LOCK) {
+            int deleted = priceForecastDao.deleteStaleStates(System.currentTimeMillis() - STALE_SERIES_MILLIS);
+            if (deleted > 0) {
+                models = null; // reload without the removed series
+            }
+            return deleted;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (models != null) {
+            return;
+        }
+        Map<String, Series> loaded = new HashMap<>();
+        for (PriceSeriesState state : priceForecastDao.getAllStates()) {
+            loaded.put(state.getSeriesKey(), new Series(state.getCropName(), state.getMarketName(),
+                    state.getDistrict(), HoltWintersModel.fromBytes(state.getModelState())));
+        }
+        models = loaded;
+    }
+
+    /**
+     * Forecast some series in parallel chunks; caller holds MODEL_LOCK
+     * @param keys Series to forecast
+     * @param previous Forecasts to keep for the other series
+     * @return New forecast map, or previous if forecasting failed
+     */
+    private Map<String, SeriesForecast> forecast(Collection<String> keys, Map<String, SeriesForecast> previous) {
+        List<Map.Entry<String, Series>> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Series series = models.get(key);
+            if (series != null) {
+                entries.add(new AbstractMap.SimpleImmutableEntry<>(key, series));
+            }
+        }
+        List<Callable<List<SeriesForecast>>> tasks = new ArrayList<>();
+        for (int start = 0; start < entries.size(); start += SERIES_PER_TASK) {
+            List<Map.Entry<String, Series>> chunk =
+                    entries.subList(start, Math.min(start + SERIES_PER_TASK, entries.size()));
+            tasks.add(() -> {
+                List<SeriesForecast> forecasts = new ArrayList<>(chunk.size());
+                for (Map.Entry<String, Series> entry : chunk) {
+                    PriceForecast forecast = entry.getValue().model.forecast(LONG_HORIZON_DAYS);
+                    if (forecast != null) {
+                        Series series = entry.getValue();
+                        forecasts.add(new SeriesForecast(entry.getKey(), series.cropName, series.marketName,
+                                series.district, forecast));
+                    }
+                }
+                return forecasts;
+            });
+        }
+
+        Map<String, SeriesForecast> result = new HashMap<>(previous);
+        try {
+            for (Future<List<SeriesForecast>> future : FORECAST_POOL.invokeAll(tasks)) {
+                for (SeriesForecast forecast : future.get()) {
+                    result.put(forecast.getSeriesKey(), forecast);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return previous;
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Error computing forecasts", e);
+            return previous;
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Cleanup resources
+     */
+    public void cleanup() {
+        if (executorService != null && !executorService.isShutdown()) {
+            executorService.shutdown();
+        }
+    }
+
+    private static final class Series {
+        final String cropName;
+        final String marketName;
+        final String district;
+        final HoltWintersModel model;
+
+        Series(String cropName, String marketName, String district, HoltWintersModel model) {
+            this.cropName = cropName;
+            this.marketName = marketName;
+            this.district = district;
+            this.model = model;
+        }
+    }
+
+    /**
+     * 30-day forecast for one series; getShortTerm() gives the 7-day view
+     */
+    public static class SeriesForecast {
+        private final String seriesKey;
+        private final String cropName;
+        private final String marketName;
+        private final String district;
+        private final PriceForecast forecast;
+
+        public SeriesForecast(String seriesKey, String cropName, String marketName, String district,
+                              PriceForecast forecast) {
+            this.seriesKey = seriesKey;
+            this.cropName = cropName;
+            this.marketName = marketName;
+            this.district = district;
+            this.forecast = forecast;
+        }
+
+        public String getSeriesKey() {
+            return seriesKey;
+        }
+
+        public String getCropName() {
+            return cropName;
+        }
+
+        public String getMarketName() {
+            return marketName;
+        }
+
+        public String getDistrict() {
+            return district;
+        }
+
+        public PriceForecast getShortTerm() {
+            return forecast.truncate(SHORT_HORIZON_DAYS);
+        }
+
+        public PriceForecast getLongTerm() {
+            return forecast;
+        }
+    }
+
+    // Callback interfaces
+    public interface ForecastCallback {
+        void onSuccess(List<SeriesForecast> forecasts);
+        void onError(String error);
+    }
+}
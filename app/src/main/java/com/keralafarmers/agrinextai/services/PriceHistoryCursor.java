@@ -0,0 +1,69 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.PriceHistoryBlock;
+import com.keralafarmers.agrinextai.utils.GorillaCodec;
+
+import java.util.List;
+
+/**
+ * Streams the points of consecutive history blocks within a time range
+ * Only the blocks passed in are decoded, one at a time, and points are read
+ * as primitives: while (cursor.next()) { cursor.getTimestamp(); cursor.getPrice(); }
+ */
+public final class PriceHistoryCursor {
+    private final List<PriceHistoryBlock> blocks;
+    private final long fromTimestamp;
+    private final long toTimestamp;
+    private int blockIndex;
+    private GorillaCodec.Decoder decoder;
+    private long timestamp;
+    private double price;
+
+    /**
+     * @param blocks Blocks of one series, oldest first
+     * @param fromTimestamp Range start, inclusive
+     * @param toTimestamp Range end, inclusive
+     */
+    public PriceHistoryCursor(List<PriceHistoryBlock> blocks, long fromTimestamp, long toTimestamp) {
+        this.blocks = blocks;
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+    }
+
+    /**
+     * Advance to the next point in range
+     * @return False when the range is exhausted
+     */
+    public boolean next() {
+        while (true) {
+            if (decoder == null) {
+                if (blockIndex >= blocks.size()) {
+                    return false;
+                }
+                decoder = new GorillaCodec.Decoder(blocks.get(blockIndex++).getData());
+            }
+            while (decoder.next()) {
+                long current = decoder.getTimestamp();
+                if (current > toTimestamp) {
+                    blockIndex = blocks.size(); // later blocks are later in time
+                    decoder = null;
+                    return false;
+                }
+                if (current >= fromTimestamp) {
+                    timestamp = current;
+                    price = decoder.getValue();
+                    return true;
+                }
+            }
+            decoder = null;
+        }
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+}
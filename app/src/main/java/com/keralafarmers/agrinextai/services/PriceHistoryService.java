@@ -0,0 +1,313 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.PriceHistoryDao;
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceHistoryBlock;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+import com.keralafarmers.agrinextai.utils.GorillaCodec;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service class for long-term market price history
+ * Every sync's prices are appended to one block per (crop, market, grade)
+ * series and 30-day window. Blocks are Gorilla-compressed, so a daily series
+ * costs a few bytes per point, and a range read only loads the blocks that
+ * overlap it.
+ */
+public class PriceHistoryService {
+    private static final String TAG = "PriceHistoryService";
+
+    public static final long BLOCK_MILLIS = 30 * EpochDay.MILLIS_PER_DAY;
+
+    // History older than this is dropped by cleanup
+    private static final long RETENTION_MILLIS = 5 * 365 * EpochDay.MILLIS_PER_DAY;
+    // Series keys bound per block lookup; SQLite below 3.32 allows 999 parameters
+    private static final int MAX_KEYS_PER_QUERY = 900;
+
+    private AppDatabase database;
+    private PriceHistoryDao priceHistoryDao;
+    private ExecutorService executorService;
+
+    public PriceHistoryService(Context context) {
+        this.database = AppDatabase.getInstance(context);
+        this.priceHistoryDao = database.priceHistoryDao();
+        this.executorService = Executors.newSingleThreadExecutor();
+    }
+
+    /**
+     * Append a sync's prices to their series
+     * Blocking; called from MarketPriceService after prices are stored.
+     * A point at the same time as a series' last point replaces it.
+     * Blocks are read, re-encoded and written in one transaction, so a sync
+     * and a ticker flush recording at once cannot drop each other's points.
+     * @param prices Prices of the sync
+     */
+    public void recordPrices(List<MarketPrice> prices) {
+        Map<Long, List<MarketPrice>> byBlock = new HashMap<>();
+        for (MarketPrice price : prices) {
+            if (price.getCropName() == null || price.getPricePerKg() <= 0) {
+                continue;
+            }
+            long blockStart = blockStartOf(observedAt(price));
+            List<MarketPrice> pricesInBlock = byBlock.get(blockStart);
+            if (pricesInBlock == null) {
+                pricesInBlock = new ArrayList<>();
+                byBlock.put(blockStart, pricesInBlock);
+            }
+            pricesInBlock.add(price);
+        }
+
+        int changedBlocks = database.runInTransaction(() -> appendToBlocks(byBlock));
+        Log.d(TAG, "Recorded history into " + changedBlocks + " blocks");
+    }
+
+    private int appendToBlocks(Map<Long, List<MarketPrice>> byBlock) {
+        List<PriceHistoryBlock> changed = new ArrayList<>();
+        for (Map.Entry<Long, List<MarketPrice>> entry : byBlock.entrySet()) {
+            long blockStart = entry.getKey();
+            List<MarketPrice> pricesInBlock = entry.getValue();
+            Collections.sort(pricesInBlock, (a, b) -> Long.compare(observedAt(a), observedAt(b)));
+            String[] keys = new String[pricesInBlock.size()];
+            Set<String> distinctKeys = new HashSet<>();
+            for (int i = 0; i < keys.length; i++) {
+                MarketPrice price = pricesInBlock.get(i);
+                keys[i] = seriesKey(price.getCropName(), price.getMarketName(), price.getQualityGrade());
+                distinctKeys.add(keys[i]);
+            }
+
+            // Only the series this batch touches, by primary key
+            Map<String, PriceHistoryBlock> stored = new HashMap<>();
+            List<String> keyList = new ArrayList<>(distinctKeys);
+            for (int from = 0; from < keyList.size(); from += MAX_KEYS_PER_QUERY) {
+                List<String> chunk = keyList.subList(from,
+                        Math.min(keyList.size(), from + MAX_KEYS_PER_QUERY));
+                for (PriceHistoryBlock block : priceHistoryDao.getBlocksStartingAt(chunk, blockStart)) {
+                    stored.put(block.getSeriesKey(), block);
+                }
+            }
+
+            Map<String, BlockAppender> appenders = new HashMap<>();
+            for (int i = 0; i < keys.length; i++) {
+                MarketPrice price = pricesInBlock.get(i);
+                String key = keys[i];
+                BlockAppender appender = appenders.get(key);
+                if (appender == null) {
+                    PriceHistoryBlock block = stored.get(key);
+                    if (block == null) {
+                        block = new PriceHistoryBlock(key, blockStart, price.getCropName(),
+                                price.getMarketName(), price.getQualityGrade());
+                    }
+                    appender = new BlockAppender(block);
+                    appenders.put(key, appender);
+                }
+                appender.append(observedAt(price), price.getPricePerKg());
+            }
+            for (BlockAppender appender : appenders.values()) {
+                if (appender.changed) {
+                    changed.add(appender.finish());
+                }
+            }
+        }
+        if (!changed.isEmpty()) {
+            priceHistoryDao.upsertBlocks(changed);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Open a cursor over one series' history
+     * Blocking; call from a background thread
+     * @param cropName Name of the crop
+     * @param marketName Name of the market
+     * @param qualityGrade Quality grade
+     * @param fromTimestamp Range start, inclusive
+     * @param toTimestamp Range end, inclusive
+     * @return Cursor over the points in range
+     */
+    public PriceHistoryCursor openCursor(String cropName, String marketName, String qualityGrade,
+                                        long fromTimestamp, long toTimestamp) {
+        List<PriceHistoryBlock> blocks = priceHistoryDao.getBlocksInRange(
+                seriesKey(cropName, marketName, qualityGrade), fromTimestamp, toTimestamp);
+        return new PriceHistoryCursor(blocks, fromTimestamp, toTimestamp);
+    }
+
+    /**
+     * Get one series' history as primitive arrays
+     * @param cropName Name of the crop
+     * @param marketName Name of the market
+     * @param qualityGrade Quality grade
+     * @param fromTimestamp Range start, inclusive
+     * @param toTimestamp Range end, inclusive
+     * @param callback Callback with the series
+     */
+    public void getPriceHistory(String cropName, String marketName, String qualityGrade,
+                                long fromTimestamp, long toTimestamp, HistoryCallback callback) {
+        executorService.execute(() -> {
+            try {
+                PriceHistoryCursor cursor = openCursor(cropName, marketName, qualityGrade,
+                        fromTimestamp, toTimestamp);
+                long[] timestamps = new long[64];
+                double[] values = new double[64];
+                int size = 0;
+                while (cursor.next()) {
+                    if (size == timestamps.length) {
+                        timestamps = Arrays.copyOf(timestamps, size * 2);
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    timestamps[size] = cursor.getTimestamp();
+                    values[size] = cursor.getPrice();
+                    size++;
+                }
+                if (callback != null) {
+                    callback.onSuccess(new PriceSeries(Arrays.copyOf(timestamps, size), Arrays.copyOf(values, size)));
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error reading price history", e);
+                if (callback != null) {
+                    callback.onError("Failed to load price history");
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop history older than the retention period
+     * Blocking; call from a background thread
+     * @return Number of blocks removed
+     */
+    public int deleteExpiredHistory() {
+        return priceHistoryDao.deleteBlocksBefore(System.currentTimeMillis() - RETENTION_MILLIS);
+    }
+
+    public static String seriesKey(String cropName, String marketName, String qualityGrade) {
+        return cropName + '|' + marketName + '|' + qualityGrade;
+    }
+
+    private static long observedAt(MarketPrice price) {
+        return price.getPriceDate() > 0 ? price.getPriceDate() : price.getLastUpdated();
+    }
+
+    private static long blockStartOf(long timestamp) {
+        return Math.floorDiv(timestamp, BLOCK_MILLIS) * BLOCK_MILLIS;
+    }
+
+    /**
+     * Cleanup resources
+     */
+    public void cleanup() {
+        if (executorService != null && !executorService.isShutdown()) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Collects a block's points plus new ones, then re-encodes once
+     * Blocks hold at most a month of points, so rewriting is cheap.
+     */
+    private static final class BlockAppender {
+        private final PriceHistoryBlock block;
+        private long[] timestamps;
+        private double[] values;
+        private int size;
+        boolean changed;
+
+        BlockAppender(PriceHistoryBlock block) {
+            this.block = block;
+            int capacity = Math.max(8, block.getPointCount() + 4);
+            this.timestamps = new long[capacity];
+            this.values = new double[capacity];
+            GorillaCodec.Decoder decoder = new GorillaCodec.Decoder(block.getData());
+            while (decoder.next()) {
+                add(decoder.getTimestamp(), decoder.getValue());
+            }
+        }
+
+        void append(long timestamp, double value) {
+            // The codec stores whole seconds
+            timestamp = Math.floorDiv(timestamp, 1000L) * 1000L;
+            if (size > 0) {
+                long last = timestamps[size - 1];
+                if (timestamp < last) {
+                    return; // older than what is stored
+                }
+                if (timestamp == last) {
+                    if (values[size - 1] != value) {
+                        values[size - 1] = value;
+                        changed = true;
+                    }
+                    return;
+                }
+            }
+            add(timestamp, value);
+            changed = true;
+        }
+
+        PriceHistoryBlock finish() {
+            GorillaCodec.Encoder encoder = new GorillaCodec.Encoder();
+            for (int i = 0; i < size; i++) {
+                encoder.add(timestamps[i], values[i]);
+            }
+            block.setData(encoder.toBytes());
+            block.setPointCount(size);
+            block.setFirstTimestamp(timestamps[0]);
+            block.setLastTimestamp(timestamps[size - 1]);
+            block.setLastPrice(values[size - 1]);
+            return block;
+        }
+
+        private void add(long timestamp, double value) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestamp;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * Points of one series in time order
+     */
+    public static class PriceSeries {
+        private final long[] timestamps;
+        private final double[] prices;
+
+        public PriceSeries(long[] timestamps, double[] prices) {
+            this.timestamps = timestamps;
+            this.prices = prices;
+        }
+
+        public long[] getTimestamps() {
+            return timestamps;
+        }
+
+        public double[] getPrices() {
+            return prices;
+        }
+
+        public int size() {
+            return timestamps.length;
+        }
+    }
+
+    // Callback interfaces
+    public interface HistoryCallback {
+        void onSuccess(PriceSeries series);
+        void onError(String error);
+    }
+}
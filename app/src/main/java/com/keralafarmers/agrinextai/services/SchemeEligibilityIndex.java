@@ -0,0 +1,310 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Scheme eligibility predicates compiled into bitsets, one bit per scheme
+ * For every predicate value the index holds the set of schemes that value
+ * satisfies (including schemes that do not restrict on it), so matching a
+ * farmer is one lookup per attribute and an AND of the resulting sets; the
+ * cost depends on the number of attributes, not on scheme rules.
+ * An index is never modified once published; catalog changes produce a
+ * patched copy in which only the changed schemes' bits are recomputed.
+ */
+final class SchemeEligibilityIndex {
+
+    /**
+     * What the matcher knows about a farmer
+     */
+    static final class Profile {
+        final double farmSizeHa;     // 0 if unknown
+        final Collection<String> crops;
+        final String district;       // null if unknown
+        final boolean isOrganic;
+        final boolean isTenant;
+
+        Profile(double farmSizeHa, Collection<String> crops, String district, boolean isOrganic, boolean isTenant) {
+            this.farmSizeHa = farmSizeHa;
+            this.crops = crops;
+            this.district = district;
+            this.isOrganic = isOrganic;
+            this.isTenant = isTenant;
+        }
+    }
+
+    // Scheme per bit; null where a scheme was removed by a later change
+    private final List<GovernmentScheme> schemes;
+    private final Map<Integer, Integer> bitById;
+    private final BitSet active;
+    // sizeSets[j]: schemes open to a farm no larger than sizeLimits[j]; the extra last set has no limit
+    private double[] sizeLimits;
+    private BitSet[] sizeSets;
+    private final BitSet anyCrop;
+    private final Map<String, BitSet> byCrop;
+    private final BitSet anyDistrict;
+    private final Map<String, BitSet> byDistrict;
+    private final BitSet notOrganicOnly;
+    private final BitSet forOwners;
+    private final BitSet forTenants;
+
+    SchemeEligibilityIndex(List<GovernmentScheme> schemes) {
+        this.schemes = new ArrayList<>(schemes);
+        this.bitById = new HashMap<>(schemes.size() * 2);
+        this.active = new BitSet();
+        this.anyCrop = new BitSet();
+        this.byCrop = new HashMap<>();
+        this.anyDistrict = new BitSet();
+        this.byDistrict = new HashMap<>();
+        this.notOrganicOnly = new BitSet();
+        this.forOwners = new BitSet();
+        this.forTenants = new BitSet();
+        for (int i = 0; i < schemes.size(); i++) {
+            bitById.put(schemes.get(i).getId(), i);
+            set(i, schemes.get(i));
+        }
+        buildSizeSets();
+    }
+
+    /**
+     * Deep copy, so a patch never shows through to readers of the original
+     */
+    private SchemeEligibilityIndex(SchemeEligibilityIndex source) {
+        this.schemes = new ArrayList<>(source.schemes);
+        this.bitById = new HashMap<>(source.bitById);
+        this.active = (BitSet) source.active.clone();
+        this.sizeLimits = source.sizeLimits;
+        this.sizeSets = new BitSet[source.sizeSets.length];
+        for (int j = 0; j < sizeSets.length; j++) {
+            sizeSets[j] = (BitSet) source.sizeSets[j].clone();
+        }
+        this.anyCrop = (BitSet) source.anyCrop.clone();
+        this.byCrop = copy(source.byCrop);
+        this.anyDistrict = (BitSet) source.anyDistrict.clone();
+        this.byDistrict = copy(source.byDistrict);
+        this.notOrganicOnly = (BitSet) source.notOrganicOnly.clone();
+        this.forOwners = (BitSet) source.forOwners.clone();
+        this.forTenants = (BitSet) source.forTenants.clone();
+    }
+
+    /**
+     * Copy of this index with catalog changes applied
+     * Changed schemes keep their bit and new ones are appended. Size classes
+     * are re-derived only when a change brings a farm size limit not seen before.
+     * @param upserts New and changed schemes
+     * @param removedIds Ids of removed schemes
+     * @return Patched index; this one is left as is
+     */
+    SchemeEligibilityIndex withChanges(List<GovernmentScheme> upserts, int[] removedIds) {
+        SchemeEligibilityIndex patched = new SchemeEligibilityIndex(this);
+        List<Integer> changedBits = new ArrayList<>();
+        for (int id : removedIds) {
+            Integer bit = patched.bitById.remove(id);
+            if (bit != null) {
+                patched.clear(bit);
+                patched.schemes.set(bit, null);
+                changedBits.add(bit);
+            }
+        }
+        boolean newLimit = false;
+        for (GovernmentScheme scheme : upserts) {
+            Integer bit = patched.bitById.get(scheme.getId());
+            if (bit == null) {
+                bit = patched.schemes.size();
+                patched.schemes.add(scheme);
+                patched.bitById.put(scheme.getId(), bit);
+            } else {
+                patched.clear(bit);
+                patched.schemes.set(bit, scheme);
+            }
+            patched.set(bit, scheme);
+            changedBits.add(bit);
+            double limit = scheme.getMaxFarmSizeHa();
+            newLimit |= limit > 0 && Arrays.binarySearch(sizeLimits, limit) < 0;
+        }
+
+        if (newLimit) {
+            patched.buildSizeSets();
+        } else {
+            for (int bit : changedBits) {
+                patched.setSizeBits(bit, patched.schemes.get(bit));
+            }
+        }
+        return patched;
+    }
+
+    /**
+     * @return Number of bits, including those of removed schemes
+     */
+    int size() {
+        return schemes.size();
+    }
+
+    /**
+     * @return Bits of the schemes a farmer qualifies for, in catalog order
+     */
+    BitSet match(Profile profile) {
+        BitSet result = (BitSet) active.clone();
+        if (profile.farmSizeHa > 0) {
+            result.and(sizeSets[sizeClass(profile.farmSizeHa)]);
+        }
+        BitSet crops = (BitSet) anyCrop.clone();
+        for (String crop : profile.crops) {
+            BitSet set = byCrop.get(normalize(crop));
+            if (set != null) {
+                crops.or(set);
+            }
+        }
+        result.and(crops);
+        BitSet districts = (BitSet) anyDistrict.clone();
+        BitSet set = profile.district != null ? byDistrict.get(normalize(profile.district)) : null;
+        if (set != null) {
+            districts.or(set);
+        }
+        result.and(districts);
+        if (!profile.isOrganic) {
+            result.and(notOrganicOnly);
+        }
+        result.and(profile.isTenant ? forTenants : forOwners);
+        return result;
+    }
+
+    /**
+     * @return Scheme at a bit, or null if it was removed
+     */
+    GovernmentScheme get(int bit) {
+        return schemes.get(bit);
+    }
+
+    /**
+     * Set a scheme's bits in every predicate except farm size
+     */
+    private void set(int bit, GovernmentScheme scheme) {
+        if (scheme.isActive()) {
+            active.set(bit);
+        }
+        index(scheme.getEligibleCrops(), bit, anyCrop, byCrop);
+        index(scheme.getEligibleDistricts(), bit, anyDistrict, byDistrict);
+        if (!scheme.isOrganicRequired()) {
+            notOrganicOnly.set(bit);
+        }
+        if (scheme.getTenancy() != GovernmentScheme.TENANCY_TENANTS_ONLY) {
+            forOwners.set(bit);
+        }
+        if (scheme.getTenancy() != GovernmentScheme.TENANCY_OWNERS_ONLY) {
+            forTenants.set(bit);
+        }
+    }
+
+    /**
+     * Clear the bits set for the scheme currently at a bit
+     */
+    private void clear(int bit) {
+        GovernmentScheme old = schemes.get(bit);
+        active.clear(bit);
+        for (BitSet sizeSet : sizeSets) {
+            sizeSet.clear(bit);
+        }
+        unindex(old.getEligibleCrops(), bit, anyCrop, byCrop);
+        unindex(old.getEligibleDistricts(), bit, anyDistrict, byDistrict);
+        notOrganicOnly.clear(bit);
+        forOwners.clear(bit);
+        forTenants.clear(bit);
+    }
+
+    private void buildSizeSets() {
+        TreeSet<Double> limits = new TreeSet<>();
+        for (GovernmentScheme scheme : schemes) {
+            if (scheme != null && scheme.getMaxFarmSizeHa() > 0) {
+                limits.add(scheme.getMaxFarmSizeHa());
+            }
+        }
+        sizeLimits = new double[limits.size()];
+        int j = 0;
+        for (double limit : limits) {
+            sizeLimits[j++] = limit;
+        }
+        sizeSets = new BitSet[sizeLimits.length + 1];
+        for (j = 0; j < sizeSets.length; j++) {
+            sizeSets[j] = new BitSet(schemes.size());
+        }
+        for (int i = 0; i < schemes.size(); i++) {
+            setSizeBits(i, schemes.get(i));
+        }
+    }
+
+    /**
+     * A limit admits every farm up to it: set the bit in all size classes it covers
+     */
+    private void setSizeBits(int bit, GovernmentScheme scheme) {
+        if (scheme == null) {
+            return;
+        }
+        double limit = scheme.getMaxFarmSizeHa();
+        for (int j = 0; j < sizeSets.length; j++) {
+            if (limit <= 0 || (j < sizeLimits.length && sizeLimits[j] <= limit)) {
+                sizeSets[j].set(bit);
+            }
+        }
+    }
+
+    /**
+     * Index of the smallest size limit at or above a farm size; sizeLimits.length past the largest
+     */
+    private int sizeClass(double farmSizeHa) {
+        int position = Arrays.binarySearch(sizeLimits, farmSizeHa);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static void index(String values, int bit, BitSet any, Map<String, BitSet> byValue) {
+        if (values == null || values.trim().isEmpty()) {
+            any.set(bit);
+            return;
+        }
+        for (String value : values.split(",")) {
+            String key = normalize(value);
+            if (!key.isEmpty()) {
+                BitSet set = byValue.get(key);
+                if (set == null) {
+                    set = new BitSet();
+                    byValue.put(key, set);
+                }
+                set.set(bit);
+            }
+        }
+    }
+
+    private static void unindex(String values, int bit, BitSet any, Map<String, BitSet> byValue) {
+        any.clear(bit);
+        if (values == null) {
+            return;
+        }
+        for (String value : values.split(",")) {
+            BitSet set = byValue.get(normalize(value));
+            if (set != null) {
+                set.clear(bit);
+            }
+        }
+    }
+
+    private static Map<String, BitSet> copy(Map<String, BitSet> sets) {
+        Map<String, BitSet> copy = new HashMap<>(sets.size() * 2);
+        for (Map.Entry<String, BitSet> entry : sets.entrySet()) {
+            copy.put(entry.getKey(), (BitSet) entry.getValue().clone());
+        }
+        return copy;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,258 @@
+package com.keralafarmers.agrinextai.services;
+
+import android.content.Context;
+import android.os.AsyncTask;
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.database.AppDatabase;
+import com.keralafarmers.agrinextai.database.ContentSyncDao;
+import com.keralafarmers.agrinextai.database.HarvestCardDao;
+import com.keralafarmers.agrinextai.database.IrrigationDao;
+import com.keralafarmers.agrinextai.database.SchemeDao;
+import com.keralafarmers.agrinextai.database.UserDao;
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+import com.keralafarmers.agrinextai.models.IrrigationPlan;
+import com.keralafarmers.agrinextai.models.User;
+import com.keralafarmers.agrinextai.network.ContentChanges;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Service class for the government scheme catalog
+ * Schemes are stored in Room and their eligibility predicates compiled once
+ * into a SchemeEligibilityIndex, shared across screens and patched as the
+ * content sync delivers changes. A farmer's profile comes from their account,
+ * harvest cards and irrigation plans, so matching needs no questionnaire.
+ */
+public class SchemeService implements ContentSyncService.ContentStore<GovernmentScheme> {
+    private static final String TAG = "SchemeService";
+
+    private static final double HECTARES_PER_ACRE = FarmBoundaryService.SQUARE_METRES_PER_ACRE / 10000;
+
+    // Shared across screens; null until first needed or after the catalog is replaced
+    private static volatile SchemeEligibilityIndex eligibilityIndex;
+
+    private Context context;
+    private SchemeDao schemeDao;
+    private UserDao userDao;
+    private HarvestCardDao harvestCardDao;
+    private IrrigationDao irrigationDao;
+    private ContentSyncDao contentSyncDao;
+
+    public SchemeService(Context context) {
+        this.context = context.getApplicationContext();
+        AppDatabase database = AppDatabase.getInstance(context);
+        this.schemeDao = database.schemeDao();
+        this.userDao = database.userDao();
+        this.harvestCardDao = database.harvestCardDao();
+        this.irrigationDao = database.irrigationDao();
+        this.contentSyncDao = database.contentSyncDao();
+    }
+
+    /**
+     * Interface for scheme match callbacks
+     */
+    public interface SchemeMatchCallback {
+        /**
+         * @param eligible Schemes the user qualifies for
+         * @param others Remaining active schemes
+         */
+        void onSuccess(List<GovernmentScheme> eligible, List<GovernmentScheme> others);
+        void onError(String error);
+    }
+
+    /**
+     * Split the catalog into the schemes a user qualifies for and the rest
+     * @param userId User ID
+     * @param callback Scheme match callback
+     */
+    public void matchSchemes(int userId, SchemeMatchCallback callback) {
+        updateAndMatch(userId, null, callback);
+    }
+
+    /**
+     * Save the user's organic and tenancy answers, then match again
+     * @param userId User ID
+     * @param isOrganic Whether the user farms organically
+     * @param isTenant Whether the user cultivates leased land
+     * @param callback Scheme match callback with the new result
+     */
+    public void updateFarmingPractices(int userId, boolean isOrganic, boolean isTenant,
+                                       SchemeMatchCallback callback) {
+        updateAndMatch(userId, () -> userDao.updateFarmingPractices(userId, isOrganic, isTenant), callback);
+    }
+
+    private void updateAndMatch(int userId, Runnable update, SchemeMatchCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private final List<GovernmentScheme> eligible = new ArrayList<>();
+            private final List<GovernmentScheme> others = new ArrayList<>();
+
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    if (update != null) {
+                        update.run();
+                    }
+                    SchemeEligibilityIndex index = getIndex();
+                    BitSet matched = index.match(buildProfile(userId));
+                    for (int i = 0; i < index.size(); i++) {
+                        GovernmentScheme scheme = index.get(i);
+                        if (matched.get(i)) {
+                            eligible.add(scheme);
+                        } else if (scheme != null && scheme.isActive()) {
+                            others.add(scheme);
+                        }
+                    }
+                    return "SUCCESS";
+                } catch (Exception e) {
+                    Log.e(TAG, "Error matching schemes", e);
+                    return "Error matching schemes: " + e.getMessage();
+                }
+            }
+
+            @Override
+            protected void onPostExecute(String status) {
+                if ("SUCCESS".equals(status)) {
+                    callback.onSuccess(eligible, others);
+                } else {
+                    callback.onError(status);
+                }
+            }
+        }.execute();
+    }
+
+    @Override
+    public void writeChanges(ContentChanges<GovernmentScheme> changes) {
+        if (changes.isReset()) {
+            schemeDao.deleteAllSchemes();
+        } else if (changes.getDeletedIds().length > 0) {
+            schemeDao.deleteSchemes(changes.getDeletedIds());
+        }
+        if (!changes.getUpserts().isEmpty()) {
+            schemeDao.upsertSchemes(changes.getUpserts());
+        }
+    }
+
+    @Override
+    public void onChangesCommitted(ContentChanges<GovernmentScheme> changes) {
+        synchronized (SchemeService.class) {
+            SchemeEligibilityIndex current = eligibilityIndex;
+            // A snapshot replaces the catalog, so it is compiled from scratch on the next match
+            eligibilityIndex = current == null || changes.isReset() ? null
+                    : current.withChanges(changes.getUpserts(), changes.getDeletedIds());
+        }
+    }
+
+    /**
+     * Gather what scheme rules ask about a user
+     * Blocking
+     */
+    private SchemeEligibilityIndex.Profile buildProfile(int userId) {
+        User user = userDao.getUserById(userId);
+        Set<String> crops = new LinkedHashSet<>(harvestCardDao.getUniqueCrops(userId));
+        for (IrrigationPlan plan : irrigationDao.getPlansForUser(userId)) {
+            if (plan.getCropName() != null) {
+                crops.add(plan.getCropName());
+            }
+        }
+        // Organic schemes need certification, which only the farmer's own declaration stands for
+        boolean isOrganic = user != null && user.isOrganic();
+        boolean isTenant = user != null && user.isTenant();
+        double farmSizeHa = user != null ? user.getFarmSize() * HECTARES_PER_ACRE : 0;
+
+        // The district named in the farm location, else where the user last checked the weather
+        int district = DistrictRoutes.findInText(user != null ? user.getFarmLocation() : null);
+        String districtName = district >= 0 ? DistrictRoutes.DISTRICTS[district]
+                : new WeatherService(context).getHomeDistrict();
+        return new SchemeEligibilityIndex.Profile(farmSizeHa, crops, districtName, isOrganic, isTenant);
+    }
+
+    private SchemeEligibilityIndex getIndex() {
+        SchemeEligibilityIndex current = eligibilityIndex;
+        if (current == null) {
+            synchronized (SchemeService.class) {
+                current = eligibilityIndex;
+                if (current == null) {
+                    contentSyncDao.seedOnce(ContentSyncService.DATASET_SCHEMES,
+                            () -> schemeDao.upsertSchemes(getSeedSchemes()));
+                    current = new SchemeEligibilityIndex(schemeDao.getAllSchemes());
+                    eligibilityIndex = current;
+                    Log.d(TAG, "Compiled eligibility for " + current.size() + " schemes");
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Bundled sample schemes for Kerala farmers
+     * In production, replace this with the catalog from the content server
+     */
+    private List<GovernmentScheme> getSeedSchemes() {
+        List<GovernmentScheme> schemes = new ArrayList<>();
+
+        GovernmentScheme scheme1 = createScheme(1, "Pradhan Mantri Kisan Samman Nidhi (PM-KISAN)",
+                "Financial support of Rs. 6000 per year to small and marginal farmers",
+                "Small and marginal farmers with cultivable land up to 2 hectares",
+                "Rs. 2000 every 4 months (Total Rs. 6000/year)",
+                "Online application through PM-KISAN portal or local authorities",
+                "Toll-free: 155261, Website: pmkisan.gov.in", "Direct Benefit Transfer");
+        scheme1.setMaxFarmSizeHa(2);
+        // Paid to landholders of record
+        scheme1.setTenancy(GovernmentScheme.TENANCY_OWNERS_ONLY);
+        schemes.add(scheme1);
+
+        schemes.add(createScheme(2, "Kerala State Farming Equipment Subsidy",
+                "Subsidy for purchasing modern farming equipment and machinery",
+                "All registered farmers in Kerala",
+                "Up to 50% subsidy on approved farming equipment",
+                "Apply through Kerala Agriculture Department",
+                "Kerala Agriculture Department: 0471-2301170", "Equipment Subsidy"));
+
+        GovernmentScheme scheme3 = createScheme(3, "Organic Farming Promotion Scheme",
+                "Support for organic farming certification and practices",
+                "Farmers willing to adopt organic farming methods",
+                "Certification cost support + Rs. 20,000/hectare for 3 years",
+                "Through authorized organic certification agencies",
+                "Spices Board: 0484-2333610", "Organic Farming");
+        scheme3.setOrganicRequired(true);
+        schemes.add(scheme3);
+
+        schemes.add(createScheme(4, "Crop Insurance Scheme (PMFBY)",
+                "Insurance coverage for crop loss due to natural calamities",
+                "All farmers including tenant farmers and sharecroppers",
+                "Insurance coverage up to sum insured amount",
+                "Through banks or agriculture department",
+                "Agriculture Insurance Company: 1800-180-1551", "Insurance"));
+
+        GovernmentScheme scheme5 = createScheme(5, "Kerala Coconut Development Board Subsidy",
+                "Support for coconut farming and processing activities",
+                "Coconut farmers and coconut farmer producer organizations",
+                "Various subsidies for planting, processing, and marketing",
+                "Through Coconut Development Board offices",
+                "Coconut Development Board: 0484-2377266", "Crop Specific");
+        scheme5.setEligibleCrops("Coconut");
+        schemes.add(scheme5);
+
+        return schemes;
+    }
+
+    private GovernmentScheme createScheme(int id, String name, String description, String eligibility,
+                                          String benefit, String applicationProcess, String contactInfo,
+                                          String category) {
+        GovernmentScheme scheme = new GovernmentScheme();
+        scheme.setId(id);
+        scheme.setName(name);
+        scheme.setDescription(description);
+        scheme.setEligibility(eligibility);
+        scheme.setBenefit(benefit);
+        scheme.setApplicationProcess(applicationProcess);
+        scheme.setContactInfo(contactInfo);
+        scheme.setCategory(category);
+        return scheme;
+    }
+}
@@ -4,6 +4,7 @@ import android.content.Context;
 import android.util.Log;
 import com.keralafarmers.agrinextai.database.AppDatabase;
 import com.keralafarmers.agrinextai.database.HarvestCardDao;
+import com.keralafarmers.agrinextai.database.HarvestCardQuery;
 import com.keralafarmers.agrinextai.models.HarvestCard;
 import java.util.List;
 import java.util.UUID;
@@ -45,6 +46,29 @@ public class TraceabilityService {
         });
     }
 
+    /**
+     * Browse harvest cards with any combination of facet filters
+     * Returns one page of summaries plus per-facet counts from a single grouped query.
+     */
+    public void browseHarvestCards(HarvestCardQuery query, int offset, int limit, FacetedHarvestCallback callback) {
+        executorService.execute(() -> {
+            try {
+                List<HarvestCardDao.HarvestCardSummary> page =
+                        harvestCardDao.queryHarvestCardSummaries(query.toPageQuery(offset, limit));
+                HarvestCardQuery.FacetCounts facets = new HarvestCardQuery.FacetCounts(query,
+                        harvestCardDao.queryHarvestFacetRows(query.toFacetQuery()));
+                if (callback != null) {
+                    callback.onSuccess(page, facets);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error browsing harvest cards", e);
+                if (callback != null) {
+                    callback.onError("Failed to browse harvest cards");
+                }
+            }
+        });
+    }
+
     /**
      * Save new harvest card
      */
@@ -108,6 +132,11 @@ public class TraceabilityService {
         void onError(String error);
     }
     
+    public interface FacetedHarvestCallback {
+        void onSuccess(List<HarvestCardDao.HarvestCardSummary> page, HarvestCardQuery.FacetCounts facets);
+        void onError(String error);
+    }
+    
     public interface SaveHarvestCardCallback {
         void onSuccess(HarvestCard savedCard);
         void onError(String error);
@@ -0,0 +1,202 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.Weather;
+
+/**
+ * Rolling multi-day weather features for one location, updated one day at a time
+ * A 7-day ring holds each day's inputs and running sums are adjusted as days
+ * enter, are revised or fall out, so each update is O(1). Revising a day
+ * already in the window (e.g. a forecast replaced by observations) swaps
+ * that day's contribution instead of appending.
+ */
+public final class WeatherFeatures {
+
+    public static final int WINDOW_DAYS = 7;
+    public static final int SHORT_WINDOW_DAYS = 3;
+
+    // IMD definition of a rainy day
+    public static final double RAINY_DAY_MM = 2.5;
+    public static final int HUMID_DAY_PERCENT = 85;
+
+    private final int[] days = new int[WINDOW_DAYS];
+    private final boolean[] present = new boolean[WINDOW_DAYS];
+    private final double[] rainfall = new double[WINDOW_DAYS];
+    private final double[] wetHours = new double[WINDOW_DAYS];
+    private final double[] meanTemperature = new double[WINDOW_DAYS];
+    private final boolean[] humid = new boolean[WINDOW_DAYS];
+
+    private int lastDay = Integer.MIN_VALUE;
+    private int dayCount;
+    private double rainfallSum;
+    private int humidDays;
+
+    /**
+     * Add or revise one day
+     * @param weather Daily weather row
+     * @return False if the day is older than the window and was ignored
+     */
+    public boolean observe(Weather weather) {
+        int day = weather.getEpochDay();
+        if (lastDay != Integer.MIN_VALUE && day <= lastDay - WINDOW_DAYS) {
+            return false;
+        }
+        if (day > lastDay) {
+            // Days skipped since the last update leave the window empty-handed
+            int start = lastDay == Integer.MIN_VALUE ? day : Math.max(lastDay + 1, day - WINDOW_DAYS + 1);
+            for (int d = start; d <= day; d++) {
+                evict(slot(d));
+            }
+            lastDay = day;
+        }
+        int slot = slot(day);
+        evict(slot);
+
+        double temperature = weather.getMinTemperature() != 0 || weather.getMaxTemperature() != 0
+                ? (weather.getMinTemperature() + weather.getMaxTemperature()) / 2
+                : weather.getTemperature();
+        days[slot] = day;
+        present[slot] = true;
+        rainfall[slot] = weather.getRainfall();
+        wetHours[slot] = estimateLeafWetnessHours(weather.getHumidity(), weather.getRainfall());
+        meanTemperature[slot] = temperature;
+        humid[slot] = weather.getHumidity() >= HUMID_DAY_PERCENT;
+
+        dayCount++;
+        rainfallSum += rainfall[slot];
+        if (humid[slot]) {
+            humidDays++;
+        }
+        return true;
+    }
+
+    /**
+     * Copy for projecting forecast days without touching observed state
+     */
+    public WeatherFeatures copy() {
+        WeatherFeatures copy = new WeatherFeatures();
+        System.arraycopy(days, 0, copy.days, 0, WINDOW_DAYS);
+        System.arraycopy(present, 0, copy.present, 0, WINDOW_DAYS);
+        System.arraycopy(rainfall, 0, copy.rainfall, 0, WINDOW_DAYS);
+        System.arraycopy(wetHours, 0, copy.wetHours, 0, WINDOW_DAYS);
+        System.arraycopy(meanTemperature, 0, copy.meanTemperature, 0, WINDOW_DAYS);
+        System.arraycopy(humid, 0, copy.humid, 0, WINDOW_DAYS);
+        copy.lastDay = lastDay;
+        copy.dayCount = dayCount;
+        copy.rainfallSum = rainfallSum;
+        copy.humidDays = humidDays;
+        return copy;
+    }
+
+    public int getLastDay() {
+        return lastDay;
+    }
+
+    /**
+     * @return Days with data in the 7-day window
+     */
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    /**
+     * @return Rainfall over the 7-day window, mm
+     */
+    public double getRainfall7Days() {
+        return rainfallSum;
+    }
+
+    /**
+     * @return Days with relative humidity of 85% or more in the 7-day window
+     */
+    public int getHumidDays() {
+        return humidDays;
+    }
+
+    /**
+     * @return Rainy days in a row ending at the last day
+     */
+    public int getConsecutiveRainDays() {
+        int run = 0;
+        for (int d = lastDay; d > lastDay - WINDOW_DAYS; d--) {
+            int slot = slot(d);
+            if (!present[slot] || days[slot] != d || rainfall[slot] < RAINY_DAY_MM) {
+                break;
+            }
+            run++;
+        }
+        return run;
+    }
+
+    /**
+     * @return Estimated leaf-wetness hours over the last 3 days
+     */
+    public double getLeafWetnessHours3Days() {
+        double sum = 0;
+        for (int d = lastDay; d > lastDay - SHORT_WINDOW_DAYS; d--) {
+            int slot = slot(d);
+            if (present[slot] && days[slot] == d) {
+                sum += wetHours[slot];
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return Mean daily temperature over the last 3 days, or NaN with no data
+     */
+    public double getMeanTemperature3Days() {
+        double sum = 0;
+        int count = 0;
+        for (int d = lastDay; d > lastDay - SHORT_WINDOW_DAYS; d--) {
+            int slot = slot(d);
+            if (present[slot] && days[slot] == d) {
+                sum += meanTemperature[slot];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    /**
+     * Leaf wetness from daily humidity and rain
+     * Daily rows carry no hourly humidity, so this uses the usual RH-threshold
+     * proxy: very humid days keep foliage wet through night and morning, and
+     * rain adds wet hours on top.
+     */
+    static double estimateLeafWetnessHours(int humidity, double rainfallMm) {
+        double hours;
+        if (humidity >= 95) {
+            hours = 12;
+        } else if (humidity >= 90) {
+            hours = 10;
+        } else if (humidity >= 85) {
+            hours = 7;
+        } else if (humidity >= 80) {
+            hours = 4;
+        } else {
+            hours = 0;
+        }
+        if (rainfallMm >= RAINY_DAY_MM) {
+            hours += 6;
+        } else if (rainfallMm > 0) {
+            hours += 2;
+        }
+        return Math.min(24, hours);
+    }
+
+    private void evict(int slot) {
+        if (!present[slot]) {
+            return;
+        }
+        present[slot] = false;
+        dayCount--;
+        rainfallSum -= rainfall[slot];
+        if (humid[slot]) {
+            humidDays--;
+        }
+    }
+
+    private static int slot(int day) {
+        return Math.floorMod(day, WINDOW_DAYS);
+    }
+}
@@ -1,33 +1,62 @@
 package com.keralafarmers.agrinextai.services;
 
 import android.content.Context;
+import android.content.SharedPreferences;
 import android.os.AsyncTask;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import com.keralafarmers.agrinextai.database.AppDatabase;
 import com.keralafarmers.agrinextai.database.WeatherDao;
 import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.models.WeatherCell;
+import com.keralafarmers.agrinextai.network.ApiClient;
+import com.keralafarmers.agrinextai.network.FeedResult;
+import com.keralafarmers.agrinextai.network.WeatherParser;
+import com.keralafarmers.agrinextai.utils.GeoHash;
+import com.keralafarmers.agrinextai.utils.SingleFlight;
 
-import java.text.SimpleDateFormat;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.List;
-import java.util.Locale;
 import java.util.Random;
 
 /**
  * Weather Service for handling weather data operations
- * Note: This is a mock implementation. In production, integrate with actual weather APIs like OpenWeatherMap
+ * Fetches from the feed server when ApiClient is configured and caches only
+ * what the feed returned; feed failures are reported, never papered over.
+ * Without a server, generated days are served for display but never stored.
  */
 public class WeatherService {
     
+    private static final String TAG = "WeatherService";
+    
+    // Number of farm locations whose weather is kept cached at once
+    private static final int MAX_CACHED_CELLS = 8;
+    
+    // Concurrent window loads for the same cell and day share one fetch and DB write
+    private static final SingleFlight<String, List<Weather>> WINDOW_LOADS = new SingleFlight<>();
+    
+    private static final String PREF_NAME = "weather_prefs";
+    private static final String KEY_LAST_LATITUDE = "last_latitude";
+    private static final String KEY_LAST_LONGITUDE = "last_longitude";
+    private static final double DEFAULT_LATITUDE = 10.8505; // Kerala
+    private static final double DEFAULT_LONGITUDE = 76.2711;
+    
     private Context context;
     private WeatherDao weatherDao;
-    private SimpleDateFormat dateFormat;
+    private DiseaseRiskService diseaseRiskService;
+    private SharedPreferences prefs;
     private Random random;
     
     public WeatherService(Context context) {
         this.context = context;
         this.weatherDao = AppDatabase.getInstance(context).weatherDao();
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
+        this.diseaseRiskService = new DiseaseRiskService(context);
+        this.prefs = context.getSharedPreferences(PREF_NAME, Context.MODE_PRIVATE);
         this.random = new Random();
     }
     
@@ -47,71 +76,253 @@ public class WeatherService {
         void onError(String error);
     }
     
+    /**
+     * Interface for chartable series callbacks
+     */
+    public interface SeriesCallback {
+        void onSuccess(float[] epochDays, float[] values);
+        void onError(String error);
+    }
+    
     /**
      * Get weather data for past 5 days and future 5 days
+     * Two-phase like loadWeather: stale cached days are delivered, then
+     * delivered again after the refresh, so onSuccess may run twice.
      * @param latitude User's latitude
      * @param longitude User's longitude
-     * @param callback Weather callback
+     * @param callback Weather callback, called once or twice
      */
     public void getWeatherData(double latitude, double longitude, WeatherCallback callback) {
-        new AsyncTask<Void, Void, String>() {
-            private List<Weather> weatherList;
+        loadWeather(latitude, longitude, new CachePolicy.Callback<List<Weather>>() {
+            @Override
+            public void onData(List<Weather> weatherList, long ageMillis, boolean refreshing, boolean stale) {
+                callback.onSuccess(weatherList);
+            }
             
             @Override
-            protected String doInBackground(Void... voids) {
-                try {
-                    weatherList = new ArrayList<>();
-                    Calendar calendar = Calendar.getInstance();
-                    
-                    // Get past 5 days weather
-                    for (int i = 5; i >= 1; i--) {
-                        calendar.setTimeInMillis(System.currentTimeMillis());
-                        calendar.add(Calendar.DAY_OF_YEAR, -i);
-                        String date = dateFormat.format(calendar.getTime());
-                        
-                        Weather weather = weatherDao.getWeatherByDate(date);
-                        if (weather == null) {
-                            weather = generateMockWeatherData(date, latitude, longitude, true);
-                            weatherDao.insertWeather(weather);
+            public void onError(String error) {
+                callback.onError(error);
+            }
+        });
+    }
+    
+    /**
+     * Load the weather window under the WEATHER_FORECAST stale-while-revalidate policy
+     * Cached days are delivered at once; stale ones are delivered again after a
+     * refresh, the first time with refreshing set (see CachePolicy.Callback).
+     * @param latitude User's latitude
+     * @param longitude User's longitude
+     * @param callback Receives the window with its age, on the main thread
+     */
+    public void loadWeather(double latitude, double longitude, CachePolicy.Callback<List<Weather>> callback) {
+        String cell = GeoHash.encode(latitude, longitude, GeoHash.WEATHER_CELL_PRECISION);
+        Handler mainHandler = new Handler(Looper.getMainLooper());
+        CachePolicy.WEATHER_FORECAST.load(context, cell, AsyncTask.THREAD_POOL_EXECUTOR,
+                new CachePolicy.Source<List<Weather>>() {
+                    @Override
+                    public List<Weather> readCached() {
+                        if (!ApiClient.isConfigured(context)) {
+                            return null; // offline days are generated per load, never cached
+                        }
+                        int today = EpochDay.today();
+                        List<Weather> cached = weatherDao.getWeatherByDateRange(cell, today - 5, today + 5);
+                        if (cached.size() < 11) {
+                            return null; // incomplete window, fill it with a full load
                         }
-                        weatherList.add(weather);
+                        rememberLocation(latitude, longitude);
+                        useCell(latitude, longitude);
+                        return cached;
                     }
                     
-                    // Get current day weather
-                    calendar.setTimeInMillis(System.currentTimeMillis());
-                    String currentDate = dateFormat.format(calendar.getTime());
-                    Weather currentWeather = weatherDao.getWeatherByDate(currentDate);
-                    if (currentWeather == null) {
-                        currentWeather = generateMockWeatherData(currentDate, latitude, longitude, false);
-                        weatherDao.insertWeather(currentWeather);
+                    @Override
+                    public List<Weather> fetch() throws IOException {
+                        return loadWeatherWindow(latitude, longitude);
+                    }
+                },
+                new CachePolicy.Callback<List<Weather>>() {
+                    @Override
+                    public void onData(List<Weather> data, long ageMillis, boolean refreshing, boolean stale) {
+                        mainHandler.post(() -> callback.onData(data, ageMillis, refreshing, stale));
                     }
-                    weatherList.add(currentWeather);
                     
-                    // Get future 5 days weather
-                    for (int i = 1; i <= 5; i++) {
-                        calendar.setTimeInMillis(System.currentTimeMillis());
-                        calendar.add(Calendar.DAY_OF_YEAR, i);
-                        String date = dateFormat.format(calendar.getTime());
-                        
-                        Weather weather = weatherDao.getWeatherByDate(date);
-                        if (weather == null) {
-                            weather = generateMockWeatherData(date, latitude, longitude, false);
-                            weatherDao.insertWeather(weather);
-                        }
-                        weatherList.add(weather);
+                    @Override
+                    public void onError(String error) {
+                        mainHandler.post(() -> callback.onError("Error loading weather data: " + error));
                     }
+                });
+    }
+    
+    /**
+     * Make the next load for a location fetch before serving cached days
+     * @param latitude Latitude
+     * @param longitude Longitude
+     */
+    public void invalidateWeather(double latitude, double longitude) {
+        CachePolicy.WEATHER_FORECAST.invalidate(context,
+                GeoHash.encode(latitude, longitude, GeoHash.WEATHER_CELL_PRECISION));
+    }
+    
+    /**
+     * Load the past 5 days, today and the next 5 days for a location
+     * Blocking; call from a background thread (AsyncTask or WorkManager worker)
+     * @param latitude Latitude
+     * @param longitude Longitude
+     * @return Weather list ordered by day; days the feed does not cover are missing
+     * @throws IOException If the feed server is configured but could not be read
+     */
+    public List<Weather> loadWeatherWindow(double latitude, double longitude) throws IOException {
+        rememberLocation(latitude, longitude);
+        return loadFarmWeatherWindow(latitude, longitude);
+    }
+    
+    /**
+     * Load the weather window for a farm without making it the user's last viewed location
+     * Blocking; used by background batches that walk many farms
+     * @param latitude Latitude
+     * @param longitude Longitude
+     * @return Weather list ordered by day; offline, generated days marked simulated
+     * @throws IOException If the feed server is configured but could not be read
+     */
+    public List<Weather> loadFarmWeatherWindow(double latitude, double longitude) throws IOException {
+        String cell = useCell(latitude, longitude);
+        int today = EpochDay.today();
+        try {
+            return WINDOW_LOADS.run(cell + ":" + today, () -> {
+                try {
+                    return loadCellWindow(cell, today, latitude, longitude);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    private List<Weather> loadCellWindow(String cell, int today, double latitude, double longitude)
+            throws IOException {
+        ApiClient apiClient = ApiClient.getInstance(context);
+        if (apiClient == null) {
+            // Offline mode: generated days are for display only, so nothing is stored or scored
+            List<Weather> weatherList = new ArrayList<>();
+            for (int day = today - 5; day <= today + 5; day++) {
+                weatherList.add(generateMockWeatherData(cell, day, latitude, longitude, day < today));
+            }
+            return weatherList;
+        }
+        
+        // Past 5 days, current day and future 5 days from the location's cell
+        List<Weather> weatherList = syncWeatherWindow(apiClient, cell, today - 5, today + 5);
+        try {
+            diseaseRiskService.onWeatherWindow(cell, weatherList);
+        } catch (Exception e) {
+            // Risk scoring must never fail a weather load
+            Log.e(TAG, "Error scoring disease risk", e);
+        }
+        return weatherList;
+    }
+    
+    /**
+     * Pull a cell's day range from the feed server into the cache
+     * A 304 keeps the cached rows, unless the range is not fully cached (rows
+     * evicted since, or a feed that skips days); then the unchanged body is
+     * parsed again from the HTTP cache to restore whatever it holds.
+     * @param apiClient Configured feed client
+     * @param cell Geohash cell
+     * @param startDay First day (inclusive)
+     * @param endDay Last day (inclusive)
+     * @return Cached rows for the range, ordered by day
+     * @throws IOException If the feed could not be read; the cache is left as is
+     */
+    private List<Weather> syncWeatherWindow(ApiClient apiClient, String cell, int startDay, int endDay)
+            throws IOException {
+        double[] center = GeoHash.decodeCenter(cell);
+        WeatherParser parser = new WeatherParser(cell, center[0], center[1]);
+        FeedResult<Weather> result = apiClient.fetch(
+                apiClient.getFeedApi().getDailyWeather(cell, startDay, endDay), parser);
+        if (!result.isModified() && weatherDao.getWeatherByDateRange(cell, startDay, endDay).size()
+                < endDay - startDay + 1) {
+            result = apiClient.fetchFull(apiClient.getFeedApi().getDailyWeather(cell, startDay, endDay), parser);
+        }
+        if (result.isModified()) {
+            weatherDao.replaceWeatherForCellRange(cell, startDay, endDay, result.getItems());
+        }
+        CachePolicy.WEATHER_FORECAST.markFetched(context, cell);
+        return weatherDao.getWeatherByDateRange(cell, startDay, endDay);
+    }
+    
+    /**
+     * Refresh the weather window for the last location the user viewed
+     * Blocking; used by the background sync
+     * @return Number of days in the refreshed window; 0 offline, where nothing is cached
+     * @throws IOException If the feed could not be read, so the sync can retry
+     */
+    public int refreshLastLocation() throws IOException {
+        if (!ApiClient.isConfigured(context)) {
+            return 0;
+        }
+        double[] location = getLastLocation();
+        return loadWeatherWindow(location[0], location[1]).size();
+    }
+    
+    /**
+     * Get the last location the user viewed weather for
+     * @return {latitude, longitude}, central Kerala if none yet
+     */
+    public double[] getLastLocation() {
+        double latitude = Double.longBitsToDouble(prefs.getLong(KEY_LAST_LATITUDE,
+                Double.doubleToLongBits(DEFAULT_LATITUDE)));
+        double longitude = Double.longBitsToDouble(prefs.getLong(KEY_LAST_LONGITUDE,
+                Double.doubleToLongBits(DEFAULT_LONGITUDE)));
+        return new double[]{latitude, longitude};
+    }
+    
+    /**
+     * District of the last location the user viewed weather for
+     * @return District name as in DistrictRoutes.DISTRICTS, or null if unknown
+     */
+    public String getHomeDistrict() {
+        if (!prefs.contains(KEY_LAST_LATITUDE)) {
+            return null;
+        }
+        double[] location = getLastLocation();
+        return DistrictLocator.findDistrict(context, location[0], location[1]);
+    }
+    
+    private void rememberLocation(double latitude, double longitude) {
+        prefs.edit()
+                .putLong(KEY_LAST_LATITUDE, Double.doubleToLongBits(latitude))
+                .putLong(KEY_LAST_LONGITUDE, Double.doubleToLongBits(longitude))
+                .apply();
+    }
+    
+    /**
+     * Get current weather data
+     * @param latitude User's latitude
+     * @param longitude User's longitude
+     * @param callback Single weather callback
+     */
+    public void getCurrentWeather(double latitude, double longitude, SingleWeatherCallback callback) {
+        new AsyncTask<Void, Void, String>() {
+            private Weather currentWeather;
+            
+            @Override
+            protected String doInBackground(Void... voids) {
+                try {
+                    String cell = useCell(latitude, longitude);
+                    currentWeather = getDayWeather(cell, EpochDay.today(), latitude, longitude);
                     
                     return "SUCCESS";
                     
                 } catch (Exception e) {
-                    return "Error loading weather data: " + e.getMessage();
+                    return "Error loading current weather: " + e.getMessage();
                 }
             }
             
             @Override
             protected void onPostExecute(String result) {
                 if ("SUCCESS".equals(result)) {
-                    callback.onSuccess(weatherList);
+                    callback.onSuccess(currentWeather);
                 } else {
                     callback.onError(result);
                 }
@@ -120,37 +331,39 @@ public class WeatherService {
     }
     
     /**
-     * Get current weather data
-     * @param latitude User's latitude
-     * @param longitude User's longitude
-     * @param callback Single weather callback
+     * Get the daily temperatures cached for a location's cell, for charting
+     * @param latitude Latitude
+     * @param longitude Longitude
+     * @param days Number of past days to include (the forecast days are always included)
+     * @param callback Series callback, on the main thread
      */
-    public void getCurrentWeather(double latitude, double longitude, SingleWeatherCallback callback) {
+    public void getTemperatureSeries(double latitude, double longitude, int days, SeriesCallback callback) {
         new AsyncTask<Void, Void, String>() {
-            private Weather currentWeather;
+            private float[] epochDays;
+            private float[] temperatures;
             
             @Override
             protected String doInBackground(Void... voids) {
                 try {
-                    String currentDate = dateFormat.format(System.currentTimeMillis());
-                    currentWeather = weatherDao.getWeatherByDate(currentDate);
-                    
-                    if (currentWeather == null) {
-                        currentWeather = generateMockWeatherData(currentDate, latitude, longitude, false);
-                        weatherDao.insertWeather(currentWeather);
+                    String cell = GeoHash.encode(latitude, longitude, GeoHash.WEATHER_CELL_PRECISION);
+                    int today = EpochDay.today();
+                    List<Weather> rows = weatherDao.getWeatherByDateRange(cell, today - days, today + 5);
+                    epochDays = new float[rows.size()];
+                    temperatures = new float[rows.size()];
+                    for (int i = 0; i < rows.size(); i++) {
+                        epochDays[i] = rows.get(i).getEpochDay();
+                        temperatures[i] = (float) rows.get(i).getTemperature();
                     }
-                    
                     return "SUCCESS";
-                    
                 } catch (Exception e) {
-                    return "Error loading current weather: " + e.getMessage();
+                    return "Error loading temperature history: " + e.getMessage();
                 }
             }
             
             @Override
             protected void onPostExecute(String result) {
                 if ("SUCCESS".equals(result)) {
-                    callback.onSuccess(currentWeather);
+                    callback.onSuccess(epochDays, temperatures);
                 } else {
                     callback.onError(result);
                 }
@@ -158,21 +371,56 @@ public class WeatherService {
         }.execute();
     }
     
+    /**
+     * Mark the geohash cell for a location as used and evict cells that fell out of use
+     * Runs on a background thread
+     * @param latitude Latitude
+     * @param longitude Longitude
+     * @return Geohash cell of the location
+     */
+    private String useCell(double latitude, double longitude) {
+        String cell = GeoHash.encode(latitude, longitude, GeoHash.WEATHER_CELL_PRECISION);
+        weatherDao.touchCell(new WeatherCell(cell, System.currentTimeMillis()));
+        weatherDao.evictLeastRecentCells(MAX_CACHED_CELLS);
+        return cell;
+    }
+    
+    /**
+     * Get cached weather for a cell and date within the current window, loading the window if missing
+     * Runs on a background thread
+     * @throws IOException If the feed could not be read or has no row for the day
+     */
+    private Weather getDayWeather(String cell, int epochDay, double latitude, double longitude) throws IOException {
+        Weather weather = ApiClient.isConfigured(context) ? weatherDao.getWeatherByCellAndDate(cell, epochDay) : null;
+        if (weather != null) {
+            return weather;
+        }
+        for (Weather day : loadFarmWeatherWindow(latitude, longitude)) {
+            if (day.getEpochDay() == epochDay) {
+                return day;
+            }
+        }
+        throw new IOException("Weather feed has no data for day " + epochDay);
+    }
+    
     /**
      * Generate mock weather data for demonstration
-     * In production, replace this with actual API calls
-     * @param date Date for weather data
+     * Offline mode only; the result is marked simulated and must not be stored
+     * @param cell Geohash cell
+     * @param epochDay Day for weather data (see EpochDay)
      * @param latitude Latitude
      * @param longitude Longitude
      * @param isPast Whether this is past data
      * @return Mock weather object
      */
-    private Weather generateMockWeatherData(String date, double latitude, double longitude, boolean isPast) {
+    private Weather generateMockWeatherData(String cell, int epochDay, double latitude, double longitude, boolean isPast) {
         Weather weather = new Weather();
-        weather.setDate(date);
+        weather.setGeohash(cell);
+        weather.setSimulated(true);
+        weather.setEpochDay(epochDay);
         weather.setLatitude(latitude);
         weather.setLongitude(longitude);
-        weather.setLocation("Kerala, India");
+        weather.setLocation(DistrictLocator.describe(context, latitude, longitude, "Kerala, India"));
         
         // Generate realistic weather data for Kerala
         String[] conditions = {"sunny", "partly_cloudy", "cloudy", "rainy", "thunderstorm"};
@@ -272,10 +520,28 @@ public class WeatherService {
         new AsyncTask<Void, Void, Void>() {
             @Override
             protected Void doInBackground(Void... voids) {
-                long thirtyDaysAgo = System.currentTimeMillis() - (30 * 24 * 60 * 60 * 1000L);
-                weatherDao.deleteOldWeatherData(thirtyDaysAgo);
+                deleteOldWeatherData();
                 return null;
             }
         }.execute();
     }
+    
+    /**
+     * Delete weather data older than 30 days
+     * Blocking; call from a background thread
+     * @return Number of rows deleted
+     */
+    public int deleteOldWeatherData() {
+        long thirtyDaysAgo = System.currentTimeMillis() - (30 * 24 * 60 * 60 * 1000L);
+        diseaseRiskService.deleteOldScores();
+        return weatherDao.deleteOldWeatherData(thirtyDaysAgo);
+    }
+    
+    /**
+     * Get the disease risk service fed by this service's weather loads
+     * @return DiseaseRiskService instance
+     */
+    public DiseaseRiskService getDiseaseRiskService() {
+        return diseaseRiskService;
+    }
 }
\ No newline at end of file
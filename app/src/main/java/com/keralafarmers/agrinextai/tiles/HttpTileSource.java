@@ -0,0 +1,76 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tiles from an XYZ tile server
+ * The URL template uses {z}, {x} and {y}, e.g.
+ * "https://tiles.example.org/satellite/{z}/{x}/{y}.jpg". Tiles go straight
+ * into MbTilesStore, so OkHttp's own cache is not used.
+ */
+public class HttpTileSource implements TileSource {
+
+    private static final long TIMEOUT_SECONDS = 20;
+    // Tile servers' usage policies ask clients to identify themselves
+    private static final String USER_AGENT = "AgriNextAI-Android";
+
+    private static final OkHttpClient CLIENT = new OkHttpClient.Builder()
+            .connectTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .readTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .build();
+
+    private final String name;
+    private final String urlTemplate;
+    private final int minZoom;
+    private final int maxZoom;
+
+    public HttpTileSource(String name, String urlTemplate, int minZoom, int maxZoom) {
+        this.name = name;
+        this.urlTemplate = urlTemplate;
+        this.minZoom = minZoom;
+        this.maxZoom = maxZoom;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMinZoom() {
+        return minZoom;
+    }
+
+    @Override
+    public int getMaxZoom() {
+        return maxZoom;
+    }
+
+    @Override
+    public byte[] fetchTile(int zoom, int x, int y) throws IOException {
+        String url = urlTemplate
+                .replace("{z}", Integer.toString(zoom))
+                .replace("{x}", Integer.toString(x))
+                .replace("{y}", Integer.toString(y));
+        Request request = new Request.Builder()
+                .url(url)
+                .header("User-Agent", USER_AGENT)
+                .build();
+        try (Response response = CLIENT.newCall(request).execute()) {
+            if (response.code() == 404 || response.code() == 204) {
+                return null;
+            }
+            ResponseBody body = response.body();
+            if (!response.isSuccessful() || body == null) {
+                throw new IOException("HTTP " + response.code() + " for tile " + zoom + "/" + x + "/" + y);
+            }
+            return body.bytes();
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.Log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Size-bounded basemap tile store in MBTiles 1.3 format
+ * The file is a plain SQLite database with the standard metadata and tiles
+ * tables, so it can be inspected or side-loaded with any MBTiles tool. An
+ * extra tile_usage table records each tile's size and last access; when the
+ * store grows past its limit the least recently used tiles are evicted down
+ * to 90% of it. Access times from reads are buffered and written in batches
+ * so panning the map does not turn every tile read into a write.
+ * Callers that use the store from other threads retain it first; close()
+ * then waits for the last of them to release it.
+ */
+public class MbTilesStore implements Closeable {
+    private static final String TAG = "MbTilesStore";
+
+    private static final int TOUCH_BATCH = 64;
+    private static final int EVICT_BATCH = 64;
+    private static final double EVICT_TARGET = 0.9;
+
+    private final SQLiteDatabase db;
+    private final long maxBytes;
+    private long totalBytes; // guarded by this
+    // XYZ tile key -> last read time, not yet written to tile_usage
+    private final Map<Long, Long> pendingTouches = new ConcurrentHashMap<>();
+    private int users;              // guarded by this
+    private boolean closeRequested; // guarded by this
+    private boolean closed;         // guarded by this
+
+    /**
+     * Open or create a store
+     * @param file MBTiles file
+     * @param maxBytes Upper bound on stored tile data
+     */
+    public MbTilesStore(File file, long maxBytes) {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            Log.w(TAG, "Could not create " + parent);
+        }
+        this.db = SQLiteDatabase.openOrCreateDatabase(file, null);
+        this.db.enableWriteAheadLogging();
+        this.maxBytes = maxBytes;
+        createSchema();
+        this.totalBytes = DatabaseUtils.longForQuery(db, "SELECT COALESCE(SUM(size), 0) FROM tile_usage", null);
+    }
+
+    private void createSchema() {
+        db.execSQL("CREATE TABLE IF NOT EXISTS metadata (name TEXT, value TEXT)");
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS name ON metadata (name)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS tiles (zoom_level INTEGER, tile_column INTEGER, " +
+                "tile_row INTEGER, tile_data BLOB)");
+        db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS tile_index ON tiles (zoom_level, tile_column, tile_row)");
+        db.execSQL("CREATE TABLE IF NOT EXISTS tile_usage (zoom_level INTEGER NOT NULL, " +
+                "tile_column INTEGER NOT NULL, tile_row INTEGER NOT NULL, size INTEGER NOT NULL, " +
+                "last_access INTEGER NOT NULL, PRIMARY KEY(zoom_level, tile_column, tile_row))");
+        db.execSQL("CREATE INDEX IF NOT EXISTS tile_usage_last_access ON tile_usage (last_access)");
+    }
+
+    /**
+     * Set a metadata value, e.g. "name", "format", "minzoom"
+     */
+    public void setMetadata(String name, String value) {
+        ContentValues values = new ContentValues();
+        values.put("name", name);
+        values.put("value", value);
+        db.insertWithOnConflict("metadata", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * @return Metadata value, or null
+     */
+    public String getMetadata(String name) {
+        try (Cursor cursor = db.rawQuery("SELECT value FROM metadata WHERE name = ?", new String[]{name})) {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        }
+    }
+
+    /**
+     * Read a tile and mark it recently used
+     * @param zoom Zoom level
+     * @param x XYZ tile column
+     * @param y XYZ tile row
+     * @return Encoded tile, or null if not stored
+     */
+    public byte[] getTile(int zoom, int x, int y) {
+        byte[] data;
+        try (Cursor cursor = db.rawQuery("SELECT tile_data FROM tiles " +
+                        "WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?",
+                new String[]{Integer.toString(zoom), Integer.toString(x), Integer.toString(tmsRow(zoom, y))})) {
+            data = cursor.moveToFirst() ? cursor.getBlob(0) : null;
+        }
+        if (data != null) {
+            pendingTouches.put(TileMath.key(zoom, x, y), System.currentTimeMillis());
+            if (pendingTouches.size() >= TOUCH_BATCH) {
+                flushTouches();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return True if a tile is stored, without marking it used
+     */
+    public boolean hasTile(int zoom, int x, int y) {
+        return DatabaseUtils.longForQuery(db, "SELECT COUNT(*) FROM tile_usage " +
+                        "WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?",
+                new String[]{Integer.toString(zoom), Integer.toString(x), Integer.toString(tmsRow(zoom, y))}) > 0;
+    }
+
+    /**
+     * Store a tile, evicting least recently used tiles if the store is full
+     */
+    public synchronized void putTile(int zoom, int x, int y, byte[] data) {
+        int row = tmsRow(zoom, y);
+        String[] address = {Integer.toString(zoom), Integer.toString(x), Integer.toString(row)};
+        db.beginTransaction();
+        try {
+            long previous = DatabaseUtils.longForQuery(db, "SELECT COALESCE(MAX(size), 0) FROM tile_usage " +
+                    "WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?", address);
+            ContentValues tile = new ContentValues();
+            tile.put("zoom_level", zoom);
+            tile.put("tile_column", x);
+            tile.put("tile_row", row);
+            tile.put("tile_data", data);
+            db.insertWithOnConflict("tiles", null, tile, SQLiteDatabase.CONFLICT_REPLACE);
+            ContentValues usage = new ContentValues();
+            usage.put("zoom_level", zoom);
+            usage.put("tile_column", x);
+            usage.put("tile_row", row);
+            usage.put("size", data.length);
+            usage.put("last_access", System.currentTimeMillis());
+            db.insertWithOnConflict("tile_usage", null, usage, SQLiteDatabase.CONFLICT_REPLACE);
+            db.setTransactionSuccessful();
+            totalBytes += data.length - previous;
+        } finally {
+            db.endTransaction();
+        }
+        if (totalBytes > maxBytes) {
+            evict();
+        }
+    }
+
+    /**
+     * Write buffered access times
+     */
+    public synchronized void flushTouches() {
+        if (pendingTouches.isEmpty()) {
+            return;
+        }
+        SQLiteStatement update = db.compileStatement("UPDATE tile_usage SET last_access = ? " +
+                "WHERE zoom_level = ? AND tile_column = ? AND tile_row = ?");
+        db.beginTransaction();
+        try {
+            for (Map.Entry<Long, Long> touch : pendingTouches.entrySet()) {
+                long key = touch.getKey();
+                int zoom = (int) (key >>> 58);
+                int x = (int) ((key >>> 29) & 0x1FFFFFFF);
+                int y = (int) (key & 0x1FFFFFFF);
+                update.bindLong(1, touch.getValue());
+                update.bindLong(2, zoom);
+                update.bindLong(3, x);
+                update.bindLong(4, tmsRow(zoom, y));
+                update.executeUpdateDelete();
+                pendingTouches.remove(key, touch.getValue());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+            update.close();
+        }
+    }
+
+    /**
+     * Delete least recently used tiles until the store is at EVICT_TARGET of its limit
+     */
+    private synchronized void evict() {
+        flushTouches();
+        long target = (long) (maxBytes * EVICT_TARGET);
+        int evicted = 0;
+        while (totalBytes > target) {
+            long freed = 0;
+            int deleted = 0;
+            db.beginTransaction();
+            try (Cursor cursor = db.rawQuery("SELECT zoom_level, tile_column, tile_row, size FROM tile_usage " +
+                    "ORDER BY last_access ASC LIMIT " + EVICT_BATCH, null)) {
+                while (cursor.moveToNext() && totalBytes - freed > target) {
+                    String[] address = {cursor.getString(0), cursor.getString(1), cursor.getString(2)};
+                    db.delete("tiles", "zoom_level = ? AND tile_column = ? AND tile_row = ?", address);
+                    db.delete("tile_usage", "zoom_level = ? AND tile_column = ? AND tile_row = ?", address);
+                    freed += cursor.getLong(3);
+                    deleted++;
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+            totalBytes -= freed;
+            evicted += deleted;
+            if (deleted == 0) {
+                break;
+            }
+        }
+        Log.d(TAG, "Evicted " + evicted + " tiles, " + totalBytes + " bytes stored");
+    }
+
+    public synchronized long getSizeBytes() {
+        return totalBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Register a user, keeping the database open until the matching release()
+     * @throws IllegalStateException If the store is already closed or closing
+     */
+    public synchronized void retain() {
+        if (closeRequested) {
+            throw new IllegalStateException("Tile store is closed");
+        }
+        users++;
+    }
+
+    /**
+     * Drop a user registered with retain(), closing the store if close() is waiting on it
+     */
+    public synchronized void release() {
+        users--;
+        if (closeRequested && users == 0) {
+            closeNow();
+        }
+    }
+
+    /**
+     * Close the store now, or once the last retained user releases it
+     */
+    @Override
+    public synchronized void close() {
+        closeRequested = true;
+        if (users == 0) {
+            closeNow();
+        }
+    }
+
+    private void closeNow() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flushTouches();
+        db.close();
+    }
+
+    /**
+     * MBTiles rows count from the south (TMS); XYZ rows count from the north
+     */
+    private static int tmsRow(int zoom, int y) {
+        return (1 << zoom) - 1 - y;
+    }
+}
@@ -0,0 +1,129 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import android.graphics.Bitmap;
+
+import com.keralafarmers.agrinextai.raster.RasterScene;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Local stand-in tile source that renders basemap tiles from raster scenes
+ * Used when no tile server is configured, so the offline map, prefetching
+ * and eviction can be exercised without a network. Tiles are a false-colour
+ * composite (SWIR, NIR, red as RGB, so vegetation shows green), sampled
+ * nearest-neighbour from the newest scene covering each pixel.
+ */
+public class SceneTileSource implements TileSource {
+
+    private static final int MIN_ZOOM = 12;
+    private static final int MAX_ZOOM = 18;
+    // Reflectance of this much maps to full brightness
+    private static final double WHITE_REFLECTANCE = 0.4;
+
+    private final List<RasterScene> scenes;
+
+    /**
+     * @param scenes Scenes to draw; later ones in the list are drawn over earlier ones
+     */
+    public SceneTileSource(List<RasterScene> scenes) {
+        this.scenes = new ArrayList<>(scenes);
+    }
+
+    @Override
+    public String getName() {
+        return "local_scenes";
+    }
+
+    @Override
+    public int getMinZoom() {
+        return MIN_ZOOM;
+    }
+
+    @Override
+    public int getMaxZoom() {
+        return MAX_ZOOM;
+    }
+
+    @Override
+    public byte[] fetchTile(int zoom, int x, int y) throws IOException {
+        int size = TileMath.TILE_SIZE;
+        int[] colors = new int[size * size];
+        boolean any = false;
+        for (RasterScene scene : scenes) {
+            any |= render(scene, zoom, x, y, colors);
+        }
+        if (!any) {
+            return null;
+        }
+        Bitmap bitmap = Bitmap.createBitmap(colors, size, size, Bitmap.Config.ARGB_8888);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        bitmap.recycle();
+        return out.toByteArray();
+    }
+
+    /**
+     * Draw one scene into a tile's pixels
+     * @return True if any pixel was drawn
+     */
+    private static boolean render(RasterScene scene, int zoom, int x, int y, int[] colors) throws IOException {
+        int red = scene.bandOffset(RasterScene.BAND_RED);
+        int nir = scene.bandOffset(RasterScene.BAND_NIR);
+        int swir = scene.bandOffset(RasterScene.BAND_SWIR);
+        if (red < 0 || nir < 0) {
+            return false;
+        }
+        int size = TileMath.TILE_SIZE;
+        int sceneTile = scene.getTileSize();
+        double scale = WHITE_REFLECTANCE * scene.getReflectanceScale();
+        short noData = scene.getNoData();
+        Map<Integer, ShortBuffer> mapped = new HashMap<>();
+        boolean any = false;
+
+        // Longitude is linear in tile x; latitude is computed once per row
+        double[] columns = new double[size];
+        for (int px = 0; px < size; px++) {
+            columns[px] = scene.columnOf(TileMath.longitude(x + (px + 0.5) / size, zoom));
+        }
+        for (int py = 0; py < size; py++) {
+            double latitude = TileMath.latitude(y + (py + 0.5) / size, zoom);
+            int row = (int) Math.floor(scene.rowOf(latitude));
+            if (row < 0 || row >= scene.getHeight()) {
+                continue;
+            }
+            for (int px = 0; px < size; px++) {
+                int col = (int) Math.floor(columns[px]);
+                if (col < 0 || col >= scene.getWidth()) {
+                    continue;
+                }
+                int tileKey = (row / sceneTile) * scene.getTilesX() + col / sceneTile;
+                ShortBuffer data = mapped.get(tileKey);
+                if (data == null) {
+                    data = scene.mapTile(col / sceneTile, row / sceneTile);
+                    mapped.put(tileKey, data);
+                }
+                int i = (row % sceneTile) * sceneTile + col % sceneTile;
+                short r = data.get(red + i);
+                short n = data.get(nir + i);
+                short s = swir >= 0 ? data.get(swir + i) : r;
+                if (r == noData || n == noData || s == noData) {
+                    continue;
+                }
+                colors[py * size + px] = 0xFF000000 | (channel(s, scale) << 16) | (channel(n, scale) << 8)
+                        | channel(r, scale);
+                any = true;
+            }
+        }
+        return any;
+    }
+
+    private static int channel(short value, double scale) {
+        return (int) Math.max(0, Math.min(255, value / scale * 255));
+    }
+}
@@ -0,0 +1,75 @@
+package com.keralafarmers.agrinextai.tiles;
+
+/**
+ * Web Mercator (XYZ "slippy map") tile arithmetic
+ * Tile x grows east and y grows south, as served by XYZ tile servers;
+ * MBTiles stores rows the other way up (TMS), see MbTilesStore.
+ */
+public final class TileMath {
+
+    public static final int TILE_SIZE = 256;
+    // Web Mercator is undefined at the poles; clamp to the usual square world
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private TileMath() {
+    }
+
+    /**
+     * @return Fractional tile column of a longitude
+     */
+    public static double tileX(double longitude, int zoom) {
+        return (longitude + 180) / 360 * (1 << zoom);
+    }
+
+    /**
+     * @return Fractional tile row of a latitude
+     */
+    public static double tileY(double latitude, int zoom) {
+        double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        return (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * (1 << zoom);
+    }
+
+    /**
+     * @return Longitude of a (fractional) tile column's west edge
+     */
+    public static double longitude(double tileX, int zoom) {
+        return tileX / (1 << zoom) * 360 - 180;
+    }
+
+    /**
+     * @return Latitude of a (fractional) tile row's north edge
+     */
+    public static double latitude(double tileY, int zoom) {
+        double n = Math.PI * (1 - 2 * tileY / (1 << zoom));
+        return Math.toDegrees(Math.atan(Math.sinh(n)));
+    }
+
+    /**
+     * Ground size of one tile pixel
+     * @return Metres per pixel at a latitude
+     */
+    public static double metresPerPixel(double latitude, int zoom) {
+        return 156543.03392 * Math.cos(Math.toRadians(latitude)) / (1 << zoom);
+    }
+
+    /**
+     * Pack a tile address into one long for cache keys (zoom up to 29)
+     */
+    public static long key(int zoom, int x, int y) {
+        return ((long) zoom << 58) | ((long) x << 29) | y;
+    }
+
+    /**
+     * Number of tiles covering a box at a range of zooms
+     */
+    public static long countTiles(double minLat, double minLon, double maxLat, double maxLon,
+                                  int minZoom, int maxZoom) {
+        long count = 0;
+        for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+            long columns = (long) Math.floor(tileX(maxLon, zoom)) - (long) Math.floor(tileX(minLon, zoom)) + 1;
+            long rows = (long) Math.floor(tileY(minLat, zoom)) - (long) Math.floor(tileY(maxLat, zoom)) + 1;
+            count += columns * rows;
+        }
+        return count;
+    }
+}
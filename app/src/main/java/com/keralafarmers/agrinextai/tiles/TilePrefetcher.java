@@ -0,0 +1,186 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import android.util.Log;
+
+import com.keralafarmers.agrinextai.utils.RateLimiter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk download of the tiles covering an area into an MbTilesStore
+ * Tiles are fetched lowest zoom first by a small pool of threads that share
+ * one rate limiter, so a farm's overview is usable early and the tile server
+ * sees a steady, polite request rate. Tiles already stored are skipped, so
+ * an interrupted download resumes where it stopped.
+ */
+public class TilePrefetcher {
+    private static final String TAG = "TilePrefetcher";
+
+    // Guard against a box/zoom choice that would fetch a whole district
+    public static final int MAX_TILES = 4000;
+    private static final int ATTEMPTS = 2;
+    private static final long RETRY_DELAY_MS = 1000;
+
+    private static final int OUTCOME_DOWNLOADED = 0;
+    private static final int OUTCOME_STORED = 1;
+    private static final int OUTCOME_MISSING = 2;
+    private static final int OUTCOME_FAILED = 3;
+
+    private final TileSource source;
+    private final MbTilesStore store;
+    private final RateLimiter rateLimiter;
+    private final int parallelFetches;
+
+    /**
+     * Listener for download progress, called from download threads
+     */
+    public interface ProgressListener {
+        void onProgress(int done, int total);
+    }
+
+    /**
+     * Outcome of one prefetch
+     */
+    public static final class Result {
+        public final int total;
+        public final int downloaded;
+        public final int alreadyStored;
+        public final int missing; // the source has no tile there
+        public final int failed;
+        public final boolean cancelled;
+
+        Result(int total, int downloaded, int alreadyStored, int missing, int failed, boolean cancelled) {
+            this.total = total;
+            this.downloaded = downloaded;
+            this.alreadyStored = alreadyStored;
+            this.missing = missing;
+            this.failed = failed;
+            this.cancelled = cancelled;
+        }
+    }
+
+    /**
+     * @param source Tile source
+     * @param store Destination store
+     * @param tilesPerSecond Request rate across all threads
+     * @param parallelFetches Concurrent requests
+     */
+    public TilePrefetcher(TileSource source, MbTilesStore store, double tilesPerSecond, int parallelFetches) {
+        this.source = source;
+        this.store = store;
+        this.rateLimiter = new RateLimiter(tilesPerSecond);
+        this.parallelFetches = parallelFetches;
+    }
+
+    /**
+     * Download every tile covering a box at a range of zooms
+     * Blocking; call from a background thread.
+     * @param cancelled Set to stop early; tiles fetched so far are kept
+     * @param listener Progress listener, or null
+     * @return Counts of what happened to each tile
+     * @throws IllegalArgumentException If the area needs more than MAX_TILES tiles
+     */
+    public Result prefetch(double minLat, double minLon, double maxLat, double maxLon, int minZoom, int maxZoom,
+                           AtomicBoolean cancelled, ProgressListener listener) {
+        minZoom = Math.max(minZoom, source.getMinZoom());
+        maxZoom = Math.min(maxZoom, source.getMaxZoom());
+        long count = TileMath.countTiles(minLat, minLon, maxLat, maxLon, minZoom, maxZoom);
+        if (count > MAX_TILES) {
+            throw new IllegalArgumentException("Area needs " + count + " tiles, more than " + MAX_TILES);
+        }
+        int total = (int) count;
+
+        AtomicInteger done = new AtomicInteger();
+        AtomicInteger downloaded = new AtomicInteger();
+        AtomicInteger alreadyStored = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelFetches);
+        List<Future<?>> futures = new ArrayList<>(total);
+        try {
+            for (int zoom = minZoom; zoom <= maxZoom; zoom++) {
+                int x0 = (int) Math.floor(TileMath.tileX(minLon, zoom));
+                int x1 = (int) Math.floor(TileMath.tileX(maxLon, zoom));
+                int y0 = (int) Math.floor(TileMath.tileY(maxLat, zoom));
+                int y1 = (int) Math.floor(TileMath.tileY(minLat, zoom));
+                for (int y = y0; y <= y1; y++) {
+                    for (int x = x0; x <= x1; x++) {
+                        int z = zoom, tx = x, ty = y;
+                        futures.add(pool.submit(() -> {
+                            if (!cancelled.get()) {
+                                int outcome = fetchOne(z, tx, ty);
+                                if (outcome == OUTCOME_DOWNLOADED) {
+                                    downloaded.incrementAndGet();
+                                } else if (outcome == OUTCOME_STORED) {
+                                    alreadyStored.incrementAndGet();
+                                } else if (outcome == OUTCOME_MISSING) {
+                                    missing.incrementAndGet();
+                                } else {
+                                    failed.incrementAndGet();
+                                }
+                            }
+                            int progress = done.incrementAndGet();
+                            if (listener != null) {
+                                listener.onProgress(progress, total);
+                            }
+                        }));
+                    }
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Tile task failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            store.flushTouches();
+        }
+        Log.d(TAG, "Prefetched " + downloaded.get() + " of " + total + " tiles from " + source.getName());
+        return new Result(total, downloaded.get(), alreadyStored.get(), missing.get(), failed.get(),
+                cancelled.get());
+    }
+
+    private int fetchOne(int zoom, int x, int y) {
+        if (store.hasTile(zoom, x, y)) {
+            return OUTCOME_STORED;
+        }
+        for (int attempt = 1; attempt <= ATTEMPTS; attempt++) {
+            try {
+                rateLimiter.acquire();
+                byte[] data = source.fetchTile(zoom, x, y);
+                if (data == null) {
+                    return OUTCOME_MISSING;
+                }
+                store.putTile(zoom, x, y, data);
+                return OUTCOME_DOWNLOADED;
+            } catch (IOException e) {
+                Log.w(TAG, "Tile " + zoom + "/" + x + "/" + y + " attempt " + attempt + " failed", e);
+                if (attempt == ATTEMPTS) {
+                    break;
+                }
+                try {
+                    Thread.sleep(RETRY_DELAY_MS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return OUTCOME_FAILED;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return OUTCOME_FAILED;
+            }
+        }
+        return OUTCOME_FAILED;
+    }
+}
@@ -0,0 +1,21 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import android.graphics.Bitmap;
+
+/**
+ * Decoded basemap tiles for a map view
+ */
+public interface TileProvider {
+
+    int getMinZoom();
+
+    int getMaxZoom();
+
+    /**
+     * Get a tile if it is decoded in memory, otherwise start loading it
+     * Called on the main thread while drawing, so it must not block.
+     * @param onLoaded Run on the main thread once a missing tile is ready
+     * @return Tile bitmap, or null while it loads or if there is none
+     */
+    Bitmap getTile(int zoom, int x, int y, Runnable onLoaded);
+}
@@ -0,0 +1,30 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import java.io.IOException;
+
+/**
+ * Where basemap tiles come from when they are not on disk yet
+ * Implementations must be safe to call from several download threads.
+ */
+public interface TileSource {
+
+    /**
+     * Short name stored in the MBTiles metadata, e.g. "sample_palakkad"
+     */
+    String getName();
+
+    int getMinZoom();
+
+    int getMaxZoom();
+
+    /**
+     * Fetch one encoded (PNG or JPEG) tile
+     * Blocking; call from a background thread.
+     * @param zoom Zoom level
+     * @param x XYZ tile column
+     * @param y XYZ tile row
+     * @return Encoded tile, or null if the source has no tile there
+     * @throws IOException On network or read failure
+     */
+    byte[] fetchTile(int zoom, int x, int y) throws IOException;
+}
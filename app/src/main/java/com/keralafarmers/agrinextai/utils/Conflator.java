@@ -0,0 +1,59 @@
+package com.keralafarmers.agrinextai.utils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Latest-value-wins buffer for high-rate updates
+ * Producers offer keyed updates; a newer update for a key replaces the
+ * pending one, so a slow consumer sees at most one value per key per drain
+ * and intermediate ticks are dropped instead of queueing up.
+ */
+public class Conflator<K, V> {
+    
+    private Map<K, V> pending = new LinkedHashMap<>();
+    private long dropped;
+    
+    /**
+     * Offer an update
+     * @param key Row key
+     * @param value Latest value for the row
+     * @return True if the buffer was empty, i.e. the caller should schedule a drain
+     */
+    public synchronized boolean offer(K key, V value) {
+        boolean wasEmpty = pending.isEmpty();
+        if (pending.put(key, value) != null) {
+            dropped++;
+        }
+        return wasEmpty;
+    }
+    
+    /**
+     * Take all pending updates, oldest key first
+     * @return Pending values (empty if none)
+     */
+    public List<V> drain() {
+        Map<K, V> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return new ArrayList<>();
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        return new ArrayList<>(batch.values());
+    }
+    
+    /**
+     * @return Number of updates replaced before they were drained
+     */
+    public synchronized long getDroppedCount() {
+        return dropped;
+    }
+    
+    public synchronized void clear() {
+        pending.clear();
+    }
+}
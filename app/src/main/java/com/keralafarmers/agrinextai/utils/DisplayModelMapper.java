@@ -0,0 +1,103 @@
+package com.keralafarmers.agrinextai.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Maps entity lists into immutable display models off the main thread.
+ * Adapters use this so all formatting happens once per data change,
+ * leaving onBindViewHolder as a plain field copy.
+ */
+public class DisplayModelMapper<T, R> {
+
+    // One shared worker keeps mapping requests from every adapter in submission order
+    private static final ExecutorService MAPPING_EXECUTOR = Executors.newSingleThreadExecutor();
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private final Mapper<T, R> mapper;
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Converts a single entity into its display model
+     */
+    public interface Mapper<T, R> {
+        R map(T item);
+    }
+
+    /**
+     * Receives mapped display models on the main thread
+     */
+    public interface Callback<R> {
+        void onMapped(List<R> items);
+    }
+
+    public DisplayModelMapper(Mapper<T, R> mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Map a full list in the background and deliver it on the main thread.
+     * Results from an older submission are dropped if a newer one was made meanwhile.
+     * @param source Entities to map (copied on the calling thread)
+     * @param callback Receives the mapped list on the main thread
+     */
+    public void submitList(List<T> source, Callback<R> callback) {
+        final List<T> snapshot = source != null ? new ArrayList<>(source) : Collections.<T>emptyList();
+        final int token = generation.incrementAndGet();
+        MAPPING_EXECUTOR.execute(() -> {
+            List<R> mapped = new ArrayList<>(snapshot.size());
+            for (T item : snapshot) {
+                mapped.add(mapper.map(item));
+            }
+            MAIN_HANDLER.post(() -> {
+                if (token == generation.get()) {
+                    callback.onMapped(mapped);
+                }
+            });
+        });
+    }
+
+    /**
+     * Map a single entity in the background, preserving order with list submissions
+     * @param item Entity to map
+     * @param callback Receives a one-element list on the main thread
+     */
+    public void submitItem(T item, Callback<R> callback) {
+        MAPPING_EXECUTOR.execute(() -> {
+            List<R> mapped = Collections.singletonList(mapper.map(item));
+            MAIN_HANDLER.post(() -> callback.onMapped(mapped));
+        });
+    }
+
+    /**
+     * Map a batch of changed entities without superseding a pending list submission
+     * Results arrive in submission order relative to every other request.
+     * @param changed Entities to map (copied on the calling thread)
+     * @param callback Receives the mapped batch on the main thread
+     */
+    public void submitItems(List<T> changed, Callback<R> callback) {
+        final List<T> snapshot = new ArrayList<>(changed);
+        MAPPING_EXECUTOR.execute(() -> {
+            List<R> mapped = new ArrayList<>(snapshot.size());
+            for (T item : snapshot) {
+                mapped.add(mapper.map(item));
+            }
+            MAIN_HANDLER.post(() -> callback.onMapped(mapped));
+        });
+    }
+    
+    /**
+     * Run an action on the main thread after all previously submitted mapping work
+     * @param action Action to run
+     */
+    public void runAfterPending(Runnable action) {
+        MAPPING_EXECUTOR.execute(() -> MAIN_HANDLER.post(action));
+    }
+}
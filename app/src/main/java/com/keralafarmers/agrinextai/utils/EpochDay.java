@@ -0,0 +1,41 @@
+package com.keralafarmers.agrinextai.utils;
+
+import java.util.TimeZone;
+
+/**
+ * Integer day keys (days since 1970-01-01 in the device's local calendar)
+ * Used instead of formatted date strings so storage and comparisons need no parsing.
+ * java.time is unavailable below API 26, so the arithmetic is done directly.
+ */
+public class EpochDay {
+    
+    public static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+    
+    /**
+     * Convert a timestamp to its local epoch day
+     * @param millis Timestamp in milliseconds
+     * @return Epoch day
+     */
+    public static int fromMillis(long millis) {
+        long localMillis = millis + TimeZone.getDefault().getOffset(millis);
+        return (int) Math.floorDiv(localMillis, MILLIS_PER_DAY);
+    }
+    
+    /**
+     * Get today's epoch day
+     * @return Epoch day for the current date
+     */
+    public static int today() {
+        return fromMillis(System.currentTimeMillis());
+    }
+    
+    /**
+     * Midnight of an epoch day expressed in UTC
+     * Format the result with a UTC formatter to print the calendar date
+     * @param epochDay Epoch day
+     * @return Milliseconds at 00:00 UTC of that day
+     */
+    public static long toUtcMillis(int epochDay) {
+        return epochDay * MILLIS_PER_DAY;
+    }
+}
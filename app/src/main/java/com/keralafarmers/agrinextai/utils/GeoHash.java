@@ -0,0 +1,105 @@
+package com.keralafarmers.agrinextai.utils;
+
+/**
+ * Geohash encoding utilities
+ * Used to bucket nearby coordinates into shared cache cells
+ */
+public class GeoHash {
+    
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+    
+    /**
+     * Precision used for weather cache cells (about 4.9 km x 4.9 km)
+     */
+    public static final int WEATHER_CELL_PRECISION = 5;
+    
+    /**
+     * Encode a coordinate as a geohash string
+     * @param latitude Latitude in degrees
+     * @param longitude Longitude in degrees
+     * @param precision Number of characters (1-12)
+     * @return Geohash string
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        char[] hash = new char[precision];
+        boolean evenBit = true;
+        int bit = 0;
+        int charIndex = 0;
+        int position = 0;
+        
+        while (position < precision) {
+            if (evenBit) {
+                double mid = (minLon + maxLon) / 2;
+                if (longitude >= mid) {
+                    charIndex = (charIndex << 1) | 1;
+                    minLon = mid;
+                } else {
+                    charIndex = charIndex << 1;
+                    maxLon = mid;
+                }
+            } else {
+                double mid = (minLat + maxLat) / 2;
+                if (latitude >= mid) {
+                    charIndex = (charIndex << 1) | 1;
+                    minLat = mid;
+                } else {
+                    charIndex = charIndex << 1;
+                    maxLat = mid;
+                }
+            }
+            evenBit = !evenBit;
+            
+            if (++bit == 5) {
+                hash[position++] = BASE32[charIndex];
+                bit = 0;
+                charIndex = 0;
+            }
+        }
+        return new String(hash);
+    }
+    
+    /**
+     * Decode the center point of a geohash cell
+     * @param geohash Geohash string
+     * @return Array of {latitude, longitude}
+     */
+    public static double[] decodeCenter(String geohash) {
+        double minLat = -90, maxLat = 90;
+        double minLon = -180, maxLon = 180;
+        boolean evenBit = true;
+        
+        for (int i = 0; i < geohash.length(); i++) {
+            int value = indexOf(geohash.charAt(i));
+            for (int mask = 16; mask > 0; mask >>= 1) {
+                if (evenBit) {
+                    double mid = (minLon + maxLon) / 2;
+                    if ((value & mask) != 0) {
+                        minLon = mid;
+                    } else {
+                        maxLon = mid;
+                    }
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if ((value & mask) != 0) {
+                        minLat = mid;
+                    } else {
+                        maxLat = mid;
+                    }
+                }
+                evenBit = !evenBit;
+            }
+        }
+        return new double[]{(minLat + maxLat) / 2, (minLon + maxLon) / 2};
+    }
+    
+    private static int indexOf(char c) {
+        for (int i = 0; i < BASE32.length; i++) {
+            if (BASE32[i] == c) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Invalid geohash character: " + c);
+    }
+}
@@ -0,0 +1,249 @@
+package com.keralafarmers.agrinextai.utils;
+
+import java.util.Arrays;
+
+/**
+ * Gorilla-style compression for (timestamp, value) series
+ * Timestamps are stored at second resolution as delta-of-deltas, so a
+ * regular daily series costs one bit per point; values are XOR-ed with the
+ * previous value and only the changed bits are written, so an unchanged
+ * price also costs one bit. Layout: point count (32 bits), first timestamp
+ * (64 bits), first value (64 bits), then the encoded points.
+ */
+public final class GorillaCodec {
+
+    private static final int HEADER_BITS = 32;
+
+    private GorillaCodec() {
+    }
+
+    /**
+     * Appends points in timestamp order and produces the encoded block
+     */
+    public static final class Encoder {
+        private final BitWriter out = new BitWriter();
+        private int count;
+        private long prevSeconds;
+        private long prevDelta;
+        private long prevValueBits;
+        private int prevLeading = Integer.MAX_VALUE;
+        private int prevTrailing;
+
+        public Encoder() {
+            out.writeBits(0, HEADER_BITS); // count, patched in toBytes()
+        }
+
+        /**
+         * @param timestampMillis Point time; must not be before the previous point
+         * @param value Point value
+         */
+        public void add(long timestampMillis, double value) {
+            long seconds = Math.floorDiv(timestampMillis, 1000L);
+            long valueBits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                out.writeBits(seconds, 64);
+                out.writeBits(valueBits, 64);
+            } else {
+                if (seconds < prevSeconds) {
+                    throw new IllegalArgumentException("Points must be added in timestamp order");
+                }
+                long delta = seconds - prevSeconds;
+                writeDeltaOfDelta(delta - prevDelta);
+                prevDelta = delta;
+                writeXor(valueBits ^ prevValueBits);
+            }
+            prevSeconds = seconds;
+            prevValueBits = valueBits;
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return Encoded block (a copy; the encoder may keep appending)
+         */
+        public byte[] toBytes() {
+            byte[] bytes = out.toByteArray();
+            bytes[0] = (byte) (count >>> 24);
+            bytes[1] = (byte) (count >>> 16);
+            bytes[2] = (byte) (count >>> 8);
+            bytes[3] = (byte) count;
+            return bytes;
+        }
+
+        private void writeDeltaOfDelta(long dod) {
+            if (dod == 0) {
+                out.writeBits(0b0, 1);
+            } else if (dod >= -63 && dod <= 64) {
+                out.writeBits(0b10, 2);
+                out.writeBits(dod + 63, 7);
+            } else if (dod >= -255 && dod <= 256) {
+                out.writeBits(0b110, 3);
+                out.writeBits(dod + 255, 9);
+            } else if (dod >= -2047 && dod <= 2048) {
+                out.writeBits(0b1110, 4);
+                out.writeBits(dod + 2047, 12);
+            } else {
+                out.writeBits(0b1111, 4);
+                out.writeBits(dod, 64);
+            }
+        }
+
+        private void writeXor(long xor) {
+            if (xor == 0) {
+                out.writeBits(0b0, 1);
+                return;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (leading >= prevLeading && trailing >= prevTrailing) {
+                // Fits in the previous meaningful window
+                out.writeBits(0b10, 2);
+                out.writeBits(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.writeBits(0b11, 2);
+                out.writeBits(leading, 5);
+                out.writeBits(meaningful == 64 ? 0 : meaningful, 6);
+                out.writeBits(xor >>> trailing, meaningful);
+                prevLeading = leading;
+                prevTrailing = trailing;
+            }
+        }
+    }
+
+    /**
+     * Streams the points of an encoded block without boxing
+     * Usage: while (decoder.next()) { decoder.getTimestamp(); decoder.getValue(); }
+     */
+    public static final class Decoder {
+        private final BitReader in;
+        private final int count;
+        private int read;
+        private long seconds;
+        private long delta;
+        private long valueBits;
+        private int leading;
+        private int trailing;
+
+        public Decoder(byte[] block) {
+            this.in = new BitReader(block);
+            this.count = block != null && block.length >= 4 ? (int) in.readBits(HEADER_BITS) : 0;
+        }
+
+        /**
+         * Advance to the next point
+         * @return False when the block is exhausted
+         */
+        public boolean next() {
+            if (read >= count) {
+                return false;
+            }
+            if (read == 0) {
+                seconds = in.readBits(64);
+                valueBits = in.readBits(64);
+            } else {
+                delta += readDeltaOfDelta();
+                seconds += delta;
+                readXor();
+            }
+            read++;
+            return true;
+        }
+
+        public long getTimestamp() {
+            return seconds * 1000L;
+        }
+
+        public double getValue() {
+            return Double.longBitsToDouble(valueBits);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        private long readDeltaOfDelta() {
+            if (in.readBit() == 0) {
+                return 0;
+            }
+            if (in.readBit() == 0) {
+                return in.readBits(7) - 63;
+            }
+            if (in.readBit() == 0) {
+                return in.readBits(9) - 255;
+            }
+            if (in.readBit() == 0) {
+                return in.readBits(12) - 2047;
+            }
+            return in.readBits(64);
+        }
+
+        private void readXor() {
+            if (in.readBit() == 0) {
+                return;
+            }
+            if (in.readBit() == 1) {
+                leading = (int) in.readBits(5);
+                int meaningful = (int) in.readBits(6);
+                if (meaningful == 0) {
+                    meaningful = 64;
+                }
+                trailing = 64 - leading - meaningful;
+            }
+            long xor = in.readBits(64 - leading - trailing) << trailing;
+            valueBits ^= xor;
+        }
+    }
+
+    private static final class BitWriter {
+        private byte[] buffer = new byte[64];
+        private int bitPosition;
+
+        void writeBits(long value, int bits) {
+            ensureCapacity(bits);
+            for (int i = bits - 1; i >= 0; i--) {
+                if (((value >>> i) & 1L) != 0) {
+                    buffer[bitPosition >>> 3] |= (byte) (0x80 >>> (bitPosition & 7));
+                }
+                bitPosition++;
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, (bitPosition + 7) >>> 3);
+        }
+
+        private void ensureCapacity(int bits) {
+            int neededBytes = (bitPosition + bits + 7) >>> 3;
+            if (neededBytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(neededBytes, buffer.length * 2));
+            }
+        }
+    }
+
+    private static final class BitReader {
+        private final byte[] buffer;
+        private int bitPosition;
+
+        BitReader(byte[] buffer) {
+            this.buffer = buffer != null ? buffer : new byte[0];
+        }
+
+        int readBit() {
+            int bit = (buffer[bitPosition >>> 3] >>> (7 - (bitPosition & 7))) & 1;
+            bitPosition++;
+            return bit;
+        }
+
+        long readBits(int bits) {
+            long value = 0;
+            for (int i = 0; i < bits; i++) {
+                value = (value << 1) | readBit();
+            }
+            return value;
+        }
+    }
+}
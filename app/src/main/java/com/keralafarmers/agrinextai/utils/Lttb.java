@@ -0,0 +1,83 @@
+package com.keralafarmers.agrinextai.utils;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for line charts
+ * Keeps the first and last points and, from each bucket in between, the point
+ * forming the largest triangle with the previously kept point and the next
+ * bucket's average. Peaks and dips survive, unlike with plain averaging.
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * Downsample a series to at most threshold points
+     * @param xs X values, ascending
+     * @param ys Y values
+     * @param count Number of points to read from xs and ys
+     * @param threshold Maximum number of output points (raised to 3 if lower)
+     * @param outXs Output X values, at least min(count, max(threshold, 3)) long
+     * @param outYs Output Y values, at least min(count, max(threshold, 3)) long
+     * @return Number of points written
+     */
+    public static int downsample(float[] xs, float[] ys, int count, int threshold, float[] outXs, float[] outYs) {
+        threshold = Math.max(threshold, 3);
+        if (threshold >= count) {
+            System.arraycopy(xs, 0, outXs, 0, count);
+            System.arraycopy(ys, 0, outYs, 0, count);
+            return count;
+        }
+
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int kept = 0;
+        int a = 0;
+        outXs[kept] = xs[a];
+        outYs[kept] = ys[a];
+        kept++;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third triangle vertex
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, count);
+            float avgX = 0;
+            float avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += xs[i];
+                avgY += ys[i];
+            }
+            int nextLength = nextEnd - nextStart;
+            if (nextLength > 0) {
+                avgX /= nextLength;
+                avgY /= nextLength;
+            } else {
+                avgX = xs[count - 1];
+                avgY = ys[count - 1];
+            }
+
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            float ax = xs[a];
+            float ay = ys[a];
+            float maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; the factor does not change the maximum
+                float area = Math.abs((ax - avgX) * (ys[i] - ay) - (ax - xs[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            outXs[kept] = xs[chosen];
+            outYs[kept] = ys[chosen];
+            kept++;
+            a = chosen;
+        }
+
+        outXs[kept] = xs[count - 1];
+        outYs[kept] = ys[count - 1];
+        kept++;
+        return kept;
+    }
+}
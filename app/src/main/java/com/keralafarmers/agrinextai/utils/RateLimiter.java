@@ -0,0 +1,38 @@
+package com.keralafarmers.agrinextai.utils;
+
+/**
+ * Evenly spaced permits shared by several threads
+ * Each acquire() reserves the next free slot on a fixed interval and sleeps
+ * until it arrives, so N workers together never exceed the rate however
+ * many of them are waiting. Idle time does not accumulate into a burst.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+    private long nextSlot; // guarded by this
+
+    /**
+     * @param permitsPerSecond Sustained rate
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.nextSlot = System.nanoTime();
+    }
+
+    /**
+     * Wait for the next permit
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long slot;
+        synchronized (this) {
+            long now = System.nanoTime();
+            slot = Math.max(now, nextSlot);
+            nextSlot = slot + intervalNanos;
+        }
+        long waitNanos = slot - System.nanoTime();
+        if (waitNanos > 0) {
+            Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+        }
+    }
+}
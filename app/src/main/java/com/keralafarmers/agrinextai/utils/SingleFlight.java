@@ -0,0 +1,74 @@
+package com.keralafarmers.agrinextai.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Keyed request coalescing for blocking loads
+ * The first caller for a key runs the loader on its own thread; callers that
+ * arrive while it is in flight wait for and share the same result (or error)
+ * instead of starting a duplicate fetch and DB write. The key is released as
+ * soon as the load finishes, so later calls load fresh data.
+ * The result object is shared, so callers must treat it as read-only.
+ * A loader must not call run() again with its own key.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentHashMap<K, FutureTask<V>> inFlight = new ConcurrentHashMap<>();
+    
+    /**
+     * Blocking load whose result is shared by concurrent callers
+     */
+    public interface Loader<V> {
+        V load();
+    }
+    
+    /**
+     * Run a load for a key, or join the one already in flight
+     * Blocking; call from a background thread.
+     * @param key Load key, e.g. "chat_history:42"
+     * @param loader Load to run if none is in flight for the key
+     * @return Result of the shared load
+     */
+    public V run(K key, Loader<V> loader) {
+        FutureTask<V> task = new FutureTask<>(loader::load);
+        FutureTask<V> existing = inFlight.putIfAbsent(key, task);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            task.run();
+        } finally {
+            inFlight.remove(key, task);
+        }
+        return await(task);
+    }
+    
+    /**
+     * Check whether a load is currently running for a key
+     * @param key Load key
+     * @return True if a load is in flight
+     */
+    public boolean isInFlight(K key) {
+        return inFlight.containsKey(key);
+    }
+    
+    private V await(FutureTask<V> task) {
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shared load", e);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.keralafarmers.agrinextai.views;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.keralafarmers.agrinextai.R;
+import com.keralafarmers.agrinextai.geometry.GeoPolygon;
+import com.keralafarmers.agrinextai.tiles.TileMath;
+import com.keralafarmers.agrinextai.tiles.TileProvider;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Vertex editor for a farm boundary and the areas excluded from it
+ * Draws the boundary, its exclusions and neighbouring plots on a local metric
+ * plane fitted to the view; dragging a vertex of any ring moves it and reports
+ * the new rings on every move so the caller can re-measure and re-check
+ * overlaps live. An optional basemap is drawn underneath from a TileProvider.
+ */
+public class BoundaryEditorView extends View {
+
+    private static final float TOUCH_SLOP_DP = 24f;
+    private static final float VERTEX_RADIUS_DP = 6f;
+    // Extra margin around the boundary so vertices can be dragged outward
+    private static final double FIT_MARGIN = 0.25;
+    // More tiles than this means the zoom choice is off; draw nothing rather than stall
+    private static final int MAX_VISIBLE_TILES = 64;
+
+    /**
+     * Listener for boundary edits
+     */
+    public interface OnBoundaryChangeListener {
+        void onBoundaryChanged(GeoPolygon boundary, List<GeoPolygon> exclusions);
+    }
+
+    private final Paint boundaryPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint neighbourPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint overlapPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint vertexPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint exclusionPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint exclusionFillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint tilePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Path path = new Path();
+    private final RectF tileRect = new RectF();
+    private final float touchSlop;
+    private final float vertexRadius;
+
+    private GeoPolygon boundary;
+    private List<GeoPolygon> exclusions = new ArrayList<>();
+    private boolean invalid;
+    private SparseArray<GeoPolygon> neighbours = new SparseArray<>();
+    private Set<Integer> overlappingIds = new HashSet<>();
+    private OnBoundaryChangeListener listener;
+    private TileProvider tileProvider;
+    private final Runnable tileLoaded = this::invalidate;
+
+    // Local projection: metres about (originLat, originLon), scaled to pixels
+    private double originLat;
+    private double originLon;
+    private double cosLat = 1;
+    private double pixelsPerMetre;
+    // Ring being dragged: 0 for the boundary, i + 1 for exclusion i
+    private int dragRing = -1;
+    private int dragIndex = -1;
+
+    public BoundaryEditorView(Context context) {
+        this(context, null);
+    }
+
+    public BoundaryEditorView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        touchSlop = TOUCH_SLOP_DP * density;
+        vertexRadius = VERTEX_RADIUS_DP * density;
+        boundaryPaint.setColor(ContextCompat.getColor(context, R.color.primary_dark));
+        boundaryPaint.setStrokeWidth(2 * density);
+        boundaryPaint.setStyle(Paint.Style.STROKE);
+        fillPaint.setColor(ContextCompat.getColor(context, R.color.primary_light));
+        fillPaint.setAlpha(96);
+        fillPaint.setStyle(Paint.Style.FILL);
+        neighbourPaint.setColor(ContextCompat.getColor(context, R.color.text_secondary));
+        neighbourPaint.setStrokeWidth(density);
+        neighbourPaint.setStyle(Paint.Style.STROKE);
+        overlapPaint.setColor(ContextCompat.getColor(context, R.color.error));
+        overlapPaint.setStrokeWidth(2 * density);
+        overlapPaint.setStyle(Paint.Style.STROKE);
+        vertexPaint.setColor(ContextCompat.getColor(context, R.color.secondary));
+        vertexPaint.setStyle(Paint.Style.FILL);
+        exclusionPaint.setColor(ContextCompat.getColor(context, R.color.secondary_dark));
+        exclusionPaint.setStrokeWidth(2 * density);
+        exclusionPaint.setStyle(Paint.Style.STROKE);
+        exclusionFillPaint.setColor(ContextCompat.getColor(context, R.color.background_white));
+        exclusionFillPaint.setAlpha(160);
+        exclusionFillPaint.setStyle(Paint.Style.FILL);
+    }
+
+    /**
+     * Show a boundary for editing and fit the view to it
+     */
+    public void setBoundary(GeoPolygon boundary) {
+        this.boundary = boundary;
+        fit();
+        invalidate();
+    }
+
+    public GeoPolygon getBoundary() {
+        return boundary;
+    }
+
+    /**
+     * Show the areas excluded from the boundary for editing
+     * @param exclusions Ponds, buildings and paths; copied
+     */
+    public void setExclusions(List<GeoPolygon> exclusions) {
+        this.exclusions = new ArrayList<>(exclusions);
+        invalidate();
+    }
+
+    /**
+     * @return Copy of the current exclusions
+     */
+    public List<GeoPolygon> getExclusions() {
+        return new ArrayList<>(exclusions);
+    }
+
+    /**
+     * @param invalid True to outline the boundary as an error, e.g. while a ring crosses itself
+     */
+    public void setInvalid(boolean invalid) {
+        this.invalid = invalid;
+        invalidate();
+    }
+
+    /**
+     * @param neighbours Nearby stored boundaries by id, drawn for reference
+     */
+    public void setNeighbours(SparseArray<GeoPolygon> neighbours) {
+        this.neighbours = neighbours != null ? neighbours : new SparseArray<>();
+        invalidate();
+    }
+
+    /**
+     * @param ids Neighbour ids to highlight as overlapping the boundary
+     */
+    public void setOverlappingIds(Set<Integer> ids) {
+        this.overlappingIds = ids != null ? ids : new HashSet<>();
+        invalidate();
+    }
+
+    public void setOnBoundaryChangeListener(OnBoundaryChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * @param tileProvider Basemap tiles, or null for a plain background
+     */
+    public void setTileProvider(TileProvider tileProvider) {
+        this.tileProvider = tileProvider;
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        fit();
+    }
+
+    /**
+     * Centre the projection on the boundary and scale it to fill the view
+     * The fit is fixed while dragging so the plot does not move under the finger.
+     */
+    private void fit() {
+        int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        if (boundary == null || width <= 0 || height <= 0) {
+            return;
+        }
+        originLat = (boundary.getMinLat() + boundary.getMaxLat()) / 2;
+        originLon = (boundary.getMinLon() + boundary.getMaxLon()) / 2;
+        cosLat = Math.cos(Math.toRadians(originLat));
+        double spanX = Math.toRadians(boundary.getMaxLon() - boundary.getMinLon()) * cosLat * GeoPolygon.EARTH_RADIUS_M;
+        double spanY = Math.toRadians(boundary.getMaxLat() - boundary.getMinLat()) * GeoPolygon.EARTH_RADIUS_M;
+        double span = Math.max(1, Math.max(spanX, spanY)) * (1 + 2 * FIT_MARGIN);
+        pixelsPerMetre = Math.min(width, height) / span;
+    }
+
+    private float toScreenX(double longitude) {
+        double x = Math.toRadians(longitude - originLon) * cosLat * GeoPolygon.EARTH_RADIUS_M;
+        return (float) (getPaddingLeft() + (getWidth() - getPaddingLeft() - getPaddingRight()) / 2.0
+                + x * pixelsPerMetre);
+    }
+
+    private float toScreenY(double latitude) {
+        double y = Math.toRadians(latitude - originLat) * GeoPolygon.EARTH_RADIUS_M;
+        return (float) (getPaddingTop() + (getHeight() - getPaddingTop() - getPaddingBottom()) / 2.0
+                - y * pixelsPerMetre);
+    }
+
+    private double toLongitude(float screenX) {
+        double x = (screenX - getPaddingLeft() - (getWidth() - getPaddingLeft() - getPaddingRight()) / 2.0)
+                / pixelsPerMetre;
+        return originLon + Math.toDegrees(x / (cosLat * GeoPolygon.EARTH_RADIUS_M));
+    }
+
+    private double toLatitude(float screenY) {
+        double y = ((getHeight() - getPaddingTop() - getPaddingBottom()) / 2.0 + getPaddingTop() - screenY)
+                / pixelsPerMetre;
+        return originLat + Math.toDegrees(y / GeoPolygon.EARTH_RADIUS_M);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (boundary == null || pixelsPerMetre <= 0) {
+            return;
+        }
+        if (tileProvider != null) {
+            drawTiles(canvas);
+        }
+        for (int i = 0; i < neighbours.size(); i++) {
+            int id = neighbours.keyAt(i);
+            buildPath(neighbours.valueAt(i));
+            canvas.drawPath(path, overlappingIds.contains(id) ? overlapPaint : neighbourPaint);
+        }
+        buildPath(boundary);
+        canvas.drawPath(path, fillPaint);
+        canvas.drawPath(path, invalid ? overlapPaint : boundaryPaint);
+        for (GeoPolygon exclusion : exclusions) {
+            buildPath(exclusion);
+            canvas.drawPath(path, exclusionFillPaint);
+            canvas.drawPath(path, exclusionPaint);
+        }
+        for (int r = 0; r <= exclusions.size(); r++) {
+            GeoPolygon ring = ring(r);
+            for (int i = 0; i < ring.size(); i++) {
+                canvas.drawCircle(toScreenX(ring.getLongitude(i)), toScreenY(ring.getLatitude(i)),
+                        vertexRadius, vertexPaint);
+            }
+        }
+    }
+
+    private GeoPolygon ring(int r) {
+        return r == 0 ? boundary : exclusions.get(r - 1);
+    }
+
+    /**
+     * Draw the basemap tiles under the view at the zoom closest to one tile pixel per screen pixel
+     * Mercator and the local projection differ negligibly over a farm, so
+     * each tile is simply stretched between its projected corners.
+     */
+    private void drawTiles(Canvas canvas) {
+        double zoomExact = Math.log(TileMath.metresPerPixel(originLat, 0) * pixelsPerMetre) / Math.log(2);
+        int zoom = (int) Math.round(zoomExact);
+        zoom = Math.max(tileProvider.getMinZoom(), Math.min(tileProvider.getMaxZoom(), zoom));
+        int x0 = (int) Math.floor(TileMath.tileX(toLongitude(0), zoom));
+        int x1 = (int) Math.floor(TileMath.tileX(toLongitude(getWidth()), zoom));
+        int y0 = (int) Math.floor(TileMath.tileY(toLatitude(0), zoom));
+        int y1 = (int) Math.floor(TileMath.tileY(toLatitude(getHeight()), zoom));
+        if ((long) (x1 - x0 + 1) * (y1 - y0 + 1) > MAX_VISIBLE_TILES) {
+            return;
+        }
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
+                Bitmap tile = tileProvider.getTile(zoom, x, y, tileLoaded);
+                if (tile == null) {
+                    continue;
+                }
+                tileRect.set(toScreenX(TileMath.longitude(x, zoom)), toScreenY(TileMath.latitude(y, zoom)),
+                        toScreenX(TileMath.longitude(x + 1, zoom)), toScreenY(TileMath.latitude(y + 1, zoom)));
+                canvas.drawBitmap(tile, null, tileRect, tilePaint);
+            }
+        }
+    }
+
+    private void buildPath(GeoPolygon polygon) {
+        path.rewind();
+        for (int i = 0; i < polygon.size(); i++) {
+            float x = toScreenX(polygon.getLongitude(i));
+            float y = toScreenY(polygon.getLatitude(i));
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        path.close();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (boundary == null || pixelsPerMetre <= 0) {
+            return super.onTouchEvent(event);
+        }
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                findNearestVertex(event.getX(), event.getY());
+                if (dragIndex >= 0) {
+                    // Keep the enclosing dialog or scroll view from taking the gesture
+                    getParent().requestDisallowInterceptTouchEvent(true);
+                    return true;
+                }
+                return false;
+            case MotionEvent.ACTION_MOVE:
+                if (dragIndex >= 0) {
+                    GeoPolygon moved = ring(dragRing).withVertex(dragIndex,
+                            toLatitude(event.getY()), toLongitude(event.getX()));
+                    if (dragRing == 0) {
+                        boundary = moved;
+                    } else {
+                        exclusions.set(dragRing - 1, moved);
+                    }
+                    invalidate();
+                    if (listener != null) {
+                        listener.onBoundaryChanged(boundary, getExclusions());
+                    }
+                    return true;
+                }
+                return false;
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                boolean dragging = dragIndex >= 0;
+                dragRing = -1;
+                dragIndex = -1;
+                return dragging;
+            default:
+                return super.onTouchEvent(event);
+        }
+    }
+
+    /**
+     * Set dragRing and dragIndex to the vertex within the touch slop of a point, or -1
+     */
+    private void findNearestVertex(float x, float y) {
+        dragRing = -1;
+        dragIndex = -1;
+        float best = touchSlop * touchSlop;
+        for (int r = 0; r <= exclusions.size(); r++) {
+            GeoPolygon ring = ring(r);
+            for (int i = 0; i < ring.size(); i++) {
+                float dx = toScreenX(ring.getLongitude(i)) - x;
+                float dy = toScreenY(ring.getLatitude(i)) - y;
+                float distance = dx * dx + dy * dy;
+                if (distance <= best) {
+                    best = distance;
+                    dragRing = r;
+                    dragIndex = i;
+                }
+            }
+        }
+    }
+}
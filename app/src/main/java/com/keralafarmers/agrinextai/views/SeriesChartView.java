@@ -0,0 +1,345 @@
+package com.keralafarmers.agrinextai.views;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+
+import com.keralafarmers.agrinextai.R;
+import com.keralafarmers.agrinextai.utils.Lttb;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Line chart for long price and weather series
+ * Series are downsampled with LTTB on a background thread to about two
+ * points per pixel of the visible window, once per zoom level, and the
+ * results are cached, so panning and re-zooming never resample. Drawing
+ * reads only primitive float arrays and reuses one line buffer.
+ */
+public class SeriesChartView extends View {
+
+    // Zoom level n shows 1/2^n of the series
+    private static final int MAX_ZOOM_LEVEL = 5;
+    private static final int POINTS_PER_PIXEL = 2;
+
+    // One shared worker is enough; only the latest request per view matters
+    private static final ExecutorService DOWNSAMPLER = Executors.newSingleThreadExecutor();
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector panDetector;
+
+    private float[] xs = new float[0];
+    private float[] ys = new float[0];
+    private String valueFormat = "%.1f";
+    // Formatted min/max labels, redone only when the visible extremes change
+    private float maxLabelValue = Float.NaN;
+    private float minLabelValue = Float.NaN;
+    private String maxLabel = "";
+    private String minLabel = "";
+
+    // Downsampled series per zoom level; touched on the main thread only
+    private final SparseArray<Downsampled> cache = new SparseArray<>();
+    private int generation;
+    private int plotWidth;
+
+    private int zoomLevel;
+    private float viewStart; // first visible x
+    private float pendingScale = 1f;
+    private float[] lineBuffer = new float[0];
+
+    public SeriesChartView(Context context) {
+        this(context, null);
+    }
+
+    public SeriesChartView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        linePaint.setColor(ContextCompat.getColor(context, R.color.primary));
+        linePaint.setStrokeWidth(2 * density);
+        linePaint.setStyle(Paint.Style.STROKE);
+        labelPaint.setColor(ContextCompat.getColor(context, R.color.text_secondary));
+        labelPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 11,
+                getResources().getDisplayMetrics()));
+        scaleDetector = new ScaleGestureDetector(context, new ZoomListener());
+        panDetector = new GestureDetector(context, new PanListener());
+    }
+
+    /**
+     * Show a new series
+     * @param xs X values, ascending (e.g. epoch days)
+     * @param ys Y values
+     */
+    public void setSeries(float[] xs, float[] ys) {
+        this.xs = xs != null ? xs : new float[0];
+        this.ys = ys != null ? ys : new float[0];
+        zoomLevel = 0;
+        viewStart = this.xs.length > 0 ? this.xs[0] : 0;
+        resetCache();
+        requestDownsample(zoomLevel);
+        invalidate();
+    }
+
+    /**
+     * @param format Format for the min/max labels, e.g. "₹%.0f" or "%.1f°C"
+     */
+    public void setValueFormat(String format) {
+        this.valueFormat = format;
+        maxLabelValue = Float.NaN;
+        minLabelValue = Float.NaN;
+        invalidate();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        int newWidth = w - getPaddingLeft() - getPaddingRight();
+        if (newWidth != plotWidth) {
+            plotWidth = newWidth;
+            resetCache();
+            requestDownsample(zoomLevel);
+        }
+    }
+
+    private void resetCache() {
+        cache.clear();
+        generation++;
+    }
+
+    /**
+     * Downsample the whole series for a zoom level unless it is cached or on its way
+     */
+    private void requestDownsample(int level) {
+        if (plotWidth <= 0 || xs.length == 0 || cache.get(level) != null) {
+            return;
+        }
+        cache.put(level, Downsampled.PENDING);
+        final int requestGeneration = generation;
+        final float[] sourceXs = xs;
+        final float[] sourceYs = ys;
+        final int threshold = POINTS_PER_PIXEL * plotWidth << level;
+        DOWNSAMPLER.execute(() -> {
+            int capacity = Math.min(sourceXs.length, Math.max(threshold, 3));
+            float[] outXs = new float[capacity];
+            float[] outYs = new float[capacity];
+            int count = Lttb.downsample(sourceXs, sourceYs, sourceXs.length, threshold, outXs, outYs);
+            Downsampled result = new Downsampled(outXs, outYs, count);
+            post(() -> {
+                if (requestGeneration == generation) {
+                    cache.put(level, result);
+                    invalidate();
+                }
+            });
+        });
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        Downsampled data = bestAvailable();
+        if (data == null || data.count < 2) {
+            return;
+        }
+        float span = visibleSpan();
+        float viewEnd = viewStart + span;
+
+        // Visible range plus one point either side so lines reach the edges
+        int first = Math.max(0, lowerBound(data.xs, data.count, viewStart) - 1);
+        int last = Math.min(data.count - 1, lowerBound(data.xs, data.count, viewEnd));
+        if (last <= first) {
+            return;
+        }
+        float min = Float.MAX_VALUE;
+        float max = -Float.MAX_VALUE;
+        for (int i = first; i <= last; i++) {
+            min = Math.min(min, data.ys[i]);
+            max = Math.max(max, data.ys[i]);
+        }
+        if (max == min) {
+            max += 1;
+            min -= 1;
+        }
+
+        float left = getPaddingLeft();
+        float top = getPaddingTop() + labelPaint.getTextSize();
+        float width = plotWidth;
+        float height = getHeight() - getPaddingBottom() - top - labelPaint.getTextSize();
+        float xScale = width / span;
+        float yScale = height / (max - min);
+
+        int segments = last - first;
+        if (lineBuffer.length < segments * 4) {
+            lineBuffer = new float[segments * 4];
+        }
+        float prevX = left + (data.xs[first] - viewStart) * xScale;
+        float prevY = top + (max - data.ys[first]) * yScale;
+        int index = 0;
+        for (int i = first + 1; i <= last; i++) {
+            float x = left + (data.xs[i] - viewStart) * xScale;
+            float y = top + (max - data.ys[i]) * yScale;
+            lineBuffer[index++] = prevX;
+            lineBuffer[index++] = prevY;
+            lineBuffer[index++] = x;
+            lineBuffer[index++] = y;
+            prevX = x;
+            prevY = y;
+        }
+        canvas.save();
+        canvas.clipRect(left, getPaddingTop(), left + width, getHeight() - getPaddingBottom());
+        canvas.drawLines(lineBuffer, 0, index, linePaint);
+        canvas.restore();
+
+        updateLabels(min, max);
+        canvas.drawText(maxLabel, left, top - labelPaint.descent(), labelPaint);
+        canvas.drawText(minLabel, left, getHeight() - getPaddingBottom() - labelPaint.descent(), labelPaint);
+    }
+
+    private void updateLabels(float min, float max) {
+        // NaN never compares equal, so the first draw and a new format always format
+        if (max != maxLabelValue) {
+            maxLabelValue = max;
+            maxLabel = String.format(Locale.getDefault(), valueFormat, max);
+        }
+        if (min != minLabelValue) {
+            minLabelValue = min;
+            minLabel = String.format(Locale.getDefault(), valueFormat, min);
+        }
+    }
+
+    /**
+     * Data for the current zoom level, or the closest cached level while it is computed
+     */
+    private Downsampled bestAvailable() {
+        for (int distance = 0; distance <= MAX_ZOOM_LEVEL; distance++) {
+            Downsampled finer = cache.get(zoomLevel + distance);
+            if (finer != null && finer != Downsampled.PENDING) {
+                return finer;
+            }
+            Downsampled coarser = cache.get(zoomLevel - distance);
+            if (coarser != null && coarser != Downsampled.PENDING) {
+                return coarser;
+            }
+        }
+        return null;
+    }
+
+    private float fullSpan() {
+        return xs.length > 1 ? xs[xs.length - 1] - xs[0] : 1;
+    }
+
+    private float visibleSpan() {
+        return fullSpan() / (1 << zoomLevel);
+    }
+
+    private void clampViewStart() {
+        if (xs.length == 0) {
+            return;
+        }
+        float maxStart = xs[xs.length - 1] - visibleSpan();
+        viewStart = Math.max(xs[0], Math.min(viewStart, maxStart));
+    }
+
+    private static int lowerBound(float[] values, int count, float key) {
+        int index = Arrays.binarySearch(values, 0, count, key);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= panDetector.onTouchEvent(event);
+        if (zoomLevel > 0) {
+            // Keep the parent from scrolling while the chart is being panned
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        return handled || super.onTouchEvent(event);
+    }
+
+    private void setZoomLevel(int level, float focusX) {
+        level = Math.max(0, Math.min(MAX_ZOOM_LEVEL, level));
+        if (level == zoomLevel) {
+            return;
+        }
+        float focusValue = viewStart + (focusX - getPaddingLeft()) / plotWidth * visibleSpan();
+        float focusFraction = (focusX - getPaddingLeft()) / plotWidth;
+        zoomLevel = level;
+        viewStart = focusValue - focusFraction * visibleSpan();
+        clampViewStart();
+        requestDownsample(zoomLevel);
+        invalidate();
+    }
+
+    private class ZoomListener extends ScaleGestureDetector.SimpleOnScaleGestureListener {
+        @Override
+        public boolean onScaleBegin(@NonNull ScaleGestureDetector detector) {
+            pendingScale = 1f;
+            return true;
+        }
+
+        @Override
+        public boolean onScale(@NonNull ScaleGestureDetector detector) {
+            // Snap to power-of-two levels so each level's downsample is reused
+            pendingScale *= detector.getScaleFactor();
+            if (pendingScale >= 2f) {
+                pendingScale = 1f;
+                setZoomLevel(zoomLevel + 1, detector.getFocusX());
+            } else if (pendingScale <= 0.5f) {
+                pendingScale = 1f;
+                setZoomLevel(zoomLevel - 1, detector.getFocusX());
+            }
+            return true;
+        }
+    }
+
+    private class PanListener extends GestureDetector.SimpleOnGestureListener {
+        @Override
+        public boolean onDown(@NonNull MotionEvent e) {
+            return true;
+        }
+
+        @Override
+        public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float distanceX, float distanceY) {
+            if (zoomLevel == 0 || plotWidth <= 0) {
+                return false;
+            }
+            viewStart += distanceX / plotWidth * visibleSpan();
+            clampViewStart();
+            invalidate();
+            return true;
+        }
+
+        @Override
+        public boolean onDoubleTap(@NonNull MotionEvent e) {
+            setZoomLevel(zoomLevel > 0 ? 0 : 2, e.getX());
+            return true;
+        }
+    }
+
+    private static final class Downsampled {
+        static final Downsampled PENDING = new Downsampled(new float[0], new float[0], 0);
+
+        final float[] xs;
+        final float[] ys;
+        final int count;
+
+        Downsampled(float[] xs, float[] ys, int count) {
+            this.xs = xs;
+            this.ys = ys;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.keralafarmers.agrinextai.services.MarketPriceService;
+import com.keralafarmers.agrinextai.services.WeatherService;
+
+/**
+ * Background job that prunes stale cached weather and price rows while the device is idle
+ */
+public class CleanupWorker extends Worker {
+    
+    private static final String TAG = "CleanupWorker";
+    
+    public CleanupWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        MarketPriceService marketPriceService = new MarketPriceService(getApplicationContext());
+        try {
+            int weatherRows = new WeatherService(getApplicationContext()).deleteOldWeatherData();
+            int priceRows = marketPriceService.deleteStalePrices();
+            int seriesRows = marketPriceService.getPriceForecastService().deleteStaleSeries();
+            int historyRows = marketPriceService.getPriceHistoryService().deleteExpiredHistory();
+            Log.d(TAG, "Cleanup complete. Removed " + weatherRows + " weather, " + priceRows + " price, "
+                    + seriesRows + " forecast series and " + historyRows + " history block rows.");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Cleanup failed", e);
+            return Result.retry();
+        } finally {
+            marketPriceService.cleanup();
+        }
+    }
+}
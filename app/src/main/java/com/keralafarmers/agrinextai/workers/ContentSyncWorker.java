@@ -0,0 +1,34 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.keralafarmers.agrinextai.services.ContentSyncService;
+
+/**
+ * Background job that pulls reference content changes (schemes, NGOs, chatbot knowledge)
+ */
+public class ContentSyncWorker extends Worker {
+    
+    private static final String TAG = "ContentSyncWorker";
+    
+    public ContentSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            int changed = new ContentSyncService(getApplicationContext()).syncDue();
+            Log.d(TAG, "Content sync complete. " + changed + " records changed.");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Content sync failed", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.keralafarmers.agrinextai.services.IrrigationService;
+
+/**
+ * Nightly job that advances every farm's water balance and irrigation schedule
+ */
+public class IrrigationWorker extends Worker {
+    
+    private static final String TAG = "IrrigationWorker";
+    
+    public IrrigationWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            int plans = new IrrigationService(getApplicationContext()).runBatch();
+            Log.d(TAG, "Irrigation batch complete. " + plans + " farm plans updated.");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Irrigation batch failed", e);
+            return Result.retry();
+        }
+    }
+}
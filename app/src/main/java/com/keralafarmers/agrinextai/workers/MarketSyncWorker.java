@@ -0,0 +1,37 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.keralafarmers.agrinextai.services.MarketPriceService;
+
+/**
+ * Background job that refreshes market prices and the in-memory snapshot
+ */
+public class MarketSyncWorker extends Worker {
+    
+    private static final String TAG = "MarketSyncWorker";
+    
+    public MarketSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        MarketPriceService marketPriceService = new MarketPriceService(getApplicationContext());
+        try {
+            int count = marketPriceService.refreshMarketPrices().size();
+            Log.d(TAG, "Market sync complete. " + count + " prices cached.");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Market sync failed", e);
+            return Result.retry();
+        } finally {
+            marketPriceService.cleanup();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules periodic background sync with WorkManager
+ * Weather, market, content, irrigation and cleanup jobs run in a few batched windows under
+ * network, battery and idle constraints, so screens open to warm cached data.
+ */
+public class SyncScheduler {
+    
+    public static final String WORK_WEATHER_SYNC = "weather_sync";
+    public static final String WORK_MARKET_SYNC = "market_sync";
+    public static final String WORK_CONTENT_SYNC = "content_sync";
+    public static final String WORK_CLEANUP = "data_cleanup";
+    public static final String WORK_IRRIGATION = "irrigation_schedule";
+    
+    private static final long WEATHER_INTERVAL_HOURS = 3;
+    private static final long MARKET_INTERVAL_HOURS = 6;
+    // Shorter than the content TTLs so each dataset is checked soon after it falls due
+    private static final long CONTENT_INTERVAL_HOURS = 12;
+    private static final long CLEANUP_INTERVAL_HOURS = 24;
+    private static final long IRRIGATION_INTERVAL_HOURS = 24;
+    
+    // The irrigation batch runs overnight, once the day's weather is complete
+    private static final int IRRIGATION_HOUR = 2;
+    
+    // Flex windows let WorkManager batch jobs with other work on the device
+    private static final long WEATHER_FLEX_MINUTES = 60;
+    private static final long MARKET_FLEX_MINUTES = 120;
+    private static final long CONTENT_FLEX_MINUTES = 240;
+    
+    private static final long BACKOFF_DELAY_SECONDS = 30;
+    
+    /**
+     * Register all periodic sync jobs, keeping existing schedules if already enqueued
+     * @param context Any context
+     */
+    public static void schedule(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        
+        Constraints networkConstraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        
+        PeriodicWorkRequest weatherRequest = new PeriodicWorkRequest.Builder(
+                WeatherSyncWorker.class,
+                WEATHER_INTERVAL_HOURS, TimeUnit.HOURS,
+                WEATHER_FLEX_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(networkConstraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        PeriodicWorkRequest marketRequest = new PeriodicWorkRequest.Builder(
+                MarketSyncWorker.class,
+                MARKET_INTERVAL_HOURS, TimeUnit.HOURS,
+                MARKET_FLEX_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(networkConstraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        PeriodicWorkRequest contentRequest = new PeriodicWorkRequest.Builder(
+                ContentSyncWorker.class,
+                CONTENT_INTERVAL_HOURS, TimeUnit.HOURS,
+                CONTENT_FLEX_MINUTES, TimeUnit.MINUTES)
+                .setConstraints(networkConstraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        Constraints.Builder cleanupConstraints = new Constraints.Builder()
+                .setRequiresBatteryNotLow(true)
+                .setRequiresDeviceIdle(true);
+        
+        PeriodicWorkRequest cleanupRequest = new PeriodicWorkRequest.Builder(
+                CleanupWorker.class,
+                CLEANUP_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(cleanupConstraints.build())
+                .build();
+        
+        PeriodicWorkRequest irrigationRequest = new PeriodicWorkRequest.Builder(
+                IrrigationWorker.class,
+                IRRIGATION_INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(new Constraints.Builder().setRequiresBatteryNotLow(true).build())
+                .setInitialDelay(millisUntilHour(IRRIGATION_HOUR), TimeUnit.MILLISECONDS)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, BACKOFF_DELAY_SECONDS, TimeUnit.SECONDS)
+                .build();
+        
+        workManager.enqueueUniquePeriodicWork(WORK_WEATHER_SYNC, ExistingPeriodicWorkPolicy.KEEP, weatherRequest);
+        workManager.enqueueUniquePeriodicWork(WORK_MARKET_SYNC, ExistingPeriodicWorkPolicy.KEEP, marketRequest);
+        workManager.enqueueUniquePeriodicWork(WORK_CONTENT_SYNC, ExistingPeriodicWorkPolicy.KEEP, contentRequest);
+        workManager.enqueueUniquePeriodicWork(WORK_CLEANUP, ExistingPeriodicWorkPolicy.KEEP, cleanupRequest);
+        workManager.enqueueUniquePeriodicWork(WORK_IRRIGATION, ExistingPeriodicWorkPolicy.KEEP, irrigationRequest);
+    }
+    
+    private static long millisUntilHour(int hour) {
+        Calendar now = Calendar.getInstance();
+        Calendar next = (Calendar) now.clone();
+        next.set(Calendar.HOUR_OF_DAY, hour);
+        next.set(Calendar.MINUTE, 0);
+        next.set(Calendar.SECOND, 0);
+        next.set(Calendar.MILLISECOND, 0);
+        if (!next.after(now)) {
+            next.add(Calendar.DAY_OF_MONTH, 1);
+        }
+        return next.getTimeInMillis() - now.getTimeInMillis();
+    }
+    
+    /**
+     * Cancel all scheduled sync jobs (e.g. on logout)
+     * @param context Any context
+     */
+    public static void cancel(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        workManager.cancelUniqueWork(WORK_WEATHER_SYNC);
+        workManager.cancelUniqueWork(WORK_MARKET_SYNC);
+        workManager.cancelUniqueWork(WORK_CONTENT_SYNC);
+        workManager.cancelUniqueWork(WORK_CLEANUP);
+        workManager.cancelUniqueWork(WORK_IRRIGATION);
+    }
+}
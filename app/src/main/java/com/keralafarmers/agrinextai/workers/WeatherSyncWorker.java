@@ -0,0 +1,34 @@
+package com.keralafarmers.agrinextai.workers;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.keralafarmers.agrinextai.services.WeatherService;
+
+/**
+ * Background job that refreshes the weather window for the last viewed location
+ */
+public class WeatherSyncWorker extends Worker {
+    
+    private static final String TAG = "WeatherSyncWorker";
+    
+    public WeatherSyncWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+    
+    @NonNull
+    @Override
+    public Result doWork() {
+        try {
+            int days = new WeatherService(getApplicationContext()).refreshLastLocation();
+            Log.d(TAG, "Weather sync complete. " + days + " days cached.");
+            return Result.success();
+        } catch (Exception e) {
+            Log.e(TAG, "Weather sync failed", e);
+            return Result.retry();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Ring simplicity, geodesic area and the slab sweep
+ */
+public class PolygonAreaTest {
+
+    private static final double LAT = 10.5;
+    private static final double LON = 76.2;
+
+    @Test
+    public void squareAreaMatchesItsSides() {
+        GeoPolygon square = square(0, 0, 100);
+
+        assertEquals(10000, PolygonArea.geodesicArea(square), 10);
+        assertEquals(10000, PolygonArea.planarArea(square.toLocal(LAT, LON)), 1e-3);
+    }
+
+    @Test
+    public void exclusionsAreSubtractedOnce() {
+        GeoPolygon field = square(0, 0, 100);
+        GeoPolygon pond = square(0, 0, 20);
+        // Overlaps the pond by half and sticks out past the boundary by half
+        GeoPolygon shed = square(50, 0, 20);
+
+        double total = PolygonArea.geodesicArea(field);
+        double cultivable = PolygonArea.cultivableArea(field, Arrays.asList(pond, pond, shed));
+
+        assertEquals(total * (10000 - 400 - 200) / 10000, cultivable, 1);
+        assertEquals(total, PolygonArea.cultivableArea(field, Collections.emptyList()), 1e-9);
+    }
+
+    @Test
+    public void overlapOfShiftedSquares() {
+        GeoPolygon a = square(0, 0, 100);
+        GeoPolygon b = square(50, 50, 100);
+
+        assertEquals(2500, PolygonArea.overlapArea(a, b), 1);
+        assertEquals(0, PolygonArea.overlapArea(a, square(100, 0, 100)), 1e-6);
+        assertEquals(0, PolygonArea.overlapArea(a, square(500, 0, 100)), 0);
+    }
+
+    @Test
+    public void simpleRingsAreAccepted() {
+        assertTrue(PolygonArea.isSimple(square(0, 0, 100)));
+        // Concave L shape
+        assertTrue(PolygonArea.isSimple(ring(0, 0, 100, 0, 100, 50, 50, 50, 50, 100, 0, 100)));
+        assertTrue(PolygonArea.isSimple(ring(0, 0, 100, 0, 0, 100)));
+    }
+
+    @Test
+    public void crossedRingsAreRejected() {
+        // Bow-tie: the signed geodesic sum cancels between its lobes
+        GeoPolygon bowTie = ring(0, 0, 100, 100, 100, 0, 0, 100);
+        assertFalse(PolygonArea.isSimple(bowTie));
+        assertTrue(PolygonArea.geodesicArea(bowTie) < 1);
+
+        // A vertex dragged onto a non-adjacent edge
+        assertFalse(PolygonArea.isSimple(ring(0, 0, 100, 0, 100, 100, 50, 0)));
+        // An edge folded back over its neighbour
+        assertFalse(PolygonArea.isSimple(ring(0, 0, 100, 0, 50, 0, 50, 100)));
+        // The closing edge crossing the first one
+        assertFalse(PolygonArea.isSimple(ring(0, 0, 100, 100, 0, 100, 100, 0)));
+    }
+
+    /**
+     * Square of a side in metres centred at an offset in metres from the test origin
+     */
+    private static GeoPolygon square(double x, double y, double side) {
+        double h = side / 2;
+        return ring(x - h, y - h, x + h, y - h, x + h, y + h, x - h, y + h);
+    }
+
+    /**
+     * Ring from {x0, y0, x1, y1, ...} in metres east and north of the test origin
+     */
+    private static GeoPolygon ring(double... xy) {
+        double cosLat = Math.cos(Math.toRadians(LAT));
+        double[] latitudes = new double[xy.length / 2];
+        double[] longitudes = new double[xy.length / 2];
+        for (int i = 0; i < latitudes.length; i++) {
+            longitudes[i] = LON + Math.toDegrees(xy[2 * i] / (cosLat * GeoPolygon.EARTH_RADIUS_M));
+            latitudes[i] = LAT + Math.toDegrees(xy[2 * i + 1] / GeoPolygon.EARTH_RADIUS_M);
+        }
+        return new GeoPolygon(latitudes, longitudes);
+    }
+}
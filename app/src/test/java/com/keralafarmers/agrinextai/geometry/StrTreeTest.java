@@ -0,0 +1,98 @@
+package com.keralafarmers.agrinextai.geometry;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Box queries and nearest search of the packed R-tree, checked against brute force
+ */
+public class StrTreeTest {
+
+    private static final int COUNT = 500;
+
+    private final int[] ids = new int[COUNT];
+    private final double[] minX = new double[COUNT];
+    private final double[] minY = new double[COUNT];
+    private final double[] maxX = new double[COUNT];
+    private final double[] maxY = new double[COUNT];
+
+    public StrTreeTest() {
+        Random random = new Random(42);
+        for (int i = 0; i < COUNT; i++) {
+            ids[i] = 1000 + i;
+            minX[i] = random.nextDouble() * 100;
+            minY[i] = random.nextDouble() * 100;
+            maxX[i] = minX[i] + random.nextDouble() * 3;
+            maxY[i] = minY[i] + random.nextDouble() * 3;
+        }
+    }
+
+    @Test
+    public void emptyTreeFindsNothing() {
+        StrTree tree = new StrTree(new int[0], new double[0], new double[0], new double[0], new double[0]);
+
+        tree.query(0, 0, 100, 100, id -> {
+            throw new AssertionError("unexpected " + id);
+        });
+        assertEquals(0, tree.nearest(0, 0, 3, 1, id -> true).length);
+        assertEquals(0, tree.size());
+    }
+
+    @Test
+    public void queryMatchesBruteForce() {
+        StrTree tree = new StrTree(ids, minX, minY, maxX, maxY);
+        Random random = new Random(7);
+        for (int q = 0; q < 50; q++) {
+            double x = random.nextDouble() * 100;
+            double y = random.nextDouble() * 100;
+            double size = random.nextDouble() * 20;
+
+            List<Integer> found = new ArrayList<>();
+            tree.query(x, y, x + size, y + size, found::add);
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < COUNT; i++) {
+                if (minX[i] <= x + size && maxX[i] >= x && minY[i] <= y + size && maxY[i] >= y) {
+                    expected.add(ids[i]);
+                }
+            }
+            Collections.sort(found);
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void nearestIsOrderedAndFiltered() {
+        StrTree tree = new StrTree(ids, minX, minY, maxX, maxY);
+        double x = 50, y = 50, xScale = 0.5;
+
+        int[] nearest = tree.nearest(x, y, 5, xScale, id -> id % 2 == 0);
+
+        // Brute force over the even ids by scaled box distance
+        List<double[]> candidates = new ArrayList<>();
+        for (int i = 0; i < COUNT; i++) {
+            if (ids[i] % 2 == 0) {
+                double dx = Math.max(0, Math.max(minX[i] - x, x - maxX[i])) * xScale;
+                double dy = Math.max(0, Math.max(minY[i] - y, y - maxY[i]));
+                candidates.add(new double[]{dx * dx + dy * dy, ids[i]});
+            }
+        }
+        candidates.sort((a, b) -> Double.compare(a[0], b[0]));
+        int[] expected = new int[5];
+        for (int i = 0; i < 5; i++) {
+            expected[i] = (int) candidates.get(i)[1];
+        }
+        assertArrayEquals(expected, nearest);
+        for (int id : nearest) {
+            assertTrue(id % 2 == 0);
+        }
+        assertEquals(COUNT, tree.size());
+    }
+}
@@ -0,0 +1,143 @@
+package com.keralafarmers.agrinextai.raster;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Zonal statistics over the generated sample scene, checked against a
+ * pixel-by-pixel reference computed straight from the raw bands
+ */
+public class FieldIndexAnalyzerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RasterScene scene;
+    private File cacheRoot;
+    private IndexTileCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        scene = RasterScene.open(SampleScene.writeIfMissing(folder.newFolder("scenes")));
+        cacheRoot = folder.newFolder("cache");
+        cache = new IndexTileCache(scene, cacheRoot);
+    }
+
+    @Test
+    public void sampleFarmMatchesReference() throws IOException {
+        assertMatchesReference(SampleScene.FARM_LATITUDES, SampleScene.FARM_LONGITUDES);
+    }
+
+    @Test
+    public void polygonAcrossTilesMatchesReference() throws IOException {
+        // Triangle spanning the centre of the scene, where four tiles meet
+        assertMatchesReference(new double[] {10.7950, 10.7800, 10.7820},
+                new double[] {76.6500, 76.6520, 76.6620});
+    }
+
+    @Test
+    public void sampleFarmIsAboutOneHectare() throws IOException {
+        FieldIndexSummary summary = FieldIndexAnalyzer.analyze(scene, cache,
+                SampleScene.FARM_LATITUDES, SampleScene.FARM_LONGITUDES);
+
+        assertTrue(summary.isSample());
+        assertEquals(12000, summary.getAreaM2(), 1500);
+        double fractions = 0;
+        for (int c = FieldIndexSummary.CLASS_BARE; c <= FieldIndexSummary.CLASS_DENSE; c++) {
+            fractions += summary.getClassFraction(c);
+        }
+        assertEquals(1.0, fractions, 1e-9);
+    }
+
+    @Test
+    public void polygonOutsideTheSceneHasNoPixels() throws IOException {
+        FieldIndexSummary summary = FieldIndexAnalyzer.analyze(scene, cache,
+                new double[] {11.0, 11.0, 10.99}, new double[] {77.0, 77.01, 77.01});
+
+        assertEquals(0, summary.getPixelCount());
+        assertTrue(Double.isNaN(summary.getMeanNdvi()));
+        assertTrue(Double.isNaN(summary.getMeanNdwi()));
+    }
+
+    @Test
+    public void cachedTilesGiveTheSameResult() throws IOException {
+        FieldIndexSummary first = FieldIndexAnalyzer.analyze(scene, cache,
+                SampleScene.FARM_LATITUDES, SampleScene.FARM_LONGITUDES);
+        // A fresh cache decodes the tiles written to disk by the first pass
+        IndexTileCache reopened = new IndexTileCache(scene, cacheRoot);
+        FieldIndexSummary second = FieldIndexAnalyzer.analyze(scene, reopened,
+                SampleScene.FARM_LATITUDES, SampleScene.FARM_LONGITUDES);
+
+        assertEquals(first.getPixelCount(), second.getPixelCount());
+        assertEquals(first.getMeanNdvi(), second.getMeanNdvi(), 0);
+        assertEquals(first.getMeanNdwi(), second.getMeanNdwi(), 0);
+    }
+
+    private void assertMatchesReference(double[] latitudes, double[] longitudes) throws IOException {
+        FieldIndexSummary summary = FieldIndexAnalyzer.analyze(scene, cache, latitudes, longitudes);
+
+        int n = latitudes.length;
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = scene.columnOf(longitudes[i]);
+            ys[i] = scene.rowOf(latitudes[i]);
+        }
+        int red = scene.bandOffset(RasterScene.BAND_RED);
+        int nir = scene.bandOffset(RasterScene.BAND_NIR);
+        int swir = scene.bandOffset(RasterScene.BAND_SWIR);
+        int size = scene.getTileSize();
+        int count = 0;
+        double ndviSum = 0, ndwiSum = 0;
+        int[] classCounts = new int[4];
+        for (int row = 0; row < scene.getHeight(); row++) {
+            for (int col = 0; col < scene.getWidth(); col++) {
+                if (!contains(xs, ys, col + 0.5, row + 0.5)) {
+                    continue;
+                }
+                ShortBuffer data = scene.mapTile(col / size, row / size);
+                int i = (row % size) * size + col % size;
+                double r = data.get(red + i), n1 = data.get(nir + i), s = data.get(swir + i);
+                double ndvi = (n1 - r) / (n1 + r);
+                ndviSum += ndvi;
+                ndwiSum += (n1 - s) / (n1 + s);
+                classCounts[FieldIndexSummary.classify(ndvi)]++;
+                count++;
+            }
+        }
+
+        assertTrue(count > 0);
+        assertEquals(count, summary.getPixelCount());
+        assertEquals(count * scene.pixelAreaM2(), summary.getAreaM2(), 1e-6);
+        // Quantization steps are 0.008, so means agree to within half a step
+        assertEquals(ndviSum / count, summary.getMeanNdvi(), 0.004);
+        assertEquals(ndwiSum / count, summary.getMeanNdwi(), 0.004);
+        for (int c = 0; c < 4; c++) {
+            // Pixels within half a step of a class boundary may land on either side
+            assertEquals((double) classCounts[c] / count, summary.getClassFraction(c), 0.05);
+        }
+    }
+
+    /**
+     * Even-odd point in polygon test in pixel coordinates
+     */
+    private static boolean contains(double[] xs, double[] ys, double x, double y) {
+        boolean inside = false;
+        for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+            if ((ys[i] > y) != (ys[j] > y)
+                    && x < xs[i] + (y - ys[i]) / (ys[j] - ys[i]) * (xs[j] - xs[i])) {
+                inside = !inside;
+            }
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,122 @@
+package com.keralafarmers.agrinextai.raster;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Properties;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+/**
+ * NDVI/NDWI computation and the quantized tile encoding
+ */
+public class IndexTileTest {
+
+    private static final int TILE_SIZE = 4;
+    private static final short NO_DATA = -9999;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void computesNormalizedDifferences() throws IOException {
+        // red 1000, NIR 4000, SWIR 2000: NDVI 0.6, NDWI 1/3
+        RasterScene scene = writeScene(TILE_SIZE, (short) 1000, (short) 4000, (short) 2000);
+
+        IndexTile tile = IndexTile.compute(scene, 0, 0);
+
+        assertEquals(0.6, IndexTile.dequantize(tile.ndviAt(0, 0)), 0.004);
+        assertEquals(1 / 3.0, IndexTile.dequantize(tile.ndwiAt(3, 3)), 0.004);
+    }
+
+    @Test
+    public void noDataAndEmptyPixelsAreMasked() throws IOException {
+        RasterScene scene = writeScene(TILE_SIZE, NO_DATA, (short) 4000, (short) 0);
+
+        IndexTile tile = IndexTile.compute(scene, 0, 0);
+
+        assertEquals(IndexTile.NO_DATA, tile.ndviAt(1, 2));
+        // NIR + SWIR is still positive, so NDWI is defined: (4000 - 0) / 4000 = 1
+        assertEquals(1.0, IndexTile.dequantize(tile.ndwiAt(1, 2)), 1e-9);
+    }
+
+    @Test
+    public void pixelsPastThePaddedEdgeAreMasked() throws IOException {
+        RasterScene scene = writeScene(3, (short) 1000, (short) 4000, (short) 2000);
+
+        IndexTile tile = IndexTile.compute(scene, 0, 0);
+
+        assertEquals(IndexTile.NO_DATA, tile.ndviAt(0, 3));
+        assertEquals(IndexTile.NO_DATA, tile.ndwiAt(3, 0));
+        assertEquals(0.6, IndexTile.dequantize(tile.ndviAt(2, 2)), 0.004);
+    }
+
+    @Test
+    public void encodingRoundTrips() throws IOException {
+        RasterScene scene = writeScene(TILE_SIZE, (short) 800, (short) 3000, (short) 1500);
+        IndexTile tile = IndexTile.compute(scene, 0, 0);
+
+        IndexTile decoded = IndexTile.decode(TILE_SIZE, tile.encode());
+
+        for (int row = 0; row < TILE_SIZE; row++) {
+            for (int col = 0; col < TILE_SIZE; col++) {
+                assertEquals(tile.ndviAt(row, col), decoded.ndviAt(row, col));
+                assertEquals(tile.ndwiAt(row, col), decoded.ndwiAt(row, col));
+            }
+        }
+    }
+
+    @Test
+    public void decodingRejectsTheWrongTileSize() throws IOException {
+        RasterScene scene = writeScene(TILE_SIZE, (short) 800, (short) 3000, (short) 1500);
+        byte[] encoded = IndexTile.compute(scene, 0, 0).encode();
+
+        assertThrows(IOException.class, () -> IndexTile.decode(TILE_SIZE * 2, encoded));
+    }
+
+    @Test
+    public void quantizationCoversTheIndexRange() {
+        assertEquals(-1.0, IndexTile.dequantize(0), 1e-9);
+        assertEquals(0.0, IndexTile.dequantize(125), 1e-9);
+        assertEquals(1.0, IndexTile.dequantize(250), 1e-9);
+    }
+
+    /**
+     * One-tile scene with constant band values over a width x width area
+     */
+    private RasterScene writeScene(int width, short red, short nir, short swir) throws IOException {
+        File directory = folder.newFolder();
+        ByteBuffer buffer = ByteBuffer.allocate(TILE_SIZE * TILE_SIZE * 3 * 2).order(ByteOrder.LITTLE_ENDIAN);
+        for (short value : new short[] {red, nir, swir}) {
+            for (int i = 0; i < TILE_SIZE * TILE_SIZE; i++) {
+                buffer.putShort(value);
+            }
+        }
+        try (OutputStream out = new FileOutputStream(new File(directory, "tile_0_0.raw"))) {
+            out.write(buffer.array());
+        }
+        Properties header = new Properties();
+        header.setProperty("scene_id", "test");
+        header.setProperty("width", String.valueOf(width));
+        header.setProperty("height", String.valueOf(width));
+        header.setProperty("tile_size", String.valueOf(TILE_SIZE));
+        header.setProperty("bands", "red,nir,swir");
+        header.setProperty("north", "10.01");
+        header.setProperty("south", "10.00");
+        header.setProperty("west", "76.00");
+        header.setProperty("east", "76.01");
+        header.setProperty("no_data", String.valueOf(NO_DATA));
+        try (OutputStream out = new FileOutputStream(new File(directory, RasterScene.HEADER_FILE))) {
+            header.store(out, null);
+        }
+        return RasterScene.open(directory);
+    }
+}
@@ -0,0 +1,105 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.Weather;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Disease risk scores over rolling weather features
+ */
+public class DiseaseRiskModelTest {
+
+    private static final int TODAY = 20000;
+
+    private static final DiseaseRiskModel RICE_BLAST = DiseaseRiskModel.forDisease("rice_blast");
+    private static final DiseaseRiskModel QUICK_WILT = DiseaseRiskModel.forDisease("pepper_quick_wilt");
+
+    @Test
+    public void noWeatherMeansNoRisk() {
+        for (DiseaseRiskModel model : DiseaseRiskModel.MODELS) {
+            assertEquals(0, model.score(new WeatherFeatures()), 0);
+        }
+    }
+
+    @Test
+    public void wetMildWeekSaturatesBlast() {
+        // 18 wet hours a day, a week of rain and humid days at the optimum temperature
+        WeatherFeatures features = week(25, 95, 5);
+
+        assertEquals(1.0, RICE_BLAST.score(features), 1e-9);
+        assertTrue(RICE_BLAST.score(features) >= DiseaseRiskModel.HIGH_THRESHOLD);
+    }
+
+    @Test
+    public void temperatureScalesTheMoistureScore() {
+        // Halfway up the 18-22 C ramp
+        assertEquals(0.5, RICE_BLAST.score(week(20, 95, 5)), 1e-9);
+        // Halfway down the 28-32 C ramp
+        assertEquals(0.5, RICE_BLAST.score(week(30, 95, 5)), 1e-9);
+        // Outside the range nothing develops however wet it is
+        assertEquals(0, RICE_BLAST.score(week(33, 95, 5)), 0);
+        assertEquals(0, RICE_BLAST.score(week(18, 95, 5)), 0);
+    }
+
+    @Test
+    public void dryWeekScoresNothing() {
+        for (DiseaseRiskModel model : DiseaseRiskModel.MODELS) {
+            assertEquals(0, model.score(week(25, 60, 0)), 0);
+        }
+    }
+
+    @Test
+    public void moistureFactorsAddByWeight() {
+        // Rain every day (rain-day factor full, 0.4) with 56 mm over the week
+        // (rainfall factor 56/150 of 0.5) and no humid days
+        WeatherFeatures features = week(25, 70, 8);
+
+        assertEquals(0.4 + 0.5 * 56 / 150.0, QUICK_WILT.score(features), 1e-9);
+        assertTrue(QUICK_WILT.score(features) < DiseaseRiskModel.HIGH_THRESHOLD);
+        assertTrue(QUICK_WILT.score(features) >= DiseaseRiskModel.MODERATE_THRESHOLD);
+    }
+
+    @Test
+    public void breakingTheRainSpellLowersTheScore() {
+        WeatherFeatures features = week(25, 70, 8);
+        double spell = QUICK_WILT.score(features);
+
+        features.observe(day(TODAY + 1, 25, 70, 0));
+
+        assertTrue(QUICK_WILT.score(features) < spell);
+        assertEquals(0, features.getConsecutiveRainDays());
+    }
+
+    @Test
+    public void hostsAreMatchedByName() {
+        assertTrue(RICE_BLAST.affects("Rice (Paddy)"));
+        assertTrue(RICE_BLAST.affects("PADDY"));
+        assertTrue(QUICK_WILT.affects("Black Pepper"));
+        assertFalse(QUICK_WILT.affects("Banana"));
+        assertFalse(QUICK_WILT.affects(null));
+        assertNull(DiseaseRiskModel.forDisease("unknown"));
+    }
+
+    private static WeatherFeatures week(double temperature, int humidity, double rainfall) {
+        WeatherFeatures features = new WeatherFeatures();
+        for (int d = TODAY - WeatherFeatures.WINDOW_DAYS + 1; d <= TODAY; d++) {
+            features.observe(day(d, temperature, humidity, rainfall));
+        }
+        return features;
+    }
+
+    private static Weather day(int epochDay, double temperature, int humidity, double rainfall) {
+        Weather weather = new Weather();
+        weather.setEpochDay(epochDay);
+        weather.setMinTemperature(temperature - 4);
+        weather.setMaxTemperature(temperature + 4);
+        weather.setHumidity(humidity);
+        weather.setRainfall(rainfall);
+        return weather;
+    }
+}
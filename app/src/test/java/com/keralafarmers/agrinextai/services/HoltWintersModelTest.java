@@ -0,0 +1,120 @@
+package com.keralafarmers.agrinextai.services;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Weekly seasonal fit, same-day replacement and stored state of the price model
+ */
+public class HoltWintersModelTest {
+
+    private static final int START_DAY = 19000;
+    // Weekday offsets summing to zero: cheap early in the week, dear at the weekend
+    private static final double[] WEEKLY = {-6, -3, 0, 1, 2, 3, 3};
+
+    @Test
+    public void weeklySeasonAndTrendAreLearned() {
+        HoltWintersModel model = new HoltWintersModel();
+        int days = 52 * 7;
+        for (int day = START_DAY; day < START_DAY + days; day++) {
+            model.observe(day, truth(day));
+        }
+
+        PriceForecast forecast = model.forecast(14);
+
+        assertEquals(START_DAY + days - 1, forecast.getLastObservedDay());
+        assertEquals(0.5, model.getTrend(), 0.05);
+        for (int h = 0; h < 14; h++) {
+            int day = forecast.getLastObservedDay() + 1 + h;
+            assertEquals(truth(day), forecast.getMean(h), 1.0);
+            assertTrue(forecast.getLower(h) <= forecast.getMean(h));
+            assertTrue(forecast.getUpper(h) >= forecast.getMean(h));
+        }
+        // The weekend premium survives into the forecast, not just the trend
+        double weekendGap = truth(nextWeekday(forecast, 6)) - truth(nextWeekday(forecast, 0));
+        double forecastGap = forecast.getMean(indexOf(forecast, 6)) - forecast.getMean(indexOf(forecast, 0));
+        assertEquals(weekendGap, forecastGap, 1.5);
+    }
+
+    @Test
+    public void bandsWidenWithTheHorizon() {
+        HoltWintersModel model = new HoltWintersModel();
+        for (int day = START_DAY; day < START_DAY + 60; day++) {
+            // Alternating noise keeps the residuals non-zero
+            model.observe(day, truth(day) + (day % 2 == 0 ? 2 : -2));
+        }
+
+        PriceForecast forecast = model.forecast(30);
+
+        assertTrue(model.getResidualStdDev() > 0);
+        double firstWidth = forecast.getUpper(0) - forecast.getLower(0);
+        double lastWidth = forecast.getUpper(29) - forecast.getLower(29);
+        assertTrue(lastWidth > firstWidth);
+    }
+
+    @Test
+    public void secondPriceOnTheSameDayReplacesTheFirst() {
+        HoltWintersModel once = new HoltWintersModel();
+        HoltWintersModel twice = new HoltWintersModel();
+        for (int day = START_DAY; day < START_DAY + 30; day++) {
+            once.observe(day, truth(day));
+            twice.observe(day, truth(day) + 40);
+            twice.observe(day, truth(day));
+        }
+
+        assertEquals(once.getObservations(), twice.getObservations());
+        assertEquals(once.getLevel(), twice.getLevel(), 1e-9);
+        assertEquals(once.getTrend(), twice.getTrend(), 1e-9);
+        assertEquals(once.getResidualStdDev(), twice.getResidualStdDev(), 1e-9);
+    }
+
+    @Test
+    public void lateDaysAreIgnored() {
+        HoltWintersModel model = new HoltWintersModel();
+        model.observe(START_DAY, 100);
+        model.observe(START_DAY + 1, 101);
+        double level = model.getLevel();
+
+        model.observe(START_DAY - 5, 500);
+
+        assertEquals(2, model.getObservations());
+        assertEquals(level, model.getLevel(), 0);
+    }
+
+    @Test
+    public void stateRoundTrips() {
+        HoltWintersModel model = new HoltWintersModel();
+        for (int day = START_DAY; day < START_DAY + 45; day++) {
+            model.observe(day, truth(day));
+        }
+
+        HoltWintersModel restored = HoltWintersModel.fromBytes(model.toBytes());
+        model.observe(START_DAY + 45, 150);
+        restored.observe(START_DAY + 45, 150);
+
+        assertArrayEquals(model.toBytes(), restored.toBytes());
+        assertEquals(0, HoltWintersModel.fromBytes(new byte[3]).getObservations());
+        assertNull(new HoltWintersModel().forecast(7));
+    }
+
+    private static double truth(int day) {
+        return 100 + 0.5 * (day - START_DAY) + WEEKLY[Math.floorMod(day, 7)];
+    }
+
+    private static int indexOf(PriceForecast forecast, int slot) {
+        for (int h = 0; h < forecast.getHorizon(); h++) {
+            if (Math.floorMod(forecast.getLastObservedDay() + 1 + h, 7) == slot) {
+                return h;
+            }
+        }
+        throw new AssertionError("No day in slot " + slot);
+    }
+
+    private static int nextWeekday(PriceForecast forecast, int slot) {
+        return forecast.getLastObservedDay() + 1 + indexOf(forecast, slot);
+    }
+}
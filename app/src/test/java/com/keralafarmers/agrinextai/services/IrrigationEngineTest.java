@@ -0,0 +1,141 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.Weather;
+import com.keralafarmers.agrinextai.utils.EpochDay;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Reference ET0 and the root zone water balance pass
+ */
+public class IrrigationEngineTest {
+
+    private static final int TODAY = 20000;
+    private static final CropWaterProfile COCONUT = CropWaterProfile.forCrop("Coconut");
+
+    @Test
+    public void simulatedDaysAreLeftOut() {
+        List<Weather> window = new ArrayList<>();
+        window.add(day(TODAY - 1, false));
+        window.add(day(TODAY, true));
+        window.add(day(TODAY + 1, false));
+
+        IrrigationEngine.WeatherArrays weather = IrrigationEngine.prepare(window, 10.5);
+
+        assertEquals(2, weather.size);
+        assertArrayEquals(new int[]{TODAY - 1, TODAY + 1}, weather.days);
+        assertTrue(weather.et0[0] > 0);
+    }
+
+    @Test
+    public void hargreavesIsUsedWithoutWind() {
+        Weather calm = day(TODAY, false);
+        calm.setWindSpeed(0);
+        List<Weather> window = new ArrayList<>();
+        window.add(calm);
+
+        IrrigationEngine.WeatherArrays weather = IrrigationEngine.prepare(window, 10.5);
+
+        double ra = IrrigationEngine.extraterrestrialRadiation(10.5, dayOfYear(weather));
+        assertEquals(IrrigationEngine.hargreaves(24, 32, ra), weather.et0[0], 1e-9);
+    }
+
+    @Test
+    public void dryDaysDepleteUntilIrrigationIsDue() {
+        IrrigationEngine.WeatherArrays weather = uniform(TODAY - 3, 10, 5, 0);
+        double taw = 100;
+        double[] out = new double[5];
+
+        IrrigationEngine.runBalance(weather, COCONUT, 0, taw, TODAY - 4, 0, new double[10], TODAY, out);
+
+        // Three past days of 5 mm ETc (coconut Kc 1.0)
+        assertEquals(15, out[0], 1e-9);
+        assertEquals(5, out[1], 1e-9);
+        assertEquals(5, out[2], 1e-9);
+        // RAW is 65 mm, passed only after 14 dry days, beyond the window
+        assertEquals(-1, out[3], 0);
+
+        IrrigationEngine.runBalance(weather, COCONUT, 0, taw, TODAY - 4, 50, new double[10], TODAY, out);
+        // 50 + 15 reaches RAW by yesterday and passes it today at 70 mm
+        assertEquals(TODAY, out[3], 0);
+        assertEquals(70, out[4], 1e-9);
+    }
+
+    @Test
+    public void confirmedIrrigationRefillsTheRootZone() {
+        IrrigationEngine.WeatherArrays weather = uniform(TODAY - 3, 10, 5, 0);
+        double[] applied = new double[10];
+        applied[3] = 70; // today
+        double[] out = new double[5];
+
+        IrrigationEngine.runBalance(weather, COCONUT, 0, 100, TODAY - 4, 50, applied, TODAY, out);
+
+        // Today is no longer due, and depletion restarts from field capacity
+        assertEquals(-1, out[3], 0);
+    }
+
+    @Test
+    public void depletionIsClampedToTheRootZone() {
+        IrrigationEngine.WeatherArrays weather = uniform(TODAY - 3, 3, 5, 50);
+        double[] out = new double[5];
+
+        // Heavy rain cannot take depletion below field capacity
+        IrrigationEngine.runBalance(weather, COCONUT, 0, 100, TODAY - 4, 20, new double[3], TODAY, out);
+        assertEquals(0, out[0], 0);
+
+        // A stored depletion beyond TAW is capped before the pass
+        weather = uniform(TODAY, 1, 5, 0);
+        IrrigationEngine.runBalance(weather, COCONUT, 0, 100, TODAY - 1, 500, new double[1], TODAY, out);
+        assertEquals(100, out[0], 0);
+        assertEquals(100, out[4], 1e-9);
+    }
+
+    @Test
+    public void storedDaysAreNotCountedTwice() {
+        IrrigationEngine.WeatherArrays weather = uniform(TODAY - 3, 4, 5, 0);
+        double[] out = new double[5];
+
+        // Balance already advanced through yesterday: only today is projected
+        IrrigationEngine.runBalance(weather, COCONUT, 0, 100, TODAY - 1, 10, new double[4], TODAY, out);
+
+        assertEquals(10, out[0], 1e-9);
+    }
+
+    private static IrrigationEngine.WeatherArrays uniform(int firstDay, int size, double et0, double rain) {
+        int[] days = new int[size];
+        double[] rainfall = new double[size];
+        double[] et0s = new double[size];
+        for (int i = 0; i < size; i++) {
+            days[i] = firstDay + i;
+            rainfall[i] = rain;
+            et0s[i] = et0;
+        }
+        return new IrrigationEngine.WeatherArrays(days, rainfall, et0s);
+    }
+
+    private static Weather day(int epochDay, boolean simulated) {
+        Weather weather = new Weather();
+        weather.setEpochDay(epochDay);
+        weather.setMinTemperature(24);
+        weather.setMaxTemperature(32);
+        weather.setHumidity(80);
+        weather.setWindSpeed(10);
+        weather.setSimulated(simulated);
+        return weather;
+    }
+
+    private static int dayOfYear(IrrigationEngine.WeatherArrays weather) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.setTimeInMillis(EpochDay.toUtcMillis(weather.days[0]));
+        return calendar.get(Calendar.DAY_OF_YEAR);
+    }
+}
@@ -0,0 +1,168 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Facet queries, sort orders and ticker-derived copies of the price snapshot
+ */
+public class MarketPriceSnapshotTest {
+
+    @Test
+    public void facetsAreOredWithinAndAndedAcross() {
+        MarketPriceSnapshot snapshot = MarketPriceSnapshot.build(Arrays.asList(
+                price("Pepper", "Kochi", "Ernakulam", "A", 500, "UP"),
+                price("Pepper", "Kumily", "Idukki", "A", 480, "DOWN"),
+                price("Pepper", "Thrissur", "Thrissur", "B", 450, "UP"),
+                price("Coconut", "Kochi", "Ernakulam", "A", 30, "STABLE")));
+
+        MarketPriceSnapshot.Filter filter = new MarketPriceSnapshot.Filter()
+                .crops("Pepper")
+                .districts("Ernakulam", "Idukki");
+
+        assertEquals(Arrays.asList("Kochi", "Kumily"), markets(snapshot.query(filter)));
+        assertEquals(2, snapshot.count(filter));
+        assertEquals(490, snapshot.averagePrice(filter), 1e-9);
+        assertEquals(4, snapshot.count(null));
+    }
+
+    @Test
+    public void trendsMatchWhateverTheCaseAndDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            MarketPriceSnapshot snapshot = MarketPriceSnapshot.build(Arrays.asList(
+                    price("Pepper", "Kochi", "Ernakulam", "A", 500, "rising"),
+                    price("Ginger", "Kochi", "Ernakulam", "A", 90, "down")));
+
+            // A dotted capital I under the Turkish locale would miss "RISING"
+            assertEquals(1, snapshot.count(new MarketPriceSnapshot.Filter().trends("RISING")));
+            assertEquals(1, snapshot.count(new MarketPriceSnapshot.Filter().trends("Down")));
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    @Test
+    public void sortOrdersAreStable() {
+        MarketPriceSnapshot snapshot = MarketPriceSnapshot.build(Arrays.asList(
+                price("Ginger", "A", "Ernakulam", "A", 90, "UP"),
+                price("banana", "B", "Ernakulam", "A", 40, "UP"),
+                price("Cardamom", "C", "Ernakulam", "A", 90, "UP"),
+                price("Areca", "D", "Ernakulam", "A", 300, "UP")));
+
+        assertEquals(Arrays.asList("D", "B", "C", "A"),
+                markets(snapshot.query(new MarketPriceSnapshot.Filter())));
+        assertEquals(Arrays.asList("B", "A", "C", "D"),
+                markets(snapshot.query(new MarketPriceSnapshot.Filter().sortBy(MarketPriceSnapshot.SORT_PRICE_ASC))));
+        assertEquals(Arrays.asList("D", "A", "C", "B"),
+                markets(snapshot.query(new MarketPriceSnapshot.Filter().sortBy(MarketPriceSnapshot.SORT_PRICE_DESC))));
+    }
+
+    @Test
+    public void tickedCopyRepairsOrdersAndTrends() {
+        Random random = new Random(11);
+        List<MarketPrice> prices = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            prices.add(price("Crop" + i, "M", "Ernakulam", "A", 1 + random.nextInt(100),
+                    random.nextBoolean() ? "UP" : "DOWN"));
+        }
+        MarketPriceSnapshot snapshot = MarketPriceSnapshot.build(prices);
+
+        for (int round = 0; round < 40; round++) {
+            List<MarketPrice> ticked = new ArrayList<>();
+            for (int k = 0; k < 6; k++) {
+                MarketPrice row = snapshot.getRow("Crop" + random.nextInt(300) + "|M|Ernakulam|A");
+                MarketPrice tick = new MarketPrice();
+                tick.setPricePerKg(1 + random.nextInt(100));
+                ticked.add(row.withTick(tick));
+            }
+            MarketPriceSnapshot updated = snapshot.withUpdatedRows(ticked);
+
+            assertSorted(updated.query(new MarketPriceSnapshot.Filter()
+                    .sortBy(MarketPriceSnapshot.SORT_PRICE_ASC)), false);
+            assertSorted(updated.query(new MarketPriceSnapshot.Filter()
+                    .sortBy(MarketPriceSnapshot.SORT_CHANGE_DESC)), true);
+            int up = 0;
+            for (MarketPrice price : updated.query(null)) {
+                if ("UP".equals(price.getTrend())) {
+                    up++;
+                }
+            }
+            assertEquals(up, updated.count(new MarketPriceSnapshot.Filter().trends("UP")));
+            snapshot = updated;
+        }
+    }
+
+    @Test
+    public void tickedCopyLeavesTheBaseUnchanged() {
+        MarketPriceSnapshot base = MarketPriceSnapshot.build(Collections.singletonList(
+                price("Pepper", "Kochi", "Ernakulam", "A", 500, "STABLE")));
+        MarketPrice row = base.getRow("Pepper|Kochi|Ernakulam|A");
+        MarketPrice tick = new MarketPrice();
+        tick.setPricePerKg(600);
+
+        MarketPriceSnapshot updated = base.withUpdatedRows(Collections.singletonList(row.withTick(tick)));
+
+        assertEquals(500, base.getRow(row.getRowKey()).getPricePerKg(), 0);
+        assertEquals(1, base.count(new MarketPriceSnapshot.Filter().trends("STABLE")));
+        assertEquals(600, updated.getRow(row.getRowKey()).getPricePerKg(), 0);
+        assertEquals(1, updated.count(new MarketPriceSnapshot.Filter().trends("UP")));
+    }
+
+    @Test
+    public void marketsAreRankedByNetPrice() {
+        MarketPriceSnapshot snapshot = MarketPriceSnapshot.build(Arrays.asList(
+                price("Pepper", "Kochi", "Ernakulam", "A", 500, "UP"),
+                price("Pepper", "Kasaragod", "Kasaragod", "A", 505, "UP"),
+                price("Pepper", "Nowhere", "Atlantis", "A", 900, "UP")));
+
+        List<MarketOption> ranked = snapshot.rankMarkets("Pepper", "Ernakulam", 5);
+
+        // The far market pays a little more but loses it to freight; unknown districts are skipped
+        assertEquals(2, ranked.size());
+        assertEquals("Kochi", ranked.get(0).getMarketPrice().getMarketName());
+        assertTrue(ranked.get(0).getNetPricePerKg() > ranked.get(1).getNetPricePerKg());
+    }
+
+    private static void assertSorted(List<MarketPrice> prices, boolean changeDescending) {
+        for (int i = 1; i < prices.size(); i++) {
+            if (changeDescending) {
+                assertTrue(prices.get(i - 1).getChangePercentage() >= prices.get(i).getChangePercentage());
+            } else {
+                assertTrue(prices.get(i - 1).getPricePerKg() <= prices.get(i).getPricePerKg());
+            }
+        }
+    }
+
+    private static List<String> markets(List<MarketPrice> prices) {
+        List<String> names = new ArrayList<>();
+        for (MarketPrice price : prices) {
+            names.add(price.getMarketName());
+        }
+        return names;
+    }
+
+    private static MarketPrice price(String crop, String market, String district, String grade,
+                                     double pricePerKg, String trend) {
+        MarketPrice price = new MarketPrice();
+        price.setCropName(crop);
+        price.setMarketName(market);
+        price.setDistrict(district);
+        price.setQualityGrade(grade);
+        price.setPricePerKg(pricePerKg);
+        price.setTrend(trend);
+        return price;
+    }
+}
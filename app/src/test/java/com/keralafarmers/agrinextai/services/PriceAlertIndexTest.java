@@ -0,0 +1,101 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.MarketPrice;
+import com.keralafarmers.agrinextai.models.PriceAlertRule;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Trigger conditions and bucket lookups of the alert rule index
+ */
+public class PriceAlertIndexTest {
+
+    @Test
+    public void thresholdsAreStrict() {
+        PriceAlertRule above = rule("Pepper", null, PriceAlertRule.ABOVE, 500);
+        PriceAlertRule below = rule("Pepper", null, PriceAlertRule.BELOW, 400);
+        PriceAlertRule rise = rule("Pepper", null, PriceAlertRule.RISE_PERCENT, 5);
+        PriceAlertRule drop = rule("Pepper", null, PriceAlertRule.DROP_PERCENT, 5);
+        PriceAlertIndex index = PriceAlertIndex.build(Arrays.asList(above, below, rise, drop));
+
+        // Exactly on every threshold: nothing fires
+        assertTrue(match(index, price("Pepper", "Idukki", 500, 5)).isEmpty());
+        assertTrue(match(index, price("Pepper", "Idukki", 400, -5)).isEmpty());
+
+        assertEquals(Arrays.asList(above, rise), match(index, price("Pepper", "Idukki", 500.5, 5.5)));
+        assertEquals(Arrays.asList(below, drop), match(index, price("Pepper", "Idukki", 399.5, -5.5)));
+    }
+
+    @Test
+    public void everyCrossedThresholdMatches() {
+        List<PriceAlertRule> rules = new ArrayList<>();
+        for (int threshold = 100; threshold <= 1000; threshold += 100) {
+            rules.add(rule("Cardamom", null, PriceAlertRule.ABOVE, threshold));
+        }
+        Collections.shuffle(rules);
+        PriceAlertIndex index = PriceAlertIndex.build(rules);
+
+        assertEquals(4, match(index, price("Cardamom", "Idukki", 450, 0)).size());
+        assertEquals(10, match(index, price("Cardamom", "Idukki", 1001, 0)).size());
+        assertTrue(match(index, price("Cardamom", "Idukki", 100, 0)).isEmpty());
+    }
+
+    @Test
+    public void districtRulesOnlyMatchTheirDistrict() {
+        PriceAlertRule anywhere = rule("Pepper", null, PriceAlertRule.ABOVE, 450);
+        PriceAlertRule idukki = rule("Pepper", "Idukki", PriceAlertRule.ABOVE, 450);
+        PriceAlertIndex index = PriceAlertIndex.build(Arrays.asList(anywhere, idukki));
+
+        assertEquals(Arrays.asList(idukki, anywhere), match(index, price("Pepper", "Idukki", 480, 0)));
+        assertEquals(Collections.singletonList(anywhere), match(index, price("Pepper", "Wayanad", 480, 0)));
+        assertEquals(Collections.singletonList(anywhere), match(index, price("Pepper", null, 480, 0)));
+        assertTrue(match(index, price("Ginger", "Idukki", 480, 0)).isEmpty());
+    }
+
+    @Test
+    public void namesIgnoreCaseAndSurroundingSpaces() {
+        PriceAlertRule rule = rule(" pepper", "IDUKKI ", PriceAlertRule.BELOW, 400);
+        PriceAlertIndex index = PriceAlertIndex.build(Collections.singletonList(rule));
+
+        assertEquals(Collections.singletonList(rule), match(index, price("Pepper", "Idukki", 390, 0)));
+    }
+
+    @Test
+    public void incompleteRulesAreSkipped() {
+        PriceAlertIndex index = PriceAlertIndex.build(Arrays.asList(
+                rule(null, null, PriceAlertRule.ABOVE, 1),
+                rule("Pepper", null, null, 1),
+                rule("Pepper", null, PriceAlertRule.ABOVE, 1)));
+
+        assertEquals(1, index.size());
+        assertEquals(0, PriceAlertIndex.build(null).size());
+        assertTrue(match(index, price(null, "Idukki", 500, 0)).isEmpty());
+    }
+
+    private static List<PriceAlertRule> match(PriceAlertIndex index, MarketPrice price) {
+        List<PriceAlertRule> out = new ArrayList<>();
+        index.match(price, out);
+        return out;
+    }
+
+    private static PriceAlertRule rule(String crop, String district, String condition, double threshold) {
+        return new PriceAlertRule(1, crop, district, condition, threshold);
+    }
+
+    private static MarketPrice price(String crop, String district, double pricePerKg, double changePercentage) {
+        MarketPrice price = new MarketPrice();
+        price.setCropName(crop);
+        price.setDistrict(district);
+        price.setPricePerKg(pricePerKg);
+        price.setChangePercentage(changePercentage);
+        return price;
+    }
+}
@@ -0,0 +1,237 @@
+package com.keralafarmers.agrinextai.services;
+
+import com.keralafarmers.agrinextai.models.GovernmentScheme;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Bitset eligibility matching and patched copies of the scheme index
+ */
+public class SchemeEligibilityIndexTest {
+
+    private static final String[] CROPS = {"Rice", "Coconut", "Pepper", "Banana", "Rubber"};
+    private static final String[] DISTRICTS = {"Palakkad", "Idukki", "Wayanad", "Thrissur"};
+    private static final double[] LIMITS = {0, 0, 1, 2, 2.5, 5};
+
+    @Test
+    public void sizeLimitsAdmitFarmsUpToThem() {
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(Arrays.asList(
+                scheme(1, 2, null, null, false, GovernmentScheme.TENANCY_ANY),
+                scheme(2, 5, null, null, false, GovernmentScheme.TENANCY_ANY),
+                scheme(3, 0, null, null, false, GovernmentScheme.TENANCY_ANY)));
+
+        assertEquals(ids(1, 2, 3), matchIds(index, profile(1.5, "Rice", null)));
+        assertEquals(ids(1, 2, 3), matchIds(index, profile(2, "Rice", null)));
+        assertEquals(ids(2, 3), matchIds(index, profile(2.01, "Rice", null)));
+        assertEquals(ids(3), matchIds(index, profile(6, "Rice", null)));
+        // Unknown size is not held against the farmer
+        assertEquals(ids(1, 2, 3), matchIds(index, profile(0, "Rice", null)));
+    }
+
+    @Test
+    public void cropAndDistrictListsRestrictOnlyWhenSet() {
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(Arrays.asList(
+                scheme(1, 0, "Rice, Paddy", null, false, GovernmentScheme.TENANCY_ANY),
+                scheme(2, 0, null, "idukki,WAYANAD", false, GovernmentScheme.TENANCY_ANY),
+                scheme(3, 0, " ", "", false, GovernmentScheme.TENANCY_ANY)));
+
+        assertEquals(ids(1, 2, 3), matchIds(index, profile(1, " rice", "Idukki ")));
+        assertEquals(ids(3), matchIds(index, profile(1, "Pepper", "Palakkad")));
+        assertEquals(ids(3), matchIds(index, profile(1, "Pepper", null)));
+        assertEquals(ids(1, 3), matchIds(index, profile(1, "PADDY", null)));
+    }
+
+    @Test
+    public void organicTenancyAndActiveFlagsFilter() {
+        GovernmentScheme inactive = scheme(4, 0, null, null, false, GovernmentScheme.TENANCY_ANY);
+        inactive.setActive(false);
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(Arrays.asList(
+                scheme(1, 0, null, null, true, GovernmentScheme.TENANCY_ANY),
+                scheme(2, 0, null, null, false, GovernmentScheme.TENANCY_OWNERS_ONLY),
+                scheme(3, 0, null, null, false, GovernmentScheme.TENANCY_TENANTS_ONLY),
+                inactive));
+
+        assertEquals(ids(2), matchIds(index, new SchemeEligibilityIndex.Profile(1,
+                Collections.singletonList("Rice"), null, false, false)));
+        assertEquals(ids(1, 3), matchIds(index, new SchemeEligibilityIndex.Profile(1,
+                Collections.singletonList("Rice"), null, true, true)));
+    }
+
+    @Test
+    public void matchesAgreeWithDirectRuleChecks() {
+        Random random = new Random(3);
+        List<GovernmentScheme> schemes = new ArrayList<>();
+        for (int id = 1; id <= 200; id++) {
+            schemes.add(randomScheme(random, id));
+        }
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(schemes);
+
+        for (int i = 0; i < 500; i++) {
+            SchemeEligibilityIndex.Profile profile = randomProfile(random);
+            assertEquals(reference(schemes, profile), matchIds(index, profile));
+        }
+    }
+
+    @Test
+    public void patchedCopyMatchesARebuiltIndex() {
+        Random random = new Random(5);
+        Map<Integer, GovernmentScheme> catalog = new LinkedHashMap<>();
+        for (int id = 1; id <= 60; id++) {
+            catalog.put(id, randomScheme(random, id));
+        }
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(new ArrayList<>(catalog.values()));
+        int nextId = 61;
+
+        for (int round = 0; round < 30; round++) {
+            List<GovernmentScheme> upserts = new ArrayList<>();
+            for (int k = 0; k < 4; k++) {
+                int id = random.nextInt(4) == 0 ? nextId++ : 1 + random.nextInt(nextId - 1);
+                GovernmentScheme scheme = randomScheme(random, id);
+                if (random.nextInt(10) == 0) {
+                    scheme.setMaxFarmSizeHa(0.5 + random.nextInt(40) / 4.0); // sometimes a new limit
+                }
+                upserts.add(scheme);
+            }
+            int[] removed = {1 + random.nextInt(nextId - 1)};
+            for (GovernmentScheme scheme : upserts) {
+                catalog.put(scheme.getId(), scheme);
+            }
+            catalog.remove(removed[0]);
+            upserts.removeIf(scheme -> scheme.getId() == removed[0]);
+            SchemeEligibilityIndex before = index;
+            BitSet beforeMatch = before.match(profile(2, "Rice", "Idukki"));
+
+            index = index.withChanges(upserts, removed);
+
+            List<GovernmentScheme> current = new ArrayList<>(catalog.values());
+            for (int i = 0; i < 40; i++) {
+                SchemeEligibilityIndex.Profile profile = randomProfile(random);
+                assertEquals(reference(current, profile), matchIds(index, profile));
+            }
+            // Readers of the previous index never see the patch
+            assertEquals(beforeMatch, before.match(profile(2, "Rice", "Idukki")));
+        }
+    }
+
+    @Test
+    public void removedSchemesKeepTheirBitEmpty() {
+        SchemeEligibilityIndex index = new SchemeEligibilityIndex(Arrays.asList(
+                scheme(1, 0, null, null, false, GovernmentScheme.TENANCY_ANY),
+                scheme(2, 0, null, null, false, GovernmentScheme.TENANCY_ANY)));
+
+        SchemeEligibilityIndex patched = index.withChanges(Collections.<GovernmentScheme>emptyList(), new int[]{1, 99});
+
+        assertEquals(2, patched.size());
+        assertNull(patched.get(0));
+        assertEquals(ids(2), matchIds(patched, profile(1, "Rice", null)));
+        assertEquals(ids(1, 2), matchIds(index, profile(1, "Rice", null)));
+    }
+
+    private static List<Integer> reference(List<GovernmentScheme> schemes, SchemeEligibilityIndex.Profile profile) {
+        List<Integer> ids = new ArrayList<>();
+        for (GovernmentScheme scheme : schemes) {
+            if (scheme.isActive()
+                    && (profile.farmSizeHa <= 0 || scheme.getMaxFarmSizeHa() <= 0
+                        || profile.farmSizeHa <= scheme.getMaxFarmSizeHa())
+                    && (isUnrestricted(scheme.getEligibleCrops()) || anyListed(scheme.getEligibleCrops(), profile.crops))
+                    && (isUnrestricted(scheme.getEligibleDistricts()) || (profile.district != null
+                        && anyListed(scheme.getEligibleDistricts(), Collections.singletonList(profile.district))))
+                    && (profile.isOrganic || !scheme.isOrganicRequired())
+                    && scheme.getTenancy() != (profile.isTenant
+                        ? GovernmentScheme.TENANCY_OWNERS_ONLY : GovernmentScheme.TENANCY_TENANTS_ONLY)) {
+                ids.add(scheme.getId());
+            }
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static boolean isUnrestricted(String values) {
+        return values == null || values.trim().isEmpty();
+    }
+
+    private static boolean anyListed(String values, Iterable<String> wanted) {
+        for (String value : values.split(",")) {
+            for (String want : wanted) {
+                if (value.trim().toLowerCase(Locale.ROOT).equals(want.trim().toLowerCase(Locale.ROOT))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<Integer> matchIds(SchemeEligibilityIndex index, SchemeEligibilityIndex.Profile profile) {
+        List<Integer> ids = new ArrayList<>();
+        BitSet bits = index.match(profile);
+        for (int bit = bits.nextSetBit(0); bit >= 0; bit = bits.nextSetBit(bit + 1)) {
+            ids.add(index.get(bit).getId());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private static List<Integer> ids(Integer... ids) {
+        return Arrays.asList(ids);
+    }
+
+    private static SchemeEligibilityIndex.Profile profile(double farmSizeHa, String crop, String district) {
+        return new SchemeEligibilityIndex.Profile(farmSizeHa, Collections.singletonList(crop), district, false, false);
+    }
+
+    private static SchemeEligibilityIndex.Profile randomProfile(Random random) {
+        List<String> crops = new ArrayList<>();
+        for (String crop : CROPS) {
+            if (random.nextInt(3) == 0) {
+                crops.add(crop);
+            }
+        }
+        return new SchemeEligibilityIndex.Profile(random.nextInt(30) / 4.0, crops,
+                random.nextInt(5) == 0 ? null : DISTRICTS[random.nextInt(DISTRICTS.length)],
+                random.nextBoolean(), random.nextInt(4) == 0);
+    }
+
+    private static GovernmentScheme randomScheme(Random random, int id) {
+        GovernmentScheme scheme = scheme(id, LIMITS[random.nextInt(LIMITS.length)],
+                random.nextBoolean() ? null : pick(random, CROPS),
+                random.nextBoolean() ? null : pick(random, DISTRICTS),
+                random.nextInt(5) == 0, random.nextInt(3));
+        scheme.setActive(random.nextInt(8) != 0);
+        return scheme;
+    }
+
+    private static String pick(Random random, String[] values) {
+        StringBuilder list = new StringBuilder();
+        for (String value : values) {
+            if (random.nextInt(3) == 0) {
+                list.append(list.length() > 0 ? "," : "").append(value);
+            }
+        }
+        return list.length() > 0 ? list.toString() : values[random.nextInt(values.length)];
+    }
+
+    private static GovernmentScheme scheme(int id, double maxFarmSizeHa, String crops, String districts,
+                                           boolean organic, int tenancy) {
+        GovernmentScheme scheme = new GovernmentScheme("Scheme " + id, "", "", "");
+        scheme.setId(id);
+        scheme.setMaxFarmSizeHa(maxFarmSizeHa);
+        scheme.setEligibleCrops(crops);
+        scheme.setEligibleDistricts(districts);
+        scheme.setOrganicRequired(organic);
+        scheme.setTenancy(tenancy);
+        return scheme;
+    }
+}
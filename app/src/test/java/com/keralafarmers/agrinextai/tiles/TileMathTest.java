@@ -0,0 +1,71 @@
+package com.keralafarmers.agrinextai.tiles;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Web Mercator tile arithmetic
+ */
+public class TileMathTest {
+
+    private static final double KOCHI_LAT = 9.9312;
+    private static final double KOCHI_LON = 76.2673;
+
+    @Test
+    public void worldCornersMapToTileEdges() {
+        assertEquals(0, TileMath.tileX(-180, 4), 1e-9);
+        assertEquals(16, TileMath.tileX(180, 4), 1e-9);
+        assertEquals(8, TileMath.tileX(0, 4), 1e-9);
+        assertEquals(8, TileMath.tileY(0, 4), 1e-9);
+        assertEquals(0, TileMath.tileY(85.05112878, 4), 1e-6);
+        assertEquals(16, TileMath.tileY(-85.05112878, 4), 1e-6);
+    }
+
+    @Test
+    public void polesAreClamped() {
+        assertEquals(TileMath.tileY(85.05112878, 10), TileMath.tileY(90, 10), 1e-9);
+        assertEquals(TileMath.tileY(-85.05112878, 10), TileMath.tileY(-90, 10), 1e-9);
+    }
+
+    @Test
+    public void knownPositionOfKochi() {
+        // Zoom 15 position of Kochi from the slippy map formula, x = 23326.019, y = 15475.479
+        assertEquals(23326.019, TileMath.tileX(KOCHI_LON, 15), 1e-3);
+        assertEquals(15475.479, TileMath.tileY(KOCHI_LAT, 15), 1e-3);
+    }
+
+    @Test
+    public void inverseFunctionsRoundTrip() {
+        for (int zoom : new int[] {0, 8, 18}) {
+            assertEquals(KOCHI_LON, TileMath.longitude(TileMath.tileX(KOCHI_LON, zoom), zoom), 1e-9);
+            assertEquals(KOCHI_LAT, TileMath.latitude(TileMath.tileY(KOCHI_LAT, zoom), zoom), 1e-9);
+        }
+    }
+
+    @Test
+    public void metresPerPixelHalvesWithEachZoom() {
+        assertEquals(156543.03392, TileMath.metresPerPixel(0, 0), 1e-6);
+        double z10 = TileMath.metresPerPixel(KOCHI_LAT, 10);
+        assertEquals(z10 / 2, TileMath.metresPerPixel(KOCHI_LAT, 11), 1e-9);
+    }
+
+    @Test
+    public void keysAreDistinctPerAddress() {
+        long key = TileMath.key(18, 187000, 123000);
+        assertNotEquals(key, TileMath.key(17, 187000, 123000));
+        assertNotEquals(key, TileMath.key(18, 123000, 187000));
+        assertEquals(18, key >>> 58);
+        assertEquals(187000, (key >>> 29) & 0x1FFFFFFF);
+        assertEquals(123000, key & 0x1FFFFFFF);
+    }
+
+    @Test
+    public void countTilesSumsEveryZoom() {
+        // A single point covers exactly one tile per zoom
+        assertEquals(6, TileMath.countTiles(KOCHI_LAT, KOCHI_LON, KOCHI_LAT, KOCHI_LON, 13, 18));
+        // The whole world at zoom 0..2 is 1 + 4 + 16 tiles
+        assertEquals(21, TileMath.countTiles(-85, -179.999, 85, 179.999, 0, 2));
+    }
+}
@@ -0,0 +1,101 @@
+package com.keralafarmers.agrinextai.utils;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Round trips through the Gorilla time-series block codec
+ */
+public class GorillaCodecTest {
+
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    public void dailySeriesRoundTrips() {
+        long[] timestamps = new long[365];
+        double[] values = new double[365];
+        Random random = new Random(7);
+        double price = 42.5;
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = START + i * DAY;
+            price = Math.max(1, price + (random.nextInt(5) - 2) * 0.25);
+            values[i] = price;
+        }
+
+        assertRoundTrip(timestamps, values);
+    }
+
+    @Test
+    public void irregularGapsAndExtremeValuesRoundTrip() {
+        long[] timestamps = {
+                START,
+                START + 1000,               // one second
+                START + 1000 + 90_000,      // 90 s: 9-bit delta of delta
+                START + 1000 + 90_000 + DAY, // a day: 64-bit delta of delta
+                START + 1000 + 90_000 + DAY, // repeated time
+                START + 40 * DAY
+        };
+        double[] values = {0.0, -0.0, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, -12345.678};
+
+        assertRoundTrip(timestamps, values);
+    }
+
+    @Test
+    public void unchangedPointsCostAboutTwoBits() {
+        GorillaCodec.Encoder encoder = new GorillaCodec.Encoder();
+        for (int i = 0; i < 800; i++) {
+            encoder.add(START + i * DAY, 30.0);
+        }
+
+        // 20 header bytes, the second point's delta, then one bit each for time and value
+        assertTrue(encoder.toBytes().length < 20 + 16 + 800 * 2 / 8 + 2);
+    }
+
+    @Test
+    public void millisecondsAreDropped() {
+        GorillaCodec.Encoder encoder = new GorillaCodec.Encoder();
+        encoder.add(START + 999, 1.0);
+
+        GorillaCodec.Decoder decoder = new GorillaCodec.Decoder(encoder.toBytes());
+
+        assertTrue(decoder.next());
+        assertEquals(START, decoder.getTimestamp());
+    }
+
+    @Test
+    public void outOfOrderPointsAreRejected() {
+        GorillaCodec.Encoder encoder = new GorillaCodec.Encoder();
+        encoder.add(START, 1.0);
+
+        assertThrows(IllegalArgumentException.class, () -> encoder.add(START - DAY, 2.0));
+    }
+
+    @Test
+    public void emptyAndMissingBlocksHaveNoPoints() {
+        assertFalse(new GorillaCodec.Decoder(new GorillaCodec.Encoder().toBytes()).next());
+        assertFalse(new GorillaCodec.Decoder(null).next());
+    }
+
+    private static void assertRoundTrip(long[] timestamps, double[] values) {
+        GorillaCodec.Encoder encoder = new GorillaCodec.Encoder();
+        for (int i = 0; i < timestamps.length; i++) {
+            encoder.add(timestamps[i], values[i]);
+        }
+        GorillaCodec.Decoder decoder = new GorillaCodec.Decoder(encoder.toBytes());
+
+        assertEquals(timestamps.length, decoder.getCount());
+        for (int i = 0; i < timestamps.length; i++) {
+            assertTrue(decoder.next());
+            assertEquals(timestamps[i], decoder.getTimestamp());
+            assertEquals(Double.doubleToRawLongBits(values[i]), Double.doubleToRawLongBits(decoder.getValue()));
+        }
+        assertFalse(decoder.next());
+    }
+}
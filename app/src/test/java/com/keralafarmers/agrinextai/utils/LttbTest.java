@@ -0,0 +1,88 @@
+package com.keralafarmers.agrinextai.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling
+ */
+public class LttbTest {
+
+    @Test
+    public void shortSeriesIsCopied() {
+        float[] xs = {0, 1, 2, 3};
+        float[] ys = {5, 6, 7, 8};
+        float[] outXs = new float[4];
+        float[] outYs = new float[4];
+
+        int kept = Lttb.downsample(xs, ys, 4, 10, outXs, outYs);
+
+        assertEquals(4, kept);
+        assertArrayEquals(xs, outXs, 0);
+        assertArrayEquals(ys, outYs, 0);
+    }
+
+    @Test
+    public void endpointsAreKeptAndThresholdIsMet() {
+        int count = 1000;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i;
+            ys[i] = (float) Math.sin(i / 20.0);
+        }
+        float[] outXs = new float[50];
+        float[] outYs = new float[50];
+
+        int kept = Lttb.downsample(xs, ys, count, 50, outXs, outYs);
+
+        assertEquals(50, kept);
+        assertEquals(0, outXs[0], 0);
+        assertEquals(count - 1, outXs[kept - 1], 0);
+        for (int i = 1; i < kept; i++) {
+            assertTrue(outXs[i] > outXs[i - 1]);
+        }
+    }
+
+    @Test
+    public void spikesSurvive() {
+        int count = 500;
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = i;
+            ys[i] = 40;
+        }
+        ys[137] = 95; // one day's price spike
+        ys[301] = 5;  // and a dip
+        float[] outXs = new float[20];
+        float[] outYs = new float[20];
+
+        int kept = Lttb.downsample(xs, ys, count, 20, outXs, outYs);
+
+        boolean spike = false;
+        boolean dip = false;
+        for (int i = 0; i < kept; i++) {
+            spike |= outXs[i] == 137 && outYs[i] == 95;
+            dip |= outXs[i] == 301 && outYs[i] == 5;
+        }
+        assertTrue(spike);
+        assertTrue(dip);
+    }
+
+    @Test
+    public void thresholdBelowThreeIsRaised() {
+        float[] xs = {0, 1, 2, 3, 4, 5};
+        float[] ys = {1, 9, 1, 1, 1, 1};
+        float[] outXs = new float[3];
+        float[] outYs = new float[3];
+
+        int kept = Lttb.downsample(xs, ys, 6, 1, outXs, outYs);
+
+        assertEquals(3, kept);
+        assertArrayEquals(new float[]{0, 1, 5}, outXs, 0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.keralafarmers.agrinextai.utils;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Permit spacing of the shared rate limiter
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void firstPermitIsImmediate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(1);
+
+        long start = System.nanoTime();
+        limiter.acquire();
+
+        assertTrue(System.nanoTime() - start < 200_000_000L);
+    }
+
+    @Test
+    public void permitsAreSpacedByTheInterval() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20); // 50 ms apart
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+        }
+
+        // Four waits of 50 ms after the immediate first permit
+        assertTrue(System.nanoTime() - start >= 195_000_000L);
+    }
+
+    @Test
+    public void threadsShareOneRate() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < 2; i++) {
+                        limiter.acquire();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        }
+
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Eight permits across four threads still take seven intervals
+        assertTrue(System.nanoTime() - start >= 345_000_000L);
+    }
+
+    @Test
+    public void idleTimeDoesNotBuildABurst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter(20);
+        limiter.acquire();
+        Thread.sleep(300);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire();
+        }
+
+        // Only the first permit after the pause is free
+        assertTrue(System.nanoTime() - start >= 95_000_000L);
+    }
+}